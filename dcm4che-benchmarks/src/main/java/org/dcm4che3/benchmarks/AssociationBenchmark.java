@@ -0,0 +1,174 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.benchmarks;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Association;
+import org.dcm4che3.net.Connection;
+import org.dcm4che3.net.DataWriterAdapter;
+import org.dcm4che3.net.Device;
+import org.dcm4che3.net.DimseRSP;
+import org.dcm4che3.net.Priority;
+import org.dcm4che3.net.TransferCapability;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.service.BasicCEchoSCP;
+import org.dcm4che3.net.service.BasicCStoreSCP;
+import org.dcm4che3.net.service.DicomServiceRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of DIMSE round trips over an association to an acceptor on the
+ * loopback interface, covering PDU encoding and decoding on both sides.
+ *
+ * @since Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssociationBenchmark {
+
+    private static final int PORT = 55200;
+    private static final String CUID = UID.SecondaryCaptureImageStorage;
+    private static final String IUID = "1.2.40.0.13.1.1.99.1";
+
+    @Param({ "false", "true" })
+    public boolean nonBlockingIO;
+
+    @Param({ "16384", "1048576" })
+    public int pixelDataLength;
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device acceptor;
+    private Device requestor;
+    private Association as;
+    private Attributes dataset;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        acceptor = createDevice("ACCEPTOR", PORT);
+        acceptor.listConnections().get(0).setNonBlockingIO(nonBlockingIO);
+        DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
+        serviceRegistry.addDicomService(new BasicCEchoSCP());
+        serviceRegistry.addDicomService(new BasicCStoreSCP(CUID));
+        acceptor.setDimseRQHandler(serviceRegistry);
+        ApplicationEntity acceptorAE = acceptor.getApplicationEntity("ACCEPTOR");
+        acceptorAE.addTransferCapability(new TransferCapability(null,
+                UID.Verification, TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian));
+        acceptorAE.addTransferCapability(new TransferCapability(null,
+                CUID, TransferCapability.Role.SCP, UID.ExplicitVRLittleEndian));
+        acceptor.bindConnections();
+
+        requestor = createDevice("REQUESTOR", Connection.NOT_LISTENING);
+        AAssociateRQ aarq = new AAssociateRQ();
+        aarq.addPresentationContextFor(UID.Verification, UID.ImplicitVRLittleEndian);
+        aarq.addPresentationContextFor(CUID, UID.ExplicitVRLittleEndian);
+        as = requestor.getApplicationEntity("REQUESTOR").connect(acceptorAE, aarq);
+
+        dataset = new Attributes();
+        dataset.setString(Tag.SOPClassUID, VR.UI, CUID);
+        dataset.setString(Tag.SOPInstanceUID, VR.UI, IUID);
+        dataset.setBytes(Tag.PixelData, VR.OB, new byte[pixelDataLength]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try {
+            as.release();
+            as.waitForSocketClose();
+        } finally {
+            acceptor.unbindConnections();
+            executor.shutdown();
+            scheduledExecutor.shutdown();
+        }
+    }
+
+    private Device createDevice(String aet, int port) {
+        Device device = new Device(aet);
+        ApplicationEntity ae = new ApplicationEntity(aet);
+        Connection conn = new Connection(null, "localhost", port);
+        device.addApplicationEntity(ae);
+        device.addConnection(conn);
+        ae.addConnection(conn);
+        device.setExecutor(executor);
+        device.setScheduledExecutor(scheduledExecutor);
+        return device;
+    }
+
+    @Benchmark
+    public int cecho() throws Exception {
+        DimseRSP rsp = as.cecho();
+        rsp.next();
+        return rsp.getCommand().getInt(Tag.Status, -1);
+    }
+
+    @Benchmark
+    public int cstore() throws Exception {
+        DimseRSP rsp = as.cstore(CUID, IUID, Priority.NORMAL,
+                new DataWriterAdapter(dataset), UID.ExplicitVRLittleEndian);
+        rsp.next();
+        return rsp.getCommand().getInt(Tag.Status, -1);
+    }
+}
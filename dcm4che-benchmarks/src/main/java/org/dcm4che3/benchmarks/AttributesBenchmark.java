@@ -0,0 +1,123 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.VR;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of accessing, modifying and matching {@link Attributes}.
+ *
+ * @since Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttributesBenchmark {
+
+    private Attributes dataset;
+    private Attributes studyKeys;
+    private Attributes seriesKeys;
+
+    @Setup
+    public void setup() throws IOException {
+        dataset = TestData.dataset("MR2_UNC");
+        studyKeys = new Attributes(5);
+        studyKeys.setString(Tag.PatientName, VR.PN, "*");
+        studyKeys.setString(Tag.PatientID, VR.LO, dataset.getString(Tag.PatientID, "*"));
+        studyKeys.setString(Tag.StudyDate, VR.DA, "19000101-20991231");
+        studyKeys.setNull(Tag.AccessionNumber, VR.SH);
+        studyKeys.setNull(Tag.StudyInstanceUID, VR.UI);
+        seriesKeys = new Attributes(studyKeys);
+        seriesKeys.setString(Tag.Modality, VR.CS, dataset.getString(Tag.Modality, "MR"));
+        seriesKeys.setString(Tag.SeriesInstanceUID, VR.UI,
+                dataset.getString(Tag.SeriesInstanceUID, "1.2.3"));
+    }
+
+    @Benchmark
+    public String getString() {
+        return dataset.getString(Tag.SOPInstanceUID);
+    }
+
+    @Benchmark
+    public int getInt() {
+        return dataset.getInt(Tag.Rows, 0);
+    }
+
+    @Benchmark
+    public Attributes copy() {
+        return new Attributes(dataset);
+    }
+
+    @Benchmark
+    public Attributes setString() {
+        Attributes attrs = new Attributes(studyKeys);
+        attrs.setString(Tag.StudyDescription, VR.LO, "Benchmark");
+        attrs.setString(Tag.AccessionNumber, VR.SH, "A12345");
+        attrs.setString(Tag.PatientName, VR.PN, "Doe^John");
+        return attrs;
+    }
+
+    @Benchmark
+    public boolean matchStudy() {
+        return dataset.matches(studyKeys, false, false);
+    }
+
+    @Benchmark
+    public boolean matchSeries() {
+        return dataset.matches(seriesKeys, false, false);
+    }
+}
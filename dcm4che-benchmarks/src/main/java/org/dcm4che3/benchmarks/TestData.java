@@ -0,0 +1,89 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.io.DicomInputStream;
+
+/**
+ * Access to the samples of {@code dcm4che-test-data}, which are extracted to
+ * {@code target/test-data} on build. Another location may be specified by
+ * System Property {@code dcm4che.benchmarks.test-data}.
+ *
+ * @since Oct 2026
+ */
+class TestData {
+
+    private static final File DIR = new File(
+            System.getProperty("dcm4che.benchmarks.test-data", "target/test-data"));
+
+    static File file(String name) {
+        File file = new File(DIR, name);
+        if (!file.isFile())
+            throw new IllegalStateException("Missing test data: " + file);
+        return file;
+    }
+
+    static byte[] bytes(String name) throws IOException {
+        return Files.readAllBytes(file(name).toPath());
+    }
+
+    static Attributes dataset(String name) throws IOException {
+        try (DicomInputStream in = new DicomInputStream(file(name))) {
+            return in.readDataset();
+        }
+    }
+
+    static OutputStream nullOutputStream() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+    }
+}
@@ -0,0 +1,106 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.imageio.codec.Transcoder;
+import org.dcm4che3.io.DicomInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link Transcoder}, restricted to Transfer Syntaxes supported
+ * by pure Java codecs, so results do not depend on the platform.
+ *
+ * @since Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranscoderBenchmark {
+
+    public enum Case {
+        EXPLICIT_TO_IMPLICIT("US-RGB-8-epicard", UID.ImplicitVRLittleEndian),
+        DEFLATED_TO_EXPLICIT("report_dfl", UID.ExplicitVRLittleEndian),
+        RLE_TO_EXPLICIT("YBR_FULL-RLE.dcm", UID.ExplicitVRLittleEndian);
+
+        final String file;
+        final String tsuid;
+
+        Case(String file, String tsuid) {
+            this.file = file;
+            this.tsuid = tsuid;
+        }
+    }
+
+    @Param
+    public Case testCase;
+
+    private final OutputStream out = TestData.nullOutputStream();
+
+    @Benchmark
+    public void transcode() throws IOException {
+        try (Transcoder transcoder = new Transcoder(TestData.file(testCase.file))) {
+            transcoder.setIncludeBulkData(DicomInputStream.IncludeBulkData.YES);
+            transcoder.setDestinationTransferSyntax(testCase.tsuid);
+            transcoder.transcode(new Transcoder.Handler() {
+                @Override
+                public OutputStream newOutputStream(Transcoder transcoder, Attributes dataset) {
+                    return out;
+                }
+            });
+        }
+    }
+}
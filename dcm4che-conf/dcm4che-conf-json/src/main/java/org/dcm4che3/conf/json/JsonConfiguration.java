@@ -438,6 +438,8 @@ public class JsonConfiguration {
             writer.writeNotDef("dcmTCPReceiveBufferSize",
                     conn.getReceiveBufferSize(), Connection.DEF_BUFFERSIZE);
             writer.writeNotDef("dcmTCPNoDelay", conn.isTcpNoDelay(), true);
+            writer.writeNotDef("dcmNonBlockingIO", conn.isNonBlockingIO(), false);
+            writer.writeNotDef("dcmSelectorThreads", conn.getSelectorThreads(), 1);
             writer.writeNotNullOrDef("dcmBindAddress", conn.getBindAddress(), null);
             writer.writeNotNullOrDef("dcmClientBindAddress", conn.getClientBindAddress(), null);
             writer.writeNotDef("dcmSendPDULength",
@@ -548,6 +550,12 @@ public class JsonConfiguration {
                             case "dcmTCPNoDelay":
                                 conn.setTcpNoDelay(reader.booleanValue());
                                 break;
+                            case "dcmNonBlockingIO":
+                                conn.setNonBlockingIO(reader.booleanValue());
+                                break;
+                            case "dcmSelectorThreads":
+                                conn.setSelectorThreads(reader.intValue());
+                                break;
                             case "dcmBindAddress":
                                 conn.setBindAddress(reader.stringValue());
                                 break;
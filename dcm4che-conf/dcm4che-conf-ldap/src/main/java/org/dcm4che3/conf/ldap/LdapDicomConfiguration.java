@@ -1085,6 +1085,8 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
         LdapUtils.storeNotDef(ldapObj, attrs, "dcmTCPReceiveBufferSize",
                 conn.getReceiveBufferSize(), Connection.DEF_BUFFERSIZE);
         LdapUtils.storeNotDef(ldapObj, attrs, "dcmTCPNoDelay", conn.isTcpNoDelay(), true);
+        LdapUtils.storeNotDef(ldapObj, attrs, "dcmNonBlockingIO", conn.isNonBlockingIO(), false);
+        LdapUtils.storeNotDef(ldapObj, attrs, "dcmSelectorThreads", conn.getSelectorThreads(), 1);
         LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmBindAddress", conn.getBindAddress(), null);
         LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmClientBindAddress", conn.getClientBindAddress(), null);
         LdapUtils.storeNotDef(ldapObj, attrs, "dcmSendPDULength",
@@ -1566,6 +1568,8 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
         conn.setReceiveBufferSize(LdapUtils.intValue(attrs.get("dcmTCPReceiveBufferSize"),
                 Connection.DEF_BUFFERSIZE));
         conn.setTcpNoDelay(LdapUtils.booleanValue(attrs.get("dcmTCPNoDelay"), true));
+        conn.setNonBlockingIO(LdapUtils.booleanValue(attrs.get("dcmNonBlockingIO"), false));
+        conn.setSelectorThreads(LdapUtils.intValue(attrs.get("dcmSelectorThreads"), 1));
         conn.setBindAddress(LdapUtils.stringValue(attrs.get("dcmBindAddress"), null));
         conn.setClientBindAddress(LdapUtils.stringValue(attrs.get("dcmClientBindAddress"), null));
         conn.setTlsNeedClientAuth(LdapUtils.booleanValue(attrs.get("dcmTLSNeedClientAuth"), true));
@@ -1943,6 +1947,14 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
                 a.isTcpNoDelay(),
                 b.isTcpNoDelay(),
                 true);
+        LdapUtils.storeDiff(ldapObj, mods, "dcmNonBlockingIO",
+                a.isNonBlockingIO(),
+                b.isNonBlockingIO(),
+                false);
+        LdapUtils.storeDiff(ldapObj, mods, "dcmSelectorThreads",
+                a.getSelectorThreads(),
+                b.getSelectorThreads(),
+                1);
         LdapUtils.storeDiffObject(ldapObj, mods, "dcmBindAddress",
                 a.getBindAddress(),
                 b.getBindAddress(), null);
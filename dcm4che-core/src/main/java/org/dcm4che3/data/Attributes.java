@@ -43,7 +43,6 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.*;
-import java.util.regex.Pattern;
 
 import org.dcm4che3.data.IOD.DataElement;
 import org.dcm4che3.data.IOD.DataElementType;
@@ -114,6 +113,7 @@ public class Attributes implements Serializable {
     private Map<String, Object> properties;
     private TimeZone defaultTimeZone;
     private volatile boolean readOnly;
+    private boolean frozen;
 
     public Attributes() {
         this(false, INIT_CAPACITY);
@@ -189,6 +189,76 @@ public class Attributes implements Serializable {
         }
     }
 
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Makes this data set read-only and eagerly decodes all string values,
+     * including string values of nested data sets and string values
+     * referenced as bulk data, and resolves the Specific Character Set and
+     * Timezone Offset From UTC, so subsequent read access does not modify
+     * the internal state any more.
+     * <p>
+     * A frozen data set may be shared by any number of threads accessing it
+     * concurrently without locking, if it was safely published - e.g. by a
+     * {@code ConcurrentMap} - after this method returned. Values of binary VRs
+     * referenced as bulk data are not loaded, but are read on each access.
+     * Sequences encoded in values with VR UN are parsed on each access by
+     * {@link #getSequence}, without replacing the UN value.
+     */
+    public void freeze() {
+        if (frozen)
+            return;
+
+        getSpecificCharacterSet();
+        getTimeZone();
+        for (int i = 0; i < size; i++) {
+            Object value = values[i];
+            if (value instanceof Sequence) {
+                for (Attributes item : (Sequence) value)
+                    item.freeze();
+            } else if (vrs[i].isStringType()) {
+                decodeStringValue(i);
+            }
+        }
+        frozen = true;
+        setReadOnly();
+    }
+
+    int tagAt(int index) {
+        return tags[index];
+    }
+
+    VR vrAt(int index) {
+        return vrs[index];
+    }
+
+    /**
+     * Returns the value at the specified index for {@link SnapshotCodec},
+     * with values of attributes with a string VR decoded, but without
+     * loading bulk data and without storing the decoded value, so encoding
+     * a snapshot does not modify this data set.
+     */
+    Object snapshotValueAt(int index) {
+        VR vr = vrs[index];
+        Object value = values[index];
+        if (vr.isStringType() && value instanceof byte[]) {
+            value = vr.toStrings((byte[]) value, bigEndian, getSpecificCharacterSet(vr));
+            if (value instanceof String && ((String) value).isEmpty())
+                value = Value.NULL;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value at the specified index as it is stored, without
+     * decoding it and without loading bulk data.
+     */
+    Object storedValueAt(int index) {
+        return values[index];
+    }
+
     private void ensureModifiable() {
         if (readOnly) {
             throw new UnsupportedOperationException("read-only");
@@ -379,6 +449,28 @@ public class Attributes implements Serializable {
         }
     }
 
+    /**
+     * Replaces values of attributes, which are pooled by the specified
+     * {@code StringPool}, by the instances in the pool, decoding them if
+     * necessary. Applies recursively to nested items.
+     *
+     * @param pool pool of string values
+     * @see org.dcm4che3.io.DicomInputStream#setStringPool(StringPool)
+     */
+    public void internStringValues(StringPool pool) {
+        ensureModifiable();
+        for (int i = 0; i < size; i++) {
+            VR vr = vrs[i];
+            Object value = values[i];
+            if (value instanceof Sequence) {
+                for (Attributes item : (Sequence) value)
+                    item.internStringValues(pool);
+            } else if (value != Value.NULL && pool.isPooled(tags[i], vr)) {
+                values[i] = pool.intern(decodeStringValue(i));
+            }
+        }
+    }
+
     private void decodeStringValuesUsingSpecificCharacterSet() {
         Object value;
         VR vr;
@@ -531,22 +623,26 @@ public class Attributes implements Serializable {
 
     private Object decodeStringValue(int index) {
         Object value = loadBulkData(vrs[index], values[index]);
-        return decodeStringValue(index, value);
+        return decodeStringValue(index, vrs[index], value);
     }
 
-    private Object decodeStringValue(int index, Object value) {
+    private Object decodeStringValue(int index, VR vr, Object value) {
         if (value instanceof byte[]) {
-            value = vrs[index].toStrings((byte[]) value, bigEndian,
-                    getSpecificCharacterSet(vrs[index]));
+            value = vr.toStrings((byte[]) value, bigEndian,
+                    getSpecificCharacterSet(vr));
             if (value instanceof String && ((String) value).isEmpty())
                 value = Value.NULL;
-            values[index] = value;
+            if (!frozen)
+                values[index] = value;
         }
         return value;
     }
 
     private Object loadAndStoreBulkData(int index) {
-        return values[index] = loadBulkData(vrs[index], values[index]);
+        Object value = loadBulkData(vrs[index], values[index]);
+        if (!frozen)
+            values[index] = value;
+        return value;
     }
 
     private Object loadBulkData(VR vr, Object value) {
@@ -581,7 +677,8 @@ public class Attributes implements Serializable {
         if (value instanceof String) {
             String s = (String) value;
             if (s.isEmpty()) {
-                values[index] = Value.NULL;
+                if (!frozen)
+                    values[index] = Value.NULL;
                 return ByteUtils.EMPTY_DOUBLES;
             }
             ds = new double[] { StringUtils.parseDS(s) };
@@ -595,7 +692,8 @@ public class Attributes implements Serializable {
                         : Double.NaN;
             }
         }
-        values[index] = ds;
+        if (!frozen)
+            values[index] = ds;
         return ds;
     }
 
@@ -614,7 +712,8 @@ public class Attributes implements Serializable {
         if (value instanceof String) {
             String s = (String) value;
             if (s.isEmpty()) {
-                values[index] = Value.NULL;
+                if (!frozen)
+                    values[index] = Value.NULL;
                 return ByteUtils.EMPTY_LONGS;
             }
             ls = new long[] { StringUtils.parseIS(s) };
@@ -628,13 +727,14 @@ public class Attributes implements Serializable {
                             : Long.MIN_VALUE;
             }
         }
-        values[index] = ls;
+        if (!frozen)
+            values[index] = ls;
         return ls;
     }
 
     private void updateVR(int index, VR vr) {
         VR prev = vrs[index];
-        if (vr == prev)
+        if (vr == prev || frozen)
             return;
 
         Object value = values[index];
@@ -762,6 +862,9 @@ public class Attributes implements Serializable {
         if (value instanceof Sequence)
             return (Sequence) value;
 
+        if (frozen)
+            return parseUNSequence(privateCreator, tag, sqtag, value);
+
         if (value == Value.NULL) {
             vrs[index] = VR.SQ;
             values[index] = new Sequence(this, privateCreator, tag, 0);
@@ -775,6 +878,30 @@ public class Attributes implements Serializable {
         return (Sequence) values[index];
     }
 
+    /**
+     * Returns the sequence encoded in a value with VR UN of a frozen data set,
+     * without storing it, so concurrent readers do not modify the data set.
+     */
+    private Sequence parseUNSequence(String privateCreator, int tag, int sqtag, Object value) {
+        Sequence seq = new Sequence(this, privateCreator, tag, 0);
+        if (value != Value.NULL) {
+            Attributes tmp = new Attributes(bigEndian, 1);
+            try {
+                DicomInputStream.parseUNSequence((byte[]) value, tmp, sqtag);
+            } catch (IOException e) {
+                return null;
+            }
+            Sequence parsed = tmp.getSequence(sqtag);
+            Attributes[] items = parsed.toArray(new Attributes[parsed.size()]);
+            parsed.clear();
+            seq.addAll(Arrays.asList(items));
+            for (Attributes item : items)
+                item.freeze();
+        }
+        seq.setReadOnly();
+        return seq;
+    }
+
     public byte[] getBytes(int tag) throws IOException {
         return getBytes(null, tag);
     }
@@ -872,7 +999,7 @@ public class Attributes implements Serializable {
 
         value = loadBulkData(vr, value);
         if (vr.isStringType()) {
-            value = decodeStringValue(index, value);
+            value = decodeStringValue(index, vr, value);
         }
         if (value == Value.NULL)
             return defVal;
@@ -908,7 +1035,7 @@ public class Attributes implements Serializable {
 
         value = loadBulkData(vr, value);
         if (vr.isStringType()) {
-            value = decodeStringValue(index, value);
+            value = decodeStringValue(index, vr, value);
         }
         if (value == Value.NULL)
             return StringUtils.EMPTY_STRING;
@@ -1600,8 +1727,11 @@ public class Attributes implements Serializable {
     }
 
     private DateRange toDateRange(String s, VR vr) {
+        return toDateRange(s, vr, getTimeZone());
+    }
+
+    static DateRange toDateRange(String s, VR vr, TimeZone tz) {
         String[] range = splitRange(s);
-        TimeZone tz = getTimeZone();
         DatePrecision precision = new DatePrecision();
         Date start = range[0] == null ? null
                 : vr.toDate(range[0], tz, 0, false, null, precision);
@@ -3014,8 +3144,11 @@ public class Attributes implements Serializable {
             if (val instanceof Value)
                 len += ((Value) val).calcLength(encOpts, explicitVR, vr);
             else {
-                if (!(val instanceof byte[]))
-                    values[i] = val = vr.toBytes(val, cs);
+                if (!(val instanceof byte[])) {
+                    val = vr.toBytes(val, cs);
+                    if (!frozen)
+                        values[i] = val;
+                }
                 len += (((byte[]) val).length + 1) & ~1;
             }
             totlen += len;
@@ -3273,128 +3406,14 @@ public class Attributes implements Serializable {
         return fmi;
     }
 
+    /**
+     * Matches this data set against the Matching Keys of a Query Identifier.
+     * Use {@link QueryMatcher} to match a number of data sets against the same
+     * keys.
+     */
     public boolean matches(Attributes keys, boolean ignorePNCase,
             boolean matchNoValue) {
-        int[] keyTags = keys.tags;
-        VR[] keyVrs = keys.vrs;
-        Object[] keyValues = keys.values;
-        int keysSize = keys.size;
-        String privateCreator = null;
-        int creatorTag = 0;
-        for (int i = 0; i < keysSize; i++) {
-            int tag = keyTags[i];
-            if (TagUtils.isPrivateCreator(tag))
-                continue;
-
-            if (TagUtils.isPrivateGroup(tag)) {
-                int tmp = TagUtils.creatorTagOf(tag);
-                if (creatorTag != tmp) {
-                    creatorTag = tmp;
-                    privateCreator = keys.getString(creatorTag, null);
-                }
-            } else {
-                creatorTag = 0;
-                privateCreator = null;
-            }
-
-            Object keyValue = keyValues[i];
-            if (isEmpty(keyValue))
-                continue;
-
-            if (keyVrs[i].isStringType()) {
-                if (!matches(privateCreator, tag, keyVrs[i], ignorePNCase,
-                        matchNoValue, keys.getStrings(privateCreator, tag, null)))
-                    return false;
-            } else if (keyValue instanceof Sequence) {
-                if (!matches(privateCreator, tag, ignorePNCase, matchNoValue,
-                        (Sequence) keyValue))
-                    return false;
-            } else {
-                LOG.info("Matching Key {} with VR: {} not supported", TagUtils.toString(tag), keyVrs[i]);
-            }
-        }
-        return true;
-    }
-
-    private boolean matches(String privateCreator, int tag, VR vr,
-            boolean ignorePNCase, boolean matchNoValue, String[] keyVals) {
-        String[] vals = getStrings(privateCreator, tag, null);
-        if (vals == null || vals.length == 0)
-            return matchNoValue;
-
-        boolean ignoreCase = ignorePNCase && vr == VR.PN;
-        for (String keyVal : keyVals) {
-            DateRange dateRange = null;
-            switch (vr) {
-                case PN:
-                    keyVal = new PersonName(keyVals[0]).toString();
-                    break;
-                case DA:
-                case DT:
-                case TM:
-                    dateRange = toDateRange(keyVal, vr);
-                    break;
-            }
-
-            if (StringUtils.containsWildCard(keyVal)) {
-                Pattern pattern = StringUtils.compilePattern(keyVal, ignoreCase);
-                for (String val : vals) {
-                    if (val == null)
-                        if (matchNoValue)
-                            return true;
-                        else
-                            continue;
-                    if (vr == VR.PN)
-                        val = new PersonName(val).toString();
-                    if (pattern.matcher(val).matches())
-                        return true;
-                }
-            } else {
-                for (String val : vals) {
-                    if (val == null)
-                        if (matchNoValue)
-                            return true;
-                        else
-                            continue;
-                    if (dateRange != null)
-                        if (dateRange.contains(
-                                vr.toDate(val, getTimeZone(), 0, false, null, new DatePrecision())))
-                            return true;
-                        else
-                            continue;
-                    if (vr == VR.PN)
-                        val = new PersonName(val).toString();
-                    if (ignoreCase ? keyVal.equalsIgnoreCase(val)
-                                   : keyVal.equals(val))
-                        return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private boolean matches(String privateCreator, int tag, boolean ignorePNCase, 
-            boolean matchNoValue, Sequence keySeq) {
-        int n = keySeq.size();
-        if (n > 1)
-            LOG.info("Matching Key {} with VR: SQ contains {} Items - only consider first Item",
-                    TagUtils.toString(tag), n);
-
-        Attributes keys = keySeq.get(0);
-        if (keys.isEmpty())
-            return true;
-
-        Object value = getValue(privateCreator, tag);
-        if (value == null || isEmpty(value))
-            return matchNoValue;
-
-        if (value instanceof Sequence) {
-            Sequence sq = (Sequence) value;
-            for (Attributes item : sq)
-                if (item.matches(keys, ignorePNCase, matchNoValue))
-                    return true;
-        }
-        return false;
+        return new QueryMatcher(keys, ignorePNCase, matchNoValue).matches(this);
     }
 
     private static final long serialVersionUID = 7868714416968825241L;
@@ -3413,12 +3432,20 @@ public class Attributes implements Serializable {
     private void readObject(ObjectInputStream in)
             throws IOException, ClassNotFoundException {
         in.defaultReadObject();
+        boolean readOnly = this.readOnly;
+        boolean frozen = this.frozen;
+        this.readOnly = false;
+        this.frozen = false;
         init(in.readInt());
         @SuppressWarnings("resource")
         DicomInputStream din = new DicomInputStream(in, 
                 bigEndian ? UID.ExplicitVRBigEndian
                           : UID.ExplicitVRLittleEndian);
         din.readItemValue(this, -1);
+        if (frozen)
+            freeze();
+        else if (readOnly)
+            setReadOnly();
     }
 
     public ValidationResult validate(IOD iod) {
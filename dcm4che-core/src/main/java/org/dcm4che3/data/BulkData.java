@@ -40,6 +40,7 @@ package org.dcm4che3.data;
 
 import org.dcm4che3.io.DicomEncodingOptions;
 import org.dcm4che3.io.DicomOutputStream;
+import org.dcm4che3.util.ByteBufferInputStream;
 import org.dcm4che3.util.ByteUtils;
 import org.dcm4che3.util.StreamUtils;
 import org.dcm4che3.util.StringUtils;
@@ -48,6 +49,7 @@ import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -63,6 +65,7 @@ public class BulkData implements Value, Serializable {
     private boolean bigEndian;
     private long offset = 0;
     private long length = -1;
+    private transient ByteBuffer buffer;
 
     public BulkData(String uuid, String uri, boolean bigEndian) {
         this.uuid = uuid;
@@ -78,7 +81,36 @@ public class BulkData implements Value, Serializable {
         this.length = length;
         this.bigEndian = bigEndian;
     }
-    
+
+    /**
+     * Creates a bulk data reference to a region of a file, which content is
+     * also accessible by the specified buffer - typically a slice of a memory
+     * mapping of the file. The buffer is not serialized.
+     *
+     * @param uri URI of the file
+     * @param offset offset of the region in the file
+     * @param length length of the region
+     * @param bigEndian if the value is encoded big endian
+     * @param buffer buffer holding the value or {@code null}
+     *
+     * @see org.dcm4che3.io.DicomInputStream#createMemoryMapped(File)
+     */
+    public BulkData(String uri, long offset, long length, boolean bigEndian, ByteBuffer buffer) {
+        this(uri, offset, length, bigEndian);
+        this.buffer = buffer;
+    }
+
+    /**
+     * Returns a read-only view of the buffer holding the value, without
+     * copying it.
+     *
+     * @return read-only buffer holding the value or {@code null}, if the value
+     *         is only accessible by its URI
+     */
+    public ByteBuffer getByteBuffer() {
+        return buffer != null ? buffer.asReadOnlyBuffer() : null;
+    }
+
     public String getUUID() {
         return uuid;
     }
@@ -88,6 +120,7 @@ public class BulkData implements Value, Serializable {
     }
 
     public void setURI(String uri) {
+        this.buffer = null;
         this.uri = uri;
         this.offset = 0;
         this.length = -1;
@@ -158,7 +191,10 @@ public class BulkData implements Value, Serializable {
     public InputStream openStream() throws IOException {
         if (uri == null)
             throw new IllegalStateException("uri: null");
- 
+
+        if (buffer != null)
+            return new ByteBufferInputStream(buffer);
+
         if (!uri.startsWith("file:"))
             return new URL(uri).openStream();
 
@@ -282,6 +318,7 @@ public class BulkData implements Value, Serializable {
     }
 
     public void setOffset(long offset) {
+        this.buffer = null;
         this.offset = offset;
         this.uri = this.uri.substring(0, this.uriPathEnd)+"?offset="+offset+"&length="+length;
     }
@@ -290,6 +327,7 @@ public class BulkData implements Value, Serializable {
         if( length<-1 || length>0xFFFFFFFEl ) {
             throw new IllegalArgumentException("BulkData length limited to -1..2^32-2 but was "+length);
         }
+        this.buffer = null;
         this.length = length;
         this.uri = this.uri.substring(0, this.uriPathEnd)+"?offset="+this.offset+"&length="+length;
     }
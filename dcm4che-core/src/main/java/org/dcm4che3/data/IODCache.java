@@ -39,25 +39,19 @@
 package org.dcm4che3.data;
 
 import java.io.IOException;
-import java.util.HashMap;
-
 
+import org.dcm4che3.util.ResourceCache;
 
 /**
+ * Thread-safe cache of IODs.
+ *
  * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @see ResourceCache
  */
-public class IODCache {
-
-    private final HashMap<String, IOD> map = new HashMap<String, IOD>();
-
-    public void clear() {
-        map.clear();
-    }
+public class IODCache extends ResourceCache<IOD, IOException> {
 
-    public IOD get(String uri) throws IOException {
-        IOD iod = map.get(uri);
-        if (iod == null)
-            map.put(uri, iod = IOD.load(uri));
-        return iod;
+    @Override
+    protected IOD load(String uri) throws IOException {
+        return IOD.load(uri);
     }
 }
@@ -0,0 +1,303 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.data;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.regex.Pattern;
+
+import org.dcm4che3.util.StringUtils;
+import org.dcm4che3.util.TagUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Matcher of data sets against the Matching Keys of a Query Identifier,
+ * which are compiled once, so the matcher can be applied to a large number of
+ * candidate records without re-parsing wild card patterns, date/time ranges
+ * and lists of UIDs for each of them.
+ * <p>
+ * Applies the same matching rules as {@link Attributes#matches}. Instances are
+ * immutable and may be shared between threads.
+ *
+ * @since Oct 2026
+ */
+public class QueryMatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryMatcher.class);
+
+    private final boolean matchNoValue;
+    private final KeyMatcher[] keyMatchers;
+
+    /**
+     * Compiles the Matching Keys of a Query Identifier.
+     *
+     * @param keys Query Identifier
+     * @param ignorePNCase match values of Person Name attributes case-insensitive
+     * @param matchNoValue match candidates without value of a Matching Key
+     */
+    public QueryMatcher(Attributes keys, boolean ignorePNCase, boolean matchNoValue) {
+        this.matchNoValue = matchNoValue;
+        this.keyMatchers = compile(keys, ignorePNCase);
+    }
+
+    public final boolean isMatchNoValue() {
+        return matchNoValue;
+    }
+
+    /**
+     * Returns {@code true} if there are no Matching Keys with a value, so
+     * any data set will match.
+     *
+     * @return {@code true} if there are no Matching Keys with a value
+     */
+    public boolean isUniversal() {
+        return keyMatchers.length == 0;
+    }
+
+    public boolean matches(Attributes attrs) {
+        for (KeyMatcher keyMatcher : keyMatchers)
+            if (!keyMatcher.matches(attrs))
+                return false;
+        return true;
+    }
+
+    private KeyMatcher[] compile(final Attributes keys, final boolean ignorePNCase) {
+        final List<KeyMatcher> list = new ArrayList<KeyMatcher>(keys.size());
+        try {
+            keys.accept(new Attributes.Visitor() {
+                @Override
+                public boolean visit(Attributes attrs, int tag, VR vr, Object value) {
+                    if (TagUtils.isPrivateCreator(tag) || isEmpty(value))
+                        return true;
+
+                    String privateCreator = keys.getPrivateCreator(tag);
+                    if (vr.isStringType()) {
+                        String[] keyVals = keys.getStrings(privateCreator, tag, null);
+                        if (keyVals != null && keyVals.length > 0)
+                            list.add(new StringMatcher(privateCreator, tag, vr,
+                                    ignorePNCase && vr == VR.PN, keyVals));
+                    } else if (value instanceof Sequence) {
+                        Sequence keySeq = (Sequence) value;
+                        int n = keySeq.size();
+                        if (n > 1)
+                            LOG.info("Matching Key {} with VR: SQ contains {} Items - only consider first Item",
+                                    TagUtils.toString(tag), n);
+                        // an Item with empty Matching Keys still requires the
+                        // Sequence, only an empty Item matches any data set
+                        Attributes item = keySeq.get(0);
+                        if (!item.isEmpty())
+                            list.add(new SequenceMatcher(privateCreator, tag,
+                                    new QueryMatcher(item, ignorePNCase, matchNoValue)));
+                    } else {
+                        LOG.info("Matching Key {} with VR: {} not supported",
+                                TagUtils.toString(tag), vr);
+                    }
+                    return true;
+                }
+            }, false);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+        return list.toArray(new KeyMatcher[list.size()]);
+    }
+
+    private static boolean isEmpty(Object value) {
+        return (value instanceof Value) && ((Value) value).isEmpty();
+    }
+
+    private interface KeyMatcher {
+        boolean matches(Attributes attrs);
+    }
+
+    private final class StringMatcher implements KeyMatcher {
+        private final String privateCreator;
+        private final int tag;
+        private final VR vr;
+        private final boolean ignoreCase;
+        private final Pattern[] patterns;
+        private final DateRangeKey[] dateRanges;
+        private final String[] values;
+        private final Set<String> valueSet;
+
+        StringMatcher(String privateCreator, int tag, VR vr, boolean ignoreCase,
+                String[] keyVals) {
+            this.privateCreator = privateCreator;
+            this.tag = tag;
+            this.vr = vr;
+            this.ignoreCase = ignoreCase;
+            List<Pattern> patterns = new ArrayList<Pattern>(1);
+            List<DateRangeKey> dateRanges = new ArrayList<DateRangeKey>(1);
+            List<String> values = new ArrayList<String>(keyVals.length);
+            for (String keyVal : keyVals) {
+                // only the first value of a Person Name key is considered,
+                // compatible with previous versions of Attributes#matches
+                if (vr == VR.PN)
+                    keyVal = new PersonName(keyVals[0]).toString();
+                if (StringUtils.containsWildCard(keyVal))
+                    patterns.add(StringUtils.compilePattern(keyVal, ignoreCase));
+                else if (vr == VR.DA || vr == VR.DT || vr == VR.TM)
+                    dateRanges.add(new DateRangeKey(keyVal, vr));
+                else
+                    values.add(keyVal);
+            }
+            this.patterns = patterns.toArray(new Pattern[patterns.size()]);
+            this.dateRanges = dateRanges.toArray(new DateRangeKey[dateRanges.size()]);
+            this.values = values.toArray(new String[values.size()]);
+            // hash lists of values, typically UIDs, if case-sensitive
+            this.valueSet = !ignoreCase && values.size() > 4
+                    ? new HashSet<String>(values)
+                    : null;
+        }
+
+        @Override
+        public boolean matches(Attributes attrs) {
+            String[] vals = attrs.getStrings(privateCreator, tag, null);
+            if (vals == null || vals.length == 0)
+                return matchNoValue;
+
+            for (String val : vals) {
+                if (val == null) {
+                    if (matchNoValue)
+                        return true;
+                    continue;
+                }
+                if (vr == VR.PN)
+                    val = new PersonName(val).toString();
+                if (matchesValue(val)
+                        || matchesPattern(val)
+                        || matchesDateRange(attrs, val))
+                    return true;
+            }
+            return false;
+        }
+
+        private boolean matchesValue(String val) {
+            if (valueSet != null)
+                return valueSet.contains(val);
+
+            for (String value : values)
+                if (ignoreCase ? value.equalsIgnoreCase(val) : value.equals(val))
+                    return true;
+            return false;
+        }
+
+        private boolean matchesPattern(String val) {
+            for (Pattern pattern : patterns)
+                if (pattern.matcher(val).matches())
+                    return true;
+            return false;
+        }
+
+        private boolean matchesDateRange(Attributes attrs, String val) {
+            if (dateRanges.length == 0)
+                return false;
+
+            TimeZone tz = attrs.getTimeZone();
+            Date date = vr.toDate(val, tz, 0, false, null, new DatePrecision());
+            for (DateRangeKey dateRange : dateRanges)
+                if (dateRange.rangeFor(tz).contains(date))
+                    return true;
+            return false;
+        }
+    }
+
+    private static final class SequenceMatcher implements KeyMatcher {
+        private final String privateCreator;
+        private final int tag;
+        private final QueryMatcher itemMatcher;
+
+        SequenceMatcher(String privateCreator, int tag, QueryMatcher itemMatcher) {
+            this.privateCreator = privateCreator;
+            this.tag = tag;
+            this.itemMatcher = itemMatcher;
+        }
+
+        @Override
+        public boolean matches(Attributes attrs) {
+            Object value = attrs.getValue(privateCreator, tag);
+            if (value == null || isEmpty(value))
+                return itemMatcher.matchNoValue;
+
+            if (value instanceof Sequence)
+                for (Attributes item : (Sequence) value)
+                    if (itemMatcher.matches(item))
+                        return true;
+            return false;
+        }
+    }
+
+    /**
+     * Date/time range of a Matching Key, which depends on the time zone of
+     * the matched data set. The range for the last used time zone is cached,
+     * so it is only re-calculated for data sets with differing Timezone
+     * Offset From UTC.
+     */
+    private static final class DateRangeKey {
+        private final String value;
+        private final VR vr;
+        private volatile Resolved resolved;
+
+        DateRangeKey(String value, VR vr) {
+            this.value = value;
+            this.vr = vr;
+        }
+
+        DateRange rangeFor(TimeZone tz) {
+            Resolved r = resolved;
+            if (r == null || !r.tz.equals(tz))
+                resolved = r = new Resolved(tz, Attributes.toDateRange(value, vr, tz));
+            return r.range;
+        }
+    }
+
+    private static final class Resolved {
+        final TimeZone tz;
+        final DateRange range;
+
+        Resolved(TimeZone tz, DateRange range) {
+            this.tz = tz;
+            this.range = range;
+        }
+    }
+}
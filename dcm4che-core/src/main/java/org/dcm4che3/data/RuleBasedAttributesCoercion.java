@@ -0,0 +1,708 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.data;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.dcm4che3.util.AttributesFormat;
+import org.dcm4che3.util.StringUtils;
+import org.dcm4che3.util.TagUtils;
+
+/**
+ * Coerces attributes by a list of declarative rules, which are compiled into
+ * a plan of operations applied directly on the coerced {@link Attributes} -
+ * a lightweight alternative to
+ * {@link org.dcm4che3.io.XSLTAttributesCoercion} without serializing the
+ * attributes to SAX events and parsing the result of the transformation.
+ * <p>
+ * Each rule is specified by one line, empty lines and lines starting with
+ * {@code #} are ignored:
+ * <pre>
+ * set    &lt;target&gt; [&lt;VR&gt;] &lt;value&gt;[\&lt;value&gt;...]
+ * copy   &lt;source&gt; &lt;target&gt;
+ * remove &lt;target&gt;
+ * format &lt;target&gt; [&lt;VR&gt;] &lt;pattern&gt;
+ * if &lt;condition&gt; [and &lt;condition&gt;...] then &lt;rule&gt;
+ * </pre>
+ * with conditions
+ * <pre>
+ * &lt;source&gt; exists
+ * &lt;source&gt; absent
+ * &lt;source&gt; = &lt;value&gt;
+ * &lt;source&gt; != &lt;value&gt;
+ * &lt;source&gt; ~ &lt;regex&gt;
+ * </pre>
+ * Attributes are selected by their keyword or tag value in hex, optionally
+ * prefixed by sequences separated by {@code /} - e.g.
+ * {@code RequestAttributesSequence/ScheduledProcedureStepID} - or by the
+ * XPath like syntax of {@link AttributeSelector#valueOf(String)} and
+ * {@link ValueSelector#valueOf(String)}, which also supports private
+ * attributes. Without item number, a target is applied on all items of the
+ * sequence and a source is selected from its first item. An empty value
+ * {@code ""} sets an attribute with empty value. {@code format} uses an
+ * {@link AttributesFormat} pattern, e.g. {@code "{00100020}^^^{00100021}"}.
+ * If the VR is omitted, the VR of the attribute in the Data Dictionary is
+ * used; it must be specified for private attributes not contained in a
+ * private Data Dictionary. {@code copy} converts values to the VR of the
+ * target attribute - or keeps the VR of the source for such private
+ * targets. Conditions compare each value of a source with the specified value,
+ * unless a particular value is selected by a {@link ValueSelector}. Tokens
+ * containing white spaces have to be quoted by {@code "}; a {@code "} within
+ * a quoted token is escaped by {@code ""}.
+ * <p>
+ * Rules are applied in specified order, so conditions and sources reflect
+ * modifications by previous rules. Original values of modified attributes
+ * are collected in {@code modified} - of nested attributes as copy of the
+ * whole sequence in the top level data set.
+ *
+ * @since Oct 2026
+ */
+public class RuleBasedAttributesCoercion implements AttributesCoercion {
+
+    private static final ItemPointer[] NO_ITEM_POINTERS = {};
+
+    private final Operation[] plan;
+    private final AttributesCoercion next;
+
+    /**
+     * Compiles the specified rules.
+     *
+     * @param rules rules, one per element
+     * @param next  next coercion or {@code null}
+     * @throws IllegalArgumentException if a rule is invalid
+     */
+    public RuleBasedAttributesCoercion(List<String> rules, AttributesCoercion next) {
+        ArrayList<Operation> ops = new ArrayList<>(rules.size());
+        int lineNo = 0;
+        for (String rule : rules) {
+            lineNo++;
+            String trimmed = rule.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#"))
+                continue;
+            try {
+                ops.add(compile(tokenize(trimmed), 0));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid rule #" + lineNo + ": " + rule, e);
+            }
+        }
+        this.plan = ops.toArray(new Operation[0]);
+        this.next = next;
+    }
+
+    public static AttributesCoercion valueOf(List<String> rules, AttributesCoercion next) {
+        return rules != null && !rules.isEmpty()
+                ? new RuleBasedAttributesCoercion(rules, next)
+                : next;
+    }
+
+    /**
+     * Reads rules, one per line, from the specified reader.
+     *
+     * @param reader reader of the rules
+     * @return list of rules
+     * @throws IOException if an I/O error occurs
+     */
+    public static List<String> readRules(Reader reader) throws IOException {
+        BufferedReader in = reader instanceof BufferedReader
+                ? (BufferedReader) reader
+                : new BufferedReader(reader);
+        ArrayList<String> rules = new ArrayList<>();
+        String line;
+        while ((line = in.readLine()) != null)
+            rules.add(line);
+        return rules;
+    }
+
+    @Override
+    public String remapUID(String uid) {
+        return next != null ? next.remapUID(uid) : uid;
+    }
+
+    @Override
+    public void coerce(Attributes attrs, Attributes modified) throws Exception {
+        for (Operation op : plan)
+            op.apply(attrs, modified);
+        if (next != null)
+            next.coerce(attrs, modified);
+    }
+
+    private static Operation compile(String[] tokens, int start) {
+        String op = tokens[start];
+        int argc = tokens.length - start - 1;
+        switch (op) {
+            case "set":
+                if (argc == 2)
+                    return new SetValue(targetOf(tokens[start + 1]), null, tokens[start + 2]);
+                if (argc == 3)
+                    return new SetValue(targetOf(tokens[start + 1]), VR.valueOf(tokens[start + 2]), tokens[start + 3]);
+                break;
+            case "copy":
+                if (argc == 2)
+                    return new CopyValue(sourceOf(tokens[start + 1]), targetOf(tokens[start + 2]));
+                break;
+            case "remove":
+                if (argc == 1)
+                    return new RemoveAttribute(targetOf(tokens[start + 1]));
+                break;
+            case "format":
+                if (argc == 2)
+                    return new FormatValue(targetOf(tokens[start + 1]), null,
+                            tokens[start + 2]);
+                if (argc == 3)
+                    return new FormatValue(targetOf(tokens[start + 1]), VR.valueOf(tokens[start + 2]),
+                            tokens[start + 3]);
+                break;
+            case "if":
+                return compileConditional(tokens, start + 1);
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + op);
+        }
+        throw new IllegalArgumentException("Wrong number of arguments of " + op);
+    }
+
+    private static Operation compileConditional(String[] tokens, int start) {
+        ArrayList<Condition> conditions = new ArrayList<>(2);
+        int i = start;
+        for (;;) {
+            if (i + 1 >= tokens.length)
+                throw new IllegalArgumentException("Missing then");
+            Source source = sourceOf(tokens[i]);
+            String op = tokens[i + 1];
+            switch (op) {
+                case "exists":
+                case "absent":
+                    conditions.add(new Condition(source, op, null));
+                    i += 2;
+                    break;
+                case "=":
+                case "!=":
+                case "~":
+                    if (i + 2 >= tokens.length)
+                        throw new IllegalArgumentException("Missing value of " + op);
+                    conditions.add(new Condition(source, op, tokens[i + 2]));
+                    i += 3;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown condition: " + op);
+            }
+            if (i >= tokens.length)
+                throw new IllegalArgumentException("Missing then");
+            if (tokens[i].equals("then"))
+                break;
+            if (!tokens[i].equals("and"))
+                throw new IllegalArgumentException("Expected and or then: " + tokens[i]);
+            i++;
+        }
+        if (i + 1 >= tokens.length)
+            throw new IllegalArgumentException("Missing rule after then");
+        return new Conditional(conditions.toArray(new Condition[0]), compile(tokens, i + 1));
+    }
+
+    static String[] tokenize(String s) {
+        ArrayList<String> tokens = new ArrayList<>();
+        int len = s.length();
+        int i = 0;
+        while (i < len) {
+            char c = s.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            StringBuilder sb = new StringBuilder();
+            if (c == '"') {
+                for (i++;; i++) {
+                    if (i >= len)
+                        throw new IllegalArgumentException("Missing closing quote: " + s);
+                    c = s.charAt(i);
+                    if (c == '"') {
+                        if (i + 1 < len && s.charAt(i + 1) == '"') {
+                            sb.append('"');
+                            i++;
+                        } else {
+                            i++;
+                            break;
+                        }
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            } else {
+                // white spaces and quotes within [...] of the XPath like syntax are part of the token
+                int depth = 0;
+                boolean quoted = false;
+                for (; i < len; i++) {
+                    c = s.charAt(i);
+                    if (c == '"' && depth > 0)
+                        quoted = !quoted;
+                    else if (!quoted && c == '[')
+                        depth++;
+                    else if (!quoted && c == ']')
+                        depth--;
+                    else if (!quoted && depth == 0 && Character.isWhitespace(c))
+                        break;
+                    sb.append(c);
+                }
+            }
+            tokens.add(sb.toString());
+        }
+        return tokens.toArray(StringUtils.EMPTY_STRING);
+    }
+
+    private static Target targetOf(String s) {
+        AttributeSelector selector = selectorOf(s);
+        return new Target(selector.privateCreator(), selector.tag(), itemPointersOf(selector));
+    }
+
+    private static Source sourceOf(String s) {
+        int valueIndex = -1;
+        AttributeSelector selector;
+        if (s.startsWith("DicomAttribute") && s.contains("/Value[")) {
+            ValueSelector valueSelector = ValueSelector.valueOf(s);
+            selector = new AttributeSelector(valueSelector.tag(), valueSelector.privateCreator(),
+                    itemPointersOf(valueSelector));
+            valueIndex = valueSelector.valueIndex();
+        } else {
+            selector = selectorOf(s);
+        }
+        return new Source(selector.privateCreator(), selector.tag(), itemPointersOf(selector), valueIndex);
+    }
+
+    private static AttributeSelector selectorOf(String s) {
+        if (s.startsWith("DicomAttribute"))
+            return AttributeSelector.valueOf(s);
+
+        String[] path = StringUtils.split(s, '/');
+        ItemPointer[] itemPointers = new ItemPointer[path.length - 1];
+        for (int i = 0; i < itemPointers.length; i++) {
+            String ss = path[i];
+            int itemIndex = -1;
+            int bracket = ss.indexOf('[');
+            if (bracket > 0 && ss.endsWith("]")) {
+                itemIndex = Integer.parseInt(ss.substring(bracket + 1, ss.length() - 1)) - 1;
+                ss = ss.substring(0, bracket);
+            }
+            itemPointers[i] = new ItemPointer(tagOf(ss), itemIndex);
+        }
+        return new AttributeSelector(tagOf(path[itemPointers.length]), null, itemPointers);
+    }
+
+    private static int tagOf(String s) {
+        int tag = ElementDictionary.tagForKeyword(s, null);
+        if (tag != -1)
+            return tag;
+        if (s.length() == 8)
+            try {
+                return (int) Long.parseLong(s, 16);
+            } catch (NumberFormatException e) {
+            }
+        throw new IllegalArgumentException("Unknown attribute: " + s);
+    }
+
+    private static ItemPointer[] itemPointersOf(AttributeSelector selector) {
+        int level = selector.level();
+        if (level == 0)
+            return NO_ITEM_POINTERS;
+
+        ItemPointer[] itemPointers = new ItemPointer[level];
+        for (int i = 0; i < level; i++)
+            itemPointers[i] = selector.itemPointer(i);
+        return itemPointers;
+    }
+
+    private static ItemPointer[] itemPointersOf(ValueSelector selector) {
+        int level = selector.level();
+        ItemPointer[] itemPointers = new ItemPointer[level];
+        for (int i = 0; i < level; i++)
+            itemPointers[i] = selector.itemPointer(i);
+        return itemPointers;
+    }
+
+    private interface Operation {
+        void apply(Attributes attrs, Attributes modified);
+    }
+
+    private static final class Source {
+        final String privateCreator;
+        final int tag;
+        final ItemPointer[] itemPointers;
+        final int valueIndex;
+
+        Source(String privateCreator, int tag, ItemPointer[] itemPointers, int valueIndex) {
+            this.privateCreator = privateCreator;
+            this.tag = tag;
+            this.itemPointers = itemPointers;
+            this.valueIndex = valueIndex;
+        }
+
+        Attributes item(Attributes attrs) {
+            Attributes item = attrs;
+            for (ItemPointer ip : itemPointers) {
+                Sequence seq = item.getSequence(ip.privateCreator, ip.sequenceTag);
+                int index = Math.max(0, ip.itemIndex);
+                if (seq == null || index >= seq.size())
+                    return null;
+                item = seq.get(index);
+            }
+            return item;
+        }
+
+        boolean exists(Attributes attrs) {
+            Attributes item = item(attrs);
+            if (item == null)
+                return false;
+            if (valueIndex < 0)
+                return item.containsValue(privateCreator, tag);
+            return item.getString(privateCreator, tag, valueIndex, null) != null;
+        }
+
+        String[] strings(Attributes attrs) {
+            Attributes item = item(attrs);
+            if (item == null)
+                return null;
+            if (valueIndex < 0)
+                return item.getStrings(privateCreator, tag);
+            String s = item.getString(privateCreator, tag, valueIndex, null);
+            return s != null ? new String[]{ s } : null;
+        }
+    }
+
+    private static final class Target {
+        final String privateCreator;
+        final int tag;
+        final ItemPointer[] itemPointers;
+        final int topTag;
+        final String topPrivateCreator;
+        final VR vr;
+
+        Target(String privateCreator, int tag, ItemPointer[] itemPointers) {
+            this.privateCreator = privateCreator;
+            this.tag = tag;
+            this.itemPointers = itemPointers;
+            if (itemPointers.length == 0) {
+                this.topTag = tag;
+                this.topPrivateCreator = privateCreator;
+            } else {
+                this.topTag = itemPointers[0].sequenceTag;
+                this.topPrivateCreator = itemPointers[0].privateCreator;
+            }
+            VR vr = ElementDictionary.vrOf(tag, privateCreator);
+            this.vr = vr == VR.UN && TagUtils.isPrivateTag(tag) ? null : vr;
+        }
+
+        /**
+         * Returns the VR of the target attribute in the Data Dictionary or
+         * the specified VR, if the target is a private attribute not
+         * contained in a private Data Dictionary.
+         */
+        VR vrOr(VR vr) {
+            return this.vr != null ? this.vr : vr;
+        }
+
+        VR requireVR(VR vr) {
+            if (vr != null)
+                return vr;
+            if (this.vr == null)
+                throw new IllegalArgumentException("Missing VR of private attribute "
+                        + TagUtils.toString(tag));
+            return this.vr;
+        }
+
+        List<Attributes> items(Attributes attrs, boolean create) {
+            if (itemPointers.length == 0)
+                return Collections.singletonList(attrs);
+
+            List<Attributes> items = Collections.singletonList(attrs);
+            for (ItemPointer ip : itemPointers) {
+                ArrayList<Attributes> nested = new ArrayList<>();
+                for (Attributes item : items) {
+                    Sequence seq = item.getSequence(ip.privateCreator, ip.sequenceTag);
+                    if (seq == null || seq.isEmpty()) {
+                        if (create && ip.itemIndex <= 0) {
+                            Attributes newItem = new Attributes();
+                            item.ensureSequence(ip.privateCreator, ip.sequenceTag, 1).add(newItem);
+                            nested.add(newItem);
+                        }
+                    } else if (ip.itemIndex < 0) {
+                        nested.addAll(seq);
+                    } else if (ip.itemIndex < seq.size()) {
+                        nested.add(seq.get(ip.itemIndex));
+                    }
+                }
+                items = nested;
+            }
+            return items;
+        }
+
+        /**
+         * Returns a copy of the original value of the top level attribute of
+         * a nested target, before {@link #items(Attributes, boolean)} may
+         * create sequence items, or {@code null}, if there is no non-empty
+         * original value to collect.
+         */
+        Object original(Attributes attrs, Attributes modified) {
+            if (modified == null || itemPointers.length == 0
+                    || modified.contains(topPrivateCreator, topTag))
+                return null;
+
+            Sequence seq = attrs.getSequence(topPrivateCreator, topTag);
+            if (seq == null || seq.isEmpty())
+                return null;
+
+            ArrayList<Attributes> items = new ArrayList<>(seq.size());
+            for (Attributes item : seq)
+                items.add(new Attributes(item));
+            return items;
+        }
+
+        @SuppressWarnings("unchecked")
+        void recordModified(Attributes attrs, Object original, Attributes modified) {
+            if (modified == null || modified.contains(topPrivateCreator, topTag))
+                return;
+
+            if (itemPointers.length == 0) {
+                VR.Holder vr = new VR.Holder();
+                Object value = attrs.getValue(topPrivateCreator, topTag, vr);
+                if (value instanceof Sequence) {
+                    Sequence seq = (Sequence) value;
+                    if (!seq.isEmpty()) {
+                        Sequence dest = modified.newSequence(topPrivateCreator, topTag, seq.size());
+                        for (Attributes item : seq)
+                            dest.add(new Attributes(item));
+                    }
+                } else if (value != null && value != Value.NULL) {
+                    modified.setValue(topPrivateCreator, topTag, vr.vr, value);
+                }
+            } else if (original != null) {
+                List<Attributes> items = (List<Attributes>) original;
+                modified.newSequence(topPrivateCreator, topTag, items.size()).addAll(items);
+            }
+        }
+
+        void setStrings(Attributes attrs, Attributes modified, VR vr, String[] values) {
+            Object original = original(attrs, modified);
+            for (Attributes item : items(attrs, true)) {
+                if (values.length == 0) {
+                    if (item.contains(privateCreator, tag) && !item.containsValue(privateCreator, tag))
+                        continue;
+                    recordModified(attrs, original, modified);
+                    item.setNull(privateCreator, tag, vr);
+                } else {
+                    if (Arrays.equals(values, item.getStrings(privateCreator, tag)))
+                        continue;
+                    recordModified(attrs, original, modified);
+                    item.setString(privateCreator, tag, vr, values.clone());
+                }
+            }
+        }
+    }
+
+    private static final class SetValue implements Operation {
+        final Target target;
+        final VR vr;
+        final String[] values;
+
+        SetValue(Target target, VR vr, String value) {
+            this.target = target;
+            this.vr = target.requireVR(vr);
+            this.values = value.isEmpty() ? StringUtils.EMPTY_STRING : StringUtils.split(value, '\\');
+        }
+
+        @Override
+        public void apply(Attributes attrs, Attributes modified) {
+            target.setStrings(attrs, modified, vr, values);
+        }
+    }
+
+    private static final class FormatValue implements Operation {
+        final Target target;
+        final VR vr;
+        // java.text.Format is not thread-safe
+        final ThreadLocal<AttributesFormat> format;
+
+        FormatValue(Target target, VR vr, final String pattern) {
+            this.target = target;
+            this.vr = target.requireVR(vr);
+            new AttributesFormat(pattern); // fail on compile of invalid pattern
+            this.format = new ThreadLocal<AttributesFormat>() {
+                @Override
+                protected AttributesFormat initialValue() {
+                    return new AttributesFormat(pattern);
+                }
+            };
+        }
+
+        @Override
+        public void apply(Attributes attrs, Attributes modified) {
+            String value = format.get().format(attrs);
+            target.setStrings(attrs, modified, vr,
+                    value.isEmpty() ? StringUtils.EMPTY_STRING : new String[]{ value });
+        }
+    }
+
+    private static final class CopyValue implements Operation {
+        final Source source;
+        final Target target;
+
+        CopyValue(Source source, Target target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        public void apply(Attributes attrs, Attributes modified) {
+            Attributes srcItem = source.item(attrs);
+            if (srcItem == null)
+                return;
+
+            VR.Holder vr = new VR.Holder();
+            Object value = srcItem.getValue(source.privateCreator, source.tag, vr);
+            if (value == null)
+                return;
+
+            VR destVR = target.vrOr(vr.vr);
+            if (source.valueIndex >= 0) {
+                String s = srcItem.getString(source.privateCreator, source.tag, source.valueIndex, null);
+                if (s != null)
+                    target.setStrings(attrs, modified, destVR, new String[]{ s });
+            } else if (value instanceof Sequence) {
+                Sequence src = (Sequence) value;
+                Object original = target.original(attrs, modified);
+                for (Attributes item : target.items(attrs, true)) {
+                    target.recordModified(attrs, original, modified);
+                    Sequence dest = item.newSequence(target.privateCreator, target.tag, src.size());
+                    for (Attributes srcSeqItem : src)
+                        dest.add(new Attributes(srcSeqItem));
+                }
+            } else if (value == Value.NULL || vr.vr.isStringType() || destVR != vr.vr) {
+                String[] ss = srcItem.getStrings(source.privateCreator, source.tag);
+                if (ss == null)
+                    throw new IllegalArgumentException("Cannot copy " + vr.vr + " value of "
+                            + TagUtils.toString(source.tag) + " to " + destVR + " attribute "
+                            + TagUtils.toString(target.tag));
+                target.setStrings(attrs, modified, destVR, ss);
+            } else {
+                Object original = target.original(attrs, modified);
+                for (Attributes item : target.items(attrs, true)) {
+                    target.recordModified(attrs, original, modified);
+                    item.setValue(target.privateCreator, target.tag, destVR,
+                            value instanceof byte[] ? ((byte[]) value).clone() : value);
+                }
+            }
+        }
+    }
+
+    private static final class RemoveAttribute implements Operation {
+        final Target target;
+
+        RemoveAttribute(Target target) {
+            this.target = target;
+        }
+
+        @Override
+        public void apply(Attributes attrs, Attributes modified) {
+            Object original = target.original(attrs, modified);
+            for (Attributes item : target.items(attrs, false)) {
+                if (item.contains(target.privateCreator, target.tag)) {
+                    target.recordModified(attrs, original, modified);
+                    item.remove(target.privateCreator, target.tag);
+                }
+            }
+        }
+    }
+
+    private static final class Condition {
+        final Source source;
+        final String op;
+        final String value;
+        final Pattern pattern;
+
+        Condition(Source source, String op, String value) {
+            this.source = source;
+            this.op = op;
+            this.value = value;
+            this.pattern = op.equals("~") ? Pattern.compile(value) : null;
+        }
+
+        boolean test(Attributes attrs) {
+            switch (op) {
+                case "exists":
+                    return source.exists(attrs);
+                case "absent":
+                    return !source.exists(attrs);
+                case "!=":
+                    return !contains(source.strings(attrs));
+                default:
+                    return contains(source.strings(attrs));
+            }
+        }
+
+        private boolean contains(String[] ss) {
+            if (ss != null)
+                for (String s : ss)
+                    if (s != null && (pattern != null ? pattern.matcher(s).matches() : s.equals(value)))
+                        return true;
+            return false;
+        }
+    }
+
+    private static final class Conditional implements Operation {
+        final Condition[] conditions;
+        final Operation op;
+
+        Conditional(Condition[] conditions, Operation op) {
+            this.conditions = conditions;
+            this.op = op;
+        }
+
+        @Override
+        public void apply(Attributes attrs, Attributes modified) {
+            for (Condition condition : conditions)
+                if (!condition.test(attrs))
+                    return;
+            op.apply(attrs, modified);
+        }
+    }
+}
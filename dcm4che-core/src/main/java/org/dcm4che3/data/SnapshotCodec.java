@@ -0,0 +1,673 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.data;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.dcm4che3.util.SafeBuffer;
+
+/**
+ * Codec of {@link Attributes} to and from a compact, versioned binary
+ * snapshot format, intended for caching data sets in external or off-heap
+ * stores and for transferring them between cluster nodes.
+ * <p>
+ * In contrast to Java serialization of {@code Attributes}, which encodes the
+ * data set by a {@link org.dcm4che3.io.DicomOutputStream}, values of
+ * attributes with a string VR are stored decoded - as UTF-8 - so they do
+ * not need to be decoded again with the Specific Character Set of the
+ * data set after they were restored. Other values are stored as they are
+ * held in memory. Tags of private attributes are stored verbatim together
+ * with their Private Creator elements, so the resolution of private
+ * attributes is preserved. Bulk data references are included, if not
+ * disabled by {@link #SnapshotCodec(boolean)}.
+ * <p>
+ * Snapshots are encoded in a single pass over the data set into a growing
+ * array, which is trimmed to the length of the snapshot, so each value is
+ * decoded only once. Decoded string values are not stored in the encoded
+ * data set, so encoding does not modify it. Encoding into an array or
+ * buffer of sufficient size avoids the final copy; its size may be
+ * calculated by {@link #encodedLength(Attributes)}, which takes another
+ * pass over the data set.
+ * <p>
+ * Properties and default time zone of the data set are not included.
+ * Instances are immutable and may be shared between threads.
+ *
+ * @since Oct 2026
+ */
+public class SnapshotCodec {
+
+    /**
+     * Current version of the snapshot format.
+     */
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x44534e50; // "DSNP"
+    private static final int HEADER_LENGTH = 6;
+
+    private static final int NULL = 0;
+    private static final int BYTES = 1;
+    private static final int STRING = 2;
+    private static final int STRINGS = 3;
+    private static final int SEQUENCE = 4;
+    private static final int FRAGMENTS = 5;
+    private static final int BULK_DATA = 6;
+    private static final int DOUBLES = 7;
+    private static final int LONGS = 8;
+
+    private final boolean includeBulkData;
+
+    /**
+     * Creates a codec, which includes bulk data references.
+     */
+    public SnapshotCodec() {
+        this(true);
+    }
+
+    /**
+     * Creates a codec.
+     *
+     * @param includeBulkData {@code true} if attributes with bulk data
+     *        references shall be included, {@code false} if they shall be
+     *        omitted
+     */
+    public SnapshotCodec(boolean includeBulkData) {
+        this.includeBulkData = includeBulkData;
+    }
+
+    public final boolean isIncludeBulkData() {
+        return includeBulkData;
+    }
+
+    /**
+     * Returns the exact length of the snapshot of the specified data set.
+     *
+     * @param attrs data set
+     * @return length of the snapshot in bytes
+     */
+    public int encodedLength(Attributes attrs) {
+        return HEADER_LENGTH + lengthOf(attrs);
+    }
+
+    public byte[] encode(Attributes attrs) {
+        Writer w = new Writer(new byte[256 + attrs.size() * 32], 0, Integer.MAX_VALUE, true);
+        encode(attrs, w);
+        return Arrays.copyOf(w.b, w.pos);
+    }
+
+    /**
+     * Encodes the snapshot of the specified data set into the specified array,
+     * which must provide at least {@link #encodedLength(Attributes)} bytes
+     * after {@code off}.
+     *
+     * @param attrs data set
+     * @param b destination array
+     * @param off offset in the destination array
+     * @return offset after the encoded snapshot
+     * @throws IndexOutOfBoundsException if the snapshot does not fit into
+     *         the destination array
+     */
+    public int encode(Attributes attrs, byte[] b, int off) {
+        Writer w = new Writer(b, off, b.length, false);
+        encode(attrs, w);
+        return w.pos;
+    }
+
+    private void encode(Attributes attrs, Writer w) {
+        w.writeInt(MAGIC);
+        w.ensure(2);
+        w.b[w.pos++] = (byte) VERSION;
+        w.b[w.pos++] = (byte) (attrs.bigEndian() ? 1 : 0);
+        writeDataset(w, attrs);
+    }
+
+    /**
+     * Encodes the snapshot of the specified data set into the specified
+     * buffer, starting at its current position, which is advanced by the
+     * length of the snapshot.
+     *
+     * @param attrs data set
+     * @param dst destination buffer
+     */
+    public void encode(Attributes attrs, ByteBuffer dst) {
+        if (dst.hasArray()) {
+            int off = dst.arrayOffset() + dst.position();
+            Writer w = new Writer(dst.array(), off, dst.arrayOffset() + dst.limit(), false);
+            try {
+                encode(attrs, w);
+            } catch (IndexOutOfBoundsException e) {
+                throw new BufferOverflowException();
+            }
+            SafeBuffer.position(dst, dst.position() + w.pos - off);
+        } else {
+            dst.put(encode(attrs));
+        }
+    }
+
+    public Attributes decode(byte[] b) {
+        return decode(b, 0, b.length);
+    }
+
+    /**
+     * Decodes a data set from the snapshot in the specified array.
+     *
+     * @param b source array
+     * @param off offset of the snapshot in the source array
+     * @param len length of the snapshot
+     * @return decoded data set
+     * @throws IllegalArgumentException if the source does not contain a
+     *         valid snapshot of a supported version
+     */
+    public Attributes decode(byte[] b, int off, int len) {
+        if (len < HEADER_LENGTH || readInt(b, off) != MAGIC)
+            throw new IllegalArgumentException("Not a data set snapshot");
+        int version = b[off + 4] & 0xff;
+        if (version > VERSION)
+            throw new IllegalArgumentException("Unsupported snapshot version: " + version);
+
+        Reader reader = new Reader(b, off + HEADER_LENGTH, off + len);
+        try {
+            Attributes attrs = reader.readDataset(b[off + 5] != 0);
+            if (reader.pos != off + len)
+                throw new IllegalArgumentException("Trailing bytes after data set snapshot");
+            return attrs;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated data set snapshot", e);
+        }
+    }
+
+    /**
+     * Decodes a data set from the snapshot in the remaining bytes of the
+     * specified buffer, which position is advanced to its limit.
+     *
+     * @param src source buffer
+     * @return decoded data set
+     */
+    public Attributes decode(ByteBuffer src) {
+        int len = src.remaining();
+        Attributes attrs;
+        if (src.hasArray()) {
+            attrs = decode(src.array(), src.arrayOffset() + src.position(), len);
+            SafeBuffer.position(src, src.limit());
+        } else {
+            byte[] b = new byte[len];
+            src.get(b);
+            attrs = decode(b, 0, len);
+        }
+        return attrs;
+    }
+
+    private boolean include(Object value) {
+        if (includeBulkData)
+            return true;
+
+        if (value instanceof BulkData)
+            return false;
+
+        if (value instanceof Fragments)
+            for (Object frag : (Fragments) value)
+                if (frag instanceof BulkData)
+                    return false;
+
+        return true;
+    }
+
+    private int lengthOf(Attributes attrs) {
+        int size = attrs.size();
+        int count = 0;
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            Object value = attrs.snapshotValueAt(i);
+            if (include(value)) {
+                count++;
+                length += 7 + lengthOf(value);
+            }
+        }
+        return length + varIntLength(count);
+    }
+
+    private int lengthOf(Object value) {
+        if (value == Value.NULL)
+            return 0;
+
+        if (value instanceof byte[]) {
+            int n = ((byte[]) value).length;
+            return varIntLength(n) + n;
+        }
+        if (value instanceof String)
+            return lengthOf((String) value);
+
+        if (value instanceof String[]) {
+            String[] ss = (String[]) value;
+            int length = varIntLength(ss.length);
+            for (String s : ss)
+                length += lengthOf(s);
+            return length;
+        }
+        if (value instanceof Sequence) {
+            Sequence seq = (Sequence) value;
+            int length = varIntLength(seq.size());
+            for (Attributes item : seq)
+                length += lengthOf(item);
+            return length;
+        }
+        if (value instanceof Fragments) {
+            Fragments frags = (Fragments) value;
+            int length = 1 + varIntLength(frags.size());
+            for (Object frag : frags)
+                length += 1 + lengthOf(frag);
+            return length;
+        }
+        if (value instanceof BulkData) {
+            BulkData bulkData = (BulkData) value;
+            return lengthOf(bulkData.getUUID()) + lengthOf(bulkData.getURI()) + 1;
+        }
+        if (value instanceof double[]) {
+            int n = ((double[]) value).length;
+            return varIntLength(n) + n * 8;
+        }
+        if (value instanceof long[]) {
+            int n = ((long[]) value).length;
+            return varIntLength(n) + n * 8;
+        }
+        throw new IllegalArgumentException("Unsupported value type: " + value.getClass());
+    }
+
+    private static int lengthOf(String s) {
+        if (s == null)
+            return 1;
+
+        int n = utf8Length(s);
+        return varIntLength(n + 1) + n;
+    }
+
+    private static int utf8Length(String s) {
+        int n = s.length();
+        int length = n;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    length++;
+                } else if (Character.isHighSurrogate(c) && i + 1 < n
+                        && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    length += 2; // 4 bytes for 2 chars
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    // unpaired surrogate encoded as '?'
+                } else {
+                    length += 2;
+                }
+            }
+        }
+        return length;
+    }
+
+    private void writeDataset(Writer w, Attributes attrs) {
+        int size = attrs.size();
+        int count = size;
+        if (!includeBulkData)
+            for (int i = 0; i < size; i++)
+                if (!include(attrs.storedValueAt(i)))
+                    count--;
+        w.writeVarInt(count);
+        for (int i = 0; i < size; i++) {
+            Object value = attrs.snapshotValueAt(i);
+            if (!include(value))
+                continue;
+            w.writeInt(attrs.tagAt(i));
+            int vrCode = attrs.vrAt(i).code();
+            w.ensure(2);
+            w.b[w.pos++] = (byte) (vrCode >> 8);
+            w.b[w.pos++] = (byte) vrCode;
+            writeValue(w, value);
+        }
+    }
+
+    private void writeValue(Writer w, Object value) {
+        if (value == Value.NULL) {
+            w.writeByte(NULL);
+        } else if (value instanceof byte[]) {
+            byte[] bs = (byte[]) value;
+            w.writeByte(BYTES);
+            w.writeVarInt(bs.length);
+            w.ensure(bs.length);
+            System.arraycopy(bs, 0, w.b, w.pos, bs.length);
+            w.pos += bs.length;
+        } else if (value instanceof String) {
+            w.writeByte(STRING);
+            w.writeString((String) value);
+        } else if (value instanceof String[]) {
+            String[] ss = (String[]) value;
+            w.writeByte(STRINGS);
+            w.writeVarInt(ss.length);
+            for (String s : ss)
+                w.writeString(s);
+        } else if (value instanceof Sequence) {
+            Sequence seq = (Sequence) value;
+            w.writeByte(SEQUENCE);
+            w.writeVarInt(seq.size());
+            for (Attributes item : seq)
+                writeDataset(w, item);
+        } else if (value instanceof Fragments) {
+            Fragments frags = (Fragments) value;
+            w.writeByte(FRAGMENTS);
+            w.writeByte(frags.bigEndian() ? 1 : 0);
+            w.writeVarInt(frags.size());
+            for (Object frag : frags)
+                writeValue(w, frag);
+        } else if (value instanceof BulkData) {
+            BulkData bulkData = (BulkData) value;
+            w.writeByte(BULK_DATA);
+            w.writeString(bulkData.getUUID());
+            w.writeString(bulkData.getURI());
+            w.writeByte(bulkData.bigEndian() ? 1 : 0);
+        } else if (value instanceof double[]) {
+            double[] ds = (double[]) value;
+            w.writeByte(DOUBLES);
+            w.writeVarInt(ds.length);
+            for (double d : ds)
+                w.writeLong(Double.doubleToRawLongBits(d));
+        } else if (value instanceof long[]) {
+            long[] ls = (long[]) value;
+            w.writeByte(LONGS);
+            w.writeVarInt(ls.length);
+            for (long l : ls)
+                w.writeLong(l);
+        } else {
+            throw new IllegalArgumentException("Unsupported value type: " + value.getClass());
+        }
+    }
+
+    private static int varIntLength(int i) {
+        int length = 1;
+        while ((i >>>= 7) != 0)
+            length++;
+        return length;
+    }
+
+    private static int writeVarInt(byte[] b, int pos, int i) {
+        while ((i & ~0x7f) != 0) {
+            b[pos++] = (byte) (0x80 | (i & 0x7f));
+            i >>>= 7;
+        }
+        b[pos++] = (byte) i;
+        return pos;
+    }
+
+    private static int writeInt(byte[] b, int pos, int i) {
+        b[pos] = (byte) (i >> 24);
+        b[pos + 1] = (byte) (i >> 16);
+        b[pos + 2] = (byte) (i >> 8);
+        b[pos + 3] = (byte) i;
+        return pos + 4;
+    }
+
+    private static int writeLong(byte[] b, int pos, long l) {
+        writeInt(b, pos, (int) (l >> 32));
+        return writeInt(b, pos + 4, (int) l);
+    }
+
+    /**
+     * Writes into an array, which is replaced by a larger copy if it is too
+     * small and {@code growable}.
+     */
+    private static final class Writer {
+        byte[] b;
+        int pos;
+        final int end;
+        final boolean growable;
+
+        Writer(byte[] b, int off, int end, boolean growable) {
+            this.b = b;
+            this.pos = off;
+            this.end = growable ? Integer.MAX_VALUE : end;
+            this.growable = growable;
+        }
+
+        void ensure(int n) {
+            int required = pos + n;
+            if (required <= b.length && required <= end)
+                return;
+            if (!growable)
+                throw new IndexOutOfBoundsException("Snapshot exceeds destination");
+            b = Arrays.copyOf(b, Math.max(required, b.length << 1));
+        }
+
+        void writeByte(int i) {
+            ensure(1);
+            b[pos++] = (byte) i;
+        }
+
+        void writeVarInt(int i) {
+            ensure(5);
+            pos = SnapshotCodec.writeVarInt(b, pos, i);
+        }
+
+        void writeInt(int i) {
+            ensure(4);
+            pos = SnapshotCodec.writeInt(b, pos, i);
+        }
+
+        void writeLong(long l) {
+            ensure(8);
+            pos = SnapshotCodec.writeLong(b, pos, l);
+        }
+
+        void writeString(String s) {
+            if (s == null) {
+                writeByte(0);
+                return;
+            }
+            int length = utf8Length(s);
+            ensure(varIntLength(length + 1) + length);
+            pos = SnapshotCodec.writeVarInt(b, pos, length + 1);
+            int n = s.length();
+            for (int i = 0; i < n; i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    b[pos++] = (byte) c;
+                } else if (c < 0x800) {
+                    b[pos++] = (byte) (0xc0 | (c >> 6));
+                    b[pos++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < n
+                        && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    b[pos++] = (byte) (0xf0 | (cp >> 18));
+                    b[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                    b[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                    b[pos++] = (byte) (0x80 | (cp & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    b[pos++] = '?';
+                } else {
+                    b[pos++] = (byte) (0xe0 | (c >> 12));
+                    b[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    b[pos++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+        }
+    }
+
+    private static int readInt(byte[] b, int pos) {
+        return (b[pos] << 24) | ((b[pos + 1] & 0xff) << 16)
+                | ((b[pos + 2] & 0xff) << 8) | (b[pos + 3] & 0xff);
+    }
+
+    private static final class Reader {
+        final byte[] b;
+        final int end;
+        int pos;
+
+        Reader(byte[] b, int pos, int end) {
+            this.b = b;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        Attributes readDataset(boolean bigEndian) {
+            int count = readVarInt();
+            Attributes attrs = new Attributes(bigEndian, count);
+            readAttributes(attrs, count);
+            return attrs;
+        }
+
+        void readAttributes(Attributes attrs, int count) {
+            for (int i = 0; i < count; i++) {
+                int tag = readInt();
+                int vrCode = ((b[checkIndex(pos)] & 0xff) << 8) | (b[checkIndex(pos + 1)] & 0xff);
+                pos += 2;
+                VR vr = VR.valueOf(vrCode);
+                if (vr == null)
+                    throw new IllegalArgumentException("Invalid VR code: " + Integer.toHexString(vrCode));
+                int type = readByte();
+                if (type == SEQUENCE) {
+                    int n = readVarInt();
+                    Sequence seq = attrs.newSequence(tag, n);
+                    for (int j = 0; j < n; j++) {
+                        int m = readVarInt();
+                        Attributes item = new Attributes(attrs.bigEndian(), m);
+                        seq.add(item);
+                        readAttributes(item, m);
+                    }
+                } else if (type == FRAGMENTS) {
+                    boolean bigEndian = readByte() != 0;
+                    int n = readVarInt();
+                    Fragments frags = new Fragments(vr, bigEndian, n);
+                    for (int j = 0; j < n; j++)
+                        frags.add(readValue(readByte()));
+                    attrs.setValue(tag, vr, frags);
+                } else {
+                    attrs.setValue(tag, vr, readValue(type));
+                }
+            }
+        }
+
+        Object readValue(int type) {
+            switch (type) {
+                case NULL:
+                    return Value.NULL;
+                case BYTES:
+                    return readBytes(readVarInt());
+                case STRING:
+                    return readString();
+                case STRINGS: {
+                    String[] ss = new String[readVarInt()];
+                    for (int i = 0; i < ss.length; i++)
+                        ss[i] = readString();
+                    return ss;
+                }
+                case BULK_DATA: {
+                    String uuid = readString();
+                    String uri = readString();
+                    return new BulkData(uuid, uri, readByte() != 0);
+                }
+                case DOUBLES: {
+                    double[] ds = new double[readVarInt()];
+                    for (int i = 0; i < ds.length; i++)
+                        ds[i] = Double.longBitsToDouble(readLong());
+                    return ds;
+                }
+                case LONGS: {
+                    long[] ls = new long[readVarInt()];
+                    for (int i = 0; i < ls.length; i++)
+                        ls[i] = readLong();
+                    return ls;
+                }
+            }
+            throw new IllegalArgumentException("Invalid value type: " + type);
+        }
+
+        int checkIndex(int index) {
+            if (index >= end)
+                throw new IndexOutOfBoundsException();
+            return index;
+        }
+
+        int readByte() {
+            return b[checkIndex(pos++)] & 0xff;
+        }
+
+        int readInt() {
+            checkIndex(pos + 3);
+            int i = SnapshotCodec.readInt(b, pos);
+            pos += 4;
+            return i;
+        }
+
+        long readLong() {
+            return ((long) readInt() << 32) | (readInt() & 0xffffffffL);
+        }
+
+        int readVarInt() {
+            int i = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int v = readByte();
+                i |= (v & 0x7f) << shift;
+                if ((v & 0x80) == 0) {
+                    if (i < 0)
+                        break;
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("Invalid length in data set snapshot");
+        }
+
+        byte[] readBytes(int length) {
+            if (length > end - pos)
+                throw new IndexOutOfBoundsException();
+            byte[] bs = new byte[length];
+            System.arraycopy(b, pos, bs, 0, length);
+            pos += length;
+            return bs;
+        }
+
+        String readString() {
+            int length = readVarInt() - 1;
+            if (length < 0)
+                return null;
+            if (length > end - pos)
+                throw new IndexOutOfBoundsException();
+            String s = new String(b, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return s;
+        }
+    }
+}
@@ -43,13 +43,13 @@ import org.dcm4che3.util.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.UnsupportedEncodingException;
 import java.lang.ref.SoftReference;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.*;
 import java.util.Arrays;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Gunter Zeilinger (gunterze@protonmail.com)
@@ -62,6 +62,9 @@ public class SpecificCharacterSet {
     public static final SpecificCharacterSet ASCII = new SpecificCharacterSet(new Codec[]{Codec.ISO_646});
 
     private static SpecificCharacterSet DEFAULT = ASCII;
+    private static final int MAX_CACHED = 256;
+    private static final ConcurrentHashMap<String, SpecificCharacterSet> cache =
+            new ConcurrentHashMap<String, SpecificCharacterSet>();
     private static final ThreadLocal<SoftReference<Encoder>> cachedEncoder1 = new ThreadLocal<SoftReference<Encoder>>();
     private static final ThreadLocal<SoftReference<Encoder>> cachedEncoder2 = new ThreadLocal<SoftReference<Encoder>>();
 
@@ -94,6 +97,7 @@ public class SpecificCharacterSet {
         GB18030(false, 0, 0, -1);
 
         private static final String[] charsetNames = resetCharsetNames(new String[18]);
+        private static final Charset[] charsets = new Charset[18];
         private final boolean containsASCII;
         private final int escSeq0;
         private final int escSeq1;
@@ -108,6 +112,7 @@ public class SpecificCharacterSet {
 
         private static void resetCharsetNames() {
             resetCharsetNames(charsetNames);
+            Arrays.fill(charsets, null);
         }
 
         private static String[] resetCharsetNames(String[] charsetNames) {
@@ -198,27 +203,42 @@ public class SpecificCharacterSet {
         }
 
         public byte[] encode(String val) {
-            try {
-                return val.getBytes(charsetName());
-            } catch (UnsupportedEncodingException e) {
-                throw new AssertionError(e);
-            }
+            return val.getBytes(charset());
         }
 
         private String charsetName() {
             return charsetNames[ordinal()];
         }
 
+        private Charset charset() {
+            Charset charset = charsets[ordinal()];
+            if (charset == null)
+                charsets[ordinal()] = charset = Charset.forName(charsetName());
+            return charset;
+        }
+
         private void setCharsetName(String charsetName) {
             charsetNames[ordinal()] = charsetName;
+            charsets[ordinal()] = null;
         }
 
         public String decode(byte[] b, int off, int len) {
-            try {
-                return new String(b, off, len, charsetName());
-            } catch (UnsupportedEncodingException e) {
-                throw new AssertionError(e);
-            }
+            Charset charset = charset();
+            if (charset.equals(StandardCharsets.ISO_8859_1)
+                    || (charset.equals(StandardCharsets.US_ASCII) || charset.equals(StandardCharsets.UTF_8))
+                        && isASCII(b, off, len))
+                // Latin-1 decoding of ASCII bytes just widens each byte to a char,
+                // without CharsetDecoder and intermediate buffers
+                return new String(b, off, len, StandardCharsets.ISO_8859_1);
+
+            return new String(b, off, len, charset);
+        }
+
+        private static boolean isASCII(byte[] b, int off, int len) {
+            for (int i = off, end = off + len; i < end; i++)
+                if (b[i] < 0)
+                    return false;
+            return true;
         }
 
         public boolean containsASCII() {
@@ -407,6 +427,9 @@ public class SpecificCharacterSet {
 
         @Override
         public String decode(byte[] b) {
+            if (indexOfESC(b) < 0)
+                return codecs[0].decode(b, 0, b.length);
+
             Codec[] codec = { codecs[0], codecs[0] };
             int g = 0;
             int off = 0;
@@ -506,6 +529,13 @@ public class SpecificCharacterSet {
             return sb.toString();
         }
 
+        private static int indexOfESC(byte[] b) {
+            for (int i = 0; i < b.length; i++)
+                if (b[i] == 0x1b)
+                    return i;
+            return -1;
+        }
+
         private void switchCodec(Codec[] codecs, int i, Codec codec) {
             codecs[i] = codec;
             if (codecs[0].getEscSeq0() == codecs[1].getEscSeq0())
@@ -523,6 +553,7 @@ public class SpecificCharacterSet {
         if (!cs.containsASCII())
             throw new IllegalArgumentException("Default Character Set must contain ASCII - " + code);
         DEFAULT = cs;
+        cache.clear();
     }
 
     /**
@@ -620,10 +651,46 @@ public class SpecificCharacterSet {
         return charsetName;
     }
 
+    /**
+     * Returns the Specific Character Set for the specified values of
+     * Specific Character Set (0008,0005). Instances are cached by the
+     * sequence of codes, so decoding many data sets with the same Specific
+     * Character Set does not create new instances.
+     *
+     * @param codes values of Specific Character Set (0008,0005)
+     * @return Specific Character Set
+     */
     public static SpecificCharacterSet valueOf(String... codes) {
         if (codes == null || codes.length == 0)
             return DEFAULT;
 
+        String key = cacheKey(codes);
+        if (key == null)
+            return newInstance(codes);
+
+        SpecificCharacterSet cs = cache.get(key);
+        if (cs == null) {
+            cs = newInstance(codes.clone());
+            if (cache.size() < MAX_CACHED)
+                cache.putIfAbsent(key, cs);
+        }
+        return cs;
+    }
+
+    private static String cacheKey(String[] codes) {
+        if (codes.length == 1)
+            return codes[0];
+
+        StringBuilder sb = new StringBuilder(codes.length * 16);
+        for (String code : codes) {
+            if (code == null)
+                return null;
+            sb.append(code).append('\\');
+        }
+        return sb.toString();
+    }
+
+    private static SpecificCharacterSet newInstance(String... codes) {
         boolean iso2022 = codes.length > 1;
         Codec defCodec = SpecificCharacterSet.DEFAULT.codecs[0];
         if (iso2022) {
@@ -746,8 +813,14 @@ public class SpecificCharacterSet {
         return withASCII;
     }
 
+    /**
+     * Returns the values of Specific Character Set (0008,0005). Instances are
+     * cached and shared, so the returned array is a copy.
+     *
+     * @return values of Specific Character Set (0008,0005)
+     */
     public String[] toCodes () {
-        return dicomCodes;
+        return dicomCodes.clone();
     }
 
     private static Encoder encoder(ThreadLocal<SoftReference<Encoder>> tl,
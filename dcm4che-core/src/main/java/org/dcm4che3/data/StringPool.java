@@ -0,0 +1,214 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.data;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, thread-safe pool of decoded string values, which are repeated
+ * over many data sets - like UIDs and code strings of instances of the same
+ * study - so equal values share one {@code String} instance.
+ * <p>
+ * Only values of attributes with one of the configured VRs or tags and not
+ * longer than {@link #getMaxLength()} characters are pooled. After the pool
+ * reached its maximal size, further values are not added, but still matched
+ * against the pooled values.
+ *
+ * @see org.dcm4che3.io.DicomInputStream#setStringPool(StringPool)
+ * @see Attributes#internStringValues(StringPool)
+ * @since Oct 2026
+ */
+public class StringPool {
+
+    public static final int DEFAULT_MAX_SIZE = 100000;
+    public static final int DEFAULT_MAX_LENGTH = 64;
+
+    private final ConcurrentHashMap<String, String> pool = new ConcurrentHashMap<String, String>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final int maxSize;
+    private final EnumSet<VR> vrs = EnumSet.noneOf(VR.class);
+    private volatile int[] tags = {};
+    private volatile int maxLength = DEFAULT_MAX_LENGTH;
+
+    /**
+     * Creates a pool of values with VR UI and CS with a maximal size of
+     * {@value #DEFAULT_MAX_SIZE} values.
+     */
+    public StringPool() {
+        this(DEFAULT_MAX_SIZE, VR.UI, VR.CS);
+    }
+
+    /**
+     * Creates a pool of values with the specified VRs.
+     *
+     * @param maxSize maximal number of pooled values
+     * @param vrs VRs of pooled values
+     */
+    public StringPool(int maxSize, VR... vrs) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("maxSize: " + maxSize);
+
+        this.maxSize = maxSize;
+        for (VR vr : vrs) {
+            if (!vr.isStringType())
+                throw new IllegalArgumentException("vr: " + vr);
+            this.vrs.add(vr);
+        }
+    }
+
+    public final int getMaxSize() {
+        return maxSize;
+    }
+
+    public final int getMaxLength() {
+        return maxLength;
+    }
+
+    public final void setMaxLength(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    public final int[] getTags() {
+        return tags.clone();
+    }
+
+    /**
+     * Sets tags of attributes which values are pooled additionally to values
+     * of attributes with one of the VRs specified on creation.
+     *
+     * @param tags tags of pooled attributes
+     */
+    public final void setTags(int... tags) {
+        int[] sorted = tags.clone();
+        Arrays.sort(sorted);
+        this.tags = sorted;
+    }
+
+    public boolean isPooled(int tag, VR vr) {
+        return vr.isStringType() && (vrs.contains(vr) || Arrays.binarySearch(tags, tag) >= 0);
+    }
+
+    /**
+     * Returns the pooled instance equal to the specified string, adding it
+     * to the pool if there is no such instance and the pool is not full.
+     *
+     * @param s string value
+     * @return pooled instance or {@code s}
+     */
+    public String intern(String s) {
+        if (s == null || s.length() > maxLength)
+            return s;
+
+        String pooled = pool.get(s);
+        if (pooled != null) {
+            hits.incrementAndGet();
+            return pooled;
+        }
+        misses.incrementAndGet();
+        if (pool.size() >= maxSize)
+            return s;
+
+        pooled = pool.putIfAbsent(s, s);
+        return pooled != null ? pooled : s;
+    }
+
+    /**
+     * Replaces the specified decoded value - {@code String} or {@code String[]} -
+     * by pooled instances. Elements of a {@code String[]} are replaced in place.
+     *
+     * @param value decoded value
+     * @return value with pooled instances
+     */
+    public Object intern(Object value) {
+        if (value instanceof String)
+            return intern((String) value);
+
+        if (value instanceof String[]) {
+            String[] ss = (String[]) value;
+            for (int i = 0; i < ss.length; i++)
+                ss[i] = intern(ss[i]);
+        }
+        return value;
+    }
+
+    public int size() {
+        return pool.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the ratio of looked up values, which were found in the pool.
+     *
+     * @return hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long hits = this.hits.get();
+        long total = hits + misses.get();
+        return total > 0 ? (double) hits / total : 0;
+    }
+
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    public void clear() {
+        pool.clear();
+        resetStatistics();
+    }
+
+    @Override
+    public String toString() {
+        return "StringPool[size=" + pool.size()
+                + ", hits=" + hits.get()
+                + ", misses=" + misses.get()
+                + "]";
+    }
+}
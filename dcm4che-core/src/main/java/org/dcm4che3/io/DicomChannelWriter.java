@@ -0,0 +1,529 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.GatheringByteChannel;
+import java.util.Arrays;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.BulkData;
+import org.dcm4che3.data.Fragments;
+import org.dcm4che3.data.Sequence;
+import org.dcm4che3.data.SpecificCharacterSet;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.data.Value;
+import org.dcm4che3.util.SafeBuffer;
+import org.dcm4che3.util.StreamUtils;
+import org.dcm4che3.util.TagUtils;
+
+/**
+ * Writes data sets to a {@link GatheringByteChannel}, producing the same
+ * encoding as {@link DicomOutputStream}.
+ * <p>
+ * Encoded lengths of items, sequences and groups are calculated by one pass
+ * over the data set before it is written, and kept by the writer, so neither
+ * nested lengths have to be re-calculated, nor the data set has to be copied
+ * for caching them - as done by {@link DicomOutputStream#writeDataset} for
+ * encodings with group lengths or explicit sequence or item lengths. The
+ * written data set is not modified, so also read-only data sets may be
+ * written.
+ * <p>
+ * Headers and small values are collected in one direct buffer. Values with
+ * a length of at least {@link #getGatherThreshold()} bytes and bulk data
+ * held by a buffer are not copied, but passed as separate segments to
+ * {@link GatheringByteChannel#write(ByteBuffer[], int, int)}. Other bulk data
+ * is streamed from its source.
+ * <p>
+ * The channel must be in blocking mode. Deflated transfer syntaxes are not
+ * supported.
+ *
+ * @see DicomOutputStream
+ * @since Oct 2026
+ */
+public class DicomChannelWriter {
+
+    public static final int DEFAULT_BUFFER_SIZE = 0x10000;
+    public static final int DEFAULT_GATHER_THRESHOLD = 0x1000;
+
+    private static final byte[] DICM = { 'D', 'I', 'C', 'M' };
+    private static final int MAX_SEGMENTS = 64;
+
+    private final GatheringByteChannel channel;
+    private final ByteBuffer buf;
+    private final ByteBuffer[] segments = new ByteBuffer[MAX_SEGMENTS];
+    private int numSegments;
+    private int segmentStart;
+    private byte[] copyBuffer;
+
+    private byte[] preamble = new byte[128];
+    private boolean explicitVR;
+    private boolean bigEndian;
+    private DicomEncodingOptions encOpts = DicomEncodingOptions.DEFAULT;
+    private int gatherThreshold = DEFAULT_GATHER_THRESHOLD;
+
+    // encoded lengths and values of the data set being written
+    private int[] lengths = new int[64];
+    private int numLengths;
+    private int lengthIndex;
+    private byte[][] encodedValues = new byte[16][];
+    private int numEncodedValues;
+    private int encodedValueIndex;
+
+    public DicomChannelWriter(GatheringByteChannel channel, String tsuid) {
+        this(channel, tsuid, DEFAULT_BUFFER_SIZE);
+    }
+
+    public DicomChannelWriter(GatheringByteChannel channel, String tsuid, int bufferSize) {
+        if (channel == null)
+            throw new NullPointerException("channel");
+        if (bufferSize < 256)
+            throw new IllegalArgumentException("bufferSize: " + bufferSize);
+
+        this.channel = channel;
+        this.buf = ByteBuffer.allocateDirect(bufferSize);
+        switchTransferSyntax(tsuid);
+    }
+
+    public final void setPreamble(byte[] preamble) {
+        if (preamble.length != 128)
+            throw new IllegalArgumentException(
+                    "preamble.length=" + preamble.length);
+        this.preamble = preamble.clone();
+    }
+
+    public final boolean isExplicitVR() {
+        return explicitVR;
+    }
+
+    public final boolean isBigEndian() {
+        return bigEndian;
+    }
+
+    public final DicomEncodingOptions getEncodingOptions() {
+        return encOpts;
+    }
+
+    public final void setEncodingOptions(DicomEncodingOptions encOpts) {
+        if (encOpts == null)
+            throw new NullPointerException();
+        this.encOpts = encOpts;
+    }
+
+    public final int getGatherThreshold() {
+        return gatherThreshold;
+    }
+
+    /**
+     * Sets the minimal length of values, which are passed as separate segments
+     * to the channel, instead of being copied into the buffer.
+     *
+     * @param gatherThreshold minimal length of values passed as separate segments
+     */
+    public final void setGatherThreshold(int gatherThreshold) {
+        if (gatherThreshold <= 0)
+            throw new IllegalArgumentException("gatherThreshold: " + gatherThreshold);
+        this.gatherThreshold = gatherThreshold;
+    }
+
+    public void switchTransferSyntax(String tsuid) {
+        if (tsuid.equals(UID.DeflatedExplicitVRLittleEndian)
+                || tsuid.equals(UID.JPIPReferencedDeflate))
+            throw new IllegalArgumentException(
+                    "Deflated Transfer Syntax not supported: " + tsuid);
+        setEncoding(tsuid.equals(UID.ExplicitVRBigEndian),
+                !tsuid.equals(UID.ImplicitVRLittleEndian));
+    }
+
+    private void setEncoding(boolean bigEndian, boolean explicitVR) {
+        this.bigEndian = bigEndian;
+        this.explicitVR = explicitVR;
+        buf.order(bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public void writeFileMetaInformation(Attributes fmi) throws IOException {
+        if (!explicitVR || bigEndian)
+            throw new IllegalStateException("explicitVR=" + explicitVR
+                    + ", bigEndian=" + bigEndian);
+        ensureRemaining(preamble.length + DICM.length);
+        buf.put(preamble);
+        buf.put(DICM);
+        reset();
+        int groupLength = calcDataset(fmi, false);
+        writeGroupLength(Tag.FileMetaInformationGroupLength, groupLength);
+        writeDataset(fmi, false);
+        flush();
+    }
+
+    public void writeDataset(Attributes fmi, Attributes dataset)
+            throws IOException {
+        if (fmi != null) {
+            writeFileMetaInformation(fmi);
+            switchTransferSyntax(fmi.getString(Tag.TransferSyntaxUID, null));
+        }
+        if (dataset.bigEndian() != bigEndian)
+            dataset = new Attributes(dataset, bigEndian);
+        reset();
+        calcDataset(dataset, encOpts.groupLength);
+        writeDataset(dataset, encOpts.groupLength);
+        flush();
+    }
+
+    private void reset() {
+        numLengths = 0;
+        lengthIndex = 0;
+        Arrays.fill(encodedValues, 0, numEncodedValues, null);
+        numEncodedValues = 0;
+        encodedValueIndex = 0;
+    }
+
+    private int reserveLength() {
+        if (numLengths == lengths.length)
+            lengths = Arrays.copyOf(lengths, numLengths << 1);
+        return numLengths++;
+    }
+
+    private void addEncodedValue(byte[] b) {
+        if (numEncodedValues == encodedValues.length)
+            encodedValues = Arrays.copyOf(encodedValues, numEncodedValues << 1);
+        encodedValues[numEncodedValues++] = b;
+    }
+
+    private int calcDataset(Attributes attrs, final boolean groupLength) {
+        final SpecificCharacterSet cs = attrs.getSpecificCharacterSet();
+        final int[] total = new int[1];
+        try {
+            attrs.accept(new Attributes.Visitor() {
+                int groupLengthTag = -1;
+                int groupLengthIndex = -1;
+
+                @Override
+                public boolean visit(Attributes attrs, int tag, VR vr, Object value) {
+                    if (groupLength) {
+                        int tmp = TagUtils.groupLengthTagOf(tag);
+                        if (groupLengthTag != tmp) {
+                            groupLengthTag = tmp;
+                            groupLengthIndex = reserveLength();
+                            lengths[groupLengthIndex] = 0;
+                            total[0] += 12;
+                        }
+                    }
+                    int len = (explicitVR ? vr.headerLength() : 8) + calcValue(vr, value, cs);
+                    total[0] += len;
+                    if (groupLength)
+                        lengths[groupLengthIndex] += len;
+                    return true;
+                }
+            }, false);
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+        return total[0];
+    }
+
+    private int calcValue(VR vr, Object value, SpecificCharacterSet cs) {
+        if (value instanceof Sequence)
+            return calcSequence((Sequence) value);
+
+        if (value instanceof Value)
+            return ((Value) value).calcLength(encOpts, explicitVR, vr);
+
+        if (!(value instanceof byte[])) {
+            value = vr.toBytes(value, cs);
+            addEncodedValue((byte[]) value);
+        }
+        return (((byte[]) value).length + 1) & ~1;
+    }
+
+    private int calcSequence(Sequence seq) {
+        int seqLengthIndex = reserveLength();
+        int len = 0;
+        for (Attributes item : seq) {
+            int itemLengthIndex = reserveLength();
+            int itemLength = calcDataset(item, encOpts.groupLength);
+            lengths[itemLengthIndex] = itemLength;
+            len += 8 + itemLength;
+            if (item.isEmpty() ? encOpts.undefEmptyItemLength
+                               : encOpts.undefItemLength)
+                len += 8;
+        }
+        if (seq.isEmpty() ? encOpts.undefEmptySequenceLength
+                          : encOpts.undefSequenceLength)
+            len += 8;
+        lengths[seqLengthIndex] = len;
+        return len;
+    }
+
+    private void writeDataset(Attributes attrs, final boolean groupLength)
+            throws IOException {
+        try {
+            attrs.accept(new Attributes.Visitor() {
+                int groupLengthTag = -1;
+
+                @Override
+                public boolean visit(Attributes attrs, int tag, VR vr, Object value)
+                        throws IOException {
+                    if (groupLength) {
+                        int tmp = TagUtils.groupLengthTagOf(tag);
+                        if (groupLengthTag != tmp) {
+                            groupLengthTag = tmp;
+                            writeGroupLength(groupLengthTag, lengths[lengthIndex++]);
+                        }
+                    }
+                    writeAttribute(tag, vr, value);
+                    return true;
+                }
+            }, false);
+        } catch (Exception e) {
+            throw rethrowIOException(e);
+        }
+    }
+
+    private void writeAttribute(int tag, VR vr, Object value) throws IOException {
+        if (value instanceof Sequence) {
+            writeSequence(tag, vr, (Sequence) value);
+        } else if (value instanceof Value) {
+            Value val = (Value) value;
+            int length = val.getEncodedLength(encOpts, explicitVR, vr);
+            writeHeader(tag, vr, length);
+            if (val instanceof BulkData)
+                writeBulkData(vr, (BulkData) val);
+            else if (val instanceof Fragments)
+                writeFragments(vr, (Fragments) val);
+            if (length == -1)
+                writeHeader(Tag.SequenceDelimitationItem, null, 0);
+        } else {
+            byte[] b = (value instanceof byte[])
+                    ? (byte[]) value
+                    : encodedValues[encodedValueIndex++];
+            writeValue(tag, vr, b);
+        }
+    }
+
+    private void writeSequence(int tag, VR vr, Sequence seq) throws IOException {
+        int seqLength = lengths[lengthIndex++];
+        int length = seq.isEmpty()
+                ? (encOpts.undefEmptySequenceLength ? -1 : 0)
+                : (encOpts.undefSequenceLength ? -1 : seqLength);
+        writeHeader(tag, vr, length);
+        for (Attributes item : seq) {
+            int itemLength = lengths[lengthIndex++];
+            int len = item.isEmpty()
+                    ? (encOpts.undefEmptyItemLength ? -1 : 0)
+                    : (encOpts.undefItemLength ? -1 : itemLength);
+            writeHeader(Tag.Item, null, len);
+            writeDataset(item, encOpts.groupLength);
+            if (len == -1)
+                writeHeader(Tag.ItemDelimitationItem, null, 0);
+        }
+        if (length == -1)
+            writeHeader(Tag.SequenceDelimitationItem, null, 0);
+    }
+
+    private void writeFragments(VR vr, Fragments frags) throws IOException {
+        for (Object frag : frags) {
+            if (frag instanceof Value) {
+                Value val = (Value) frag;
+                writeHeader(Tag.Item, vr, val.getEncodedLength(encOpts, explicitVR, vr));
+                if (val instanceof BulkData)
+                    writeBulkData(vr, (BulkData) val);
+            } else {
+                writeValue(Tag.Item, vr, (byte[]) frag);
+            }
+        }
+    }
+
+    private void writeValue(int tag, VR vr, byte[] b) throws IOException {
+        int padlen = b.length & 1;
+        writeHeader(tag, vr, b.length + padlen);
+        if (b.length < gatherThreshold) {
+            ensureRemaining(b.length + padlen);
+            buf.put(b);
+        } else {
+            addSegment(ByteBuffer.wrap(b));
+        }
+        if (padlen > 0)
+            writePadding(vr);
+    }
+
+    private void writeBulkData(VR vr, BulkData bulkData) throws IOException {
+        ByteBuffer data = bulkData.getByteBuffer();
+        if (data != null && bulkData.bigEndian() == bigEndian) {
+            addSegment(data);
+        } else {
+            flush();
+            streamBulkData(vr, bulkData);
+        }
+        if ((bulkData.longLength() & 1) != 0)
+            writePadding(vr);
+    }
+
+    private void streamBulkData(VR vr, BulkData bulkData) throws IOException {
+        if (copyBuffer == null)
+            copyBuffer = new byte[buf.capacity()];
+        boolean toggleEndian = bulkData.bigEndian() != bigEndian;
+        InputStream in = bulkData.openStream();
+        try {
+            long remaining = bulkData.longLength();
+            while (remaining > 0) {
+                int n = (int) Math.min(remaining, copyBuffer.length);
+                byte[] b = n == copyBuffer.length ? copyBuffer : new byte[n];
+                StreamUtils.readFully(in, b, 0, n);
+                if (toggleEndian)
+                    vr.toggleEndian(b, false);
+                writeFully(ByteBuffer.wrap(b));
+                remaining -= n;
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private void writePadding(VR vr) throws IOException {
+        ensureRemaining(1);
+        buf.put((byte) vr.paddingByte());
+    }
+
+    private void writeHeader(int tag, VR vr, int len) throws IOException {
+        ensureRemaining(12);
+        putTag(tag);
+        if (!TagUtils.isItem(tag) && explicitVR) {
+            if ((len & 0xffff0000) != 0 && vr.headerLength() == 8)
+                vr = VR.UN;
+            putVR(vr);
+            if (vr.headerLength() == 8) {
+                buf.putShort((short) len);
+            } else {
+                buf.putShort((short) 0);
+                buf.putInt(len);
+            }
+        } else {
+            buf.putInt(len);
+        }
+    }
+
+    private void writeGroupLength(int tag, int len) throws IOException {
+        ensureRemaining(12);
+        putTag(tag);
+        if (explicitVR) {
+            putVR(VR.UL);
+            buf.putShort((short) 4);
+        } else {
+            buf.putInt(4);
+        }
+        buf.putInt(len);
+    }
+
+    private void putTag(int tag) {
+        buf.putShort((short) (tag >>> 16));
+        buf.putShort((short) tag);
+    }
+
+    private void putVR(VR vr) {
+        int code = vr.code();
+        buf.put((byte) (code >> 8));
+        buf.put((byte) code);
+    }
+
+    private void ensureRemaining(int n) throws IOException {
+        if (buf.remaining() < n) {
+            flush();
+            if (buf.remaining() < n)
+                throw new IllegalStateException("Buffer too small: " + buf.capacity());
+        }
+    }
+
+    private void addSegment(ByteBuffer segment) throws IOException {
+        if (numSegments + 2 > MAX_SEGMENTS)
+            flush();
+        addBufferedSegment();
+        segments[numSegments++] = segment;
+    }
+
+    private void addBufferedSegment() {
+        int pos = buf.position();
+        if (pos > segmentStart) {
+            ByteBuffer segment = buf.duplicate();
+            SafeBuffer.limit(segment, pos);
+            SafeBuffer.position(segment, segmentStart);
+            segments[numSegments++] = segment;
+            segmentStart = pos;
+        }
+    }
+
+    /**
+     * Writes all collected headers and values to the channel.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private void flush() throws IOException {
+        addBufferedSegment();
+        int off = 0;
+        while (off < numSegments) {
+            channel.write(segments, off, numSegments - off);
+            while (off < numSegments && !segments[off].hasRemaining())
+                segments[off++] = null;
+        }
+        numSegments = 0;
+        segmentStart = 0;
+        SafeBuffer.clear(buf);
+    }
+
+    private void writeFully(ByteBuffer src) throws IOException {
+        while (src.hasRemaining())
+            channel.write(src);
+    }
+
+    private static RuntimeException rethrow(Exception e) {
+        if (e instanceof RuntimeException)
+            return (RuntimeException) e;
+        return new RuntimeException(e);
+    }
+
+    private static IOException rethrowIOException(Exception e) {
+        if (e instanceof IOException)
+            return (IOException) e;
+        throw rethrow(e);
+    }
+}
@@ -40,6 +40,7 @@ package org.dcm4che3.io;
 
 import org.dcm4che3.data.*;
 import org.dcm4che3.util.ByteUtils;
+import org.dcm4che3.util.InflaterPool;
 import org.dcm4che3.util.LimitedInputStream;
 import org.dcm4che3.util.SafeClose;
 import org.dcm4che3.util.StreamUtils;
@@ -120,6 +121,7 @@ public class DicomInputStream extends FilterInputStream
     private boolean includeBulkDataURI;
 
     private boolean catBlkFiles = true;
+    private StringPool stringPool;
     private String blkFilePrefix = "blk";
     private String blkFileSuffix;
     private File blkDirectory;
@@ -222,6 +224,33 @@ public class DicomInputStream extends FilterInputStream
         }
     }
 
+    /**
+     * Create a new DicomInputStream for the given file, which is read through
+     * memory mappings of the file by a {@link MappedFileInputStream}.
+     *
+     * Skipping values - like by parsing only the header of a file with
+     * {@link IncludeBulkData#URI} - does not touch the skipped pages of the file.
+     * {@link BulkData} references created with {@link IncludeBulkData#URI}
+     * provide read-only slices of the mapping by {@link BulkData#getByteBuffer()},
+     * so their values can be accessed without re-opening and copying the file.
+     *
+     * @param file file to read
+     * @return new DicomInputStream
+     * @throws IOException if there is a problem reading from the given file
+     */
+    public static DicomInputStream createMemoryMapped(File file) throws IOException {
+        MappedFileInputStream in = new MappedFileInputStream(file);
+        DicomInputStream dicomInputStream;
+        try {
+            dicomInputStream = new DicomInputStream(in);
+        } catch (IOException e) {
+            SafeClose.close(in);
+            throw e;
+        }
+        dicomInputStream.setURI(file.toURI().toString());
+        return dicomInputStream;
+    }
+
     private static InputStream ensureMarkSupported(InputStream in) {
         return in.markSupported() ? in : new BufferedInputStream(in);
     }
@@ -333,6 +362,24 @@ public class DicomInputStream extends FilterInputStream
         this.catBlkFiles = catBlkFiles;
     }
 
+    public final StringPool getStringPool() {
+        return stringPool;
+    }
+
+    /**
+     * Specifies a pool of string values, which are shared by all read data
+     * sets. Values of attributes pooled by the specified {@code StringPool}
+     * are decoded immediately and replaced by equal instances in the pool, so
+     * values repeated across data sets - like Study and Series Instance UIDs -
+     * only occupy memory once. The pool may be shared by several
+     * {@code DicomInputStream}s.
+     *
+     * @param stringPool pool of string values or {@code null}
+     */
+    public final void setStringPool(StringPool stringPool) {
+        this.stringPool = stringPool;
+    }
+
     public final List<File> getBulkDataFiles() {
         if (blkFiles != null)
             return blkFiles;
@@ -377,6 +424,10 @@ public class DicomInputStream extends FilterInputStream
         return vr;
     }
 
+    final void setVR(VR vr) {
+        this.vr = vr;
+    }
+
     /**
      * Returns value length of last parsed data element header. May be negative for value length >= 2^31.
      * -1 indicates an Undefined Length.
@@ -415,6 +466,11 @@ public class DicomInputStream extends FilterInputStream
         return explicitVR;
     }
 
+    final void setEncoding(boolean bigEndian, boolean explicitVR) {
+        this.bigEndian = bigEndian;
+        this.explicitVR = explicitVR;
+    }
+
     public boolean isExcludeBulkData() {
         return excludeBulkData;
     }
@@ -440,10 +496,14 @@ public class DicomInputStream extends FilterInputStream
     @Override
     public void close() throws IOException {
         SafeClose.close(blkOut);
-        if (inflater != null) {
-            inflater.end();
+        try {
+            super.close();
+        } finally {
+            if (inflater != null) {
+                InflaterPool.getInstance().release(inflater);
+                inflater = null;
+            }
         }
-        super.close();
     }
 
     @Override
@@ -734,14 +794,26 @@ public class DicomInputStream extends FilterInputStream
         } else {
             byte[] b = readValue();
             if (!TagUtils.isGroupLength(tag)) {
-                if (bigEndian != attrs.bigEndian())
-                    vr.toggleEndian(b, false);
-                attrs.setBytes(tag, vr, b);
+                if (stringPool != null && stringPool.isPooled(tag, vr)) {
+                    setPooledString(attrs, b);
+                } else {
+                    if (bigEndian != attrs.bigEndian())
+                        vr.toggleEndian(b, false);
+                    attrs.setBytes(tag, vr, b);
+                }
             } else if (tag == Tag.FileMetaInformationGroupLength)
                 setFileMetaInformationGroupLength(b);
         }
     }
 
+    private void setPooledString(Attributes attrs, byte[] b) {
+        Object value = vr.toStrings(b, bigEndian, attrs.getSpecificCharacterSet(vr));
+        if (value instanceof String && ((String) value).isEmpty())
+            attrs.setNull(tag, vr);
+        else
+            attrs.setValue(tag, vr, stringPool.intern(value));
+    }
+
     private Object deserializeBulkData(ObjectInputStream ois) throws IOException {
         try {
             return ois.readObject();
@@ -773,7 +845,12 @@ public class DicomInputStream extends FilterInputStream
     @Override
     public BulkData createBulkData(DicomInputStream dis) throws IOException {
             BulkData bulkData;
-        if (uri != null && !(super.in instanceof InflaterInputStream)) {
+        if (uri != null && super.in instanceof MappedFileInputStream) {
+            MappedFileInputStream mapped = (MappedFileInputStream) super.in;
+            bulkData = new BulkData(uri, pos, length, bigEndian,
+                    length <= Integer.MAX_VALUE ? mapped.slice(mapped.getPosition(), (int) length) : null);
+            skipFully(length);
+        } else if (uri != null && !(super.in instanceof InflaterInputStream)) {
             bulkData = new BulkData(uri, pos, length, bigEndian);
             skipFully(length);
         } else {
@@ -895,7 +972,7 @@ public class DicomInputStream extends FilterInputStream
             seq.trimToSize();
     }
 
-    private boolean probeExplicitVR() throws IOException {
+    boolean probeExplicitVR() throws IOException {
         byte[] buf = new byte[14];
         if (in.markSupported()) {
             in.mark(14);
@@ -910,11 +987,11 @@ public class DicomInputStream extends FilterInputStream
         return VR.valueOf(ByteUtils.bytesToVR(buf, 12)) != null;
     }
 
-    private void addItemPointer(int sqtag, String privateCreator, int itemIndex) {
+    void addItemPointer(int sqtag, String privateCreator, int itemIndex) {
         itemPointers.add(new ItemPointer(privateCreator, sqtag, itemIndex));
     }
 
-    private void removeItemPointer() {
+    void removeItemPointer() {
         itemPointers.remove(itemPointers.size() - 1);
     }
 
@@ -997,7 +1074,7 @@ public class DicomInputStream extends FilterInputStream
                 super.in = new InflaterInputStream(super.in);
             } else {
                 super.in = new InflaterInputStream(super.in,
-                        inflater = new Inflater(true));
+                        inflater = InflaterPool.getInstance().acquire());
             }
         }
     }
@@ -45,6 +45,7 @@ import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
+import java.util.concurrent.Executor;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 
@@ -57,6 +58,7 @@ import org.dcm4che3.data.VR;
 import org.dcm4che3.data.Value;
 import org.dcm4che3.util.ByteUtils;
 import org.dcm4che3.util.CountingOutputStream;
+import org.dcm4che3.util.DeflaterPool;
 import org.dcm4che3.util.TagUtils;
 
 /**
@@ -75,6 +77,7 @@ public class DicomOutputStream extends FilterOutputStream {
 
     private final byte[] buf = new byte[12];
     private Deflater deflater;
+    private Executor deflateExecutor;
 
     public DicomOutputStream(OutputStream out, String tsuid)
             throws IOException {
@@ -82,6 +85,23 @@ public class DicomOutputStream extends FilterOutputStream {
         switchTransferSyntax(tsuid);
     }
 
+    /**
+     * Creates a DicomOutputStream, which compresses data encoded with a
+     * Deflated Transfer Syntax by several threads.
+     *
+     * @param out             underlying output stream
+     * @param tsuid           Transfer Syntax UID
+     * @param deflateExecutor executor compressing blocks of deflated data
+     * @throws IOException if an I/O error occurs
+     * @see #setDeflateExecutor(Executor)
+     */
+    public DicomOutputStream(OutputStream out, String tsuid, Executor deflateExecutor)
+            throws IOException {
+        super(out);
+        this.deflateExecutor = deflateExecutor;
+        switchTransferSyntax(tsuid);
+    }
+
     public DicomOutputStream(File file) throws IOException {
         this(new BufferedOutputStream(new FileOutputStream(file)),
                 UID.ExplicitVRLittleEndian);
@@ -112,6 +132,26 @@ public class DicomOutputStream extends FilterOutputStream {
         this.encOpts = encOpts;
     }
 
+    public final Executor getDeflateExecutor() {
+        return deflateExecutor;
+    }
+
+    /**
+     * Sets the executor, by which data encoded with a Deflated Transfer Syntax
+     * is compressed in blocks by several threads, using
+     * {@link ParallelDeflaterOutputStream}. Only effective, if invoked before
+     * the switch to the Deflated Transfer Syntax - which is performed by the
+     * constructor or by {@link #writeDataset(Attributes, Attributes)} with
+     * File Meta Information. By default, data is compressed by the thread
+     * writing to this stream.
+     *
+     * @param deflateExecutor executor compressing blocks of deflated data or
+     *                        {@code null}
+     */
+    public final void setDeflateExecutor(Executor deflateExecutor) {
+        this.deflateExecutor = deflateExecutor;
+    }
+
     @Override
     public void write(byte[] b, int off, int len) throws IOException {
         out.write(b, off, len);
@@ -156,8 +196,11 @@ public class DicomOutputStream extends FilterOutputStream {
         if (tsuid.equals(UID.DeflatedExplicitVRLittleEndian)
                         || tsuid.equals(UID.JPIPReferencedDeflate)) {
                 this.countingOutputStream = new CountingOutputStream(super.out);
-                super.out = new DeflaterOutputStream(countingOutputStream,
-                        deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+                super.out = deflateExecutor != null
+                        ? new ParallelDeflaterOutputStream(countingOutputStream, deflateExecutor)
+                        : new DeflaterOutputStream(countingOutputStream,
+                                deflater = DeflaterPool.getInstance(Deflater.DEFAULT_COMPRESSION)
+                                        .acquire());
         }
     }
 
@@ -231,7 +274,10 @@ public class DicomOutputStream extends FilterOutputStream {
 
     public void finish() throws IOException {
         if (countingOutputStream != null) {
-            ((DeflaterOutputStream) out).finish();
+            if (out instanceof ParallelDeflaterOutputStream)
+                ((ParallelDeflaterOutputStream) out).finish();
+            else
+                ((DeflaterOutputStream) out).finish();
             if ((countingOutputStream.getCount() & 1) != 0)
                 countingOutputStream.write(0);
         }
@@ -242,9 +288,13 @@ public class DicomOutputStream extends FilterOutputStream {
             finish();
         } catch (IOException ignored) {
         }
-        if (deflater != null) {
-            deflater.end();
+        try {
+            super.close();
+        } finally {
+            if (deflater != null) {
+                DeflaterPool.getInstance(Deflater.DEFAULT_COMPRESSION).release(deflater);
+                deflater = null;
+            }
         }
-        super.close();
     }
 }
@@ -0,0 +1,591 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.ElementDictionary;
+import org.dcm4che3.data.Fragments;
+import org.dcm4che3.data.Sequence;
+import org.dcm4che3.data.SpecificCharacterSet;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.util.ByteUtils;
+import org.dcm4che3.util.StringUtils;
+import org.dcm4che3.util.TagUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pull parser of the data set of a {@link DicomInputStream}, reporting its
+ * data elements, sequences, items and fragments as events, without building
+ * an {@link Attributes} tree.
+ * <p>
+ * After {@link #next()} returned {@link Event#ELEMENT} or {@link Event#FRAGMENT},
+ * the value may be read by one of the {@code read...()} methods. Values which
+ * were not read are skipped by the next invocation of {@link #next()}, without
+ * reading them. {@link #skip()} skips the remaining value of a sequence, an
+ * item or encapsulated pixel data.
+ * <p>
+ * Typical usage for extracting selected attributes:
+ * <pre>
+ * try (DicomStreamReader reader = new DicomStreamReader(new DicomInputStream(file))) {
+ *     while (reader.hasNext()) {
+ *         switch (reader.next()) {
+ *             case ELEMENT:
+ *                 if (reader.level() == 0 &amp;&amp; reader.tag() == Tag.SOPInstanceUID)
+ *                     iuid = reader.readString(null);
+ *                 break;
+ *             case START_SEQUENCE:
+ *                 reader.skip();
+ *                 break;
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * @since Oct 2026
+ */
+public class DicomStreamReader implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DicomStreamReader.class);
+
+    public enum Event {
+        ELEMENT,
+        START_SEQUENCE,
+        END_SEQUENCE,
+        START_ITEM,
+        END_ITEM,
+        START_FRAGMENTS,
+        FRAGMENT,
+        END_FRAGMENTS,
+        END_DATASET
+    }
+
+    private static final int UNDEFINED_LENGTH = -1;
+    private static final int DATASET = 0;
+    private static final int SEQUENCE = 1;
+    private static final int ITEM = 2;
+    private static final int FRAGMENTS = 3;
+
+    private final DicomInputStream dis;
+    private final ArrayList<Frame> frames = new ArrayList<Frame>(8);
+    private Event event;
+    private int tag;
+    private VR vr;
+    private long length;
+    private boolean valuePending;
+    private byte[] value;
+
+    /**
+     * Creates a pull parser of the data set of the specified stream. The File
+     * Meta Information, if present, is read on creation and available by
+     * {@link DicomInputStream#getFileMetaInformation()}.
+     *
+     * @param dis stream to parse
+     * @throws IOException if the File Meta Information cannot be read
+     */
+    public DicomStreamReader(DicomInputStream dis) throws IOException {
+        if (dis == null)
+            throw new NullPointerException("dis");
+
+        this.dis = dis;
+        dis.readFileMetaInformation();
+        frames.add(new Frame(DATASET, 0, null, UNDEFINED_LENGTH));
+    }
+
+    public final DicomInputStream getDicomInputStream() {
+        return dis;
+    }
+
+    /**
+     * Returns the last event returned by {@link #next()}.
+     *
+     * @return last event or {@code null}, if {@link #next()} was not invoked yet
+     */
+    public final Event getEvent() {
+        return event;
+    }
+
+    /**
+     * Returns the tag of the current data element, sequence or encapsulated
+     * pixel data; {@link Tag#Item} for item and fragment events.
+     *
+     * @return tag of the current event
+     */
+    public final int tag() {
+        return tag;
+    }
+
+    /**
+     * Returns the VR of the current data element or sequence, or the VR of
+     * the encapsulated pixel data for fragment events; {@code null} for item
+     * events.
+     *
+     * @return VR of the current event
+     */
+    public final VR vr() {
+        return vr;
+    }
+
+    /**
+     * Returns the value length of the current event; -1 indicates an
+     * Undefined Length.
+     *
+     * @return value length of the current event
+     */
+    public final long length() {
+        return length;
+    }
+
+    /**
+     * Returns the nesting level of the current event; 0 for attributes of
+     * the data set.
+     *
+     * @return nesting level of the current event
+     */
+    public final int level() {
+        return dis.level();
+    }
+
+    /**
+     * Returns the Private Creator of the current private data element or sequence.
+     *
+     * @return Private Creator or {@code null}, if the current data element
+     *         is not a private data element with a known Private Creator
+     */
+    public String privateCreator() {
+        if (event == Event.START_SEQUENCE)
+            return top().privateCreator;
+
+        return event == Event.ELEMENT ? top().privateCreator(tag) : null;
+    }
+
+    public boolean hasNext() {
+        return event != Event.END_DATASET;
+    }
+
+    /**
+     * Advances to the next event. An unread value of the current data element
+     * or fragment is skipped.
+     *
+     * @return next event
+     * @throws IOException if an I/O error occurs
+     * @throws NoSuchElementException if the end of the data set was already reached
+     */
+    public Event next() throws IOException {
+        if (event == Event.END_DATASET)
+            throw new NoSuchElementException();
+
+        skipPendingValue();
+        value = null;
+        Frame frame = top();
+        if (frame.endPos != UNDEFINED_LENGTH && dis.getPosition() >= frame.endPos)
+            return event = end();
+
+        switch (frame.kind) {
+            case SEQUENCE:
+                return event = nextInSequence(frame);
+            case FRAGMENTS:
+                return event = nextInFragments(frame);
+            default:
+                return event = nextInDataset(frame);
+        }
+    }
+
+    private Event nextInDataset(Frame frame) throws IOException {
+        for (;;) {
+            try {
+                dis.readHeader();
+            } catch (EOFException e) {
+                if (frame.kind == DATASET && dis.getPosition() == dis.getTagPosition())
+                    return end();
+                throw e;
+            }
+            tag = dis.tag();
+            length = dis.unsignedLength();
+            if (tag == Tag.ItemDelimitationItem && frame.kind == ITEM)
+                return end();
+
+            VR vr = dis.vr();
+            if (vr == null) {
+                skipUnexpected();
+                continue;
+            }
+            if (vr == VR.UN) {
+                vr = ElementDictionary.vrOf(tag, frame.privateCreator(tag));
+                if (vr == VR.UN && length == UNDEFINED_LENGTH)
+                    vr = VR.SQ; // assumes UN with undefined length are SQ
+            }
+            this.vr = vr;
+            if (vr == VR.SQ)
+                return startSequence(frame);
+
+            if (length == UNDEFINED_LENGTH) {
+                push(FRAGMENTS, frame.cs, UNDEFINED_LENGTH);
+                return Event.START_FRAGMENTS;
+            }
+            event = Event.ELEMENT;
+            valuePending = length > 0;
+            if (tag == Tag.SpecificCharacterSet)
+                frame.cs = SpecificCharacterSet.valueOf(readStrings());
+            else if (TagUtils.isPrivateCreator(tag))
+                frame.addPrivateCreator(tag, readString(null));
+            return Event.ELEMENT;
+        }
+    }
+
+    private Event startSequence(Frame frame) throws IOException {
+        Frame seq = push(SEQUENCE, frame.cs,
+                length == UNDEFINED_LENGTH ? UNDEFINED_LENGTH : dis.getPosition() + length);
+        seq.privateCreator = frame.privateCreator(tag);
+        if (length != 0 && dis.vr() == VR.UN && dis.explicitVR() && !dis.probeExplicitVR()) {
+            seq.restoreEncoding = true;
+            seq.bigEndian0 = dis.bigEndian();
+            dis.setEncoding(false, false);
+        }
+        return Event.START_SEQUENCE;
+    }
+
+    private Event nextInSequence(Frame seq) throws IOException {
+        for (;;) {
+            dis.readHeader();
+            tag = dis.tag();
+            length = dis.unsignedLength();
+            vr = null;
+            if (tag == Tag.Item) {
+                push(ITEM, seq.cs,
+                        length == UNDEFINED_LENGTH ? UNDEFINED_LENGTH : dis.getPosition() + length);
+                dis.addItemPointer(seq.tag, seq.privateCreator, seq.itemIndex++);
+                return Event.START_ITEM;
+            }
+            if (tag == Tag.SequenceDelimitationItem)
+                return end();
+
+            skipUnexpected();
+        }
+    }
+
+    private Event nextInFragments(Frame frags) throws IOException {
+        for (;;) {
+            dis.readHeader();
+            tag = dis.tag();
+            length = dis.unsignedLength();
+            vr = frags.vr;
+            if (tag == Tag.Item) {
+                valuePending = length > 0;
+                return Event.FRAGMENT;
+            }
+            if (tag == Tag.SequenceDelimitationItem)
+                return end();
+
+            skipUnexpected();
+        }
+    }
+
+    private void skipUnexpected() throws IOException {
+        LOG.warn("Unexpected attribute {} #{} @ {}",
+                TagUtils.toString(tag), length, dis.getTagPosition());
+        if (length > 0)
+            dis.skipFully(length);
+    }
+
+    private Event end() {
+        Frame frame = frames.remove(frames.size() - 1);
+        tag = frame.tag;
+        vr = frame.vr;
+        length = 0;
+        switch (frame.kind) {
+            case SEQUENCE:
+                if (frame.restoreEncoding)
+                    dis.setEncoding(frame.bigEndian0, true);
+                return Event.END_SEQUENCE;
+            case ITEM:
+                dis.removeItemPointer();
+                return Event.END_ITEM;
+            case FRAGMENTS:
+                return Event.END_FRAGMENTS;
+            default:
+                return Event.END_DATASET;
+        }
+    }
+
+    /**
+     * Skips the value of the current data element or fragment, or the
+     * remaining value of the current sequence, item or encapsulated pixel data.
+     * In the latter case, the current event becomes the corresponding
+     * {@link Event#END_SEQUENCE}, {@link Event#END_ITEM} or
+     * {@link Event#END_FRAGMENTS} event.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void skip() throws IOException {
+        if (event == null)
+            throw new IllegalStateException("next() not invoked");
+
+        switch (event) {
+            case ELEMENT:
+            case FRAGMENT:
+                skipPendingValue();
+                break;
+            case START_SEQUENCE:
+            case START_ITEM:
+            case START_FRAGMENTS:
+                Frame frame = top();
+                if (frame.endPos != UNDEFINED_LENGTH) {
+                    dis.skipFully(frame.endPos - dis.getPosition());
+                    event = end();
+                } else {
+                    int depth = frames.size();
+                    while (frames.size() >= depth)
+                        next();
+                }
+                break;
+        }
+    }
+
+    private void skipPendingValue() throws IOException {
+        if (valuePending) {
+            valuePending = false;
+            dis.skipFully(length);
+        }
+    }
+
+    /**
+     * Reads the value of the current data element or fragment.
+     *
+     * @return value bytes
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalStateException if the current event is not
+     *         {@link Event#ELEMENT} or {@link Event#FRAGMENT}
+     */
+    public byte[] readBytes() throws IOException {
+        if (value == null) {
+            if (event != Event.ELEMENT && event != Event.FRAGMENT)
+                throw new IllegalStateException("event: " + event);
+
+            value = valuePending ? dis.readValue() : ByteUtils.EMPTY_BYTES;
+            valuePending = false;
+        }
+        return value;
+    }
+
+    /**
+     * Reads the value of the current data element and decodes it to strings,
+     * applying the Specific Character Set of the enclosing data set or item.
+     *
+     * @return decoded values, or an empty array if the value is empty
+     * @throws IOException if an I/O error occurs
+     */
+    public String[] readStrings() throws IOException {
+        Object val = vr.toStrings(readBytes(), dis.bigEndian(), specificCharacterSet());
+        if (val instanceof String[])
+            return (String[]) val;
+
+        return (val instanceof String && !((String) val).isEmpty())
+                ? new String[] { (String) val }
+                : StringUtils.EMPTY_STRING;
+    }
+
+    public String readString(String defVal) throws IOException {
+        String[] ss = readStrings();
+        return ss.length > 0 && ss[0] != null && !ss[0].isEmpty() ? ss[0] : defVal;
+    }
+
+    public int readInt(int defVal) throws IOException {
+        byte[] b = readBytes();
+        if (b.length == 0)
+            return defVal;
+
+        try {
+            if (vr == VR.IS) {
+                String s = readString(null);
+                return s != null ? (int) StringUtils.parseIS(s) : defVal;
+            }
+            return vr.toInt(b, dis.bigEndian(), 0, defVal);
+        } catch (UnsupportedOperationException e) {
+            LOG.info("Attempt to access {} {} as int", TagUtils.toString(tag), vr);
+            return defVal;
+        } catch (IllegalArgumentException e) {
+            LOG.info("Invalid value of {} {}", TagUtils.toString(tag), vr);
+            return defVal;
+        }
+    }
+
+    private SpecificCharacterSet specificCharacterSet() {
+        if (!vr.useSpecificCharacterSet())
+            return SpecificCharacterSet.ASCII;
+
+        SpecificCharacterSet cs = top().cs;
+        return cs != null ? cs : SpecificCharacterSet.getDefaultCharacterSet();
+    }
+
+    /**
+     * Reads the current item into a new {@code Attributes} instance. The
+     * current event becomes {@link Event#END_ITEM}.
+     *
+     * @return item
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalStateException if the current event is not {@link Event#START_ITEM}
+     */
+    public Attributes readItem() throws IOException {
+        if (event != Event.START_ITEM)
+            throw new IllegalStateException("event: " + event);
+
+        Attributes item = new Attributes(dis.bigEndian());
+        item.setItemPosition(dis.getTagPosition());
+        Frame frame = top();
+        if (frame.endPos != UNDEFINED_LENGTH) {
+            dis.readItemValue(item, frame.endPos - dis.getPosition());
+        } else {
+            dis.readItemValue(item, UNDEFINED_LENGTH);
+        }
+        event = end();
+        return item;
+    }
+
+    /**
+     * Adds the current data element, sequence or encapsulated pixel data to
+     * the specified attributes. For sequences and encapsulated pixel data,
+     * the current event becomes {@link Event#END_SEQUENCE} or
+     * {@link Event#END_FRAGMENTS}.
+     *
+     * @param attrs attributes to add the current value to
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalStateException if the current event is not
+     *         {@link Event#ELEMENT}, {@link Event#START_SEQUENCE} or
+     *         {@link Event#START_FRAGMENTS}
+     */
+    public void readValue(Attributes attrs) throws IOException {
+        if (event == null)
+            throw new IllegalStateException("next() not invoked");
+
+        int tag = this.tag;
+        VR vr = this.vr;
+        switch (event) {
+            case ELEMENT:
+                byte[] b = readBytes();
+                if (b.length == 0) {
+                    attrs.setNull(tag, vr);
+                } else {
+                    if (dis.bigEndian() != attrs.bigEndian())
+                        b = vr.toggleEndian(b, true);
+                    attrs.setBytes(tag, vr, b);
+                }
+                break;
+            case START_SEQUENCE:
+                Sequence seq = attrs.newSequence(tag, 10);
+                while (next() == Event.START_ITEM)
+                    seq.add(readItem());
+                if (seq.isEmpty())
+                    attrs.setNull(tag, VR.SQ);
+                else
+                    seq.trimToSize();
+                break;
+            case START_FRAGMENTS:
+                Fragments frags = new Fragments(vr, attrs.bigEndian(), 10);
+                while (next() == Event.FRAGMENT) {
+                    byte[] frag = readBytes();
+                    if (frag.length > 0 && dis.bigEndian() != frags.bigEndian())
+                        frag = vr.toggleEndian(frag, true);
+                    frags.add(frag);
+                }
+                if (frags.isEmpty()) {
+                    attrs.setNull(tag, vr);
+                } else {
+                    frags.trimToSize();
+                    attrs.setValue(tag, vr, frags);
+                }
+                break;
+            default:
+                throw new IllegalStateException("event: " + event);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        dis.close();
+    }
+
+    private Frame top() {
+        return frames.get(frames.size() - 1);
+    }
+
+    private Frame push(int kind, SpecificCharacterSet cs, long endPos) {
+        Frame frame = new Frame(kind, tag, vr, endPos);
+        frame.cs = cs;
+        frames.add(frame);
+        return frame;
+    }
+
+    private static final class Frame {
+        final int kind;
+        final int tag;
+        final VR vr;
+        final long endPos;
+        SpecificCharacterSet cs;
+        Attributes privateCreators;
+        String privateCreator;
+        int itemIndex;
+        boolean restoreEncoding;
+        boolean bigEndian0;
+
+        Frame(int kind, int tag, VR vr, long endPos) {
+            this.kind = kind;
+            this.tag = tag;
+            this.vr = vr;
+            this.endPos = endPos;
+        }
+
+        void addPrivateCreator(int tag, String value) {
+            if (privateCreators == null)
+                privateCreators = new Attributes(4);
+            privateCreators.setString(tag, VR.LO, value);
+        }
+
+        String privateCreator(int tag) {
+            return privateCreators != null ? privateCreators.getPrivateCreator(tag) : null;
+        }
+    }
+}
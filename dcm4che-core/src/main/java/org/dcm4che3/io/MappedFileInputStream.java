@@ -0,0 +1,311 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.dcm4che3.util.SafeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Input stream reading a file through read-only memory mappings of its
+ * {@link FileChannel}, instead of by {@code read()} system calls.
+ * <p>
+ * The file is mapped in windows of {@link #getWindowSize()} bytes, so files
+ * larger than 2 GiB are supported. Skipping bytes only advances the position,
+ * without touching the skipped pages. Values may be accessed as read-only
+ * {@link ByteBuffer} slices of the mapping by {@link #slice(long, int)},
+ * without copying them.
+ * <p>
+ * The mapping of a window is released when the stream moves to another
+ * window or is closed, so at most one window is mapped by reading the stream.
+ * Windows of which slices were returned by {@link #slice(long, int)} - and
+ * slices mapped separately - are not released, but remain valid after the
+ * stream is closed, until they are garbage collected. If the JVM does not
+ * permit to release mappings explicitly, all mappings are released by the
+ * garbage collector.
+ *
+ * @see DicomInputStream#createMemoryMapped(File)
+ * @since Oct 2026
+ */
+public class MappedFileInputStream extends InputStream {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MappedFileInputStream.class);
+
+    public static final int DEFAULT_WINDOW_SIZE = 0x10000000; // 256MiB
+
+    private static final Unmapper UNMAPPER = Unmapper.create();
+
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    private MappedByteBuffer window;
+    private boolean windowSliced;
+    private int releasedWindows;
+    private long windowStart;
+    private long pos;
+    private long markPos;
+
+    public MappedFileInputStream(File file) throws IOException {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a stream mapping the specified file in windows of the
+     * specified size.
+     *
+     * @param file file to read
+     * @param windowSize maximal size of one mapping in bytes
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedFileInputStream(File file, int windowSize) throws IOException {
+        if (windowSize <= 0)
+            throw new IllegalArgumentException("windowSize: " + windowSize);
+
+        this.windowSize = windowSize;
+        this.raf = new RandomAccessFile(file, "r");
+        this.channel = raf.getChannel();
+        try {
+            this.size = channel.size();
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    public final int getWindowSize() {
+        return windowSize;
+    }
+
+    public final long length() {
+        return size;
+    }
+
+    public final long getPosition() {
+        return pos;
+    }
+
+    public void setPosition(long pos) {
+        if (pos < 0 || pos > size)
+            throw new IllegalArgumentException("pos: " + pos);
+        this.pos = pos;
+    }
+
+    /**
+     * Returns a read-only slice of the mapping of the specified region of
+     * the file, without copying its content. Regions within the current window
+     * share its mapping, other regions are mapped separately.
+     *
+     * @param offset position of the region in the file
+     * @param length length of the region
+     * @return read-only slice of the region
+     * @throws IOException if the region cannot be mapped
+     */
+    public ByteBuffer slice(long offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > size)
+            throw new IndexOutOfBoundsException(
+                    "offset: " + offset + ", length: " + length + ", size: " + size);
+
+        if (window != null && offset >= windowStart
+                && offset + length <= windowStart + window.capacity()) {
+            ByteBuffer dup = window.duplicate();
+            int start = (int) (offset - windowStart);
+            SafeBuffer.limit(dup, start + length);
+            SafeBuffer.position(dup, start);
+            windowSliced = true;
+            return dup.slice().asReadOnlyBuffer();
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length).asReadOnlyBuffer();
+    }
+
+    private boolean ensureWindow() throws IOException {
+        if (pos >= size)
+            return false;
+
+        if (window == null || pos < windowStart || pos >= windowStart + window.capacity()) {
+            releaseWindow();
+            window = channel.map(FileChannel.MapMode.READ_ONLY, pos,
+                    Math.min(windowSize, size - pos));
+            windowStart = pos;
+        }
+        SafeBuffer.position(window, (int) (pos - windowStart));
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureWindow())
+            return -1;
+
+        pos++;
+        return window.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off)
+            throw new IndexOutOfBoundsException();
+        if (len == 0)
+            return 0;
+        if (!ensureWindow())
+            return -1;
+
+        int read = Math.min(len, window.remaining());
+        window.get(b, off, read);
+        pos += read;
+        return read;
+    }
+
+    @Override
+    public long skip(long n) {
+        if (n <= 0)
+            return 0;
+
+        long skip = Math.min(n, size - pos);
+        pos += skip;
+        return skip;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, size - pos);
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        markPos = pos;
+    }
+
+    @Override
+    public synchronized void reset() {
+        pos = markPos;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        releaseWindow();
+        raf.close();
+    }
+
+    /**
+     * Returns the number of windows which mappings were released explicitly.
+     */
+    final int getNumberOfReleasedWindows() {
+        return releasedWindows;
+    }
+
+    private void releaseWindow() {
+        MappedByteBuffer tmp = window;
+        if (tmp == null)
+            return;
+
+        window = null;
+        if (windowSliced)
+            windowSliced = false;
+        else if (UNMAPPER != null && UNMAPPER.unmap(tmp))
+            releasedWindows++;
+    }
+
+    /**
+     * Releases mappings by {@code sun.misc.Unsafe.invokeCleaner} on Java 9+
+     * or by the {@code sun.misc.Cleaner} of the buffer on Java 8.
+     */
+    private static abstract class Unmapper {
+
+        static Unmapper create() {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                final Object unsafe = theUnsafe.get(null);
+                return new Unmapper() {
+                    @Override
+                    void invoke(MappedByteBuffer buf) throws Exception {
+                        invokeCleaner.invoke(unsafe, buf);
+                    }
+                };
+            } catch (Exception e) {
+                // Java 8
+            }
+            try {
+                final Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+                return new Unmapper() {
+                    @Override
+                    void invoke(MappedByteBuffer buf) throws Exception {
+                        Object c = cleaner.invoke(buf);
+                        if (c != null)
+                            clean.invoke(c);
+                    }
+                };
+            } catch (Exception e) {
+                LOG.debug("Release of memory mappings not supported - rely on garbage collection", e);
+                return null;
+            }
+        }
+
+        abstract void invoke(MappedByteBuffer buf) throws Exception;
+
+        boolean unmap(MappedByteBuffer buf) {
+            try {
+                invoke(buf);
+                return true;
+            } catch (Exception e) {
+                LOG.debug("Failed to release memory mapping - rely on garbage collection", e);
+                return false;
+            }
+        }
+    }
+}
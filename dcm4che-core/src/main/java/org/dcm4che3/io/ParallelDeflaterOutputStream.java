@@ -0,0 +1,253 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.Deflater;
+
+import org.dcm4che3.util.DeflaterPool;
+
+/**
+ * Output stream compressing written data into raw deflate data by several
+ * threads.
+ * <p>
+ * Written data is split into blocks of {@link #getBlockSize()} bytes, which
+ * are compressed concurrently by the specified {@link Executor}. Each block
+ * is compressed with the last 32 KiB of the previous block as preset
+ * dictionary, and - except the last block - terminated by a sync flush
+ * instead of a final deflate block. So the concatenated output is one
+ * continuous raw deflate stream, which can be decompressed by an
+ * {@code Inflater(true)}, as used by {@link DicomInputStream} for the
+ * Deflated Transfer Syntaxes, and the compression ratio is nearly the same
+ * as by {@link java.util.zip.DeflaterOutputStream}.
+ * <p>
+ * Compressed blocks are written in order to the underlying stream by the
+ * thread writing to this stream. The number of blocks, which are compressed
+ * or wait to be written, is bounded by {@link #getMaxPendingBlocks()}.
+ *
+ * @since Oct 2026
+ */
+public class ParallelDeflaterOutputStream extends FilterOutputStream {
+
+    public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+    public static final int DICTIONARY_SIZE = 32 * 1024;
+
+    private final Executor executor;
+    private final DeflaterPool deflaterPool;
+    private final int blockSize;
+    private final int maxPendingBlocks;
+    private final ArrayDeque<FutureTask<byte[]>> pending = new ArrayDeque<FutureTask<byte[]>>();
+    private byte[] block;
+    private byte[] prevBlock;
+    private int count;
+    private boolean finished;
+
+    public ParallelDeflaterOutputStream(OutputStream out, Executor executor) {
+        this(out, executor, Deflater.DEFAULT_COMPRESSION, DEFAULT_BLOCK_SIZE,
+                Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * Creates a new output stream.
+     *
+     * @param out              underlying output stream
+     * @param executor         executor compressing the blocks
+     * @param level            compression level (0-9) or
+     *                         {@link Deflater#DEFAULT_COMPRESSION}
+     * @param blockSize        size of blocks, at least {@link #DICTIONARY_SIZE}
+     * @param maxPendingBlocks maximal number of blocks, which are compressed
+     *                         or wait to be written
+     */
+    public ParallelDeflaterOutputStream(OutputStream out, Executor executor,
+            int level, int blockSize, int maxPendingBlocks) {
+        super(out);
+        if (executor == null)
+            throw new NullPointerException("executor");
+        if (blockSize < DICTIONARY_SIZE)
+            throw new IllegalArgumentException("blockSize: " + blockSize);
+        if (maxPendingBlocks <= 0)
+            throw new IllegalArgumentException("maxPendingBlocks: " + maxPendingBlocks);
+        this.executor = executor;
+        this.deflaterPool = DeflaterPool.getInstance(level);
+        this.blockSize = blockSize;
+        this.maxPendingBlocks = maxPendingBlocks;
+        this.block = new byte[blockSize];
+    }
+
+    public final int getBlockSize() {
+        return blockSize;
+    }
+
+    public final int getMaxPendingBlocks() {
+        return maxPendingBlocks;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (count == blockSize)
+            submit(false);
+        block[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+
+        while (len > 0) {
+            // submit full blocks lazily, so the last block is always finished
+            if (count == blockSize)
+                submit(false);
+            int n = Math.min(len, blockSize - count);
+            System.arraycopy(b, off, block, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Compresses remaining data and writes all compressed data to the
+     * underlying stream without closing it.
+     *
+     * @throws IOException if an I/O error occurs or the compression failed
+     */
+    public void finish() throws IOException {
+        if (finished)
+            return;
+
+        finished = true;
+        submit(true);
+        while (!pending.isEmpty())
+            writeBlock(pending.remove());
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            FutureTask<byte[]> task;
+            while ((task = pending.poll()) != null)
+                task.cancel(false);
+            out.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (finished)
+            throw new IOException("write beyond end of stream");
+    }
+
+    private void submit(final boolean last) throws IOException {
+        final byte[] input = block;
+        final int len = count;
+        final byte[] dict = prevBlock;
+        FutureTask<byte[]> task = new FutureTask<byte[]>(new Callable<byte[]>() {
+            @Override
+            public byte[] call() {
+                return deflate(dict, input, len, last);
+            }
+        });
+        if (pending.size() >= maxPendingBlocks)
+            writeBlock(pending.remove());
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // executor shut down or saturated - compress by the writing thread
+            task.run();
+        }
+        pending.add(task);
+        prevBlock = input;
+        block = last ? null : new byte[blockSize];
+        count = 0;
+    }
+
+    private byte[] deflate(byte[] dict, byte[] input, int len, boolean last) {
+        Deflater deflater = deflaterPool.acquire();
+        try {
+            if (dict != null)
+                deflater.setDictionary(dict, dict.length - DICTIONARY_SIZE, DICTIONARY_SIZE);
+            deflater.setInput(input, 0, len);
+            ByteArrayOutputStream bout = new ByteArrayOutputStream((len >> 1) + 64);
+            byte[] buf = new byte[8192];
+            int n;
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    n = deflater.deflate(buf);
+                    bout.write(buf, 0, n);
+                }
+            } else {
+                do {
+                    n = deflater.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH);
+                    bout.write(buf, 0, n);
+                } while (n == buf.length);
+            }
+            return bout.toByteArray();
+        } finally {
+            deflaterPool.release(deflater);
+        }
+    }
+
+    private void writeBlock(FutureTask<byte[]> task) throws IOException {
+        byte[] b;
+        try {
+            b = task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            throw new IOException("Compression failed", e.getCause());
+        }
+        out.write(b);
+    }
+}
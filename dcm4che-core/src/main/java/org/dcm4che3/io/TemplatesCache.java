@@ -38,27 +38,31 @@
 
 package org.dcm4che3.io;
 
-import java.util.HashMap;
-
 import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.stream.StreamSource;
 
+import org.dcm4che3.util.ResourceCache;
 
 /**
+ * Thread-safe cache of compiled XSL stylesheets.
+ *
  * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @see ResourceCache
  */
-public class TemplatesCache {
-
-    private static TemplatesCache defaultCache;
+public class TemplatesCache extends ResourceCache<Templates, TransformerConfigurationException> {
 
-    private final HashMap<String, Templates> map = new HashMap<String, Templates>();
+    private static volatile TemplatesCache defaultCache;
 
-    public static synchronized TemplatesCache getDefault() {
-        if (defaultCache == null) {
-            defaultCache = new TemplatesCache();
+    public static TemplatesCache getDefault() {
+        TemplatesCache cache = defaultCache;
+        if (cache == null) {
+            synchronized (TemplatesCache.class) {
+                if ((cache = defaultCache) == null)
+                    defaultCache = cache = new TemplatesCache();
+            }
         }
-        return defaultCache;
+        return cache;
     }
 
     public static synchronized void setDefault(TemplatesCache cache) {
@@ -68,14 +72,8 @@ public class TemplatesCache {
         defaultCache = cache;
     }
 
-    public void clear() {
-        map.clear();
-    }
-
-    public Templates get(String uri) throws TransformerConfigurationException {
-        Templates tpl = map.get(uri);
-        if (tpl == null)
-            map.put(uri, tpl = SAXTransformer.newTemplates(new StreamSource(uri)));
-        return tpl;
+    @Override
+    protected Templates load(String uri) throws TransformerConfigurationException {
+        return SAXTransformer.newTemplates(new StreamSource(uri));
     }
 }
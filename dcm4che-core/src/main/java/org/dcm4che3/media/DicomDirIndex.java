@@ -0,0 +1,356 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.media;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.io.DicomInputStream;
+import org.dcm4che3.util.SafeClose;
+import org.dcm4che3.util.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hash index of Directory Records of a DICOMDIR by Patient ID, Study
+ * Instance UID, Series Instance UID and Referenced SOP Instance UID in File,
+ * mapping each key to the offsets of the records and of their parent records.
+ *
+ * @see DicomDirReader#enableIndex(boolean)
+ * @since Oct 2026
+ */
+final class DicomDirIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DicomDirIndex.class);
+
+    static final int PATIENT = 0;
+    static final int STUDY = 1;
+    static final int SERIES = 2;
+    static final int INSTANCE = 3;
+
+    private static final int MAGIC = 0x44444958; // "DDIX"
+    private static final int VERSION = 1;
+    private static final int[] EMPTY = {};
+
+    // values: (parent offset << 32) | record offset
+    @SuppressWarnings("unchecked")
+    private final HashMap<String, long[]>[] maps = new HashMap[] {
+            new HashMap<String, long[]>(),
+            new HashMap<String, long[]>(),
+            new HashMap<String, long[]>(),
+            new HashMap<String, long[]>()
+    };
+    private int size;
+    private boolean modified;
+
+    /**
+     * Returns {@code true} if records with one of the specified values can be
+     * looked up in the index, which is not the case for wild card values.
+     */
+    static boolean isIndexable(String... keys) {
+        if (keys == null || keys.length == 0)
+            return false;
+
+        for (String key : keys)
+            if (key == null || key.isEmpty() || StringUtils.containsWildCard(key))
+                return false;
+
+        return true;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if entries were added or removed since the index
+     * was built, loaded or stored.
+     */
+    synchronized boolean isModified() {
+        return modified;
+    }
+
+    void add(Attributes rec, int parentOffset) {
+        int level = levelOf(rec);
+        if (level >= 0)
+            add(level, rec.getString(keyTagOf(level)), parentOffset,
+                    (int) rec.getItemPosition());
+    }
+
+    private static int levelOf(Attributes rec) {
+        String type = rec.getString(Tag.DirectoryRecordType);
+        if ("PATIENT".equals(type))
+            return PATIENT;
+        if ("STUDY".equals(type))
+            return STUDY;
+        if ("SERIES".equals(type))
+            return SERIES;
+        if (rec.containsValue(Tag.ReferencedSOPInstanceUIDInFile))
+            return INSTANCE;
+        return -1;
+    }
+
+    private static int keyTagOf(int level) {
+        switch (level) {
+            case PATIENT:
+                return Tag.PatientID;
+            case STUDY:
+                return Tag.StudyInstanceUID;
+            case SERIES:
+                return Tag.SeriesInstanceUID;
+        }
+        return Tag.ReferencedSOPInstanceUIDInFile;
+    }
+
+    private synchronized void add(int level, String key, int parentOffset, int offset) {
+        if (key == null)
+            return;
+
+        long entry = ((long) parentOffset << 32) | (offset & 0xffffffffL);
+        long[] entries = maps[level].get(key);
+        if (entries == null) {
+            entries = new long[] { entry };
+        } else {
+            entries = Arrays.copyOf(entries, entries.length + 1);
+            entries[entries.length - 1] = entry;
+        }
+        maps[level].put(key, entries);
+        size++;
+        modified = true;
+    }
+
+    /**
+     * Returns the offsets of records of the specified level with one of the
+     * specified keys and the specified parent record in ascending order.
+     */
+    synchronized int[] find(int level, int parentOffset, String... keys) {
+        int[] offsets = EMPTY;
+        int n = 0;
+        for (String key : keys) {
+            long[] entries = maps[level].get(key);
+            if (entries == null)
+                continue;
+
+            for (long entry : entries) {
+                if ((int) (entry >>> 32) == parentOffset) {
+                    if (n == offsets.length)
+                        offsets = Arrays.copyOf(offsets, Math.max(4, n << 1));
+                    offsets[n++] = (int) entry;
+                }
+            }
+        }
+        offsets = Arrays.copyOf(offsets, n);
+        if (n > 1)
+            Arrays.sort(offsets);
+        return offsets;
+    }
+
+    /**
+     * Removes entries of records at or after the specified offset.
+     */
+    synchronized void truncate(int offset) {
+        long limit = offset & 0xffffffffL;
+        for (HashMap<String, long[]> map : maps) {
+            for (Iterator<Map.Entry<String, long[]>> it = map.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<String, long[]> e = it.next();
+                long[] entries = e.getValue();
+                int n = 0;
+                for (long entry : entries)
+                    if ((entry & 0xffffffffL) < limit)
+                        entries[n++] = entry;
+                if (n < entries.length)
+                    modified = true;
+                size -= entries.length - n;
+                if (n == 0)
+                    it.remove();
+                else if (n < entries.length)
+                    e.setValue(Arrays.copyOf(entries, n));
+            }
+        }
+    }
+
+    /**
+     * Builds the index by reading all Directory Records of the specified
+     * DICOMDIR sequentially.
+     */
+    static DicomDirIndex build(File dicomdir) throws IOException {
+        HashMap<Integer, RecordInfo> records = new HashMap<Integer, RecordInfo>();
+        int firstRootOffset;
+        DicomInputStream in = new DicomInputStream(dicomdir);
+        try {
+            in.readFileMetaInformation();
+            Attributes fsInfo = in.readDataset(o -> o.tag() == Tag.DirectoryRecordSequence);
+            if (in.tag() != Tag.DirectoryRecordSequence)
+                throw new IOException("Missing Directory Record Sequence");
+            firstRootOffset = fsInfo.getInt(
+                    Tag.OffsetOfTheFirstDirectoryRecordOfTheRootDirectoryEntity, 0);
+            int seqLen = in.length();
+            long end = seqLen == -1 ? Long.MAX_VALUE : in.getPosition() + (seqLen & 0xffffffffL);
+            try {
+                while (in.getPosition() < end && in.readItemHeader()) {
+                    int offset = (int) in.getTagPosition();
+                    Attributes rec = new Attributes(in.bigEndian());
+                    rec.setItemPosition(offset);
+                    in.readItemValue(rec, in.length());
+                    records.put(offset, new RecordInfo(rec));
+                }
+            } catch (EOFException e) {
+                LOG.info("Unexpected end of Directory Record Sequence in {}", dicomdir);
+            }
+        } finally {
+            SafeClose.close(in);
+        }
+        DicomDirIndex index = new DicomDirIndex();
+        Deque<int[]> stack = new ArrayDeque<int[]>();
+        stack.push(new int[] { firstRootOffset, 0 });
+        while (!stack.isEmpty()) {
+            int[] chain = stack.pop();
+            int offset = chain[0];
+            while (offset != 0) {
+                RecordInfo info = records.remove(offset);
+                if (info == null) {
+                    LOG.info("No Directory Record at offset {} in {}", offset & 0xffffffffL, dicomdir);
+                    break;
+                }
+                if (info.level >= 0)
+                    index.add(info.level, info.key, chain[1], offset);
+                if (info.lower != 0)
+                    stack.push(new int[] { info.lower, offset });
+                offset = info.next;
+            }
+        }
+        index.modified = false;
+        return index;
+    }
+
+    private static final class RecordInfo {
+        final int level;
+        final String key;
+        final int next;
+        final int lower;
+
+        RecordInfo(Attributes rec) {
+            this.level = levelOf(rec);
+            this.key = level >= 0 ? rec.getString(keyTagOf(level)) : null;
+            this.next = rec.getInt(Tag.OffsetOfTheNextDirectoryRecord, 0);
+            this.lower = rec.getInt(Tag.OffsetOfReferencedLowerLevelDirectoryEntity, 0);
+        }
+    }
+
+    /**
+     * Loads a previously stored index, if it was stored for the current
+     * length and modification time of the specified DICOMDIR.
+     *
+     * @return loaded index or {@code null}, if there is no up-to-date index
+     */
+    static DicomDirIndex load(File indexFile, File dicomdir) throws IOException {
+        DataInputStream in;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION
+                    || in.readLong() != dicomdir.length()
+                    || in.readLong() != dicomdir.lastModified())
+                return null;
+
+            DicomDirIndex index = new DicomDirIndex();
+            int level;
+            while ((level = in.readByte()) >= 0) {
+                String key = in.readUTF();
+                long entry = in.readLong();
+                index.add(level, key, (int) (entry >>> 32), (int) entry);
+            }
+            index.modified = false;
+            return index;
+        } catch (EOFException e) {
+            return null;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Stores the index, together with the current length and modification
+     * time of the specified DICOMDIR.
+     */
+    synchronized void store(File indexFile, File dicomdir) throws IOException {
+        File tmp = new File(indexFile.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmp)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(dicomdir.length());
+            out.writeLong(dicomdir.lastModified());
+            for (int level = 0; level < maps.length; level++)
+                for (Map.Entry<String, long[]> e : maps[level].entrySet())
+                    for (long entry : e.getValue()) {
+                        out.writeByte(level);
+                        out.writeUTF(e.getKey());
+                        out.writeLong(entry);
+                    }
+            out.writeByte(-1);
+        } finally {
+            out.close();
+        }
+        Files.move(tmp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        modified = false;
+    }
+}
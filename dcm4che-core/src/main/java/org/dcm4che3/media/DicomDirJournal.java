@@ -0,0 +1,264 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.media;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.zip.CRC32;
+
+import org.dcm4che3.util.ByteUtils;
+import org.dcm4che3.util.SafeClose;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-ahead journal of a {@link DicomDirWriter}.
+ * <p>
+ * Records added by a transaction are appended to the DICOMDIR after its
+ * last record, so only the offsets in headers of existing records, and the
+ * Directory Information header of the DICOMDIR, have to be patched in place
+ * on commit. Before the first record is appended, the journal records the
+ * length of the DICOMDIR, to which it is truncated if the transaction is not
+ * committed. On commit, all patches are first written to the journal and
+ * then applied to the DICOMDIR in ascending order of their positions. If the
+ * application crashes, {@link #recover(File)} replays committed patches or
+ * truncates the DICOMDIR to its length before the transaction.
+ *
+ * @since Oct 2026
+ */
+final class DicomDirJournal implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DicomDirJournal.class);
+
+    private static final int MAGIC = 0x44444A4C; // "DDJL"
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 25;
+    private static final int NO_KNOWN_INCONSISTENCIES = 0;
+
+    private final File file;
+    private final RandomAccessFile raf;
+    private final ByteArrayOutputStream patches = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(patches);
+    private int numPatches;
+    private boolean begun;
+
+    DicomDirJournal(File file) throws IOException {
+        this.file = file;
+        this.raf = new RandomAccessFile(file, "rw");
+    }
+
+    static File journalFileOf(File dicomdir) {
+        return new File(dicomdir.getPath() + ".jnl");
+    }
+
+    boolean isBegun() {
+        return begun;
+    }
+
+    /**
+     * Records the length of the DICOMDIR before the first record of a
+     * transaction is appended.
+     *
+     * @param rollbackLen length of the DICOMDIR before the transaction
+     * @param flagPos position of the value of File-set Consistency Flag
+     * @param undefSeqLen {@code true} if the Directory Record Sequence is
+     *                    encoded with undefined length
+     */
+    void begin(int rollbackLen, long flagPos, boolean undefSeqLen) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream(HEADER_LENGTH);
+        DataOutputStream header = new DataOutputStream(bout);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        header.writeInt(rollbackLen);
+        header.writeLong(flagPos);
+        header.writeBoolean(undefSeqLen);
+        header.writeInt(crc(bout.toByteArray(), 0, bout.size()));
+        raf.seek(0);
+        raf.write(bout.toByteArray());
+        raf.setLength(HEADER_LENGTH);
+        raf.getFD().sync();
+        begun = true;
+    }
+
+    void addPatch(long pos, byte[] b) throws IOException {
+        out.writeLong(pos);
+        out.writeShort(b.length);
+        out.write(b);
+        numPatches++;
+    }
+
+    /**
+     * Writes all added patches, together with the new length of the DICOMDIR,
+     * to the journal and applies them to the DICOMDIR.
+     */
+    void commit(RandomAccessFile dicomdir, long newLength) throws IOException {
+        out.writeLong(newLength);
+        byte[] b = patches.toByteArray();
+        byte[] commit = new byte[b.length + 8];
+        ByteUtils.intToBytesBE(numPatches, commit, 0);
+        System.arraycopy(b, 0, commit, 4, b.length);
+        ByteUtils.intToBytesBE(crc(commit, 0, commit.length - 4), commit, commit.length - 4);
+        patches.reset();
+        numPatches = 0;
+        raf.seek(HEADER_LENGTH);
+        raf.write(commit);
+        raf.getFD().sync();
+        apply(dicomdir, commit);
+    }
+
+    /**
+     * Discards the journal after the transaction was completed or rolled back.
+     */
+    void end() throws IOException {
+        patches.reset();
+        numPatches = 0;
+        raf.setLength(0);
+        begun = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        boolean empty = raf.length() == 0;
+        raf.close();
+        if (empty)
+            file.delete();
+    }
+
+    private static void apply(RandomAccessFile dicomdir, byte[] commit) throws IOException {
+        DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(commit, 4, commit.length - 8));
+        int n = ByteUtils.bytesToIntBE(commit, 0);
+        byte[] b = new byte[64];
+        for (int i = 0; i < n; i++) {
+            long pos = in.readLong();
+            int len = in.readUnsignedShort();
+            if (b.length < len)
+                b = new byte[len];
+            in.readFully(b, 0, len);
+            dicomdir.seek(pos);
+            dicomdir.write(b, 0, len);
+        }
+        dicomdir.setLength(in.readLong());
+        dicomdir.getFD().sync();
+    }
+
+    /**
+     * Recovers the specified DICOMDIR from a journal left by a crashed
+     * application.
+     *
+     * @param dicomdir DICOMDIR file
+     * @return {@code true} if there was a journal to recover from
+     * @throws IOException if an I/O error occurs
+     */
+    static boolean recover(File dicomdir) throws IOException {
+        File file = journalFileOf(dicomdir);
+        if (!file.isFile())
+            return false;
+
+        byte[] b;
+        RandomAccessFile jraf = new RandomAccessFile(file, "r");
+        try {
+            b = new byte[(int) jraf.length()];
+            jraf.readFully(b);
+        } finally {
+            SafeClose.close(jraf);
+        }
+        if (b.length >= HEADER_LENGTH
+                && ByteUtils.bytesToIntBE(b, 0) == MAGIC
+                && ByteUtils.bytesToIntBE(b, 4) == VERSION
+                && ByteUtils.bytesToIntBE(b, HEADER_LENGTH - 4) == crc(b, 0, HEADER_LENGTH - 4)) {
+            RandomAccessFile raf = new RandomAccessFile(dicomdir, "rw");
+            try {
+                byte[] commit = committed(b);
+                if (commit != null) {
+                    LOG.info("M-UPDATE {}: replay committed changes from {}", dicomdir, file);
+                    apply(raf, commit);
+                } else {
+                    LOG.info("M-UPDATE {}: rollback uncommitted changes logged in {}", dicomdir, file);
+                    rollback(raf, b);
+                }
+            } finally {
+                raf.close();
+            }
+        }
+        if (!file.delete())
+            throw new IOException("Failed to delete " + file);
+        return true;
+    }
+
+    private static byte[] committed(byte[] b) {
+        int len = b.length - HEADER_LENGTH;
+        if (len < 16)
+            return null;
+
+        byte[] commit = new byte[len];
+        System.arraycopy(b, HEADER_LENGTH, commit, 0, len);
+        return ByteUtils.bytesToIntBE(commit, len - 4) == crc(commit, 0, len - 4) ? commit : null;
+    }
+
+    private static void rollback(RandomAccessFile raf, byte[] header) throws IOException {
+        int rollbackLen = ByteUtils.bytesToIntBE(header, 8);
+        long flagPos = ByteUtils.bytesToLongBE(header, 12);
+        boolean undefSeqLen = header[20] != 0;
+        if (undefSeqLen) {
+            byte[] seqDelimItem = new byte[8];
+            ByteUtils.tagToBytesLE(0xFFFEE0DD, seqDelimItem, 0);
+            raf.seek(rollbackLen);
+            raf.write(seqDelimItem);
+            raf.setLength(rollbackLen + 8L);
+        } else {
+            raf.setLength(rollbackLen);
+        }
+        raf.seek(flagPos);
+        raf.writeShort(NO_KNOWN_INCONSISTENCIES);
+        raf.getFD().sync();
+    }
+
+    private static int crc(byte[] b, int off, int len) {
+        CRC32 crc = new CRC32();
+        crc.update(b, off, len);
+        return (int) crc.getValue();
+    }
+}
@@ -42,9 +42,12 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.QueryMatcher;
 import org.dcm4che3.data.VR;
 import org.dcm4che3.io.DicomInputStream;
 import org.dcm4che3.io.RAFInputStreamAdapter;
@@ -63,6 +66,12 @@ public class DicomDirReader implements Closeable {
     protected final Attributes fmi;
     protected final Attributes fsInfo;
     protected final IntHashMap<Attributes> cache = new IntHashMap<Attributes>();
+    // offsets of cached records in access order, only maintained if the cache is limited
+    private final LinkedHashMap<Integer, Boolean> accessOrder =
+            new LinkedHashMap<Integer, Boolean>(16, 0.75f, true);
+    private int maxCacheSize;
+    private DicomDirIndex index;
+    private boolean indexPersistent;
 
     public DicomDirReader(File file) throws IOException {
         this(file, "r");
@@ -96,7 +105,11 @@ public class DicomDirReader implements Closeable {
     }
 
     public void close() throws IOException {
-        raf.close();
+        try {
+            storeIndex();
+        } finally {
+            raf.close();
+        }
     }
 
     public String getFileSetUID() {
@@ -166,8 +179,148 @@ public class DicomDirReader implements Closeable {
         return getOffsetOfFirstRootDirectoryRecord() == 0;
     }
 
-    public void clearCache() {
+    public final int getMaxCacheSize() {
+        return maxCacheSize;
+    }
+
+    /**
+     * Limits the number of cached Directory Records. If the limit is reached,
+     * least recently read records are removed from the cache. By default,
+     * the number of cached records is not limited.
+     *
+     * @param maxCacheSize maximal number of cached records or 0 for no limit
+     */
+    public synchronized void setMaxCacheSize(int maxCacheSize) {
+        if (maxCacheSize < 0)
+            throw new IllegalArgumentException("maxCacheSize: " + maxCacheSize);
+        if (maxCacheSize == 0) {
+            accessOrder.clear();
+        } else if (this.maxCacheSize == 0) {
+            cache.accept(new IntHashMap.Visitor<Attributes>() {
+                @Override
+                public boolean visit(int key, Attributes value) {
+                    accessOrder.put(key, Boolean.TRUE);
+                    return true;
+                }
+            });
+        }
+        this.maxCacheSize = maxCacheSize;
+        evictRecords();
+    }
+
+    public synchronized void clearCache() {
         cache.clear();
+        accessOrder.clear();
+    }
+
+    /**
+     * Returns {@code true} if the cached record may be removed from the cache.
+     * Overwritten by {@link DicomDirWriter} to keep modified records, which
+     * are not yet written, in the cache.
+     *
+     * @param rec cached record
+     * @return {@code true} if the record may be removed from the cache
+     */
+    protected boolean isEvictable(Attributes rec) {
+        return true;
+    }
+
+    protected synchronized void cacheRecord(int offset, Attributes rec) {
+        cache.put(offset, rec);
+        if (maxCacheSize > 0) {
+            accessOrder.put(offset, Boolean.TRUE);
+            evictRecords();
+        }
+    }
+
+    private void evictRecords() {
+        if (maxCacheSize == 0)
+            return;
+
+        Iterator<Integer> it = accessOrder.keySet().iterator();
+        while (cache.size() > maxCacheSize && it.hasNext()) {
+            int offset = it.next();
+            Attributes rec = cache.get(offset);
+            if (rec == null) {
+                it.remove(); // removed from cache by subclass
+            } else if (isEvictable(rec)) {
+                it.remove();
+                cache.remove(offset);
+            }
+        }
+    }
+
+    public final boolean isIndexed() {
+        return index != null;
+    }
+
+    /**
+     * Returns the file, into which the index of Directory Records is stored by
+     * {@link #enableIndex(boolean)} - the DICOMDIR file with extension
+     * {@code .idx}.
+     *
+     * @return file of the stored index
+     */
+    public File getIndexFile() {
+        return new File(file.getPath() + ".idx");
+    }
+
+    /**
+     * Enables lookup of Patient, Study, Series and Instance Directory Records
+     * by {@link #findPatientRecord(String...)},
+     * {@link #findStudyRecord(Attributes, String...)},
+     * {@link #findSeriesRecord(Attributes, String...)},
+     * {@link #findLowerInstanceRecord(Attributes, boolean, String...)} and
+     * {@link #findRootInstanceRecord(boolean, String...)} by a hash index of
+     * their keys, instead of reading all sibling records until a matching
+     * record is found. Lookups with wild card values are not indexed. If there
+     * are several matching records, the record with the lowest offset is
+     * returned - and not the first record in the order of the sibling records.
+     * <p>
+     * The index is built by reading all Directory Records once. If
+     * {@code persistent}, the index is loaded from {@link #getIndexFile()}, if
+     * it was stored there for the current version of the DICOMDIR, and stored
+     * there after it was built, by {@link #storeIndex()} and on
+     * {@link #close()}. An index stored before the DICOMDIR was modified
+     * again - e.g. if the application terminated without closing the
+     * DICOMDIR - is not loaded, but built again.
+     *
+     * @param persistent {@code true} if the index shall be stored
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void enableIndex(boolean persistent) throws IOException {
+        File indexFile = getIndexFile();
+        DicomDirIndex index = persistent ? DicomDirIndex.load(indexFile, file) : null;
+        if (index == null) {
+            index = DicomDirIndex.build(file);
+            if (persistent)
+                index.store(indexFile, file);
+        }
+        this.index = index;
+        this.indexPersistent = persistent;
+    }
+
+    public synchronized void disableIndex() {
+        this.index = null;
+        this.indexPersistent = false;
+    }
+
+    DicomDirIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Stores the index into {@link #getIndexFile()}, if it was enabled by
+     * {@link #enableIndex(boolean) enableIndex(true)} and records were added
+     * or removed since it was last stored. Invoked on {@link #close()}; may be
+     * invoked periodically by applications keeping the DICOMDIR open for a
+     * long time.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void storeIndex() throws IOException {
+        if (index != null && indexPersistent && index.isModified())
+            index.store(getIndexFile(), file);
     }
 
     public Attributes readFirstRootDirectoryRecord() throws IOException {
@@ -209,8 +362,7 @@ public class DicomDirReader implements Closeable {
     public Attributes findRootDirectoryRecord(Attributes keys, boolean ignorePrivate,
             boolean ignoreCaseOfPN, boolean matchNoValue)
             throws IOException {
-        return findRecordInUse(getOffsetOfFirstRootDirectoryRecord(), ignorePrivate,
-                keys, ignoreCaseOfPN, matchNoValue);
+        return findRootDirectoryRecord(ignorePrivate, matcher(keys, ignoreCaseOfPN, matchNoValue));
     }
 
     public Attributes findRootDirectoryRecord(boolean ignorePrivate, Attributes keys,
@@ -218,6 +370,11 @@ public class DicomDirReader implements Closeable {
         return findRootDirectoryRecord(keys, ignorePrivate, ignoreCaseOfPN, matchNoValue);
     }
 
+    public Attributes findRootDirectoryRecord(boolean ignorePrivate, QueryMatcher matcher)
+            throws IOException {
+        return findRecordInUse(getOffsetOfFirstRootDirectoryRecord(), ignorePrivate, matcher);
+    }
+
     public Attributes findNextDirectoryRecordInUse(Attributes rec, boolean ignorePrivate)
             throws IOException {
         return findNextDirectoryRecord(rec, ignorePrivate, null, false, false);
@@ -225,9 +382,14 @@ public class DicomDirReader implements Closeable {
 
     public Attributes findNextDirectoryRecord(Attributes rec, boolean ignorePrivate,
             Attributes keys, boolean ignoreCaseOfPN, boolean matchNoValue) throws IOException {
+        return findNextDirectoryRecord(rec, ignorePrivate,
+                matcher(keys, ignoreCaseOfPN, matchNoValue));
+    }
+
+    public Attributes findNextDirectoryRecord(Attributes rec, boolean ignorePrivate,
+            QueryMatcher matcher) throws IOException {
         return findRecordInUse(
-                rec.getInt(Tag.OffsetOfTheNextDirectoryRecord, 0), ignorePrivate,
-                keys, ignoreCaseOfPN, matchNoValue);
+                rec.getInt(Tag.OffsetOfTheNextDirectoryRecord, 0), ignorePrivate, matcher);
     }
 
     public Attributes findLowerDirectoryRecordInUse(Attributes rec, boolean ignorePrivate)
@@ -238,12 +400,21 @@ public class DicomDirReader implements Closeable {
     public Attributes findLowerDirectoryRecord(Attributes rec, boolean ignorePrivate,
             Attributes keys, boolean ignoreCaseOfPN, boolean matchNoValue)
             throws IOException {
+        return findLowerDirectoryRecord(rec, ignorePrivate,
+                matcher(keys, ignoreCaseOfPN, matchNoValue));
+    }
+
+    public Attributes findLowerDirectoryRecord(Attributes rec, boolean ignorePrivate,
+            QueryMatcher matcher) throws IOException {
         return findRecordInUse(
                 rec.getInt(Tag.OffsetOfReferencedLowerLevelDirectoryEntity, 0), ignorePrivate,
-                keys, ignoreCaseOfPN, matchNoValue);
+                matcher);
     }
 
     public Attributes findPatientRecord(String... ids) throws IOException {
+        if (index != null && DicomDirIndex.isIndexable(ids))
+            return findIndexedRecord(DicomDirIndex.PATIENT, 0, false, ids);
+
         return findRootDirectoryRecord(false,
                 pk("PATIENT", Tag.PatientID, VR.LO, ids), false, false);
     }
@@ -251,7 +422,7 @@ public class DicomDirReader implements Closeable {
     public Attributes findPatientRecord(Attributes keys, RecordFactory recFact,
                                         boolean ignoreCaseOfPN, boolean matchNoValue) throws IOException {
         return findRootDirectoryRecord(false,
-                keys(RecordType.PATIENT, keys, recFact), ignoreCaseOfPN, matchNoValue);
+                patientMatcher(keys, recFact, ignoreCaseOfPN, matchNoValue));
     }
 
     public Attributes findNextPatientRecord(Attributes patRec, String... ids) throws IOException {
@@ -262,11 +433,15 @@ public class DicomDirReader implements Closeable {
     public Attributes findNextPatientRecord(Attributes patRec, Attributes keys, RecordFactory recFact,
                                             boolean ignoreCaseOfPN, boolean matchNoValue) throws IOException {
         return findNextDirectoryRecord(patRec, false,
-                keys(RecordType.PATIENT, keys, recFact), ignoreCaseOfPN, matchNoValue);
+                patientMatcher(keys, recFact, ignoreCaseOfPN, matchNoValue));
     }
 
     public Attributes findStudyRecord(Attributes patRec, String... iuids)
             throws IOException {
+        if (index != null && DicomDirIndex.isIndexable(iuids))
+            return findIndexedRecord(DicomDirIndex.STUDY,
+                    (int) patRec.getItemPosition(), false, iuids);
+
         return findLowerDirectoryRecord(patRec, false,
                 pk("STUDY", Tag.StudyInstanceUID, VR.UI, iuids),
                 false, false);
@@ -275,7 +450,7 @@ public class DicomDirReader implements Closeable {
     public Attributes findStudyRecord(Attributes patRec, Attributes keys, RecordFactory recFact,
                                       boolean ignoreCaseOfPN, boolean matchNoValue) throws IOException {
         return findLowerDirectoryRecord(patRec, false,
-                keys(RecordType.STUDY, keys, recFact), ignoreCaseOfPN, matchNoValue);
+                studyMatcher(keys, recFact, ignoreCaseOfPN, matchNoValue));
     }
 
     public Attributes findNextStudyRecord(Attributes studyRec, String... iuids)
@@ -288,11 +463,15 @@ public class DicomDirReader implements Closeable {
     public Attributes findNextStudyRecord(Attributes studyRec, Attributes keys, RecordFactory recFact,
                                       boolean ignoreCaseOfPN, boolean matchNoValue) throws IOException {
         return findNextDirectoryRecord(studyRec, false,
-                keys(RecordType.STUDY, keys, recFact), ignoreCaseOfPN, matchNoValue);
+                studyMatcher(keys, recFact, ignoreCaseOfPN, matchNoValue));
     }
 
     public Attributes findSeriesRecord(Attributes studyRec, String... iuids)
             throws IOException {
+        if (index != null && DicomDirIndex.isIndexable(iuids))
+            return findIndexedRecord(DicomDirIndex.SERIES,
+                    (int) studyRec.getItemPosition(), false, iuids);
+
         return findLowerDirectoryRecord(studyRec, false, 
                 pk("SERIES", Tag.SeriesInstanceUID, VR.UI, iuids),
                 false, false);
@@ -301,7 +480,7 @@ public class DicomDirReader implements Closeable {
     public Attributes findSeriesRecord(Attributes studyRec, Attributes keys, RecordFactory recFact,
                                       boolean ignoreCaseOfPN, boolean matchNoValue) throws IOException {
         return findLowerDirectoryRecord(studyRec, false,
-                keys(RecordType.SERIES, keys, recFact), ignoreCaseOfPN, matchNoValue);
+                seriesMatcher(keys, recFact, ignoreCaseOfPN, matchNoValue));
     }
 
     public Attributes findNextSeriesRecord(Attributes seriesRec, String... iuids)
@@ -314,18 +493,22 @@ public class DicomDirReader implements Closeable {
     public Attributes findNextSeriesRecord(Attributes seriesRec, Attributes keys, RecordFactory recFact,
                                            boolean ignoreCaseOfPN, boolean matchNoValue) throws IOException {
         return findNextDirectoryRecord(seriesRec, false,
-                keys(RecordType.SERIES, keys, recFact), ignoreCaseOfPN, matchNoValue);
+                seriesMatcher(keys, recFact, ignoreCaseOfPN, matchNoValue));
     }
 
     public Attributes findLowerInstanceRecord(Attributes seriesRec, boolean ignorePrivate,
             String... iuids) throws IOException {
+        if (index != null && DicomDirIndex.isIndexable(iuids))
+            return findIndexedRecord(DicomDirIndex.INSTANCE,
+                    (int) seriesRec.getItemPosition(), ignorePrivate, iuids);
+
         return findLowerDirectoryRecord(seriesRec, ignorePrivate, pk(iuids), false, false);
     }
 
     public Attributes findLowerInstanceRecord(Attributes seriesRec, Attributes keys, RecordFactory recFact,
                                       boolean ignoreCaseOfPN, boolean matchNoValue) throws IOException {
         return findLowerDirectoryRecord(seriesRec, false,
-                keys(keys, recFact), ignoreCaseOfPN, matchNoValue);
+                instanceMatcher(keys, recFact, ignoreCaseOfPN, matchNoValue));
     }
 
     public Attributes findNextInstanceRecord(Attributes instRec, boolean ignorePrivate,
@@ -336,14 +519,51 @@ public class DicomDirReader implements Closeable {
     public Attributes findNextInstanceRecord(Attributes instRec, Attributes keys, RecordFactory recFact,
                                            boolean ignoreCaseOfPN, boolean matchNoValue) throws IOException {
         return findNextDirectoryRecord(instRec, false,
-                keys(keys, recFact), ignoreCaseOfPN, matchNoValue);
+                instanceMatcher(keys, recFact, ignoreCaseOfPN, matchNoValue));
     }
 
     public Attributes findRootInstanceRecord(boolean ignorePrivate, String... iuids)
             throws IOException {
+        if (index != null && DicomDirIndex.isIndexable(iuids))
+            return findIndexedRecord(DicomDirIndex.INSTANCE, 0, ignorePrivate, iuids);
+
         return findRootDirectoryRecord(ignorePrivate, pk(iuids), false, false);
     }
 
+    /**
+     * Compiles the Matching Keys of a Patient Level Query Identifier, which
+     * are contained in Patient Directory Records created by the specified
+     * Record Factory, for repeated use with {@link #findRootDirectoryRecord}
+     * and {@link #findNextDirectoryRecord}.
+     */
+    public QueryMatcher patientMatcher(Attributes keys, RecordFactory recFact,
+            boolean ignoreCaseOfPN, boolean matchNoValue) {
+        return new QueryMatcher(keys(RecordType.PATIENT, keys, recFact),
+                ignoreCaseOfPN, matchNoValue);
+    }
+
+    public QueryMatcher studyMatcher(Attributes keys, RecordFactory recFact,
+            boolean ignoreCaseOfPN, boolean matchNoValue) {
+        return new QueryMatcher(keys(RecordType.STUDY, keys, recFact),
+                ignoreCaseOfPN, matchNoValue);
+    }
+
+    public QueryMatcher seriesMatcher(Attributes keys, RecordFactory recFact,
+            boolean ignoreCaseOfPN, boolean matchNoValue) {
+        return new QueryMatcher(keys(RecordType.SERIES, keys, recFact),
+                ignoreCaseOfPN, matchNoValue);
+    }
+
+    public QueryMatcher instanceMatcher(Attributes keys, RecordFactory recFact,
+            boolean ignoreCaseOfPN, boolean matchNoValue) {
+        return new QueryMatcher(keys(keys, recFact), ignoreCaseOfPN, matchNoValue);
+    }
+
+    private static QueryMatcher matcher(Attributes keys, boolean ignoreCaseOfPN,
+            boolean matchNoValue) {
+        return keys != null ? new QueryMatcher(keys, ignoreCaseOfPN, matchNoValue) : null;
+    }
+
     private Attributes pk(String type, int tag, VR vr, String... ids) {
         Attributes pk = new Attributes(2);
         pk.setString(Tag.DirectoryRecordType, VR.CS, type);
@@ -379,30 +599,42 @@ public class DicomDirReader implements Closeable {
         return keys;
     }
 
-    private Attributes findRecordInUse(int offset, boolean ignorePrivate, Attributes keys,
-            boolean ignoreCaseOfPN, boolean matchNoValue)
+    private Attributes findRecordInUse(int offset, boolean ignorePrivate, QueryMatcher matcher)
             throws IOException {
         while (offset != 0) {
             Attributes item = readRecord(offset);
             if (inUse(item) && !(ignorePrivate && isPrivate(item))
-                    && (keys == null || item.matches(keys, ignoreCaseOfPN, matchNoValue)))
+                    && (matcher == null || matcher.matches(item)))
                 return item;
             offset = item.getInt(Tag.OffsetOfTheNextDirectoryRecord, 0);
         }
         return null;
     }
 
+    private Attributes findIndexedRecord(int level, int parentOffset, boolean ignorePrivate,
+            String... keys) throws IOException {
+        for (int offset : index.find(level, parentOffset, keys)) {
+            Attributes item = readRecord(offset);
+            if (inUse(item) && !(ignorePrivate && isPrivate(item)))
+                return item;
+        }
+        return null;
+    }
+
     private synchronized Attributes readRecord(int offset) throws IOException {
         if (offset == 0)
             return null;
 
         Attributes item = cache.get(offset);
-        if (item == null) {
+        if (item != null) {
+            if (maxCacheSize > 0)
+                accessOrder.get(offset);
+        } else {
             long off = offset & 0xffffffffL;
             raf.seek(off);
             in.setPosition(off);
             item = in.readItem();
-            cache.put(offset, item);
+            cacheRecord(offset, item);
         }
         return item;
     }
@@ -38,6 +38,7 @@
 
 package org.dcm4che3.media;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -82,6 +83,9 @@ public class DicomDirWriter extends DicomDirReader {
             0x04, 0x00, 0x10, 0x14, 'U', 'S', 2, 0, 0, 0, 
             0x04, 0x00, 0x20, 0x14, 'U', 'L', 4, 0, 0, 0, 0, 0 };
 
+    private final static byte[] SEQ_DELIM_ITEM = {
+            (byte) 0xFE, (byte) 0xFF, (byte) 0xDD, (byte) 0xE0, 0, 0, 0, 0 };
+
     private final DicomOutputStream out;
     private final int firstRecordPos;
     private int nextRecordPos;
@@ -90,10 +94,14 @@ public class DicomDirWriter extends DicomDirReader {
             new IdentityHashMap<Attributes,Attributes>();
     private final ArrayList<Attributes> dirtyRecords =
             new ArrayList<Attributes>();
+    private DicomDirJournal journal;
+    private int maxPendingRecords;
+    private int pendingRecords;
 
     private DicomDirWriter(File file) throws IOException {
         super(file, "rw");
-        out = new DicomOutputStream(new RAFOutputStreamAdapter(raf),
+        out = new DicomOutputStream(
+                new BufferedOutputStream(new RAFOutputStreamAdapter(raf)),
                 super.getTransferSyntaxUID());
         int seqLen = in.length();
         boolean undefSeqLen = seqLen <= 0;
@@ -121,13 +129,74 @@ public class DicomDirWriter extends DicomDirReader {
         out.setEncodingOptions(encOpts);
     }
 
+    /**
+     * Opens a DICOMDIR for update. If an application updating the DICOMDIR in
+     * {@link #setJournaled(boolean) journaled} mode crashed, changes committed
+     * by it are completed and uncommitted changes are discarded before.
+     *
+     * @param file DICOMDIR file
+     * @return writer of the DICOMDIR
+     * @throws IOException if an I/O error occurs
+     */
     public static DicomDirWriter open(File file) throws IOException {
         if (!file.isFile())
             throw new FileNotFoundException();
 
+        DicomDirJournal.recover(file);
         return new DicomDirWriter(file);
     }
 
+    public final boolean isJournaled() {
+        return journal != null;
+    }
+
+    /**
+     * Enables or disables journaled mode. In journaled mode, changes are
+     * first logged in a write-ahead journal - the DICOMDIR file with extension
+     * {@code .jnl} - and then applied to the DICOMDIR in one sequential pass
+     * on {@link #commit()}, so the DICOMDIR can be recovered by
+     * {@link #open(File)} if the application crashes. Pending changes are
+     * committed before the mode is switched.
+     *
+     * @param journaled {@code true} to enable journaled mode
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void setJournaled(boolean journaled) throws IOException {
+        if (journaled == isJournaled())
+            return;
+
+        commit();
+        if (journaled) {
+            journal = new DicomDirJournal(DicomDirJournal.journalFileOf(file));
+        } else {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    public final int getMaxPendingRecords() {
+        return maxPendingRecords;
+    }
+
+    /**
+     * Commits changes automatically after the specified number of records
+     * were added. Applications adding records in batches should also invoke
+     * {@link #commit()} periodically, to limit the time after which added
+     * records are persisted.
+     *
+     * @param maxPendingRecords maximal number of added, uncommitted records or
+     *                          0 to disable automatic commits
+     */
+    public synchronized void setMaxPendingRecords(int maxPendingRecords) {
+        if (maxPendingRecords < 0)
+            throw new IllegalArgumentException("maxPendingRecords: " + maxPendingRecords);
+        this.maxPendingRecords = maxPendingRecords;
+    }
+
+    public synchronized int getPendingRecords() {
+        return pendingRecords;
+    }
+
     public static void createEmptyDirectory(File file, String iuid,
             String id, File descFile, String charset) throws IOException {
         Attributes fmi = Attributes.createFileMetaInformation(iuid,
@@ -180,6 +249,8 @@ public class DicomDirWriter extends DicomDirReader {
             addRecord(Tag.OffsetOfTheNextDirectoryRecord, lastRootRecord, rec);
         }
         setOffsetOfLastRootDirectoryRecord((int) rec.getItemPosition());
+        addToIndex(rec, 0);
+        commitIfFull();
         return rec;
     }
 
@@ -196,8 +267,32 @@ public class DicomDirWriter extends DicomDirReader {
                     parentRec, rec);
 
         lastChildRecords.put(parentRec, rec);
+        addToIndex(rec, (int) parentRec.getItemPosition());
+        commitIfFull();
         return rec;
     }
+
+    private void commitIfFull() throws IOException {
+        if (maxPendingRecords > 0 && pendingRecords >= maxPendingRecords)
+            commit();
+    }
+
+    private void addToIndex(Attributes rec, int parentOffset) {
+        DicomDirIndex index = getIndex();
+        if (index != null)
+            index.add(rec, parentOffset);
+    }
+
+    /**
+     * Commits pending changes before the index is built.
+     *
+     * @see DicomDirReader#enableIndex(boolean)
+     */
+    @Override
+    public synchronized void enableIndex(boolean persistent) throws IOException {
+        commit();
+        super.enableIndex(persistent);
+    }
  
     public synchronized Attributes findOrAddPatientRecord(Attributes rec) throws IOException {
         Attributes patRec = super.findPatientRecord(rec.getString(Tag.PatientID));
@@ -232,7 +327,7 @@ public class DicomDirWriter extends DicomDirReader {
     }
 
     public synchronized void rollback() throws IOException {
-        if (dirtyRecords.isEmpty())
+        if (dirtyRecords.isEmpty() && rollbackLen == -1)
             return;
 
         clearCache();
@@ -247,8 +342,14 @@ public class DicomDirWriter extends DicomDirReader {
                 raf.setLength(rollbackLen);
             }
             writeFileSetConsistencyFlag(NO_KNOWN_INCONSISTENCIES);
+            DicomDirIndex index = getIndex();
+            if (index != null)
+                index.truncate(rollbackLen);
             rollbackLen = -1;
         }
+        if (journal != null)
+            journal.end();
+        pendingRecords = 0;
     }
 
     public void clearCache() {
@@ -257,9 +358,14 @@ public class DicomDirWriter extends DicomDirReader {
     }
 
     public synchronized void commit() throws IOException {
-        if (dirtyRecords.isEmpty())
+        if (dirtyRecords.isEmpty() && rollbackLen == -1)
             return;
 
+        if (journal != null) {
+            commitJournaled();
+            return;
+        }
+
         if (rollbackLen == -1)
             writeFileSetConsistencyFlag(KNOWN_INCONSISTENCIES);
 
@@ -274,14 +380,53 @@ public class DicomDirWriter extends DicomDirReader {
         writeDirInfoHeader();
 
         rollbackLen = -1;
+        pendingRecords = 0;
+    }
+
+    private void commitJournaled() throws IOException {
+        boolean undefSeqLen = getEncodingOptions().undefSequenceLength;
+        if (!journal.isBegun())
+            journal.begin(nextRecordPos, firstRecordPos - 14, undefSeqLen);
+
+        // added records have to be persisted before the journal refers to them
+        raf.getFD().sync();
+        updateDirInfoHeader();
+        journal.addPatch(firstRecordPos - dirInfoHeader.length, dirInfoHeader);
+        for (Attributes rec : dirtyRecords)
+            journal.addPatch(rec.getItemPosition() + 8, toDirRecordHeader(rec));
+
+        long newLength = nextRecordPos;
+        if (undefSeqLen) {
+            journal.addPatch(nextRecordPos, SEQ_DELIM_ITEM);
+            newLength += SEQ_DELIM_ITEM.length;
+        }
+        journal.commit(raf, newLength);
+        journal.end();
+        setFileSetConsistencyFlag(NO_KNOWN_INCONSISTENCIES);
+
+        dirtyRecords.clear();
+        rollbackLen = -1;
+        pendingRecords = 0;
     }
 
     @Override
     public void close() throws IOException {
         commit();
+        if (journal != null)
+            journal.close();
         super.close();
     }
 
+    /**
+     * Stores the index only if there are no uncommitted changes, which
+     * would be lost by a {@link #rollback()}.
+     */
+    @Override
+    public synchronized void storeIndex() throws IOException {
+        if (dirtyRecords.isEmpty() && rollbackLen == -1)
+            super.storeIndex();
+    }
+
     public String[] toFileIDs(File f) {
         return toFileIDs(file, f);
     }
@@ -324,6 +469,12 @@ public class DicomDirWriter extends DicomDirReader {
     }
 
     private void writeDirRecordHeader(Attributes rec) throws IOException {
+        toDirRecordHeader(rec);
+        raf.seek(rec.getItemPosition() + 8);
+        raf.write(dirRecordHeader);
+    }
+
+    private byte[] toDirRecordHeader(Attributes rec) {
         ByteUtils.intToBytesLE(
                 rec.getInt(Tag.OffsetOfTheNextDirectoryRecord, 0),
                 dirRecordHeader, 8);
@@ -333,13 +484,13 @@ public class DicomDirWriter extends DicomDirReader {
         ByteUtils.intToBytesLE(
                 rec.getInt(Tag.OffsetOfReferencedLowerLevelDirectoryEntity, 0),
                 dirRecordHeader, 30);
-        raf.seek(rec.getItemPosition() + 8);
-        raf.write(dirRecordHeader);
+        return dirRecordHeader;
     }
 
     private void writeSequenceDelimitationItem() throws IOException {
         raf.seek(nextRecordPos);
         out.writeHeader(Tag.SequenceDelimitationItem, null, 0);
+        out.flush();
     }
 
     private void addRecord(int tag, Attributes prevRec, Attributes rec)
@@ -357,6 +508,9 @@ public class DicomDirWriter extends DicomDirReader {
         rec.setItemPosition(offset);
         if (rollbackLen == -1) {
             rollbackLen = offset;
+            if (journal != null && !journal.isBegun())
+                journal.begin(offset, firstRecordPos - 14,
+                        getEncodingOptions().undefSequenceLength);
             writeFileSetConsistencyFlag(KNOWN_INCONSISTENCIES);
         }
         raf.seek(offset);
@@ -364,8 +518,10 @@ public class DicomDirWriter extends DicomDirReader {
         rec.setInt(Tag.RecordInUseFlag, VR.US, IN_USE);
         rec.setInt(Tag.OffsetOfReferencedLowerLevelDirectoryEntity, VR.UL, 0);
         rec.writeItemTo(out);
+        out.flush();
         nextRecordPos = (int) raf.getFilePointer();
-        cache.put(offset, rec);
+        pendingRecords++;
+        cacheRecord(offset, rec);
     }
 
     private void writeFileSetConsistencyFlag(int flag) throws IOException {
@@ -386,6 +542,15 @@ public class DicomDirWriter extends DicomDirReader {
         int index = Collections.binarySearch(dirtyRecords, rec, offsetComparator);
         if (index < 0)
             dirtyRecords.add(-(index + 1), rec);
+        cacheRecord((int) rec.getItemPosition(), rec);
+    }
+
+    /**
+     * Keeps modified records, which are not yet written, in the cache.
+     */
+    @Override
+    protected boolean isEvictable(Attributes rec) {
+        return Collections.binarySearch(dirtyRecords, rec, offsetComparator) < 0;
     }
 
     public synchronized int purge() throws IOException {
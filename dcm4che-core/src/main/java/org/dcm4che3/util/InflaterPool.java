@@ -0,0 +1,117 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Inflater;
+
+/**
+ * Pool of {@link Inflater} instances decompressing raw deflate data without
+ * ZLIB header and checksum, as used by the Deflated Transfer Syntaxes.
+ * Reusing instances avoids the allocation of native zlib state for each
+ * stream.
+ * <p>
+ * Released instances are {@link Inflater#reset() reset}. At most
+ * {@link #getMaxIdle()} instances are kept; further released instances are
+ * {@link Inflater#end() ended}. Only instances acquired from the pool may be
+ * released to it.
+ *
+ * @see DeflaterPool
+ * @since Oct 2026
+ */
+public final class InflaterPool {
+
+    private static final InflaterPool INSTANCE = new InflaterPool();
+
+    private final ConcurrentLinkedQueue<Inflater> idle = new ConcurrentLinkedQueue<Inflater>();
+    private final AtomicInteger numIdle = new AtomicInteger();
+    private volatile int maxIdle = Runtime.getRuntime().availableProcessors() * 2;
+
+    private InflaterPool() {
+    }
+
+    public static InflaterPool getInstance() {
+        return INSTANCE;
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    public void setMaxIdle(int maxIdle) {
+        if (maxIdle < 0)
+            throw new IllegalArgumentException("maxIdle: " + maxIdle);
+        this.maxIdle = maxIdle;
+    }
+
+    public int getNumIdle() {
+        return numIdle.get();
+    }
+
+    public Inflater acquire() {
+        Inflater inflater = idle.poll();
+        if (inflater == null)
+            return new Inflater(true);
+
+        numIdle.decrementAndGet();
+        return inflater;
+    }
+
+    public void release(Inflater inflater) {
+        inflater.reset();
+        if (numIdle.incrementAndGet() <= maxIdle) {
+            idle.offer(inflater);
+        } else {
+            numIdle.decrementAndGet();
+            inflater.end();
+        }
+    }
+
+    /**
+     * Ends all idle instances.
+     */
+    public void clear() {
+        Inflater inflater;
+        while ((inflater = idle.poll()) != null) {
+            numIdle.decrementAndGet();
+            inflater.end();
+        }
+    }
+}
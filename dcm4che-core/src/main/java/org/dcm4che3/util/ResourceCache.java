@@ -0,0 +1,303 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.util;
+
+import java.io.File;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread-safe cache of resources loaded from URIs, like compiled XSL
+ * stylesheets or IODs.
+ * <p>
+ * A resource is loaded only once, also if several threads request it
+ * concurrently: other threads wait until the first thread has loaded it.
+ * If loading fails, the exception is thrown to all waiting threads, and the
+ * resource is loaded again on the next request.
+ * <p>
+ * Optionally, the number of cached resources can be limited by
+ * {@link #setMaxSize(int)}, evicting least recently requested resources,
+ * and resources can be reloaded after {@link #setMaxAge(long)} or if the
+ * modification time of a file, from which they were loaded, changed -
+ * checked at most once in {@link #setCheckModifiedInterval(long)}.
+ * {@link #preload(Iterable, Executor)} loads resources in advance, e.g. at
+ * application startup, so the first request does not have to wait for it.
+ *
+ * @param <V> type of cached resources
+ * @param <E> type of exception thrown on failure to load a resource
+ * @since Oct 2026
+ */
+public abstract class ResourceCache<V, E extends Exception> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceCache.class);
+
+    private final ConcurrentHashMap<String, Entry<V>> map =
+            new ConcurrentHashMap<String, Entry<V>>();
+    private volatile int maxSize;
+    private volatile long maxAge;
+    private volatile long checkModifiedInterval;
+
+    /**
+     * Loads the resource from the specified URI.
+     *
+     * @param uri URI of the resource
+     * @return loaded resource
+     * @throws E if the resource could not be loaded
+     */
+    protected abstract V load(String uri) throws E;
+
+    public final int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Limits the number of cached resources.
+     *
+     * @param maxSize maximal number of cached resources or 0 for no limit
+     */
+    public final void setMaxSize(int maxSize) {
+        if (maxSize < 0)
+            throw new IllegalArgumentException("maxSize: " + maxSize);
+        this.maxSize = maxSize;
+    }
+
+    public final long getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Reloads resources loaded longer than the specified time ago.
+     *
+     * @param maxAge maximal age of cached resources in ms or 0 for no limit
+     */
+    public final void setMaxAge(long maxAge) {
+        if (maxAge < 0)
+            throw new IllegalArgumentException("maxAge: " + maxAge);
+        this.maxAge = maxAge;
+    }
+
+    public final long getCheckModifiedInterval() {
+        return checkModifiedInterval;
+    }
+
+    /**
+     * Reloads resources loaded from a file, if the modification time of the
+     * file changed. Resources loaded from other URIs are not checked.
+     *
+     * @param checkModifiedInterval minimal interval in ms between checks of
+     *                              the modification time of a file or 0 to
+     *                              disable the check
+     */
+    public final void setCheckModifiedInterval(long checkModifiedInterval) {
+        if (checkModifiedInterval < 0)
+            throw new IllegalArgumentException("checkModifiedInterval: " + checkModifiedInterval);
+        this.checkModifiedInterval = checkModifiedInterval;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    public void remove(String uri) {
+        map.remove(uri);
+    }
+
+    public V get(String uri) throws E {
+        long now = System.currentTimeMillis();
+        Entry<V> entry = map.get(uri);
+        if (entry != null && isStale(entry, now)) {
+            map.remove(uri, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            Entry<V> newEntry = new Entry<V>(this, uri, now);
+            entry = map.putIfAbsent(uri, newEntry);
+            if (entry == null) {
+                entry = newEntry;
+                entry.task.run();
+                evict();
+            }
+        }
+        entry.lastAccess = now;
+        return await(uri, entry);
+    }
+
+    /**
+     * Loads the resources from the specified URIs, which are not already
+     * cached, by the current thread. Failures are logged.
+     *
+     * @param uris URIs of the resources
+     * @return number of resources, which could not be loaded
+     */
+    public int preload(Iterable<String> uris) {
+        int failed = 0;
+        for (String uri : uris)
+            if (!preload(uri))
+                failed++;
+        return failed;
+    }
+
+    /**
+     * Loads the resources from the specified URIs, which are not already
+     * cached, by the specified executor - concurrently, if the executor
+     * provides several threads. Failures are logged.
+     *
+     * @param uris     URIs of the resources
+     * @param executor executor loading the resources
+     */
+    public void preload(Iterable<String> uris, Executor executor) {
+        for (final String uri : uris)
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    preload(uri);
+                }
+            });
+    }
+
+    private boolean preload(String uri) {
+        try {
+            get(uri);
+            return true;
+        } catch (Exception e) {
+            LOG.warn("Failed to preload {}:", uri, e);
+            return false;
+        }
+    }
+
+    private boolean isStale(Entry<V> entry, long now) {
+        if (!entry.task.isDone())
+            return false;
+
+        long maxAge = this.maxAge;
+        if (maxAge > 0 && now - entry.loaded > maxAge)
+            return true;
+
+        long interval = checkModifiedInterval;
+        if (interval > 0 && entry.file != null && now - entry.lastChecked >= interval) {
+            entry.lastChecked = now;
+            return entry.file.lastModified() != entry.lastModified;
+        }
+        return false;
+    }
+
+    private void evict() {
+        int maxSize = this.maxSize;
+        while (maxSize > 0 && map.size() > maxSize) {
+            Map.Entry<String, Entry<V>> eldest = null;
+            for (Map.Entry<String, Entry<V>> e : map.entrySet())
+                if (eldest == null || e.getValue().lastAccess < eldest.getValue().lastAccess)
+                    eldest = e;
+            if (eldest == null)
+                return;
+            map.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V await(String uri, Entry<V> entry) throws E {
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    return entry.task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            map.remove(uri, entry);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw (E) cause;
+        } finally {
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+    }
+
+    private static File toFile(String uri) {
+        if (uri.startsWith("file:")) {
+            try {
+                return new File(new URI(uri));
+            } catch (Exception e) {
+                return null;
+            }
+        }
+        return uri.indexOf(':') < 2 ? new File(uri) : null;
+    }
+
+    private static final class Entry<V> {
+        final FutureTask<V> task;
+        final long loaded;
+        final File file;
+        final long lastModified;
+        volatile long lastAccess;
+        volatile long lastChecked;
+
+        Entry(final ResourceCache<V, ?> cache, final String uri, long now) {
+            this.task = new FutureTask<V>(new Callable<V>() {
+                @Override
+                public V call() throws Exception {
+                    return cache.load(uri);
+                }
+            });
+            this.loaded = now;
+            this.file = toFile(uri);
+            this.lastModified = file != null ? file.lastModified() : 0L;
+            this.lastAccess = now;
+            this.lastChecked = now;
+        }
+    }
+}
@@ -43,10 +43,20 @@ import org.dcm4che3.util.DateUtils;
 import org.dcm4che3.util.StringUtils;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
 
@@ -973,4 +983,87 @@ public class AttributesTest {
 
         assertEquals(5, attributes.size());
     }
-}
+
+    @Test
+    public void testFreeze() {
+        Attributes item = new Attributes();
+        item.setBytes(Tag.CodeMeaning, VR.LO, "Caf\u00e9".getBytes(StandardCharsets.ISO_8859_1));
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.SpecificCharacterSet, VR.CS, "ISO_IR 100");
+        attrs.setBytes(Tag.PatientName, VR.PN, "M\u00fcller^Hans".getBytes(StandardCharsets.ISO_8859_1));
+        attrs.setBytes(Tag.SeriesNumber, VR.IS, "7 ".getBytes(StandardCharsets.US_ASCII));
+        attrs.newSequence(Tag.ProcedureCodeSequence, 1).add(item);
+        attrs.freeze();
+
+        assertTrue(attrs.isFrozen());
+        assertTrue(attrs.isReadOnly());
+        assertTrue(item.isFrozen());
+        assertEquals("M\u00fcller^Hans", attrs.getValue(Tag.PatientName));
+        assertEquals("Caf\u00e9", item.getValue(Tag.CodeMeaning));
+        assertEquals(7, attrs.getInt(Tag.SeriesNumber, 0));
+        assertEquals("7", attrs.getValue(Tag.SeriesNumber));
+        try {
+            attrs.setString(Tag.PatientID, VR.LO, "P1");
+            fail("frozen dataset modified");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void testGetUNSequenceFromFrozen() throws Exception {
+        final byte[] un = {
+                (byte) 0xFE, (byte) 0xFF, 0x00, (byte) 0xE0, 12, 0, 0, 0,
+                0x08, 0x00, 0x00, 0x01, 4, 0, 0, 0, 'T', '-', 'A', '1' };
+        final Attributes attrs = new Attributes();
+        attrs.setBytes(Tag.ProcedureCodeSequence, VR.UN, un);
+        attrs.freeze();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Sequence>> futures = new ArrayList<Future<Sequence>>();
+            for (int i = 0; i < 16; i++)
+                futures.add(executor.submit(new Callable<Sequence>() {
+                    @Override
+                    public Sequence call() {
+                        return attrs.getSequence(Tag.ProcedureCodeSequence);
+                    }
+                }));
+            for (Future<Sequence> future : futures) {
+                Sequence seq = future.get();
+                assertEquals(1, seq.size());
+                assertSame(attrs, seq.getParent());
+                assertTrue(seq.get(0).isFrozen());
+                assertArrayEquals("T-A1".getBytes(StandardCharsets.US_ASCII),
+                        seq.get(0).getBytes(Tag.CodeValue));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(VR.UN, attrs.getVR(Tag.ProcedureCodeSequence));
+        assertSame(un, attrs.getValue(Tag.ProcedureCodeSequence));
+    }
+
+    @Test
+    public void testSerializeFrozen() throws Exception {
+        Attributes item = new Attributes();
+        item.setString(Tag.CodeMeaning, VR.LO, "Caf\u00e9");
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.SpecificCharacterSet, VR.CS, "ISO_IR 100");
+        attrs.setString(Tag.PatientName, VR.PN, "M\u00fcller^Hans");
+        attrs.newSequence(Tag.ProcedureCodeSequence, 1).add(item);
+        attrs.freeze();
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream oout = new ObjectOutputStream(bout);
+        oout.writeObject(attrs);
+        oout.close();
+        Attributes copy = (Attributes) new ObjectInputStream(
+                new ByteArrayInputStream(bout.toByteArray())).readObject();
+
+        assertEquals(attrs, copy);
+        assertTrue(copy.isFrozen());
+        assertTrue(copy.isReadOnly());
+        assertTrue(copy.getNestedDataset(Tag.ProcedureCodeSequence).isFrozen());
+        assertEquals("M\u00fcller^Hans", copy.getValue(Tag.PatientName));
+        assertEquals("Caf\u00e9", copy.getNestedDataset(Tag.ProcedureCodeSequence)
+                .getValue(Tag.CodeMeaning));
+    }}
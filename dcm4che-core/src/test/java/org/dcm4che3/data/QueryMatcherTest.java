@@ -0,0 +1,335 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.regex.Pattern;
+
+import org.dcm4che3.util.StringUtils;
+import org.dcm4che3.util.TagUtils;
+import org.junit.Test;
+
+/**
+ * @since Oct 2026
+ */
+public class QueryMatcherTest {
+
+    private static Attributes study(String pn, String date, String time, String iuid) {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.PatientName, VR.PN, pn);
+        attrs.setString(Tag.StudyDate, VR.DA, date);
+        attrs.setString(Tag.StudyTime, VR.TM, time);
+        attrs.setString(Tag.StudyInstanceUID, VR.UI, iuid);
+        return attrs;
+    }
+
+    @Test
+    public void testWildcardPN() {
+        Attributes keys = new Attributes();
+        keys.setString(Tag.PatientName, VR.PN, "doe^j*");
+        QueryMatcher caseSensitive = new QueryMatcher(keys, false, false);
+        QueryMatcher ignoreCase = new QueryMatcher(keys, true, false);
+        Attributes rec = study("Doe^John", "20261017", "101010", "1.2.3");
+        assertFalse(caseSensitive.matches(rec));
+        assertTrue(ignoreCase.matches(rec));
+        assertFalse(ignoreCase.matches(study("Doe^Max", "20261017", "101010", "1.2.3")));
+    }
+
+    @Test
+    public void testDateRange() {
+        Attributes keys = new Attributes();
+        keys.setString(Tag.StudyDate, VR.DA, "20261001-20261031");
+        QueryMatcher matcher = new QueryMatcher(keys, false, false);
+        assertTrue(matcher.matches(study("Doe", "20261017", "101010", "1.2.3")));
+        assertFalse(matcher.matches(study("Doe", "20261117", "101010", "1.2.3")));
+        keys.setString(Tag.StudyDate, VR.DA, "-20261001");
+        matcher = new QueryMatcher(keys, false, false);
+        assertTrue(matcher.matches(study("Doe", "20250101", "101010", "1.2.3")));
+        assertFalse(matcher.matches(study("Doe", "20261017", "101010", "1.2.3")));
+    }
+
+    @Test
+    public void testUIDList() {
+        Attributes keys = new Attributes();
+        keys.setString(Tag.StudyInstanceUID, VR.UI, "1.1", "1.2", "1.3", "1.4", "1.5", "1.6");
+        QueryMatcher matcher = new QueryMatcher(keys, false, false);
+        assertTrue(matcher.matches(study("Doe", "20261017", "101010", "1.5")));
+        assertFalse(matcher.matches(study("Doe", "20261017", "101010", "1.7")));
+    }
+
+    @Test
+    public void testMatchNoValue() {
+        Attributes keys = new Attributes();
+        keys.setString(Tag.AccessionNumber, VR.SH, "A123");
+        Attributes rec = study("Doe", "20261017", "101010", "1.2.3");
+        assertFalse(new QueryMatcher(keys, false, false).matches(rec));
+        assertTrue(new QueryMatcher(keys, false, true).matches(rec));
+    }
+
+    @Test
+    public void testUniversalMatching() {
+        Attributes keys = new Attributes();
+        keys.setNull(Tag.PatientName, VR.PN);
+        keys.setNull(Tag.StudyDate, VR.DA);
+        QueryMatcher matcher = new QueryMatcher(keys, false, false);
+        assertTrue(matcher.isUniversal());
+        assertTrue(matcher.matches(new Attributes()));
+    }
+
+    @Test
+    public void testSequence() {
+        Attributes item = new Attributes();
+        item.setString(Tag.CodeValue, VR.SH, "T-A0100");
+        Attributes keys = new Attributes();
+        keys.newSequence(Tag.AnatomicRegionSequence, 1).add(item);
+        QueryMatcher matcher = new QueryMatcher(keys, false, false);
+
+        Attributes rec = new Attributes();
+        Sequence seq = rec.newSequence(Tag.AnatomicRegionSequence, 2);
+        seq.add(code("T-D3000"));
+        assertFalse(matcher.matches(rec));
+        seq.add(code("T-A0100"));
+        assertTrue(matcher.matches(rec));
+    }
+
+    private static Attributes code(String value) {
+        Attributes item = new Attributes();
+        item.setString(Tag.CodeValue, VR.SH, value);
+        item.setString(Tag.CodingSchemeDesignator, VR.SH, "SRT");
+        return item;
+    }
+
+    @Test
+    public void testSequenceWithEmptyMatchingKeys() {
+        Attributes item = new Attributes();
+        item.setNull(Tag.CodeValue, VR.SH);
+        Attributes keys = new Attributes();
+        keys.newSequence(Tag.AnatomicRegionSequence, 1).add(item);
+        Attributes rec = study("Doe", "20261017", "101010", "1.2.3");
+        assertFalse(new QueryMatcher(keys, false, false).matches(rec));
+        assertTrue(new QueryMatcher(keys, false, true).matches(rec));
+        rec.newSequence(Tag.AnatomicRegionSequence, 1).add(code("T-D3000"));
+        assertTrue(new QueryMatcher(keys, false, false).matches(rec));
+    }
+
+    @Test
+    public void testConsistentWithAttributesMatches() {
+        Attributes[] keys = {
+                keys(Tag.PatientName, VR.PN, "D*"),
+                keys(Tag.PatientName, VR.PN, "doe^j*"),
+                keys(Tag.PatientName, VR.PN, "Doe^John"),
+                keys(Tag.PatientName, VR.PN, "Moe", "Doe"),
+                keys(Tag.PatientName, VR.PN, "Doe", "M?e"),
+                keys(Tag.StudyDate, VR.DA, "20261001-"),
+                keys(Tag.StudyDate, VR.DA, "-20261001"),
+                keys(Tag.StudyDate, VR.DA, "20261017"),
+                keys(Tag.StudyDate, VR.DA, "20261017-20261017"),
+                keys(Tag.StudyTime, VR.TM, "100000-120000"),
+                keys(Tag.StudyInstanceUID, VR.UI, "1.2.3"),
+                keys(Tag.StudyInstanceUID, VR.UI, "1.1", "1.2", "1.3", "1.4", "1.5", "1.2.3"),
+                keys(Tag.AccessionNumber, VR.SH, "A*"),
+                sequenceKeys(new Attributes()),
+                sequenceKeys(keys(Tag.CodeValue, VR.SH)),
+                sequenceKeys(keys(Tag.CodeValue, VR.SH, "T-A0100")),
+                sequenceKeys(keys(Tag.CodeValue, VR.SH, "T-A*")),
+        };
+        Attributes[] recs = {
+                study("Doe", "20261017", "101010", "1.2.3"),
+                study("Doe^John", "20261017", "131010", "1.2.3"),
+                study("DOE^JOHN", "20260917", "101010", "1.5"),
+                study("Moe", "20261017", "101010", "1.2.4"),
+                study("Doe", "20260917", "101010", "1.2.3"),
+                withAccessionNumber(study("Doe", "20261017", "101010", "1.2.3"), "A123"),
+                withAnatomicRegion(study("Doe", "20261017", "101010", "1.2.3")),
+                withAnatomicRegion(study("Doe", "20261017", "101010", "1.2.3"), "T-D3000"),
+                withAnatomicRegion(study("Doe", "20261017", "101010", "1.2.3"), "T-D3000", "T-A0100"),
+                new Attributes()
+        };
+        for (Attributes key : keys)
+            for (boolean ignorePNCase : new boolean[] { false, true })
+                for (boolean matchNoValue : new boolean[] { false, true }) {
+                    QueryMatcher matcher = new QueryMatcher(key, ignorePNCase, matchNoValue);
+                    for (Attributes rec : recs)
+                        assertEquals(key + " on " + rec,
+                                LegacyMatcher.matches(rec, key, ignorePNCase, matchNoValue),
+                                matcher.matches(rec));
+                }
+    }
+
+    private static Attributes keys(int tag, VR vr, String... values) {
+        Attributes keys = new Attributes();
+        if (values.length == 0)
+            keys.setNull(tag, vr);
+        else
+            keys.setString(tag, vr, values);
+        return keys;
+    }
+
+    private static Attributes sequenceKeys(Attributes item) {
+        Attributes keys = new Attributes();
+        keys.newSequence(Tag.AnatomicRegionSequence, 1).add(item);
+        return keys;
+    }
+
+    private static Attributes withAccessionNumber(Attributes rec, String value) {
+        rec.setString(Tag.AccessionNumber, VR.SH, value);
+        return rec;
+    }
+
+    private static Attributes withAnatomicRegion(Attributes rec, String... values) {
+        Sequence seq = rec.newSequence(Tag.AnatomicRegionSequence, values.length);
+        for (String value : values)
+            seq.add(code(value));
+        return rec;
+    }
+
+    /**
+     * Implementation of {@link Attributes#matches} before it delegated to
+     * {@link QueryMatcher}, as reference for the expected matching rules.
+     */
+    private static final class LegacyMatcher {
+
+        static boolean matches(Attributes attrs, Attributes keys,
+                boolean ignorePNCase, boolean matchNoValue) {
+            for (int tag : keys.tags()) {
+                if (TagUtils.isPrivateCreator(tag))
+                    continue;
+
+                String privateCreator = keys.getPrivateCreator(tag);
+                Object keyValue = keys.getValue(privateCreator, tag);
+                if (isEmpty(keyValue))
+                    continue;
+
+                VR vr = keys.getVR(privateCreator, tag);
+                if (vr.isStringType()) {
+                    if (!matches(attrs, privateCreator, tag, vr, ignorePNCase,
+                            matchNoValue, keys.getStrings(privateCreator, tag, null)))
+                        return false;
+                } else if (keyValue instanceof Sequence) {
+                    if (!matches(attrs, privateCreator, tag, ignorePNCase,
+                            matchNoValue, (Sequence) keyValue))
+                        return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isEmpty(Object value) {
+            return (value instanceof Value) && ((Value) value).isEmpty();
+        }
+
+        private static boolean matches(Attributes attrs, String privateCreator,
+                int tag, VR vr, boolean ignorePNCase, boolean matchNoValue,
+                String[] keyVals) {
+            String[] vals = attrs.getStrings(privateCreator, tag, null);
+            if (vals == null || vals.length == 0)
+                return matchNoValue;
+
+            boolean ignoreCase = ignorePNCase && vr == VR.PN;
+            for (String keyVal : keyVals) {
+                DateRange dateRange = null;
+                switch (vr) {
+                    case PN:
+                        keyVal = new PersonName(keyVals[0]).toString();
+                        break;
+                    case DA:
+                    case DT:
+                    case TM:
+                        dateRange = Attributes.toDateRange(keyVal, vr, attrs.getTimeZone());
+                        break;
+                }
+
+                if (StringUtils.containsWildCard(keyVal)) {
+                    Pattern pattern = StringUtils.compilePattern(keyVal, ignoreCase);
+                    for (String val : vals) {
+                        if (val == null)
+                            if (matchNoValue)
+                                return true;
+                            else
+                                continue;
+                        if (vr == VR.PN)
+                            val = new PersonName(val).toString();
+                        if (pattern.matcher(val).matches())
+                            return true;
+                    }
+                } else {
+                    for (String val : vals) {
+                        if (val == null)
+                            if (matchNoValue)
+                                return true;
+                            else
+                                continue;
+                        if (dateRange != null)
+                            if (dateRange.contains(vr.toDate(val, attrs.getTimeZone(),
+                                    0, false, null, new DatePrecision())))
+                                return true;
+                            else
+                                continue;
+                        if (vr == VR.PN)
+                            val = new PersonName(val).toString();
+                        if (ignoreCase ? keyVal.equalsIgnoreCase(val)
+                                       : keyVal.equals(val))
+                            return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static boolean matches(Attributes attrs, String privateCreator,
+                int tag, boolean ignorePNCase, boolean matchNoValue, Sequence keySeq) {
+            Attributes keys = keySeq.get(0);
+            if (keys.isEmpty())
+                return true;
+
+            Object value = attrs.getValue(privateCreator, tag);
+            if (value == null || isEmpty(value))
+                return matchNoValue;
+
+            if (value instanceof Sequence)
+                for (Attributes item : (Sequence) value)
+                    if (matches(item, keys, ignorePNCase, matchNoValue))
+                        return true;
+            return false;
+        }
+    }
+}
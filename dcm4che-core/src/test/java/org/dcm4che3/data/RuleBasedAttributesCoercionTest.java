@@ -0,0 +1,168 @@
+package org.dcm4che3.data;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * @since Oct 2026
+ */
+public class RuleBasedAttributesCoercionTest {
+
+    private static Attributes dataset() {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.PatientID, VR.LO, "P1");
+        attrs.setString(Tag.IssuerOfPatientID, VR.LO, "ISSUER");
+        attrs.setString(Tag.PatientName, VR.PN, "Doe^John");
+        attrs.setString(Tag.Modality, VR.CS, "CT");
+        attrs.setString(Tag.InstitutionName, VR.LO, "Hospital");
+        Sequence rqAttrsSeq = attrs.newSequence(Tag.RequestAttributesSequence, 2);
+        for (String spsID : new String[]{ "SPS1", "SPS2" }) {
+            Attributes item = new Attributes();
+            item.setString(Tag.ScheduledProcedureStepID, VR.SH, spsID);
+            rqAttrsSeq.add(item);
+        }
+        return attrs;
+    }
+
+    private static void coerce(Attributes attrs, Attributes modified, String... rules) throws Exception {
+        new RuleBasedAttributesCoercion(Arrays.asList(rules), null).coerce(attrs, modified);
+    }
+
+    @Test
+    public void testSetRemoveCopy() throws Exception {
+        Attributes attrs = dataset();
+        Attributes modified = new Attributes();
+        coerce(attrs, modified,
+                "# comment",
+                "",
+                "set InstitutionName \"Other Hospital\"",
+                "set 00081030 LO A\\B",
+                "remove Modality",
+                "copy PatientID OtherPatientIDs",
+                "set ReferringPhysicianName \"\"");
+        assertEquals("Other Hospital", attrs.getString(Tag.InstitutionName));
+        assertArrayEquals(new String[]{ "A", "B" }, attrs.getStrings(Tag.StudyDescription));
+        assertFalse(attrs.contains(Tag.Modality));
+        assertEquals("P1", attrs.getString(Tag.OtherPatientIDs));
+        assertTrue(attrs.contains(Tag.ReferringPhysicianName));
+        assertFalse(attrs.containsValue(Tag.ReferringPhysicianName));
+        assertEquals("Hospital", modified.getString(Tag.InstitutionName));
+        assertEquals("CT", modified.getString(Tag.Modality));
+        assertFalse(modified.contains(Tag.StudyDescription));
+        assertEquals(2, modified.size());
+    }
+
+    @Test
+    public void testFormat() throws Exception {
+        Attributes attrs = dataset();
+        coerce(attrs, null, "format AccessionNumber \"{00100020}-{00100021}\"");
+        assertEquals("P1-ISSUER", attrs.getString(Tag.AccessionNumber));
+        assertEquals(VR.SH, attrs.getVR(Tag.AccessionNumber));
+    }
+
+    @Test
+    public void testConditional() throws Exception {
+        Attributes attrs = dataset();
+        coerce(attrs, null,
+                "if Modality = MR then set StationName MR1",
+                "if Modality = CT and IssuerOfPatientID exists then set StationName CT1",
+                "if Modality ~ \"C.\" and StudyID absent then set StudyID 1",
+                "if PatientName != Doe^John then remove PatientName");
+        assertEquals("CT1", attrs.getString(Tag.StationName));
+        assertEquals("1", attrs.getString(Tag.StudyID));
+        assertEquals("Doe^John", attrs.getString(Tag.PatientName));
+    }
+
+    @Test
+    public void testNested() throws Exception {
+        Attributes attrs = dataset();
+        Attributes modified = new Attributes();
+        coerce(attrs, modified,
+                "set RequestAttributesSequence/RequestedProcedureID RP1",
+                "set RequestAttributesSequence[2]/ScheduledProcedureStepID SPS3",
+                "set IssuerOfAccessionNumberSequence/LocalNamespaceEntityID ACCESSION",
+                "copy RequestAttributesSequence/ScheduledProcedureStepID StudyID");
+        Sequence rqAttrsSeq = attrs.getSequence(Tag.RequestAttributesSequence);
+        assertEquals("RP1", rqAttrsSeq.get(0).getString(Tag.RequestedProcedureID));
+        assertEquals("RP1", rqAttrsSeq.get(1).getString(Tag.RequestedProcedureID));
+        assertEquals("SPS3", rqAttrsSeq.get(1).getString(Tag.ScheduledProcedureStepID));
+        assertEquals("ACCESSION", attrs.getNestedDataset(Tag.IssuerOfAccessionNumberSequence)
+                .getString(Tag.LocalNamespaceEntityID));
+        assertEquals("SPS1", attrs.getString(Tag.StudyID));
+        Sequence origSeq = modified.getSequence(Tag.RequestAttributesSequence);
+        assertEquals(2, origSeq.size());
+        assertEquals("SPS2", origSeq.get(1).getString(Tag.ScheduledProcedureStepID));
+        assertFalse(origSeq.get(0).contains(Tag.RequestedProcedureID));
+        assertFalse(modified.contains(Tag.IssuerOfAccessionNumberSequence));
+    }
+
+    @Test
+    public void testSelectorSyntax() throws Exception {
+        Attributes attrs = dataset();
+        attrs.setString(Tag.OtherPatientIDs, VR.LO, "P2", "P3");
+        attrs.setString("PRIVATE CREATOR", 0x00090010, VR.LO, "PRIVATE");
+        coerce(attrs, null,
+                "copy DicomAttribute[@tag=\"00101000\"]/Value[@number=\"2\"] PatientID",
+                "if DicomAttribute[@tag=\"00090010\" and @privateCreator=\"PRIVATE CREATOR\"] = PRIVATE"
+                        + " then remove DicomAttribute[@tag=\"00090010\" and @privateCreator=\"PRIVATE CREATOR\"]");
+        assertEquals("P3", attrs.getString(Tag.PatientID));
+        assertFalse(attrs.contains("PRIVATE CREATOR", 0x00090010));
+    }
+
+    @Test
+    public void testCopyConvertsToTargetVR() throws Exception {
+        Attributes attrs = dataset();
+        attrs.setInt(Tag.Rows, VR.US, 512);
+        coerce(attrs, null,
+                "copy PatientID AccessionNumber",
+                "copy Rows SeriesNumber",
+                "copy PatientID DicomAttribute[@tag=\"00091010\" and @privateCreator=\"PRIVATE CREATOR\"]");
+        assertEquals(VR.SH, attrs.getVR(Tag.AccessionNumber));
+        assertEquals("P1", attrs.getString(Tag.AccessionNumber));
+        assertEquals(VR.IS, attrs.getVR(Tag.SeriesNumber));
+        assertEquals(512, attrs.getInt(Tag.SeriesNumber, 0));
+        assertEquals(VR.LO, attrs.getVR("PRIVATE CREATOR", 0x00091010));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetPrivateWithoutVR() {
+        new RuleBasedAttributesCoercion(Arrays.asList(
+                "set DicomAttribute[@tag=\"00091010\" and @privateCreator=\"PRIVATE CREATOR\"] X"), null);
+    }
+
+    @Test
+    public void testSetPrivate() throws Exception {
+        Attributes attrs = dataset();
+        coerce(attrs, null,
+                "set DicomAttribute[@tag=\"00091010\" and @privateCreator=\"PRIVATE CREATOR\"] LO X");
+        assertEquals(VR.LO, attrs.getVR("PRIVATE CREATOR", 0x00091010));
+        assertEquals("X", attrs.getString("PRIVATE CREATOR", 0x00091010));
+    }
+
+    @Test
+    public void testReadRules() throws Exception {
+        assertEquals(Arrays.asList("set StudyID 1", "remove Modality"),
+                RuleBasedAttributesCoercion.readRules(new StringReader("set StudyID 1\nremove Modality\n")));
+    }
+
+    @Test
+    public void testTokenize() {
+        assertArrayEquals(new String[]{ "set", "PatientName", "Doe^\"J\"", "" },
+                RuleBasedAttributesCoercion.tokenize("set  PatientName \"Doe^\"\"J\"\"\" \"\""));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRule() {
+        new RuleBasedAttributesCoercion(Arrays.asList("set PatientID"), null);
+    }
+
+    @Test
+    public void testValueOf() {
+        assertNull(RuleBasedAttributesCoercion.valueOf(null, null));
+        assertNotNull(RuleBasedAttributesCoercion.valueOf(Arrays.asList("remove PatientID"), null));
+    }
+}
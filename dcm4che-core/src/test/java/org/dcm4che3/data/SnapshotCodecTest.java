@@ -0,0 +1,167 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * @since Oct 2026
+ */
+public class SnapshotCodecTest {
+
+    private static final String PRIVATE_CREATOR = "SNAPSHOT TEST";
+
+    private static Attributes dataset() {
+        Attributes item = new Attributes();
+        item.setString(Tag.ReferencedSOPInstanceUID, VR.UI, "1.2.3.4.5");
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.SpecificCharacterSet, VR.CS, "ISO_IR 192");
+        attrs.setString(Tag.ImageType, VR.CS, "ORIGINAL", "PRIMARY");
+        attrs.setString(Tag.PatientName, VR.PN, "\u738b^\u5c0f\u6771");
+        attrs.setNull(Tag.StudyDate, VR.DA);
+        attrs.setInt(Tag.Rows, VR.US, 512);
+        attrs.setString(Tag.PixelSpacing, VR.DS, "0.5", "0.5");
+        attrs.setString(PRIVATE_CREATOR, 0x00990001, VR.LO, "private");
+        attrs.newSequence(Tag.ReferencedImageSequence, 1).add(item);
+        Fragments frags = attrs.newFragments(Tag.PixelData, VR.OB, 2);
+        frags.add(Value.NULL);
+        frags.add(new byte[] { 1, 2, 3, 4 });
+        return attrs;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Attributes attrs = dataset();
+        attrs.getDoubles(Tag.PixelSpacing);
+        SnapshotCodec codec = new SnapshotCodec();
+        byte[] b = codec.encode(attrs);
+        assertEquals(codec.encodedLength(attrs), b.length);
+        Attributes decoded = codec.decode(b);
+        assertEquals(attrs, decoded);
+        assertEquals("\u738b^\u5c0f\u6771", decoded.getString(Tag.PatientName));
+        assertEquals("private", decoded.getString(PRIVATE_CREATOR, 0x00990001));
+        assertArrayEquals(new double[] { 0.5, 0.5 }, decoded.getDoubles(Tag.PixelSpacing), 0);
+        assertEquals("1.2.3.4.5", decoded.getNestedDataset(Tag.ReferencedImageSequence)
+                .getString(Tag.ReferencedSOPInstanceUID));
+    }
+
+    @Test
+    public void testEncodeDoesNotModify() {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.SpecificCharacterSet, VR.CS, "ISO_IR 100");
+        attrs.setBytes(Tag.PatientName, VR.PN, "M\u00fcller^Hans".getBytes(StandardCharsets.ISO_8859_1));
+        SnapshotCodec codec = new SnapshotCodec();
+        Attributes decoded = codec.decode(codec.encode(attrs));
+        assertEquals("M\u00fcller^Hans", decoded.getValue(Tag.PatientName));
+        assertTrue(attrs.getValue(Tag.PatientName) instanceof byte[]);
+    }
+
+    @Test
+    public void testEncodeIntoArray() {
+        Attributes attrs = dataset();
+        SnapshotCodec codec = new SnapshotCodec();
+        int length = codec.encodedLength(attrs);
+        byte[] b = new byte[length + 2];
+        assertEquals(length + 1, codec.encode(attrs, b, 1));
+        assertEquals(attrs, codec.decode(b, 1, length));
+        try {
+            codec.encode(attrs, new byte[length - 1], 0);
+            fail("IndexOutOfBoundsException expected");
+        } catch (IndexOutOfBoundsException expected) {}
+    }
+
+    @Test
+    public void testBigEndian() {
+        Attributes attrs = new Attributes(true, 4);
+        attrs.setInt(Tag.Rows, VR.US, 512);
+        attrs.setString(Tag.SOPInstanceUID, VR.UI, "1.2.3");
+        SnapshotCodec codec = new SnapshotCodec();
+        Attributes decoded = codec.decode(codec.encode(attrs));
+        assertEquals(true, decoded.bigEndian());
+        assertEquals(512, decoded.getInt(Tag.Rows, 0));
+    }
+
+    @Test
+    public void testByteBuffer() {
+        Attributes attrs = dataset();
+        SnapshotCodec codec = new SnapshotCodec();
+        ByteBuffer buf = ByteBuffer.allocateDirect(codec.encodedLength(attrs) + 10);
+        buf.position(10);
+        codec.encode(attrs, buf);
+        assertFalse(buf.hasRemaining());
+        buf.position(10);
+        assertEquals(attrs, codec.decode(buf));
+    }
+
+    @Test
+    public void testExcludeBulkData() {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.SOPInstanceUID, VR.UI, "1.2.3");
+        attrs.setValue(Tag.PixelData, VR.OB, new BulkData(null, "file:/tmp/x.dcm?offset=100&length=10", false));
+        assertEquals(attrs, new SnapshotCodec().decode(new SnapshotCodec().encode(attrs)));
+        SnapshotCodec codec = new SnapshotCodec(false);
+        Attributes decoded = codec.decode(codec.encode(attrs));
+        assertEquals("1.2.3", decoded.getString(Tag.SOPInstanceUID));
+        assertNull(decoded.getValue(Tag.PixelData));
+    }
+
+    @Test
+    public void testInvalid() {
+        SnapshotCodec codec = new SnapshotCodec();
+        byte[] b = codec.encode(dataset());
+        try {
+            codec.decode(b, 0, b.length - 1);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException expected) {}
+        try {
+            codec.decode(new byte[] { 'D', 'I', 'C', 'M', 1, 0, 0 });
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException expected) {}
+    }
+}
@@ -41,6 +41,8 @@ package org.dcm4che3.data;
 
 import static org.junit.Assert.*;
 
+import java.nio.charset.StandardCharsets;
+
 import org.junit.Test;
 
 /**
@@ -568,4 +570,45 @@ public class SpecificCharacterSetTest {
             SpecificCharacterSet.resetCharsetNameMappings();
         }
     }
+
+    @Test
+    public void testValueOfCached() {
+        assertSame(SpecificCharacterSet.valueOf("ISO_IR 100"),
+                SpecificCharacterSet.valueOf("ISO_IR 100"));
+        assertSame(SpecificCharacterSet.valueOf("ISO 2022 IR 6", "ISO 2022 IR 87"),
+                SpecificCharacterSet.valueOf("ISO 2022 IR 6", "ISO 2022 IR 87"));
+        assertNotSame(SpecificCharacterSet.valueOf("ISO_IR 100"),
+                SpecificCharacterSet.valueOf("ISO 2022 IR 100", "ISO 2022 IR 87"));
+    }
+
+    @Test
+    public void testToCodesReturnsCopy() {
+        SpecificCharacterSet cs = SpecificCharacterSet.valueOf("", "ISO 2022 IR 87");
+        cs.toCodes()[1] = "ISO 2022 IR 149";
+        assertArrayEquals(new String[]{ "", "ISO 2022 IR 87" },
+                SpecificCharacterSet.valueOf("", "ISO 2022 IR 87").toCodes());
+    }
+
+    @Test
+    public void testValueOfCacheClearedOnDefaultChange() {
+        SpecificCharacterSet.setDefaultCharacterSet("ISO_IR 100");
+        try {
+            assertArrayEquals(new String[] { "" }, SpecificCharacterSet.valueOf("").toCodes());
+            assertEquals("Ä", SpecificCharacterSet.valueOf("").decode(new byte[] { (byte) 0xc4 }));
+        } finally {
+            SpecificCharacterSet.setDefaultCharacterSet(null);
+        }
+        assertTrue(SpecificCharacterSet.valueOf("").isASCII());
+    }
+
+    @Test
+    public void testDecodeASCIIFastPath() {
+        byte[] ascii = "Doe^John".getBytes(StandardCharsets.US_ASCII);
+        assertEquals("Doe^John", SpecificCharacterSet.ASCII.decode(ascii));
+        assertEquals("Doe^John", iso8859_1().decode(ascii));
+        assertEquals("Doe^John", SpecificCharacterSet.valueOf("ISO_IR 192").decode(ascii));
+        assertEquals("Doe^John", SpecificCharacterSet.valueOf("ISO 2022 IR 6", "ISO 2022 IR 87").decode(ascii));
+        assertEquals("\ufffd", SpecificCharacterSet.ASCII.decode(new byte[] { (byte) 0xc4 }));
+        assertEquals("Ä", SpecificCharacterSet.valueOf("ISO_IR 192").decode(new byte[] { (byte) 0xc3, (byte) 0x84 }));
+    }
 }
@@ -0,0 +1,110 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @since Oct 2026
+ */
+public class StringPoolTest {
+
+    @Test
+    public void testIntern() {
+        StringPool pool = new StringPool();
+        String uid = new String("1.2.3");
+        assertSame(uid, pool.intern(uid));
+        assertSame(uid, pool.intern(new String("1.2.3")));
+        assertEquals(1, pool.size());
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(0.5, pool.getHitRate(), 0);
+    }
+
+    @Test
+    public void testBounded() {
+        StringPool pool = new StringPool(2, VR.UI);
+        pool.intern("1.1");
+        pool.intern("1.2");
+        String uid = new String("1.3");
+        assertSame(uid, pool.intern(uid));
+        assertNotSame(uid, pool.intern(new String("1.3")));
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    public void testMaxLength() {
+        StringPool pool = new StringPool(10, VR.LO);
+        pool.setMaxLength(4);
+        pool.intern("Brain");
+        assertEquals(0, pool.size());
+        pool.intern("Head");
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testIsPooled() {
+        StringPool pool = new StringPool();
+        pool.setTags(Tag.Manufacturer);
+        assertTrue(pool.isPooled(Tag.StudyInstanceUID, VR.UI));
+        assertTrue(pool.isPooled(Tag.Modality, VR.CS));
+        assertTrue(pool.isPooled(Tag.Manufacturer, VR.LO));
+        assertFalse(pool.isPooled(Tag.InstitutionName, VR.LO));
+        assertFalse(pool.isPooled(Tag.Manufacturer, VR.UN));
+    }
+
+    @Test
+    public void testInternStringValues() {
+        StringPool pool = new StringPool();
+        Attributes item = new Attributes();
+        item.setString(Tag.ReferencedSOPInstanceUID, VR.UI, new String("1.2.3"));
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.StudyInstanceUID, VR.UI, "1.2.3");
+        attrs.newSequence(Tag.ReferencedImageSequence, 1).add(item);
+        attrs.internStringValues(pool);
+        assertSame(attrs.getString(Tag.StudyInstanceUID),
+                item.getString(Tag.ReferencedSOPInstanceUID));
+    }
+}
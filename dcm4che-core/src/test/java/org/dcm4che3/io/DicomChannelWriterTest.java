@@ -0,0 +1,165 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.io;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.BulkData;
+import org.dcm4che3.data.Fragments;
+import org.dcm4che3.data.Sequence;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.data.Value;
+import org.junit.Test;
+
+/**
+ * @since Oct 2026
+ */
+public class DicomChannelWriterTest {
+
+    private static final DicomEncodingOptions[] ENC_OPTS = {
+            DicomEncodingOptions.DEFAULT,
+            new DicomEncodingOptions(true, true, false, true, false),
+            new DicomEncodingOptions(false, false, false, false, false),
+            new DicomEncodingOptions(true, false, false, false, false),
+            new DicomEncodingOptions(false, true, true, true, true)
+    };
+
+    private static Attributes dataset() {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.SpecificCharacterSet, VR.CS, "ISO_IR 192");
+        attrs.setString(Tag.SOPClassUID, VR.UI, UID.SecondaryCaptureImageStorage);
+        attrs.setString(Tag.SOPInstanceUID, VR.UI, "1.2.3.4");
+        attrs.setString(Tag.PatientName, VR.PN, "\u738b^\u5c0f\u6771");
+        attrs.setNull(Tag.StudyDate, VR.DA);
+        attrs.setInt(Tag.Rows, VR.US, 512);
+        attrs.setNull(Tag.ReferencedSeriesSequence, VR.SQ);
+        Sequence seq = attrs.newSequence(Tag.ContentSequence, 3);
+        for (int i = 0; i < 3; i++) {
+            Attributes item = new Attributes();
+            item.setString(Tag.ReferencedSOPInstanceUID, VR.UI, "1.2.3.4." + i);
+            item.newSequence(Tag.ReferencedImageSequence, 1).add(new Attributes());
+            seq.add(item);
+        }
+        attrs.setString(0x00091010, VR.LO, "private");
+        attrs.setBytes(Tag.OverlayData, VR.OW, new byte[10000]);
+        Fragments frags = attrs.newFragments(Tag.PixelData, VR.OB, 3);
+        frags.add(Value.NULL);
+        frags.add(new byte[] { 1, 2, 3 });
+        byte[] frag = new byte[5000];
+        frag[4999] = 1;
+        frags.add(frag);
+        return attrs;
+    }
+
+    private static byte[] writeByStream(Attributes fmi, Attributes attrs, String tsuid,
+            DicomEncodingOptions encOpts) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (DicomOutputStream out = new DicomOutputStream(bout, tsuid)) {
+            out.setEncodingOptions(encOpts);
+            out.writeDataset(fmi, attrs);
+        }
+        return bout.toByteArray();
+    }
+
+    private static byte[] writeByChannel(Attributes fmi, Attributes attrs, String tsuid,
+            DicomEncodingOptions encOpts, int bufferSize) throws IOException {
+        File file = File.createTempFile("channel", ".dcm");
+        try {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                 FileChannel channel = raf.getChannel()) {
+                DicomChannelWriter writer = new DicomChannelWriter(channel, tsuid, bufferSize);
+                writer.setEncodingOptions(encOpts);
+                writer.writeDataset(fmi, attrs);
+            }
+            return Files.readAllBytes(file.toPath());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testSameEncodingAsDicomOutputStream() throws IOException {
+        Attributes attrs = dataset();
+        for (String tsuid : new String[] {
+                UID.ExplicitVRLittleEndian, UID.ImplicitVRLittleEndian, UID.ExplicitVRBigEndian }) {
+            for (DicomEncodingOptions encOpts : ENC_OPTS) {
+                byte[] expected = writeByStream(null, attrs, tsuid, encOpts);
+                assertArrayEquals(tsuid, expected,
+                        writeByChannel(null, attrs, tsuid, encOpts, DicomChannelWriter.DEFAULT_BUFFER_SIZE));
+                assertArrayEquals(tsuid, expected, writeByChannel(null, attrs, tsuid, encOpts, 256));
+            }
+        }
+    }
+
+    @Test
+    public void testFileMetaInformation() throws IOException {
+        Attributes attrs = dataset();
+        Attributes fmi = attrs.createFileMetaInformation(UID.ExplicitVRBigEndian);
+        assertArrayEquals(writeByStream(fmi, attrs, UID.ExplicitVRLittleEndian, DicomEncodingOptions.DEFAULT),
+                writeByChannel(fmi, attrs, UID.ExplicitVRLittleEndian, DicomEncodingOptions.DEFAULT, 1024));
+    }
+
+    @Test
+    public void testBulkData() throws IOException {
+        byte[] pixelData = new byte[4097];
+        for (int i = 0; i < pixelData.length; i++)
+            pixelData[i] = (byte) i;
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.SOPInstanceUID, VR.UI, "1.2.3.4");
+        attrs.setValue(Tag.PixelData, VR.OB,
+                new BulkData("file:/dev/null", 0, pixelData.length, false, ByteBuffer.wrap(pixelData)));
+        Attributes expected = new Attributes();
+        expected.setString(Tag.SOPInstanceUID, VR.UI, "1.2.3.4");
+        expected.setBytes(Tag.PixelData, VR.OB, pixelData);
+        for (String tsuid : new String[] { UID.ExplicitVRLittleEndian, UID.ExplicitVRBigEndian })
+            assertArrayEquals(writeByStream(null, expected, tsuid, DicomEncodingOptions.DEFAULT),
+                    writeByChannel(null, attrs, tsuid, DicomEncodingOptions.DEFAULT, 1024));
+    }
+}
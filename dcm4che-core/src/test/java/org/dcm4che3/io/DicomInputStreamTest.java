@@ -1,6 +1,7 @@
 package org.dcm4che3.io;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 import org.dcm4che3.data.*;
@@ -236,4 +237,112 @@ public class DicomInputStreamTest {
                         .getInt(Tag.PrivateGroupReference, 0));
     }
 
+    @Test
+    public void testMemoryMapped() throws Exception {
+        byte[] pixelData = new byte[1000];
+        for (int i = 0; i < pixelData.length; i++)
+            pixelData[i] = (byte) i;
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.SOPClassUID, VR.UI, UID.SecondaryCaptureImageStorage);
+        attrs.setString(Tag.SOPInstanceUID, VR.UI, "1.2.3.4");
+        attrs.setString(Tag.PatientName, VR.PN, "Doe^John");
+        attrs.setBytes(Tag.PixelData, VR.OB, pixelData);
+        File file = File.createTempFile("mapped", ".dcm");
+        try {
+            try (DicomOutputStream out = new DicomOutputStream(file)) {
+                out.writeDataset(attrs.createFileMetaInformation(UID.ExplicitVRLittleEndian), attrs);
+            }
+            Attributes dataset;
+            try (DicomInputStream in = DicomInputStream.createMemoryMapped(file)) {
+                in.setIncludeBulkData(IncludeBulkData.URI);
+                dataset = in.readDataset();
+            }
+            BulkData bulkData = (BulkData) dataset.getValue(Tag.PixelData);
+            ByteBuffer buf = bulkData.getByteBuffer();
+            assertTrue(buf.isReadOnly());
+            assertEquals(pixelData.length, buf.remaining());
+            byte[] b = new byte[buf.remaining()];
+            buf.get(b);
+            assertArrayEquals(pixelData, b);
+            assertArrayEquals(pixelData, bulkData.toBytes(VR.OB, false));
+            assertEquals("Doe^John", dataset.getString(Tag.PatientName));
+
+            // windows smaller than values
+            try (DicomInputStream in = new DicomInputStream(new MappedFileInputStream(file, 100))) {
+                dataset = in.readDataset();
+            }
+            assertEquals(attrs, dataset);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testMemoryMappedWindowsReleased() throws Exception {
+        byte[] data = new byte[1000];
+        for (int i = 0; i < data.length; i++)
+            data[i] = (byte) i;
+        File file = File.createTempFile("mapped", ".bin");
+        try {
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write(data);
+            }
+            ByteBuffer slice;
+            MappedFileInputStream in = new MappedFileInputStream(file, 100);
+            try {
+                byte[] b = new byte[data.length];
+                int off = 0;
+                int read;
+                while ((read = in.read(b, off, b.length - off)) > 0)
+                    off += read;
+                assertArrayEquals(data, b);
+                in.setPosition(510);
+                assertEquals(data[510] & 0xff, in.read());
+                slice = in.slice(520, 10);
+                in.setPosition(900);
+                assertEquals(data[900] & 0xff, in.read());
+            } finally {
+                in.close();
+            }
+            // all windows, except the sliced window at 510
+            assertEquals(11, in.getNumberOfReleasedWindows());
+            for (int i = 0; i < 10; i++)
+                assertEquals(data[520 + i], slice.get(i));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testStringPool() throws Exception {
+        StringPool pool = new StringPool();
+        Attributes[] datasets = new Attributes[2];
+        for (int i = 0; i < datasets.length; i++) {
+            Attributes attrs = new Attributes();
+            attrs.setString(Tag.SOPInstanceUID, VR.UI, "1.2.3.4." + i);
+            attrs.setString(Tag.PatientName, VR.PN, "Doe^John");
+            attrs.setString(Tag.StudyInstanceUID, VR.UI, "1.2.3");
+            attrs.setString(Tag.ImageType, VR.CS, "ORIGINAL", "PRIMARY");
+            attrs.setNull(Tag.Modality, VR.CS);
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            try (DicomOutputStream out = new DicomOutputStream(bout, UID.ExplicitVRLittleEndian)) {
+                out.writeDataset(null, attrs);
+            }
+            try (DicomInputStream in = new DicomInputStream(
+                    new ByteArrayInputStream(bout.toByteArray()), UID.ExplicitVRLittleEndian)) {
+                in.setStringPool(pool);
+                datasets[i] = in.readDataset();
+            }
+            assertEquals(attrs, datasets[i]);
+        }
+        assertSame(datasets[0].getString(Tag.StudyInstanceUID),
+                datasets[1].getString(Tag.StudyInstanceUID));
+        assertSame(datasets[0].getStrings(Tag.ImageType)[1],
+                datasets[1].getStrings(Tag.ImageType)[1]);
+        assertTrue(datasets[1].containsValue(Tag.PatientName));
+        assertFalse(datasets[1].containsValue(Tag.Modality));
+        assertEquals(5, pool.size());
+        assertEquals(3, pool.getHits());
+    }
+
 }
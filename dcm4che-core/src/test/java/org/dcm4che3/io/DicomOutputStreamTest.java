@@ -2,6 +2,9 @@ package org.dcm4che3.io;
 
 import java.io.*;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.dcm4che3.data.*;
 import org.dcm4che3.util.UIDUtils;
 import org.junit.After;
@@ -117,6 +120,33 @@ public class DicomOutputStreamTest {
         testWriteDataset(out, UID.DeflatedExplicitVRLittleEndian);
     }
 
+    @Test
+    public void testWriteDatasetDeflatedParallel() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Attributes ds = new Attributes();
+            ds.setString(Tag.SOPClassUID, VR.UI, UID.EncapsulatedPDFStorage);
+            ds.setString(Tag.SOPInstanceUID, VR.UI, "1.2.3.4");
+            ds.setString(Tag.PatientName, VR.PN, "Simpson^Homer");
+            byte[] value = new byte[1000000];
+            for (int i = 0; i < value.length; i++)
+                value[i] = (byte) (i % 251 ^ i >> 12);
+            ds.setBytes(Tag.EncapsulatedDocument, VR.OB, value);
+            DicomOutputStream out = new DicomOutputStream(new FileOutputStream(file),
+                    UID.ExplicitVRLittleEndian);
+            out.setDeflateExecutor(executor);
+            try {
+                out.writeDataset(ds.createFileMetaInformation(UID.DeflatedExplicitVRLittleEndian), ds);
+            } finally {
+                out.close();
+            }
+            assertEquals(0, file.length() & 1);
+            assertEquals(ds, readAttributes());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void testSerializeDataset() throws Exception {
         ObjectOutputStream out = new ObjectOutputStream(
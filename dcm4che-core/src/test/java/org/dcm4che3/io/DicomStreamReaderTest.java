@@ -0,0 +1,196 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Fragments;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.io.DicomStreamReader.Event;
+import org.junit.Test;
+
+/**
+ * @since Oct 2026
+ */
+public class DicomStreamReaderTest {
+
+    private static final String PRIVATE_CREATOR = "TEST CREATOR";
+
+    private static Attributes dataset() {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.SpecificCharacterSet, VR.CS, "ISO_IR 192");
+        attrs.setString(Tag.PatientName, VR.PN, "王^小東");
+        attrs.setString(Tag.StudyInstanceUID, VR.UI, "1.2.3");
+        Attributes item = new Attributes();
+        item.setString(Tag.ReferencedSOPInstanceUID, VR.UI, "1.2.3.4");
+        attrs.newSequence(Tag.ReferencedImageSequence, 1).add(item);
+        attrs.setString(Tag.SeriesNumber, VR.IS, "7");
+        attrs.setInt(Tag.Rows, VR.US, 512);
+        attrs.setString(PRIVATE_CREATOR, 0x00990001, VR.LO, "private");
+        Fragments frags = attrs.newFragments(Tag.PixelData, VR.OB, 2);
+        frags.add(new byte[0]);
+        frags.add(new byte[] { 1, 2, 3, 4 });
+        return attrs;
+    }
+
+    private static DicomStreamReader reader(Attributes attrs, String tsuid) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DicomOutputStream dos = new DicomOutputStream(out, tsuid)) {
+            dos.writeDataset(null, attrs);
+        }
+        return new DicomStreamReader(
+                new DicomInputStream(new ByteArrayInputStream(out.toByteArray()), tsuid));
+    }
+
+    @Test
+    public void testEvents() throws Exception {
+        List<Event> events = new ArrayList<>();
+        try (DicomStreamReader reader = reader(dataset(), UID.ImplicitVRLittleEndian)) {
+            while (reader.hasNext())
+                events.add(reader.next());
+        }
+        assertEquals(
+                "[ELEMENT, START_SEQUENCE, START_ITEM, ELEMENT, END_ITEM, END_SEQUENCE, ELEMENT, ELEMENT, "
+                + "ELEMENT, ELEMENT, ELEMENT, ELEMENT, START_FRAGMENTS, FRAGMENT, FRAGMENT, END_FRAGMENTS, "
+                + "END_DATASET]",
+                events.toString());
+    }
+
+    @Test
+    public void testSelectiveRead() throws Exception {
+        String pn = null;
+        String refIUID = null;
+        int seriesNumber = -1;
+        int rows = -1;
+        String privateValue = null;
+        byte[] lastFragment = null;
+        try (DicomStreamReader reader = reader(dataset(), UID.ExplicitVRLittleEndian)) {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case ELEMENT:
+                        switch (reader.tag()) {
+                            case Tag.PatientName:
+                                pn = reader.readString(null);
+                                break;
+                            case Tag.ReferencedSOPInstanceUID:
+                                refIUID = reader.readString(null);
+                                break;
+                            case Tag.SeriesNumber:
+                                seriesNumber = reader.readInt(-1);
+                                break;
+                            case Tag.Rows:
+                                rows = reader.readInt(-1);
+                                break;
+                            case 0x00991001:
+                                assertEquals(PRIVATE_CREATOR, reader.privateCreator());
+                                assertEquals(VR.LO, reader.vr());
+                                privateValue = reader.readString(null);
+                                break;
+                        }
+                        break;
+                    case FRAGMENT:
+                        lastFragment = reader.readBytes();
+                        break;
+                }
+            }
+        }
+        assertEquals("王^小東", pn);
+        assertEquals("1.2.3.4", refIUID);
+        assertEquals(7, seriesNumber);
+        assertEquals(512, rows);
+        assertEquals("private", privateValue);
+        assertArrayEquals(new byte[] { 1, 2, 3, 4 }, lastFragment);
+    }
+
+    @Test
+    public void testSkip() throws Exception {
+        String refIUID = null;
+        try (DicomStreamReader reader = reader(dataset(), UID.ExplicitVRLittleEndian)) {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case START_SEQUENCE:
+                        reader.skip();
+                        assertEquals(Event.END_SEQUENCE, reader.getEvent());
+                        assertEquals(0, reader.level());
+                        break;
+                    case START_FRAGMENTS:
+                        reader.skip();
+                        assertEquals(Event.END_FRAGMENTS, reader.getEvent());
+                        break;
+                    case ELEMENT:
+                        if (reader.tag() == Tag.ReferencedSOPInstanceUID)
+                            refIUID = reader.readString(null);
+                        break;
+                }
+            }
+        }
+        assertNull(refIUID);
+    }
+
+    @Test
+    public void testReadValue() throws Exception {
+        Attributes expected = dataset();
+        Attributes attrs = new Attributes();
+        try (DicomStreamReader reader = reader(expected, UID.ExplicitVRBigEndian)) {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case ELEMENT:
+                    case START_SEQUENCE:
+                    case START_FRAGMENTS:
+                        reader.readValue(attrs);
+                        break;
+                }
+            }
+            assertFalse(reader.hasNext());
+        }
+        assertEquals(expected, attrs);
+    }
+}
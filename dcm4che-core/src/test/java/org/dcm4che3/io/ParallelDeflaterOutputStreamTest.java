@@ -0,0 +1,118 @@
+package org.dcm4che3.io;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.dcm4che3.util.StreamUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since Oct 2026
+ */
+public class ParallelDeflaterOutputStreamTest {
+
+    private static final int BLOCK_SIZE = ParallelDeflaterOutputStream.DICTIONARY_SIZE;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    private static byte[] data(int length) {
+        byte[] b = new byte[length];
+        Random rnd = new Random(length);
+        for (int i = 0; i < length; i++)
+            b[i] = (byte) ('A' + rnd.nextInt(8));
+        return b;
+    }
+
+    private byte[] deflate(byte[] data, int chunkSize) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ParallelDeflaterOutputStream out = new ParallelDeflaterOutputStream(bout, executor,
+                Deflater.DEFAULT_COMPRESSION, BLOCK_SIZE, 3);
+        try {
+            if (chunkSize == 1) {
+                for (byte b : data)
+                    out.write(b);
+            } else {
+                for (int off = 0; off < data.length; off += chunkSize)
+                    out.write(data, off, Math.min(chunkSize, data.length - off));
+            }
+        } finally {
+            out.close();
+        }
+        return bout.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] deflated) throws IOException {
+        Inflater inflater = new Inflater(true);
+        try {
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            StreamUtils.copy(new InflaterInputStream(
+                    new ByteArrayInputStream(deflated), inflater), bout);
+            assertTrue(inflater.finished());
+            return bout.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertArrayEquals(new byte[0], inflate(deflate(new byte[0], 100)));
+    }
+
+    @Test
+    public void testFullBlocks() throws Exception {
+        byte[] data = data(BLOCK_SIZE * 8);
+        assertArrayEquals(data, inflate(deflate(data, 10000)));
+    }
+
+    @Test
+    public void testPartialBlock() throws Exception {
+        byte[] data = data(BLOCK_SIZE * 5 + 1234);
+        assertArrayEquals(data, inflate(deflate(data, 1)));
+    }
+
+    @Test
+    public void testRejectedExecution() throws Exception {
+        executor.shutdown();
+        byte[] data = data(BLOCK_SIZE * 3 + 100);
+        assertArrayEquals(data, inflate(deflate(data, 10000)));
+    }
+
+    @Test
+    public void testCompressionRatio() throws Exception {
+        byte[] data = data(BLOCK_SIZE * 8);
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            DeflaterOutputStream out = new DeflaterOutputStream(bout, deflater);
+            out.write(data);
+            out.finish();
+        } finally {
+            deflater.end();
+        }
+        int parallel = deflate(data, data.length).length;
+        assertTrue(parallel + " > 1.05 * " + bout.size(), parallel < bout.size() * 1.05);
+    }
+}
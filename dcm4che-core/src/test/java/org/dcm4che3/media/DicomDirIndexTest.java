@@ -0,0 +1,216 @@
+package org.dcm4che3.media;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since Oct 2026
+ */
+public class DicomDirIndexTest {
+
+    private File file;
+    private File indexFile;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("DICOMDIR", null);
+        indexFile = new File(file.getPath() + ".idx");
+        DicomDirWriter.createEmptyDirectory(file, "1.2.3", null, null, null);
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+        indexFile.delete();
+    }
+
+    private static Attributes record(String type, int tag, String value) {
+        Attributes rec = new Attributes();
+        rec.setString(Tag.DirectoryRecordType, VR.CS, type);
+        rec.setString(tag, tag == Tag.PatientID ? VR.LO : VR.UI, value);
+        return rec;
+    }
+
+    private static void addInstances(DicomDirWriter w, String pid, String suid,
+            String seruid, String... iuids) throws IOException {
+        Attributes pat = w.findPatientRecord(pid);
+        if (pat == null)
+            pat = w.addRootDirectoryRecord(record("PATIENT", Tag.PatientID, pid));
+        Attributes study = w.findStudyRecord(pat, suid);
+        if (study == null)
+            study = w.addLowerDirectoryRecord(pat,
+                    record("STUDY", Tag.StudyInstanceUID, suid));
+        Attributes series = w.findSeriesRecord(study, seruid);
+        if (series == null)
+            series = w.addLowerDirectoryRecord(study,
+                    record("SERIES", Tag.SeriesInstanceUID, seruid));
+        for (String iuid : iuids) {
+            Attributes inst = record("IMAGE", Tag.ReferencedSOPInstanceUIDInFile, iuid);
+            inst.setString(Tag.ReferencedSOPClassUIDInFile, VR.UI, UID.CTImageStorage);
+            inst.setString(Tag.ReferencedFileID, VR.CS, "DICOM", iuid);
+            w.addLowerDirectoryRecord(series, inst);
+        }
+        w.commit();
+    }
+
+    private static void assertFound(DicomDirReader r, String pid, String suid,
+            String seruid, String iuid) throws IOException {
+        Attributes pat = r.findPatientRecord(pid);
+        assertNotNull(pat);
+        assertEquals(pid, pat.getString(Tag.PatientID));
+        Attributes study = r.findStudyRecord(pat, suid);
+        assertNotNull(study);
+        assertEquals(suid, study.getString(Tag.StudyInstanceUID));
+        Attributes series = r.findSeriesRecord(study, seruid);
+        assertNotNull(series);
+        assertEquals(seruid, series.getString(Tag.SeriesInstanceUID));
+        Attributes inst = r.findLowerInstanceRecord(series, false, iuid);
+        assertNotNull(inst);
+        assertEquals(iuid, inst.getString(Tag.ReferencedSOPInstanceUIDInFile));
+    }
+
+    @Test
+    public void testIncrementalIndex() throws Exception {
+        DicomDirWriter w = DicomDirWriter.open(file);
+        try {
+            w.enableIndex(false);
+            addInstances(w, "P1", "1.1", "1.1.1", "1.1.1.1", "1.1.1.2");
+            addInstances(w, "P2", "2.1", "2.1.1", "2.1.1.1");
+            addInstances(w, "P1", "1.1", "1.1.2", "1.1.2.1");
+            assertEquals(11, w.getIndex().size());
+            assertFound(w, "P1", "1.1", "1.1.1", "1.1.1.2");
+            assertFound(w, "P1", "1.1", "1.1.2", "1.1.2.1");
+            assertFound(w, "P2", "2.1", "2.1.1", "2.1.1.1");
+            assertNull(w.findPatientRecord("P3"));
+            assertNull(w.findStudyRecord(w.findPatientRecord("P2"), "1.1"));
+        } finally {
+            w.close();
+        }
+    }
+
+    @Test
+    public void testRollback() throws Exception {
+        DicomDirWriter w = DicomDirWriter.open(file);
+        try {
+            w.enableIndex(false);
+            addInstances(w, "P1", "1.1", "1.1.1", "1.1.1.1");
+            w.addRootDirectoryRecord(record("PATIENT", Tag.PatientID, "P2"));
+            assertNotNull(w.findPatientRecord("P2"));
+            w.rollback();
+            assertEquals(4, w.getIndex().size());
+            assertNull(w.findPatientRecord("P2"));
+            assertFound(w, "P1", "1.1", "1.1.1", "1.1.1.1");
+        } finally {
+            w.close();
+        }
+    }
+
+    @Test
+    public void testPersistentIndex() throws Exception {
+        DicomDirWriter w = DicomDirWriter.open(file);
+        try {
+            addInstances(w, "P1", "1.1", "1.1.1", "1.1.1.1");
+            w.enableIndex(true);
+            addInstances(w, "P2", "2.1", "2.1.1", "2.1.1.1");
+        } finally {
+            w.close();
+        }
+        assertNotNull(DicomDirIndex.load(indexFile, file));
+        DicomDirReader r = new DicomDirReader(file);
+        try {
+            r.enableIndex(true);
+            assertEquals(8, r.getIndex().size());
+            assertFound(r, "P1", "1.1", "1.1.1", "1.1.1.1");
+            assertFound(r, "P2", "2.1", "2.1.1", "2.1.1.1");
+        } finally {
+            r.close();
+        }
+    }
+
+    @Test
+    public void testStoreIndexOnClose() throws Exception {
+        DicomDirWriter w = DicomDirWriter.open(file);
+        try {
+            w.enableIndex(true);
+            long lastModified = indexFile.lastModified();
+            indexFile.setLastModified(lastModified - 10000);
+            addInstances(w, "P1", "1.1", "1.1.1", "1.1.1.1");
+            assertEquals(lastModified - 10000, indexFile.lastModified());
+            w.addRootDirectoryRecord(record("PATIENT", Tag.PatientID, "P2"));
+            w.storeIndex();
+            assertEquals(lastModified - 10000, indexFile.lastModified());
+            w.rollback();
+            w.storeIndex();
+            assertNotNull(DicomDirIndex.load(indexFile, file));
+        } finally {
+            w.close();
+        }
+        DicomDirReader r = new DicomDirReader(file);
+        try {
+            r.enableIndex(true);
+            assertEquals(4, r.getIndex().size());
+            assertNull(r.findPatientRecord("P2"));
+        } finally {
+            r.close();
+        }
+    }
+
+    @Test
+    public void testLimitedCache() throws Exception {
+        DicomDirWriter w = DicomDirWriter.open(file);
+        try {
+            addInstances(w, "P1", "1.1", "1.1.1", "1.1.1.1", "1.1.1.2");
+            addInstances(w, "P2", "2.1", "2.1.1", "2.1.1.1");
+        } finally {
+            w.close();
+        }
+        DicomDirReader r = new DicomDirReader(file);
+        try {
+            assertFound(r, "P1", "1.1", "1.1.1", "1.1.1.2");
+            assertFound(r, "P2", "2.1", "2.1.1", "2.1.1.1");
+            assertTrue(r.cache.size() > 3);
+            r.setMaxCacheSize(3);
+            assertEquals(3, r.cache.size());
+            assertFound(r, "P1", "1.1", "1.1.1", "1.1.1.1");
+            assertEquals(3, r.cache.size());
+            r.clearCache();
+            assertEquals(0, r.cache.size());
+        } finally {
+            r.close();
+        }
+    }
+
+    @Test
+    public void testBuildIndex() throws Exception {
+        DicomDirWriter w = DicomDirWriter.open(file);
+        try {
+            addInstances(w, "P1", "1.1", "1.1.1", "1.1.1.1", "1.1.1.2");
+            addInstances(w, "P2", "2.1", "2.1.1", "2.1.1.1");
+            w.deleteRecord(w.findPatientRecord("P2"));
+            w.commit();
+        } finally {
+            w.close();
+        }
+        DicomDirReader r = new DicomDirReader(file);
+        try {
+            r.setMaxCacheSize(2);
+            r.enableIndex(false);
+            assertEquals(9, r.getIndex().size());
+            assertFound(r, "P1", "1.1", "1.1.1", "1.1.1.2");
+            assertNull(r.findPatientRecord("P2"));
+            assertNotNull(r.findPatientRecord("P*"));
+        } finally {
+            r.close();
+        }
+    }
+}
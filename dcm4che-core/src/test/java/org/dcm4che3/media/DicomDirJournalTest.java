@@ -0,0 +1,141 @@
+package org.dcm4che3.media;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.VR;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since Oct 2026
+ */
+public class DicomDirJournalTest {
+
+    private File file;
+    private File copy;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("DICOMDIR", null);
+        copy = File.createTempFile("DICOMDIR", null);
+        DicomDirWriter.createEmptyDirectory(file, "1.2.3", null, null, null);
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+        copy.delete();
+        DicomDirJournal.journalFileOf(file).delete();
+        DicomDirJournal.journalFileOf(copy).delete();
+    }
+
+    private static Attributes patient(String pid) {
+        Attributes rec = new Attributes();
+        rec.setString(Tag.DirectoryRecordType, VR.CS, "PATIENT");
+        rec.setString(Tag.PatientID, VR.LO, pid);
+        return rec;
+    }
+
+    private static Attributes study(String suid) {
+        Attributes rec = new Attributes();
+        rec.setString(Tag.DirectoryRecordType, VR.CS, "STUDY");
+        rec.setString(Tag.StudyInstanceUID, VR.UI, suid);
+        return rec;
+    }
+
+    private static void copy(File src, File dest) throws IOException {
+        Files.copy(src.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static int count(DicomDirReader r, Attributes rec) throws IOException {
+        int count = 0;
+        while (rec != null) {
+            count += 1 + count(r, r.readLowerDirectoryRecord(rec));
+            rec = r.readNextDirectoryRecord(rec);
+        }
+        return count;
+    }
+
+    @Test
+    public void testBatchCommit() throws Exception {
+        DicomDirWriter w = DicomDirWriter.open(file);
+        try {
+            w.setJournaled(true);
+            w.setMaxPendingRecords(10);
+            for (int i = 0; i < 5; i++) {
+                Attributes patRec = w.addRootDirectoryRecord(patient("P" + i));
+                for (int j = 0; j < 4; j++)
+                    w.addLowerDirectoryRecord(patRec, study("1." + i + "." + j));
+            }
+            assertEquals(5, w.getPendingRecords());
+        } finally {
+            w.close();
+        }
+        assertFalse(DicomDirJournal.journalFileOf(file).exists());
+        DicomDirReader r = new DicomDirReader(file);
+        try {
+            assertFalse(r.knownInconsistencies());
+            assertEquals(25, count(r, r.readFirstRootDirectoryRecord()));
+        } finally {
+            r.close();
+        }
+    }
+
+    @Test
+    public void testRecoverUncommitted() throws Exception {
+        DicomDirWriter w = DicomDirWriter.open(file);
+        try {
+            w.setJournaled(true);
+            w.addRootDirectoryRecord(patient("P1"));
+            w.commit();
+            byte[] committed = Files.readAllBytes(file.toPath());
+            w.addRootDirectoryRecord(patient("P2"));
+            copy(file, copy);
+            copy(DicomDirJournal.journalFileOf(file), DicomDirJournal.journalFileOf(copy));
+            assertTrue(DicomDirJournal.recover(copy));
+            assertArrayEquals(committed, Files.readAllBytes(copy.toPath()));
+        } finally {
+            w.close();
+        }
+        assertFalse(DicomDirJournal.journalFileOf(copy).exists());
+        DicomDirReader r = new DicomDirReader(copy);
+        try {
+            assertFalse(r.knownInconsistencies());
+            assertNotNull(r.findPatientRecord("P1"));
+            assertNull(r.findPatientRecord("P2"));
+        } finally {
+            r.close();
+        }
+    }
+
+    @Test
+    public void testReplayCommitted() throws Exception {
+        copy(file, copy);
+        File journalFile = File.createTempFile("DICOMDIR", ".jnl");
+        DicomDirJournal journal = new DicomDirJournal(journalFile);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            journal.begin((int) raf.length(), 0, false);
+            journal.addPatch(2, new byte[] { 1, 2, 3 });
+            journal.addPatch(16, new byte[] { 4 });
+            journal.commit(raf, raf.length() + 4);
+        } finally {
+            raf.close();
+            journal.close();
+        }
+        copy(journalFile, DicomDirJournal.journalFileOf(copy));
+        journalFile.delete();
+        assertTrue(DicomDirJournal.recover(copy));
+        assertArrayEquals(Files.readAllBytes(file.toPath()), Files.readAllBytes(copy.toPath()));
+        assertFalse(DicomDirJournal.recover(copy));
+    }
+}
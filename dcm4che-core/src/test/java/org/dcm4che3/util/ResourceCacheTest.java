@@ -0,0 +1,124 @@
+package org.dcm4che3.util;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * @since Oct 2026
+ */
+public class ResourceCacheTest {
+
+    private static class TestCache extends ResourceCache<String, IOException> {
+        final AtomicInteger loads = new AtomicInteger();
+        volatile CountDownLatch latch;
+
+        @Override
+        protected String load(String uri) throws IOException {
+            loads.incrementAndGet();
+            if (latch != null)
+                try {
+                    latch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            if (uri.startsWith("fail:"))
+                throw new IOException(uri);
+            return uri + '#' + loads.get();
+        }
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        final TestCache cache = new TestCache();
+        cache.latch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            @SuppressWarnings("unchecked")
+            Future<String>[] results = new Future[4];
+            for (int i = 0; i < results.length; i++)
+                results[i] = executor.submit(() -> cache.get("a"));
+            Thread.sleep(100);
+            cache.latch.countDown();
+            for (Future<String> result : results)
+                assertEquals("a#1", result.get());
+            assertEquals(1, cache.loads.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailureNotCached() throws Exception {
+        TestCache cache = new TestCache();
+        for (int i = 0; i < 2; i++)
+            try {
+                cache.get("fail:a");
+                fail("IOException expected");
+            } catch (IOException expected) {
+            }
+        assertEquals(2, cache.loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        TestCache cache = new TestCache();
+        cache.setMaxSize(2);
+        cache.get("a");
+        Thread.sleep(2);
+        cache.get("b");
+        Thread.sleep(2);
+        cache.get("a");
+        Thread.sleep(2);
+        cache.get("c");
+        assertEquals(2, cache.size());
+        assertEquals("a#1", cache.get("a"));
+        assertEquals("b#4", cache.get("b"));
+    }
+
+    @Test
+    public void testMaxAge() throws Exception {
+        TestCache cache = new TestCache();
+        cache.setMaxAge(10);
+        assertEquals("a#1", cache.get("a"));
+        Thread.sleep(20);
+        assertEquals("a#2", cache.get("a"));
+    }
+
+    @Test
+    public void testCheckModified() throws Exception {
+        File file = File.createTempFile("test", ".xsl");
+        try {
+            TestCache cache = new TestCache();
+            String uri = file.toURI().toString();
+            cache.setCheckModifiedInterval(1);
+            assertEquals(uri + "#1", cache.get(uri));
+            Thread.sleep(2);
+            assertEquals(uri + "#1", cache.get(uri));
+            assertTrue(file.setLastModified(file.lastModified() - 10000));
+            Thread.sleep(2);
+            assertEquals(uri + "#2", cache.get(uri));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testPreload() throws Exception {
+        TestCache cache = new TestCache();
+        assertEquals(1, cache.preload(Arrays.asList("a", "fail:b", "c")));
+        assertEquals(2, cache.size());
+        assertEquals("a#1", cache.get("a"));
+    }
+}
@@ -42,10 +42,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.UID;
@@ -58,7 +66,6 @@ import org.dcm4che3.net.pdu.AAssociateRQ;
 import org.dcm4che3.net.pdu.CommonExtendedNegotiation;
 import org.dcm4che3.net.pdu.PresentationContext;
 import org.dcm4che3.net.pdu.RoleSelection;
-import org.dcm4che3.util.IntHashMap;
 import org.dcm4che3.util.ReverseDNS;
 import org.dcm4che3.util.SafeClose;
 import org.slf4j.Logger;
@@ -84,6 +91,7 @@ public class Association {
     private final AssociationMonitor monitor;
     private final Connection conn;
     private final Socket sock;
+    private final NioChannel channel;
     private final InputStream in;
     private final OutputStream out;
     private final PDUEncoder encoder;
@@ -98,16 +106,43 @@ public class Association {
     private int maxPDULength;
     private int performing;
     private Timeout timeout;
-    private final IntHashMap<DimseRSPHandler> rspHandlerForMsgId =
-            new IntHashMap<DimseRSPHandler>();
-    private final IntHashMap<CancelRQHandler> cancelHandlerForMsgId =
-            new IntHashMap<CancelRQHandler>();
+    // accessed lock-free by the reader thread and by invoking threads, with
+    // the negotiated window of outstanding operations enforced by opsWindow;
+    // boxed keys are deliberate: an Integer per outstanding operation costs no
+    // more than the lock a primitive IntHashMap would need for concurrent access
+    private final ConcurrentHashMap<Integer, DimseRSPHandler> rspHandlerForMsgId =
+            new ConcurrentHashMap<Integer, DimseRSPHandler>();
+    private final ConcurrentHashMap<Integer, CancelRQHandler> cancelHandlerForMsgId =
+            new ConcurrentHashMap<Integer, CancelRQHandler>();
+    private volatile Semaphore opsWindow;
+    private final AtomicLong blockedInvokes = new AtomicLong();
+    private final AtomicLong blockedInvokeNanos = new AtomicLong();
+    private final AtomicInteger maxOutstandingRSP = new AtomicInteger();
     private final HashMap<String,HashMap<String,PresentationContext>> pcMap =
             new HashMap<String,HashMap<String,PresentationContext>>();
     private final LinkedList<AssociationListener> listeners = new LinkedList<>();
+    // explicit locks instead of monitors to not pin carrier threads of
+    // virtual threads waiting for state changes or outstanding responses
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+    private final ReentrantLock rspLock = new ReentrantLock();
+    private final Condition noOutstandingRSP = rspLock.newCondition();
+    // asynchronous invocations waiting for a permit of opsWindow
+    private final ArrayDeque<AsyncInvocation> queuedAsyncInvocations =
+            new ArrayDeque<AsyncInvocation>();
 
     Association(ApplicationEntity ae, Connection local, Socket sock)
             throws IOException {
+        this(ae, local, sock, null);
+    }
+
+    Association(ApplicationEntity ae, Connection local, NioChannel channel)
+            throws IOException {
+        this(ae, local, channel.socket(), channel);
+    }
+
+    private Association(ApplicationEntity ae, Connection local, Socket sock,
+            NioChannel channel) throws IOException {
         this.connectTime = System.currentTimeMillis();
         this.serialNo = prevSerialNo.incrementAndGet();
         this.ae = ae;
@@ -119,8 +154,18 @@ public class Association {
         this.device = local.getDevice();
         this.monitor = device.getAssociationMonitor();
         this.sock = sock;
-        this.in = sock.getInputStream();
-        this.out = sock.getOutputStream();
+        this.channel = channel;
+        SocketChannel ch = sock.getChannel();
+        if (channel != null) {
+            this.in = channel.getInputStream();
+            this.out = channel.getOutputStream();
+        } else if (ch != null) {
+            this.in = SocketChannelStreams.inputStream(ch);
+            this.out = SocketChannelStreams.outputStream(ch);
+        } else {
+            this.in = sock.getInputStream();
+            this.out = sock.getOutputStream();
+        }
         this.encoder = new PDUEncoder(this, out);
         if (requestor) {
             enterState(State.Sta4);
@@ -167,6 +212,49 @@ public class Association {
         dimseCounters.getAndIncrement(23 + dimse.ordinal());
     }
 
+    /**
+     * Returns the number of DIMSE requests for which the response is
+     * outstanding.
+     *
+     * @return number of outstanding DIMSE responses
+     */
+    public int getNumberOfOutstandingRSP() {
+        return rspHandlerForMsgId.size();
+    }
+
+    /**
+     * Returns the maximal number of DIMSE requests for which the response was
+     * outstanding at the same time.
+     *
+     * @return maximal number of outstanding DIMSE responses
+     */
+    public int getMaxNumberOfOutstandingRSP() {
+        return maxOutstandingRSP.get();
+    }
+
+    /**
+     * Returns the number of DIMSE requests, which had to wait before they were
+     * sent, because the number of outstanding responses had reached the
+     * negotiated maximal number of asynchronous operations.
+     *
+     * @return number of blocked DIMSE requests
+     */
+    public long getNumberOfBlockedInvokes() {
+        return blockedInvokes.get();
+    }
+
+    /**
+     * Returns the accumulated time DIMSE requests had to wait before they were
+     * sent, because the number of outstanding responses had reached the
+     * negotiated maximal number of asynchronous operations.
+     *
+     * @param unit time unit of the returned value
+     * @return accumulated wait time
+     */
+    public long getBlockedInvokeTime(TimeUnit unit) {
+        return unit.convert(blockedInvokeNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
     @Override
     public String toString() {
         return name;
@@ -331,6 +419,31 @@ public class Association {
         return conn.isPackPDV();
     }
 
+    /**
+     * Returns {@code true} if the association is established over a plain
+     * TCP socket channel, which supports zero-copy transfer of file regions
+     * by {@link #transferFrom}.
+     */
+    boolean isZeroCopy() {
+        if (channel != null)
+            return true;
+        SocketChannel ch = sock.getChannel();
+        return ch != null && ch.isBlocking();
+    }
+
+    void transferFrom(FileChannel src, long position, long count) throws IOException {
+        if (channel != null) {
+            channel.transferFrom(src, position, count);
+            return;
+        }
+        SocketChannel ch = sock.getChannel();
+        while (count > 0) {
+            long n = src.transferTo(position, count, ch);
+            position += n;
+            count -= n;
+        }
+    }
+
     public void release() throws IOException {
         state.writeAReleaseRQ(this);
     }
@@ -343,18 +456,31 @@ public class Association {
         state.write(this, aa);
     }
 
-    private synchronized void closeSocket() {
-        state.closeSocket(this);
+    private void closeSocket() {
+        lock.lock();
+        try {
+            state.closeSocket(this);
+        } finally {
+            lock.unlock();
+        }
     }
 
     void doCloseSocket() {
         LOG.info("{}: close {}", name, sock);
-        SafeClose.close(sock);
+        if (channel != null)
+            channel.close();
+        else
+            SafeClose.close(sock);
         enterState(State.Sta1);
     }
 
-    synchronized private void closeSocketDelayed() {
-        state.closeSocketDelayed(this);
+    private void closeSocketDelayed() {
+        lock.lock();
+        try {
+            state.closeSocketDelayed(this);
+        } finally {
+            lock.unlock();
+        }
     }
 
     void doCloseSocketDelayed() {
@@ -373,14 +499,19 @@ public class Association {
             closeSocket();
     }
 
-    synchronized void onIOException(IOException e) {
-        if (ex != null)
-            return;
+    void onIOException(IOException e) {
+        lock.lock();
+        try {
+            if (ex != null)
+                return;
 
-        ex = e;
-        LOG.info("{}: i/o exception: {} in State: {}",
-                new Object[] { name, e, state });
-        closeSocket();
+            ex = e;
+            LOG.info("{}: i/o exception: {} in State: {}",
+                    new Object[] { name, e, state });
+            closeSocket();
+        } finally {
+            lock.unlock();
+        }
     }
 
     void write(AAbort aa)  {
@@ -420,21 +551,32 @@ public class Association {
     }
 
     private void startIdleTimeout() {
+        releaseReceiveBuffers();
         startTimeout("{}: start idle timeout of {}ms",
                 "{}: idle timeout expired",
                 "{}: stop idle timeout",
                 conn.getIdleTimeout(), State.Sta6);
     }
 
+    private void releaseReceiveBuffers() {
+        if (performing == 0 && rspHandlerForMsgId.isEmpty()) {
+            if (channel != null)
+                channel.shrinkReceiveBuffer();
+        }
+    }
+
     private void startSendTimeout(int timeout) {
         if (timeout > 0) {
-            synchronized (this) {
+            lock.lock();
+            try {
                 stopTimeout();
                 this.timeout = Timeout.start(this,
                         "{}: start send timeout of {}ms",
                         "{}: send timeout expired",
                         "{}: stop send timeout",
                         timeout);
+            } finally {
+                lock.unlock();
             }
         }
     }
@@ -442,42 +584,66 @@ public class Association {
     private void startTimeout(String startMsg, String expiredMsg,
             String cancelMsg, int timeout, State state) {
         if (timeout > 0 && performing == 0 && rspHandlerForMsgId.isEmpty()) {
-            synchronized (this) {
+            lock.lock();
+            try {
                 if (this.state == state) {
                     stopTimeout();
                     this.timeout = Timeout.start(this, startMsg, expiredMsg,
                             cancelMsg, timeout);
                 }
+            } finally {
+                lock.unlock();
             }
         }
     }
 
     private void startTimeout(final int msgID, int timeout, boolean stopOnPending) {
         if (timeout > 0) {
-            synchronized (rspHandlerForMsgId) {
-                DimseRSPHandler rspHandler = rspHandlerForMsgId.get(msgID);
-                if (rspHandler != null) {
-                    rspHandler.setTimeout(Timeout.start(this,
-                        "{}: start " + msgID + ":DIMSE-RSP timeout of {}ms",
-                        "{}: " + msgID + ":DIMSE-RSP timeout expired",
-                        "{}: stop " + msgID + ":DIMSE-RSP timeout",
-                        timeout), stopOnPending);
-                }
+            DimseRSPHandler rspHandler = rspHandlerForMsgId.get(msgID);
+            if (rspHandler != null) {
+                rspHandler.setTimeout(Timeout.start(this,
+                    "{}: start " + msgID + ":DIMSE-RSP timeout of {}ms",
+                    "{}: " + msgID + ":DIMSE-RSP timeout expired",
+                    "{}: stop " + msgID + ":DIMSE-RSP timeout",
+                    timeout), stopOnPending);
+                // stop timeout if the response was received concurrently
+                if (rspHandlerForMsgId.get(msgID) != rspHandler)
+                    rspHandler.stopTimeout(this);
             }
         }
     }
 
-    private synchronized void stopTimeout() {
-        if (timeout != null) {
-            timeout.stop();
-            timeout = null;
+    private void stopTimeout() {
+        lock.lock();
+        try {
+            if (timeout != null) {
+                timeout.stop();
+                timeout = null;
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
+    /**
+     * Acquire the lock guarding state transitions - used by {@link Timeout}
+     * to abort the association on expiry.
+     */
+    void lock() {
+        lock.lock();
+    }
+
+    void unlock() {
+        lock.unlock();
+    }
+
     public void waitForOutstandingRSP() throws InterruptedException {
-        synchronized (rspHandlerForMsgId) {
+        rspLock.lock();
+        try {
             while (!rspHandlerForMsgId.isEmpty())
-                rspHandlerForMsgId.wait();
+                noOutstandingRSP.await();
+        } finally {
+            rspLock.unlock();
         }
     }
 
@@ -489,11 +655,11 @@ public class Association {
      *         while the current thread was waiting
      */
     public void waitForNonBlockingInvoke() throws InterruptedException {
-        if (maxOpsInvoked > 0)
-            synchronized (rspHandlerForMsgId) {
-                while (rspHandlerForMsgId.size() >= maxOpsInvoked)
-                    rspHandlerForMsgId.wait();
-            }
+        Semaphore window = opsWindow;
+        if (window != null && window.availablePermits() <= 0) {
+            window.acquire();
+            window.release();
+        }
     }
 
     void write(AAssociateRQ rq) throws IOException {
@@ -525,28 +691,43 @@ public class Association {
             throw ex;
     }
 
-    private synchronized void enterState(State newState) {
-        LOG.debug("{}: enter state: {}", name, newState);
-        this.state = newState;
-        notifyAll();
+    private void enterState(State newState) {
+        lock.lock();
+        try {
+            LOG.debug("{}: enter state: {}", name, newState);
+            this.state = newState;
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
     }
 
     public final State getState() {
         return state;
     }
 
-    synchronized void waitForLeaving(State state)
+    void waitForLeaving(State state)
             throws InterruptedException, IOException {
-        while (this.state == state)
-            wait();
-        checkException();
+        lock.lock();
+        try {
+            while (this.state == state)
+                stateChanged.await();
+            checkException();
+        } finally {
+            lock.unlock();
+        }
     }
 
-    synchronized void waitForEntering(State state)
+    void waitForEntering(State state)
             throws InterruptedException, IOException {
-        while (this.state != state)
-            wait();
-        checkException();
+        lock.lock();
+        try {
+            while (this.state != state)
+                stateChanged.await();
+            checkException();
+        } finally {
+            lock.unlock();
+        }
     }
 
     public void waitForSocketClose()
@@ -555,6 +736,10 @@ public class Association {
     }
 
     private void activate() {
+        if (channel != null) {
+            activateNonBlocking();
+            return;
+        }
         device.execute(new Runnable() {
 
             @Override
@@ -578,22 +763,59 @@ public class Association {
         });
     }
 
+    private void activateNonBlocking() {
+        decoder = new PDUDecoder(this, in);
+        device.addAssociation(this);
+        channel.activate(device, new Runnable() {
+
+            @Override
+            public void run() {
+                decodeAvailablePDUs();
+            }
+        });
+    }
+
+    private void decodeAvailablePDUs() {
+        try {
+            decoder.bindToCurrentThread();
+            while (!(state == State.Sta1 || state == State.Sta13)) {
+                if (!channel.continueDispatch())
+                    return;
+                decoder.nextPDU();
+            }
+        } catch (AAbort aa) {
+            abort(aa);
+        } catch (IOException e) {
+            onIOException(e);
+        } catch (Exception e) {
+            onIOException(new IOException("Unexpected Error", e));
+        }
+        channel.deactivate();
+        device.removeAssociation(this);
+        onClose();
+    }
+
     private void onClose() {
+        List<AsyncInvocation> queued;
         stopTimeout();
-        synchronized (rspHandlerForMsgId) {
-            IntHashMap.Visitor<DimseRSPHandler> visitor =
-                    new IntHashMap.Visitor<DimseRSPHandler>() {
-
-                @Override
-                public boolean visit(int key, DimseRSPHandler value) {
-                    value.onClose(Association.this);
-                    return true;
-                }
-            };
-            rspHandlerForMsgId.accept(visitor);
-            rspHandlerForMsgId.clear();
-            rspHandlerForMsgId.notifyAll();
+        rspLock.lock();
+        try {
+            queued = new ArrayList<AsyncInvocation>(queuedAsyncInvocations);
+            queuedAsyncInvocations.clear();
+        } finally {
+            rspLock.unlock();
         }
+        for (Integer msgId : rspHandlerForMsgId.keySet()) {
+            DimseRSPHandler rspHandler = rspHandlerForMsgId.remove(msgId);
+            if (rspHandler != null) {
+                rspHandler.onClose(this);
+                onDimseRSPHandlerRemoved();
+            }
+        }
+        for (AsyncInvocation invocation : queued)
+            invocation.rsp.getFuture().completeExceptionally(ex != null ? ex
+                    : new IOException("Association to " + getRemoteAET()
+                            + " released before invoking queued DIMSE RQ"));
         if (ae != null)
             ae.getDevice().getAssociationHandler().onClose(this);
         for (AssociationListener listener : listeners)
@@ -616,8 +838,11 @@ public class Association {
             ac = device.getAssociationHandler().negotiate(this, rq);
             initPCMap();
             maxOpsInvoked = ac.getMaxOpsPerformed();
+            initOpsWindow();
             maxPDULength = Association.minZeroAsMax(
                     rq.getMaxPDULength(), conn.getSendPDULength());
+            if (channel != null)
+                channel.setReceivePDULength(getReceivePDULength());
             write(ac);
             if (monitor != null)
                 monitor.onAssociationAccepted(this);
@@ -628,6 +853,23 @@ public class Association {
         }
     }
 
+    /**
+     * Returns the maximal length of PDUs expected from the peer: the length
+     * announced by this side, limited by the length announced by the peer,
+     * which usually does not send longer PDUs than it accepts.
+     *
+     * @return maximal length of received PDUs or 0 if unlimited
+     */
+    int getReceivePDULength() {
+        if (rq == null || ac == null)
+            return conn.getReceivePDULength();
+        return minZeroAsMax(rq.getMaxPDULength(), ac.getMaxPDULength());
+    }
+
+    private void initOpsWindow() {
+        opsWindow = maxOpsInvoked > 0 ? new Semaphore(maxOpsInvoked) : null;
+    }
+
     void onAAssociateAC(AAssociateAC ac) throws IOException {
         LOG.info("{} >> A-ASSOCIATE-AC", name);
         LOG.debug("{}", ac);
@@ -639,6 +881,7 @@ public class Association {
         this.ac = ac;
         initPCMap();
         maxOpsInvoked = ac.getMaxOpsInvoked();
+        initOpsWindow();
         maxPDULength = Association.minZeroAsMax(
                 ac.getMaxPDULength(), conn.getSendPDULength());
         enterState(State.Sta6);
@@ -674,13 +917,18 @@ public class Association {
         closeSocketDelayed();
     }
 
-    private synchronized void waitForPerformingOps() {
-        while (performing > 0 && state == State.Sta8) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+    private void waitForPerformingOps() {
+        lock.lock();
+        try {
+            while (performing > 0 && state == State.Sta8) {
+                try {
+                    stateChanged.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -750,13 +998,23 @@ public class Association {
         ae.onDimseRQ(this, pc, dimse, cmd, data);
     }
 
-    private synchronized void incPerforming() {
-        ++performing;
+    private void incPerforming() {
+        lock.lock();
+        try {
+            ++performing;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    private synchronized void decPerforming() {
-        --performing;
-        notifyAll();
+    private void decPerforming() {
+        lock.lock();
+        try {
+            --performing;
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
     }
 
     void onDimseRSP(Dimse dimse, Attributes cmd, Attributes data) throws AAbort {
@@ -781,37 +1039,62 @@ public class Association {
         }
     }
 
-    private synchronized void startIdleOrReleaseTimeout() {
-        if (state == State.Sta6)
-            startIdleTimeout();
-        else if (state == State.Sta7)
-            startReleaseTimeout();
+    private void startIdleOrReleaseTimeout() {
+        lock.lock();
+        try {
+            if (state == State.Sta6)
+                startIdleTimeout();
+            else if (state == State.Sta7)
+                startReleaseTimeout();
+        } finally {
+            lock.unlock();
+        }
     }
 
     private void addDimseRSPHandler(DimseRSPHandler rspHandler)
             throws InterruptedException {
-        synchronized (rspHandlerForMsgId) {
-            while (maxOpsInvoked > 0
-                    && rspHandlerForMsgId.size() >= maxOpsInvoked)
-                rspHandlerForMsgId.wait();
-            rspHandlerForMsgId.put(rspHandler.getMessageID(), rspHandler);
+        Semaphore window = opsWindow;
+        if (window != null && !takeAcquiredPermit(rspHandler) && !window.tryAcquire()) {
+            long start = System.nanoTime();
+            window.acquire();
+            blockedInvokes.incrementAndGet();
+            blockedInvokeNanos.addAndGet(System.nanoTime() - start);
         }
+        DimseRSPHandler prev = rspHandlerForMsgId.put(rspHandler.getMessageID(), rspHandler);
+        if (prev != null)
+            onDimseRSPHandlerRemoved();
+        int outstanding = rspHandlerForMsgId.size();
+        int max;
+        while (outstanding > (max = maxOutstandingRSP.get())
+                && !maxOutstandingRSP.compareAndSet(max, outstanding));
     }
 
     private DimseRSPHandler getDimseRSPHandler(int msgId) {
-        synchronized (rspHandlerForMsgId ) {
-            return rspHandlerForMsgId.get(msgId);
-        }
+        return rspHandlerForMsgId.get(msgId);
     }
 
     private DimseRSPHandler removeDimseRSPHandler(int msgId) {
-        synchronized (rspHandlerForMsgId ) {
-            DimseRSPHandler tmp = rspHandlerForMsgId.remove(msgId);
-            if (tmp != null) {
-              tmp.stopTimeout(this);
+        DimseRSPHandler tmp = rspHandlerForMsgId.remove(msgId);
+        if (tmp != null) {
+            tmp.stopTimeout(this);
+            onDimseRSPHandlerRemoved();
+        }
+        return tmp;
+    }
+
+    private void onDimseRSPHandlerRemoved() {
+        Semaphore window = opsWindow;
+        if (window != null) {
+            window.release();
+            invokeQueuedAsyncInvocations(window);
+        }
+        if (rspHandlerForMsgId.isEmpty()) {
+            rspLock.lock();
+            try {
+                noOutstandingRSP.signalAll();
+            } finally {
+                rspLock.unlock();
             }
-            rspHandlerForMsgId.notifyAll();
-            return tmp;
         }
     }
 
@@ -871,15 +1154,11 @@ public class Association {
     }
 
     public void addCancelRQHandler(int msgId, CancelRQHandler handler) {
-        synchronized (cancelHandlerForMsgId) {
-            cancelHandlerForMsgId.put(msgId, handler);
-        }
+        cancelHandlerForMsgId.put(msgId, handler);
     }
 
     public CancelRQHandler removeCancelRQHandler(int msgId) {
-        synchronized (cancelHandlerForMsgId) {
-            return cancelHandlerForMsgId.remove(msgId);
-        }
+        return cancelHandlerForMsgId.remove(msgId);
     }
 
     private void initPCMap() {
@@ -1064,6 +1343,188 @@ public class Association {
         return rsp;
     }
 
+    /**
+     * Send C-STORE-RQ without blocking the current thread, also if the
+     * number of outstanding responses has reached the negotiated maximal
+     * number of asynchronous operations. In that case, the request is queued
+     * and sent by a thread of the device executor, after the response to
+     * another asynchronous operation was received.
+     *
+     * @return future which is completed on receive of the C-STORE-RSP
+     */
+    public CompletableFuture<DimseRSP> cstoreAsync(final String cuid, final String iuid,
+            final int priority, final DataWriter data, final String tsuid) {
+        return invokeAsync(new AsyncInvocation() {
+            @Override
+            void invoke(DimseRSPHandler rspHandler) throws IOException, InterruptedException {
+                cstore(cuid, iuid, priority, data, tsuid, rspHandler);
+            }
+        });
+    }
+
+    public CompletableFuture<DimseRSP> cstoreAsync(final String cuid, final String iuid,
+            final int priority, final String moveOriginatorAET, final int moveOriginatorMsgId,
+            final DataWriter data, final String tsuid) {
+        return invokeAsync(new AsyncInvocation() {
+            @Override
+            void invoke(DimseRSPHandler rspHandler) throws IOException, InterruptedException {
+                cstore(cuid, iuid, priority, moveOriginatorAET, moveOriginatorMsgId,
+                        data, tsuid, rspHandler);
+            }
+        });
+    }
+
+    /**
+     * Send C-FIND-RQ without blocking the current thread, analogous to
+     * {@link #cstoreAsync(String, String, int, DataWriter, String)}.
+     * All pending C-FIND-RSPs are buffered until the final C-FIND-RSP is
+     * received.
+     *
+     * @return future which is completed on receive of the final C-FIND-RSP
+     */
+    public CompletableFuture<DimseRSP> cfindAsync(final String cuid, final int priority,
+            final Attributes data, final String tsuid) {
+        return invokeAsync(new AsyncInvocation() {
+            @Override
+            void invoke(DimseRSPHandler rspHandler) throws IOException, InterruptedException {
+                cfind(cuid, priority, data, tsuid, rspHandler);
+            }
+        });
+    }
+
+    public CompletableFuture<DimseRSP> cgetAsync(final String cuid, final int priority,
+            final Attributes data, final String tsuid) {
+        return invokeAsync(new AsyncInvocation() {
+            @Override
+            void invoke(DimseRSPHandler rspHandler) throws IOException, InterruptedException {
+                cget(cuid, priority, data, tsuid, rspHandler);
+            }
+        });
+    }
+
+    public CompletableFuture<DimseRSP> cmoveAsync(final String cuid, final int priority,
+            final Attributes data, final String tsuid, final String destination) {
+        return invokeAsync(new AsyncInvocation() {
+            @Override
+            void invoke(DimseRSPHandler rspHandler) throws IOException, InterruptedException {
+                cmove(cuid, priority, data, tsuid, destination, rspHandler);
+            }
+        });
+    }
+
+    public CompletableFuture<DimseRSP> cechoAsync() {
+        return cechoAsync(UID.Verification);
+    }
+
+    public CompletableFuture<DimseRSP> cechoAsync(final String cuid) {
+        return invokeAsync(new AsyncInvocation() {
+            @Override
+            void invoke(DimseRSPHandler rspHandler) throws IOException, InterruptedException {
+                PresentationContext pc = pcFor(cuid, null);
+                checkIsSCU(cuid);
+                Attributes cechorq = Commands.mkCEchoRQ(rspHandler.getMessageID(), cuid);
+                Association.this.invoke(pc, cechorq, null, rspHandler,
+                        conn.getSendTimeout(), conn.getResponseTimeout());
+            }
+        });
+    }
+
+    private static final class AsyncRSP extends CompletableDimseRSP {
+        // permit of opsWindow acquired for the invocation, which is taken
+        // over by addDimseRSPHandler in the invoking thread
+        boolean windowPermit;
+
+        AsyncRSP(int msgID) {
+            super(msgID);
+        }
+    }
+
+    private abstract class AsyncInvocation implements Runnable {
+        final AsyncRSP rsp = new AsyncRSP(nextMessageID());
+
+        abstract void invoke(DimseRSPHandler rspHandler)
+                throws IOException, InterruptedException;
+
+        @Override
+        public void run() {
+            try {
+                invoke(rsp);
+            } catch (IOException | InterruptedException | RuntimeException e) {
+                releaseAcquiredPermit(rsp);
+                rsp.getFuture().completeExceptionally(e);
+            }
+        }
+    }
+
+    private static boolean takeAcquiredPermit(DimseRSPHandler rspHandler) {
+        if (!(rspHandler instanceof AsyncRSP))
+            return false;
+
+        AsyncRSP rsp = (AsyncRSP) rspHandler;
+        boolean permit = rsp.windowPermit;
+        rsp.windowPermit = false;
+        return permit;
+    }
+
+    private void releaseAcquiredPermit(AsyncRSP rsp) {
+        Semaphore window = opsWindow;
+        if (takeAcquiredPermit(rsp) && window != null) {
+            window.release();
+            invokeQueuedAsyncInvocations(window);
+        }
+    }
+
+    /**
+     * Invokes the operation immediately, if the window of outstanding
+     * operations is not exhausted and no other asynchronous invocation is
+     * waiting, otherwise queues it until a permit of the window is released.
+     */
+    private CompletableFuture<DimseRSP> invokeAsync(AsyncInvocation invocation) {
+        Semaphore window = opsWindow;
+        if (window == null) {
+            invocation.run();
+            return invocation.rsp.getFuture();
+        }
+        boolean invokeNow;
+        rspLock.lock();
+        try {
+            invokeNow = queuedAsyncInvocations.isEmpty() && window.tryAcquire();
+            if (invokeNow)
+                invocation.rsp.windowPermit = true;
+            else
+                queuedAsyncInvocations.add(invocation);
+        } finally {
+            rspLock.unlock();
+        }
+        if (invokeNow)
+            invocation.run();
+        else
+            invokeQueuedAsyncInvocations(window);
+        return invocation.rsp.getFuture();
+    }
+
+    private void invokeQueuedAsyncInvocations(Semaphore window) {
+        for (;;) {
+            AsyncInvocation next;
+            rspLock.lock();
+            try {
+                if (queuedAsyncInvocations.isEmpty() || !window.tryAcquire())
+                    return;
+                next = queuedAsyncInvocations.poll();
+                next.rsp.windowPermit = true;
+            } finally {
+                rspLock.unlock();
+            }
+            try {
+                device.execute(next);
+            } catch (RuntimeException e) {
+                if (takeAcquiredPermit(next.rsp))
+                    window.release();
+                next.rsp.getFuture().completeExceptionally(e);
+            }
+        }
+    }
+
     public void neventReport(String cuid, String iuid, int eventTypeId,
             Attributes data, String tsuid, DimseRSPHandler rspHandler)
             throws IOException, InterruptedException {
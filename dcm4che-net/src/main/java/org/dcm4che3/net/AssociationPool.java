@@ -0,0 +1,542 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.CommonExtendedNegotiation;
+import org.dcm4che3.net.pdu.ExtendedNegotiation;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.dcm4che3.net.pdu.RoleSelection;
+import org.dcm4che3.net.pdu.UserIdentityRQ;
+import org.dcm4che3.util.TagUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of established associations initiated by an Application Entity.
+ * <p>
+ * Associations are leased by {@link #lease(Connection, Connection, AAssociateRQ)}
+ * and returned by {@link #release(Association)}. A returned association is
+ * kept open and leased again to a request for the same destination with the
+ * same presentation contexts, avoiding the association negotiation and, in
+ * case of TLS, the handshake for subsequent requests. Idle associations are
+ * released after {@link #getMaxIdleTime()}, and checked on lease - optionally
+ * by a C-ECHO - whether they are still usable.
+ *
+ * @since Oct 2026
+ */
+public class AssociationPool implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AssociationPool.class);
+
+    private static final String KEY = AssociationPool.class.getName();
+
+    private final ApplicationEntity ae;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition returned = lock.newCondition();
+    private final HashMap<String, Entry> entries = new HashMap<String, Entry>();
+    private final AssociationListener closeListener = new AssociationListener() {
+        @Override
+        public void onClose(Association as) {
+            removeIdle(as);
+        }
+    };
+    private int maxPerDestination = 8;
+    private int maxIdlePerDestination = 2;
+    private int maxIdleTime = 60000;
+    private int validateAfterIdle;
+    private ScheduledFuture<?> evictor;
+    private boolean closed;
+
+    private static class Entry {
+        final ArrayDeque<Idle> idle = new ArrayDeque<Idle>();
+        int leased;
+    }
+
+    private static class Idle {
+        final Association as;
+        final long since;
+
+        Idle(Association as, long since) {
+            this.as = as;
+            this.since = since;
+        }
+    }
+
+    public AssociationPool(ApplicationEntity ae) {
+        if (ae == null)
+            throw new NullPointerException("ae");
+        this.ae = ae;
+    }
+
+    public final ApplicationEntity getApplicationEntity() {
+        return ae;
+    }
+
+    /**
+     * Get the maximal number of concurrently leased associations to one
+     * destination with the same presentation contexts. Idle associations are
+     * not counted.
+     *
+     * @return maximal number of associations per destination, 0 = unlimited
+     */
+    public final int getMaxPerDestination() {
+        return maxPerDestination;
+    }
+
+    /**
+     * Set the maximal number of concurrently leased associations to one
+     * destination with the same presentation contexts. Idle associations are
+     * not counted, but reused by {@link #lease}. If the limit is reached,
+     * {@link #lease} blocks until another association is returned.
+     *
+     * @param maxPerDestination
+     *            maximal number of associations per destination, 0 = unlimited
+     */
+    public final void setMaxPerDestination(int maxPerDestination) {
+        if (maxPerDestination < 0)
+            throw new IllegalArgumentException("maxPerDestination: " + maxPerDestination);
+        this.maxPerDestination = maxPerDestination;
+    }
+
+    public final int getMaxIdlePerDestination() {
+        return maxIdlePerDestination;
+    }
+
+    /**
+     * Set the maximal number of idle associations kept open to one
+     * destination with the same presentation contexts. Associations returned
+     * in excess are released.
+     *
+     * @param maxIdlePerDestination
+     *            maximal number of idle associations per destination
+     */
+    public final void setMaxIdlePerDestination(int maxIdlePerDestination) {
+        if (maxIdlePerDestination < 0)
+            throw new IllegalArgumentException("maxIdlePerDestination: " + maxIdlePerDestination);
+        this.maxIdlePerDestination = maxIdlePerDestination;
+    }
+
+    public final int getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    /**
+     * Set the time in ms after which idle associations are released.
+     *
+     * @param maxIdleTime
+     *            time in ms, 0 = never release idle associations
+     */
+    public final void setMaxIdleTime(int maxIdleTime) {
+        if (maxIdleTime < 0)
+            throw new IllegalArgumentException("maxIdleTime: " + maxIdleTime);
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    public final int getValidateAfterIdle() {
+        return validateAfterIdle;
+    }
+
+    /**
+     * Set the idle time in ms after which a C-ECHO is performed on lease of
+     * an association to verify that the remote peer is still responsive.
+     * Associations without accepted Presentation Context for the Verification
+     * SOP Class are only verified to be ready for data transfer.
+     *
+     * @param validateAfterIdle
+     *            idle time in ms, 0 = never perform C-ECHO
+     */
+    public final void setValidateAfterIdle(int validateAfterIdle) {
+        if (validateAfterIdle < 0)
+            throw new IllegalArgumentException("validateAfterIdle: " + validateAfterIdle);
+        this.validateAfterIdle = validateAfterIdle;
+    }
+
+    /**
+     * Lease an association to the specified remote Application Entity,
+     * analogous to {@link ApplicationEntity#connect(ApplicationEntity, AAssociateRQ)}.
+     */
+    public Association lease(ApplicationEntity remote, AAssociateRQ rq)
+            throws IOException, InterruptedException, IncompatibleConnectionException,
+            GeneralSecurityException {
+        CompatibleConnection cc = ae.findCompatibleConnection(remote);
+        if (rq.getCalledAET() == null)
+            rq.setCalledAET(remote.getAETitle());
+        return lease(cc.getLocalConnection(), cc.getRemoteConnection(), rq);
+    }
+
+    /**
+     * Lease an association to the specified remote connection, analogous to
+     * {@link ApplicationEntity#connect(Connection, AAssociateRQ)}.
+     */
+    public Association lease(Connection remote, AAssociateRQ rq)
+            throws IOException, InterruptedException, IncompatibleConnectionException,
+            GeneralSecurityException {
+        return lease(ae.findCompatibleConnection(remote), remote, rq);
+    }
+
+    /**
+     * Lease an idle association, negotiated by an A-ASSOCIATE-RQ with equal
+     * Called and Calling AE Title, Presentation Contexts, SCP/SCU Role
+     * Selections, Extended and Common Extended Negotiations, User Identity,
+     * Maximum PDU Length and Asynchronous Operations Window to the same
+     * remote connection, or initiate a new
+     * association, if there is no such idle association. The association
+     * has to be returned by {@link #release(Association)} or
+     * {@link #invalidate(Association)}, instead of releasing or aborting it.
+     */
+    public Association lease(Connection local, Connection remote, AAssociateRQ rq)
+            throws IOException, InterruptedException, IncompatibleConnectionException,
+            GeneralSecurityException {
+        if (rq.getCallingAET() == null)
+            rq.setCallingAET(ae.getCallingAETitle(rq.getCalledAET()));
+        String key = keyOf(local, remote, rq);
+        for (;;) {
+            Idle idle = null;
+            lock.lock();
+            try {
+                if (closed)
+                    throw new IllegalStateException("Association pool closed");
+                Entry entry = entries.get(key);
+                if (entry == null)
+                    entries.put(key, entry = new Entry());
+                idle = entry.idle.pollFirst();
+                if (idle == null && maxPerDestination > 0
+                        && entry.leased >= maxPerDestination) {
+                    returned.await();
+                    continue;
+                }
+                entry.leased++;
+                startEvictor();
+            } finally {
+                lock.unlock();
+            }
+            if (idle != null) {
+                if (isAlive(idle)) {
+                    LOG.debug("{}: lease idle association", idle.as);
+                    return idle.as;
+                }
+                invalidate(idle.as);
+                continue;
+            }
+            Association as;
+            try {
+                as = ae.connect(local, remote, rq);
+            } catch (IOException | InterruptedException | IncompatibleConnectionException
+                    | GeneralSecurityException | RuntimeException e) {
+                decLeased(key);
+                throw e;
+            }
+            as.setProperty(KEY, key);
+            as.addAssociationListener(closeListener);
+            return as;
+        }
+    }
+
+    /**
+     * Return a leased association to the pool, after waiting for outstanding
+     * DIMSE responses. The association is released, if it is not ready for
+     * data transfer, if there are already {@link #getMaxIdlePerDestination()}
+     * idle associations to the same destination or if the pool was closed.
+     */
+    public void release(Association as) {
+        String key = keyOf(as);
+        try {
+            as.waitForOutstandingRSP();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            invalidate(as);
+            return;
+        }
+        boolean keep = false;
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                entry.leased--;
+                keep = !closed && as.isReadyForDataTransfer()
+                        && entry.idle.size() < maxIdlePerDestination;
+                if (keep)
+                    entry.idle.addFirst(new Idle(as, System.currentTimeMillis()));
+                returned.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!keep)
+            releaseQuietly(as);
+    }
+
+    /**
+     * Remove a leased association, which shall not be reused - e.g. after a
+     * failure of a DIMSE operation - from the pool and abort it.
+     */
+    public void invalidate(Association as) {
+        decLeased(keyOf(as));
+        as.removeAssociationListener(closeListener);
+        if (as.isReadyForDataTransfer())
+            as.abort();
+    }
+
+    /**
+     * Returns the number of idle associations in the pool.
+     */
+    public int getNumberOfIdleAssociations() {
+        lock.lock();
+        try {
+            int n = 0;
+            for (Entry entry : entries.values())
+                n += entry.idle.size();
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of currently leased associations.
+     */
+    public int getNumberOfLeasedAssociations() {
+        lock.lock();
+        try {
+            int n = 0;
+            for (Entry entry : entries.values())
+                n += entry.leased;
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release all idle associations. Associations currently leased are
+     * released on return.
+     */
+    @Override
+    public void close() {
+        List<Association> toRelease = new ArrayList<Association>();
+        lock.lock();
+        try {
+            closed = true;
+            if (evictor != null) {
+                evictor.cancel(false);
+                evictor = null;
+            }
+            for (Entry entry : entries.values()) {
+                for (Idle idle : entry.idle)
+                    toRelease.add(idle.as);
+                entry.idle.clear();
+            }
+            returned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Association as : toRelease)
+            releaseQuietly(as);
+    }
+
+    /**
+     * Release idle associations, which exceed {@link #getMaxIdleTime()} or
+     * are no longer ready for data transfer. Invoked periodically, if the
+     * device provides a scheduled executor.
+     */
+    public void evictIdleAssociations() {
+        long expired = System.currentTimeMillis() - maxIdleTime;
+        List<Association> toRelease = new ArrayList<Association>();
+        lock.lock();
+        try {
+            for (Iterator<Entry> entryIter = entries.values().iterator(); entryIter.hasNext();) {
+                Entry entry = entryIter.next();
+                for (Iterator<Idle> iter = entry.idle.iterator(); iter.hasNext();) {
+                    Idle idle = iter.next();
+                    if (!idle.as.isReadyForDataTransfer()
+                            || maxIdleTime > 0 && idle.since < expired) {
+                        iter.remove();
+                        toRelease.add(idle.as);
+                    }
+                }
+                if (entry.idle.isEmpty() && entry.leased == 0)
+                    entryIter.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Association as : toRelease) {
+            LOG.debug("{}: evict idle association", as);
+            releaseQuietly(as);
+        }
+    }
+
+    private void startEvictor() {
+        if (evictor != null || maxIdleTime == 0
+                || ae.getDevice().getScheduledExecutor() == null)
+            return;
+        evictor = ae.getDevice().scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                evictIdleAssociations();
+            }
+        }, maxIdleTime, maxIdleTime, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean isAlive(Idle idle) {
+        if (!idle.as.isReadyForDataTransfer())
+            return false;
+        if (validateAfterIdle == 0
+                || System.currentTimeMillis() - idle.since < validateAfterIdle)
+            return true;
+        try {
+            DimseRSP rsp = idle.as.cecho();
+            rsp.next();
+            return rsp.getCommand().getInt(Tag.Status, -1) == Status.Success;
+        } catch (NoPresentationContextException e) {
+            return true;
+        } catch (Exception e) {
+            LOG.info("{}: C-ECHO on idle association failed: {}", idle.as, e.getMessage());
+            return false;
+        }
+    }
+
+    private void removeIdle(Association as) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(keyOf(as));
+            if (entry != null)
+                for (Iterator<Idle> iter = entry.idle.iterator(); iter.hasNext();)
+                    if (iter.next().as == as) {
+                        iter.remove();
+                        returned.signalAll();
+                        break;
+                    }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void decLeased(String key) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                entry.leased--;
+                returned.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseQuietly(Association as) {
+        as.removeAssociationListener(closeListener);
+        try {
+            if (as.isReadyForDataTransfer())
+                as.release();
+        } catch (IOException e) {
+            LOG.info("{}: failed to release association: {}", as, e.getMessage());
+        }
+    }
+
+    private static String keyOf(Association as) {
+        String key = (String) as.getProperty(KEY);
+        if (key == null)
+            throw new IllegalArgumentException(as + " not leased from pool");
+        return key;
+    }
+
+    /**
+     * Returns the key of associations to the remote connection, negotiated by
+     * the A-ASSOCIATE-RQ with the Maximum PDU Length and Asynchronous
+     * Operations Window set by {@link ApplicationEntity#connect}.
+     */
+    private String keyOf(Connection local, Connection remote, AAssociateRQ rq) {
+        StringBuilder sb = new StringBuilder(256)
+                .append(rq.getCallingAET()).append('>')
+                .append(rq.getCalledAET()).append('@')
+                .append(remote.getHostname()).append(':').append(remote.getPort());
+        if (remote.isTls())
+            sb.append("/tls");
+        sb.append("/pdu=").append(local.getReceivePDULength());
+        if (ae.isNoAsyncModeCalledAETitle(rq.getCalledAET()))
+            sb.append("/ops=").append(rq.getMaxOpsInvoked())
+                    .append(',').append(rq.getMaxOpsPerformed());
+        else
+            sb.append("/ops=").append(local.getMaxOpsInvoked())
+                    .append(',').append(local.getMaxOpsPerformed());
+        UserIdentityRQ userIdentity = rq.getUserIdentityRQ();
+        if (userIdentity != null) {
+            sb.append("/user=").append(userIdentity.getType())
+                    .append(userIdentity.isPositiveResponseRequested() ? "+" : "-")
+                    .append(TagUtils.toHexString(userIdentity.getPrimaryField()));
+            if (userIdentity.getSecondaryField() != null)
+                sb.append(',').append(TagUtils.toHexString(userIdentity.getSecondaryField()));
+        }
+        TreeSet<String> pcs = new TreeSet<String>();
+        for (PresentationContext pc : rq.getPresentationContexts()) {
+            String[] tss = pc.getTransferSyntaxes().clone();
+            Arrays.sort(tss);
+            pcs.add(pc.getAbstractSyntax() + Arrays.toString(tss));
+        }
+        for (RoleSelection rs : rq.getRoleSelections())
+            pcs.add(rs.getSOPClassUID() + (rs.isSCU() ? "/scu" : "") + (rs.isSCP() ? "/scp" : ""));
+        for (ExtendedNegotiation extNeg : rq.getExtendedNegotiations())
+            pcs.add(extNeg.getSOPClassUID() + "/ext=" + TagUtils.toHexString(extNeg.getInformation()));
+        for (CommonExtendedNegotiation extNeg : rq.getCommonExtendedNegotiations())
+            pcs.add(extNeg.getSOPClassUID() + "/service=" + extNeg.getServiceClassUID()
+                    + Arrays.toString(extNeg.getRelatedGeneralSOPClassUIDs()));
+        for (String pc : pcs)
+            sb.append('|').append(pc);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,138 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.net;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+
+/**
+ * DIMSE response handler collecting all - pending and final - responses of
+ * one DIMSE operation, which completes its {@link #getFuture() future} on
+ * receive of the final response.
+ * <p>
+ * In contrast to {@link FutureDimseRSP}, {@link #next()} never blocks, but
+ * only iterates over the already received responses, so it is intended to be
+ * used after completion of the future. Pending responses are kept in memory
+ * until this object is discarded, so a C-FIND operation with many matches
+ * should use {@link FutureDimseRSP} or a custom {@link DimseRSPHandler}
+ * instead.
+ *
+ * @since Oct 2026
+ */
+public class CompletableDimseRSP extends DimseRSPHandler implements DimseRSP {
+
+    private final CompletableFuture<DimseRSP> future = new CompletableFuture<DimseRSP>();
+    private final ArrayList<Attributes> cmds = new ArrayList<Attributes>(1);
+    private final ArrayList<Attributes> datasets = new ArrayList<Attributes>(1);
+    private int index = -1;
+
+    public CompletableDimseRSP(int msgID) {
+        super(msgID);
+    }
+
+    /**
+     * Returns the future, which is completed by this object on receive of the
+     * final response, or exceptionally if the association was closed before
+     * or the request could not be sent. Dependent actions, which are not
+     * registered by one of the {@code async} methods of
+     * {@link CompletableFuture}, are executed by the thread reading from the
+     * association, so they shall not block.
+     *
+     * @return future of this object
+     */
+    public final CompletableFuture<DimseRSP> getFuture() {
+        return future;
+    }
+
+    @Override
+    public void onDimseRSP(Association as, Attributes cmd, Attributes data) {
+        super.onDimseRSP(as, cmd, data);
+        synchronized (cmds) {
+            cmds.add(cmd);
+            datasets.add(data);
+        }
+        if (!Status.isPending(cmd.getInt(Tag.Status, 0)))
+            future.complete(this);
+    }
+
+    @Override
+    public void onClose(Association as) {
+        super.onClose(as);
+        if (!future.isDone()) {
+            IOException ex = as.getException();
+            future.completeExceptionally(ex != null ? ex
+                    : new IOException("Association to " + as.getRemoteAET()
+                            + " released before receive of outstanding DIMSE RSP"));
+        }
+    }
+
+    @Override
+    public void cancel(Association a) throws IOException {
+        if (!future.isDone())
+            super.cancel(a);
+    }
+
+    @Override
+    public boolean next() {
+        synchronized (cmds) {
+            if (index + 1 >= cmds.size())
+                return false;
+            index++;
+            return true;
+        }
+    }
+
+    @Override
+    public Attributes getCommand() {
+        synchronized (cmds) {
+            return index >= 0 ? cmds.get(index) : null;
+        }
+    }
+
+    @Override
+    public Attributes getDataset() {
+        synchronized (cmds) {
+            return index >= 0 ? datasets.get(index) : null;
+        }
+    }
+}
@@ -52,6 +52,7 @@ import java.net.Socket;
 import java.net.SocketAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.nio.channels.SocketChannel;
 import java.security.GeneralSecurityException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -138,6 +139,8 @@ public class Connection implements Serializable {
     private int maxOpsInvoked = SYNCHRONOUS_MODE;
     private boolean packPDV = true;
     private boolean tcpNoDelay = true;
+    private boolean nonBlockingIO;
+    private int selectorThreads = 1;
     private boolean tlsNeedClientAuth = true;
     private String[] tlsCipherSuites = {};
     private String[] tlsProtocols = DEFAULT_TLS_PROTOCOLS;
@@ -789,6 +792,62 @@ public class Connection implements Serializable {
         this.tcpNoDelay = tcpNoDelay;
     }
 
+    /**
+     * Determine if accepted DICOM connections are served by the non-blocking
+     * transport, which only occupies a thread of the device executor while
+     * received PDUs are decoded and processed, instead of one thread per
+     * association waiting for the next PDU.
+     * 
+     * @return boolean True if the non-blocking transport is used.
+     */
+    public final boolean isNonBlockingIO() {
+        return nonBlockingIO;
+    }
+
+    /**
+     * Set whether accepted DICOM connections shall be served by the
+     * non-blocking transport. Not effective for TLS connections and other
+     * protocols than DICOM, which are always served by one thread per
+     * connection.
+     * 
+     * @param nonBlockingIO
+     *            boolean True if the non-blocking transport shall be used.
+     */
+    public final void setNonBlockingIO(boolean nonBlockingIO) {
+        if (this.nonBlockingIO == nonBlockingIO)
+            return;
+
+        this.nonBlockingIO = nonBlockingIO;
+        needRebind();
+    }
+
+    /**
+     * Get the number of selector threads of the non-blocking transport.
+     * 
+     * @return number of selector threads
+     */
+    public final int getSelectorThreads() {
+        return selectorThreads;
+    }
+
+    /**
+     * Set the number of selector threads of the non-blocking transport,
+     * over which accepted connections are distributed.
+     * 
+     * @param selectorThreads
+     *            number of selector threads, 1 by default
+     */
+    public final void setSelectorThreads(int selectorThreads) {
+        if (selectorThreads <= 0)
+            throw new IllegalArgumentException("selectorThreads: " + selectorThreads);
+
+        if (this.selectorThreads == selectorThreads)
+            return;
+
+        this.selectorThreads = selectorThreads;
+        needRebind();
+    }
+
     /**
      * True if the Network Connection is installed on the network. If not
      * present, information about the installed status of the Network Connection
@@ -1000,7 +1059,9 @@ public class Connection implements Serializable {
                 LOG.info("No TCP Protocol Handler for protocol {}", protocol);
                 return false;
             }
-            listener = new TCPListener(this, handler);
+            listener = isNonBlockingIO(handler)
+                    ? new NioTCPListener(this)
+                    : new TCPListener(this, handler);
         } else {
             UDPProtocolHandler handler = udpHandlers.get(protocol);
             if (handler == null) {
@@ -1013,6 +1074,16 @@ public class Connection implements Serializable {
         return true;
     }
 
+    private boolean isNonBlockingIO(TCPProtocolHandler handler) {
+        if (!nonBlockingIO)
+            return false;
+        if (handler != DicomProtocolHandler.INSTANCE || isTls()) {
+            LOG.info("Non-blocking I/O not supported by {} - use blocking I/O", this);
+            return false;
+        }
+        return true;
+    }
+
     public final boolean isListening() {
         return listener != null;
     }
@@ -1044,7 +1115,9 @@ public class Connection implements Serializable {
         int remotePort = remoteConn.getPort();
         LOG.info("Initiate connection from {} to {}:{}",
                 bindPoint, remoteHostname, remotePort);
-        Socket s = new Socket();
+        // socket channels of plain TCP connections support zero-copy
+        // transfer of files by FileDataWriter
+        Socket s = isTls() ? new Socket() : SocketChannel.open().socket();
         ConnectionMonitor monitor = device != null
                 ? device.getConnectionMonitor()
                 : null;
@@ -1272,6 +1345,8 @@ public class Connection implements Serializable {
         setMaxOpsInvoked(from.maxOpsInvoked);
         setPackPDV(from.packPDV);
         setTcpNoDelay(from.tcpNoDelay);
+        setNonBlockingIO(from.nonBlockingIO);
+        setSelectorThreads(from.selectorThreads);
         setTlsNeedClientAuth(from.tlsNeedClientAuth);
         setTlsCipherSuites(from.tlsCipherSuites);
         setTlsProtocols(from.tlsProtocols);
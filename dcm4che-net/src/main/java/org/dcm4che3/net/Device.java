@@ -129,7 +129,9 @@ public class Device implements Serializable {
     private transient final List<Association> associations = new ArrayList<>();
 
     private transient Executor executor;
+    private transient boolean virtualThreads;
     private transient ScheduledExecutorService scheduledExecutor;
+    private transient HashedWheelTimer timeoutTimer;
     private transient volatile SSLContext sslContext;
     private transient volatile KeyManager km;
     private transient volatile TrustManager tm;
@@ -777,6 +779,64 @@ public class Device implements Serializable {
         this.executor = executor;
     }
 
+    /**
+     * Returns {@code true} if the JVM supports virtual threads (Java 21 or
+     * later).
+     *
+     * @return {@code true} if virtual threads are supported
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VirtualThreads.isSupported();
+    }
+
+    public final boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Set whether executors created by {@link #newExecutorService()} - e.g.
+     * on start of a {@link DeviceService} - shall use virtual threads, if
+     * supported by the JVM. Not effective for an executor already set by
+     * {@link #setExecutor(Executor)}.
+     *
+     * @param virtualThreads
+     *            use virtual threads, if supported by the JVM
+     */
+    public final void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Create an executor service suitable to pass to
+     * {@link #setExecutor(Executor)}, which uses virtual threads if specified
+     * by {@link #setVirtualThreads(boolean)}.
+     *
+     * @return new executor service
+     * @see #newExecutorService(boolean)
+     */
+    public ExecutorService newExecutorService() {
+        return newExecutorService(virtualThreads);
+    }
+
+    /**
+     * Create an executor service suitable to pass to
+     * {@link #setExecutor(Executor)}. With {@code virtualThreads}, the
+     * returned executor starts a new virtual thread for each task, so each
+     * association reader and retrieve task only occupies a platform thread
+     * while it is actually running. If virtual threads are not supported by
+     * the JVM, a cached thread pool is returned.
+     *
+     * @param virtualThreads
+     *            use virtual threads, if supported by the JVM
+     * @return new executor service
+     */
+    public static ExecutorService newExecutorService(boolean virtualThreads) {
+        if (virtualThreads && VirtualThreads.isSupported())
+            return VirtualThreads.newVirtualThreadPerTaskExecutor();
+
+        return Executors.newCachedThreadPool();
+    }
+
     public final ScheduledExecutorService getScheduledExecutor() {
         return scheduledExecutor;
     }
@@ -785,6 +845,27 @@ public class Device implements Serializable {
         this.scheduledExecutor = executor;
     }
 
+    public final HashedWheelTimer getTimeoutTimer() {
+        return timeoutTimer;
+    }
+
+    /**
+     * Set the timer used for DIMSE response, idle and release timeouts of
+     * associations of this device. If no timer is set, timeouts are scheduled
+     * by the {@link #getScheduledExecutor() scheduled executor}, which gets
+     * a hotspot with thousands of operations per second.
+     * <p>
+     * As the executors, the timer is owned by the caller, which has to stop
+     * it by {@link HashedWheelTimer#stop()} on shutdown of the device;
+     * {@link DeviceService#stop()} stops the timer created by its
+     * {@code timeoutTimer()} method.
+     *
+     * @param timeoutTimer timer for association timeouts or {@code null}
+     */
+    public final void setTimeoutTimer(HashedWheelTimer timeoutTimer) {
+        this.timeoutTimer = timeoutTimer;
+    }
+
     public void addConnection(Connection conn) {
         conn.setDevice(this);
         conns.add(conn);
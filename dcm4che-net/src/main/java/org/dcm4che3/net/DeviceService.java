@@ -52,6 +52,7 @@ public class DeviceService implements DeviceServiceInterface
     protected Device device;
     protected ExecutorService executor;
     protected ScheduledExecutorService scheduledExecutor;
+    protected HashedWheelTimer timeoutTimer;
 
     protected void init(Device device) {
         setDevice(device);
@@ -76,9 +77,12 @@ public class DeviceService implements DeviceServiceInterface
             throw new IllegalStateException("Already started");
         executor = executerService();
         scheduledExecutor = scheduledExecuterService();
+        timeoutTimer = timeoutTimer();
         try {
             device.setExecutor(executor);
             device.setScheduledExecutor(scheduledExecutor);
+            if (timeoutTimer != null)
+                device.setTimeoutTimer(timeoutTimer);
             device.bindConnections();
         } catch (Exception e) {
             stop();
@@ -93,16 +97,31 @@ public class DeviceService implements DeviceServiceInterface
             scheduledExecutor.shutdown();
         if (executor != null)
             executor.shutdown();
+        if (timeoutTimer != null)
+            timeoutTimer.stop();
         executor = null;
         scheduledExecutor = null;
+        timeoutTimer = null;
     }
 
     protected ExecutorService executerService() {
-        return Executors.newCachedThreadPool();
+        return device.newExecutorService();
     }
 
     protected ScheduledExecutorService scheduledExecuterService() {
         return Executors.newSingleThreadScheduledExecutor();
     }
 
+    /**
+     * Create the timer for association timeouts, which is set on start and
+     * stopped on stop of the service.
+     *
+     * @return timer for association timeouts or {@code null} to schedule
+     *         them by the scheduled executor
+     * @see Device#setTimeoutTimer(HashedWheelTimer)
+     */
+    protected HashedWheelTimer timeoutTimer() {
+        return null;
+    }
+
 }
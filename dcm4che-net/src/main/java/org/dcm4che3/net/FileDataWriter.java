@@ -0,0 +1,100 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.net;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.dcm4che3.data.BulkData;
+
+/**
+ * Data writer sending a region of a file - typically the data set of a DICOM
+ * file following its File Meta Information - which is already encoded in the
+ * negotiated Transfer Syntax. On associations over plain TCP socket channels,
+ * the region is transferred by {@link FileChannel#transferTo} from the file
+ * directly into the socket, without copying it into the PDU buffer.
+ *
+ * @since Oct 2026
+ */
+public class FileDataWriter implements DataWriter {
+
+    private final File file;
+    private final long position;
+    private final long length;
+
+    public FileDataWriter(File file) {
+        this(file, 0L, file.length());
+    }
+
+    public FileDataWriter(File file, long position, long length) {
+        if (file == null)
+            throw new NullPointerException();
+        if (position < 0 || length < 0)
+            throw new IllegalArgumentException("position: " + position + ", length: " + length);
+        this.file = file;
+        this.position = position;
+        this.length = length;
+    }
+
+    public FileDataWriter(BulkData bulkData) {
+        this(bulkData.getFile(), bulkData.offset(), bulkData.longLength());
+    }
+
+    public final File getFile() {
+        return file;
+    }
+
+    public final long getPosition() {
+        return position;
+    }
+
+    public final long getLength() {
+        return length;
+    }
+
+    @Override
+    public void writeTo(PDVOutputStream out, String tsuid) throws IOException {
+        try (FileChannel src = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            out.copyFrom(src, position, length);
+        }
+    }
+
+}
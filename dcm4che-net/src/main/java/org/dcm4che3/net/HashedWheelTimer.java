@@ -0,0 +1,350 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.net;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timer for large numbers of short-lived timeouts, which are mostly
+ * cancelled before they expire - like DIMSE response timeouts.
+ * <p>
+ * Scheduled tasks are hashed into a circular array of buckets, one bucket
+ * per tick, which is advanced by a single worker thread. Scheduling and
+ * cancelling a task only appends it to a lock-free queue and is therefore
+ * O(1); the worker thread moves scheduled tasks into their bucket and
+ * removes cancelled tasks from their bucket, before it runs the expired
+ * tasks of the bucket of the current tick. Tasks expire with a precision of
+ * one tick.
+ * <p>
+ * Expired tasks are run by the worker thread, so they must not block. The
+ * worker thread is started on scheduling the first task and terminated by
+ * {@link #stop()}.
+ *
+ * @see Device#setTimeoutTimer(HashedWheelTimer)
+ * @since Oct 2026
+ */
+public class HashedWheelTimer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private static final int INIT = 0;
+    private static final int STARTED = 1;
+    private static final int STOPPED = 2;
+
+    private final ThreadFactory threadFactory;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startTime = System.nanoTime();
+    private final ConcurrentLinkedQueue<Task> scheduled = new ConcurrentLinkedQueue<Task>();
+    private final ConcurrentLinkedQueue<Task> cancelled = new ConcurrentLinkedQueue<Task>();
+    private final AtomicInteger state = new AtomicInteger(INIT);
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile Thread worker;
+    private long tick;
+
+    /**
+     * Creates a timer with a tick duration of 10 ms and 512 ticks per wheel.
+     */
+    public HashedWheelTimer() {
+        this(10, TimeUnit.MILLISECONDS, 512);
+    }
+
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        this(Executors.defaultThreadFactory(), tickDuration, unit, ticksPerWheel);
+    }
+
+    /**
+     * Creates a timer.
+     *
+     * @param threadFactory factory of the worker thread
+     * @param tickDuration duration of one tick
+     * @param unit time unit of {@code tickDuration}
+     * @param ticksPerWheel number of buckets, rounded up to the next power of 2
+     */
+    public HashedWheelTimer(ThreadFactory threadFactory, long tickDuration,
+            TimeUnit unit, int ticksPerWheel) {
+        if (threadFactory == null)
+            throw new NullPointerException("threadFactory");
+        if (tickDuration <= 0)
+            throw new IllegalArgumentException("tickDuration: " + tickDuration);
+        if (ticksPerWheel <= 0 || ticksPerWheel > 0x40000000)
+            throw new IllegalArgumentException("ticksPerWheel: " + ticksPerWheel);
+
+        this.threadFactory = threadFactory;
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        if (size == 0)
+            size = 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++)
+            wheel[i] = new Bucket();
+        this.mask = size - 1;
+    }
+
+    public final long getTickDuration(TimeUnit unit) {
+        return unit.convert(tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public final int getTicksPerWheel() {
+        return wheel.length;
+    }
+
+    /**
+     * Returns the number of scheduled tasks, which are neither expired nor
+     * cancelled.
+     *
+     * @return number of pending tasks
+     */
+    public int getNumberOfPendingTasks() {
+        return pending.get();
+    }
+
+    /**
+     * Schedules the specified task to run by the worker thread after the
+     * specified delay.
+     *
+     * @param command task to run
+     * @param delay delay
+     * @param unit time unit of {@code delay}
+     * @return scheduled task, which may be cancelled
+     * @throws IllegalStateException if the timer was stopped
+     */
+    public Task schedule(Runnable command, long delay, TimeUnit unit) {
+        if (command == null)
+            throw new NullPointerException("command");
+
+        start();
+        Task task = new Task(command,
+                System.nanoTime() - startTime + Math.max(0L, unit.toNanos(delay)));
+        pending.incrementAndGet();
+        scheduled.add(task);
+        return task;
+    }
+
+    private void start() {
+        switch (state.get()) {
+            case INIT:
+                if (state.compareAndSet(INIT, STARTED)) {
+                    Thread th = threadFactory.newThread(new Worker());
+                    th.setName("HashedWheelTimer-" + th.getName());
+                    th.setDaemon(true);
+                    worker = th;
+                    th.start();
+                }
+                break;
+            case STOPPED:
+                throw new IllegalStateException("HashedWheelTimer stopped");
+        }
+    }
+
+    /**
+     * Stops the worker thread. Pending tasks will not run.
+     */
+    public void stop() {
+        if (state.getAndSet(STOPPED) == STARTED) {
+            Thread th = worker;
+            if (th != null && th != Thread.currentThread())
+                th.interrupt();
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        @Override
+        public void run() {
+            while (state.get() == STARTED) {
+                if (!waitForNextTick())
+                    break;
+                removeCancelledTasks();
+                transferScheduledTasks();
+                wheel[(int) (tick & mask)].expireTasks();
+                tick++;
+            }
+        }
+
+        private boolean waitForNextTick() {
+            long deadline = tickNanos * (tick + 1);
+            for (;;) {
+                long current = System.nanoTime() - startTime;
+                long sleepMillis = (deadline - current + 999999) / 1000000;
+                if (sleepMillis <= 0)
+                    return true;
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    if (state.get() == STOPPED)
+                        return false;
+                }
+            }
+        }
+
+        private void removeCancelledTasks() {
+            Task task;
+            while ((task = cancelled.poll()) != null)
+                if (task.bucket != null)
+                    task.bucket.remove(task);
+        }
+
+        private void transferScheduledTasks() {
+            Task task;
+            // limit number of transferred tasks per tick to not starve expiry
+            for (int i = 0; i < 100000 && (task = scheduled.poll()) != null; i++) {
+                if (task.state.get() == Task.CANCELLED)
+                    continue;
+
+                long ticks = task.deadline / tickNanos;
+                task.remainingRounds = (ticks - tick) / wheel.length;
+                wheel[(int) (Math.max(ticks, tick) & mask)].add(task);
+            }
+        }
+    }
+
+    private static class Bucket {
+        private Task head;
+        private Task tail;
+
+        void add(Task task) {
+            task.bucket = this;
+            if (head == null) {
+                head = tail = task;
+            } else {
+                tail.next = task;
+                task.prev = tail;
+                tail = task;
+            }
+        }
+
+        Task remove(Task task) {
+            Task next = task.next;
+            if (task.prev != null)
+                task.prev.next = next;
+            if (task.next != null)
+                task.next.prev = task.prev;
+            if (task == head)
+                head = next;
+            if (task == tail)
+                tail = task.prev;
+            task.prev = null;
+            task.next = null;
+            task.bucket = null;
+            return next;
+        }
+
+        void expireTasks() {
+            Task task = head;
+            while (task != null) {
+                if (task.remainingRounds <= 0) {
+                    Task next = remove(task);
+                    task.expire();
+                    task = next;
+                } else if (task.isCancelled()) {
+                    task = remove(task);
+                } else {
+                    task.remainingRounds--;
+                    task = task.next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Task scheduled by {@link HashedWheelTimer#schedule}.
+     */
+    public final class Task {
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable command;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(INIT);
+        // accessed only by the worker thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Task next;
+        private Task prev;
+
+        private Task(Runnable command, long deadline) {
+            this.command = command;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task, if it is not already expired or cancelled.
+         *
+         * @return {@code true} if the task was cancelled by this invocation
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED))
+                return false;
+
+            pending.decrementAndGet();
+            cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(INIT, EXPIRED))
+                return;
+
+            pending.decrementAndGet();
+            try {
+                command.run();
+            } catch (Throwable e) {
+                LOG.warn("Exception thrown by {}:", command, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,453 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.dcm4che3.util.SafeClose;
+
+/**
+ * Socket channel of the non-blocking transport. Received bytes are buffered
+ * by the selector thread; a reader task is only dispatched to the executor of
+ * the {@link Device} if a complete PDU - or as many bytes as fit into the
+ * receive buffer - is available, so associations waiting for the next PDU do
+ * not occupy any thread.
+ *
+ * @since Oct 2026
+ */
+class NioChannel implements NioEventLoop.Handler, Closeable {
+
+    // holds a PDU of the default length
+    private static final int INIT_BUFFER_SIZE = 0x4000;
+    private static final int MAX_BUFFER_SIZE = 0x2000000;
+
+    private final NioEventLoop loop;
+    private final SocketChannel ch;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition readable = lock.newCondition();
+    private final Condition writable = lock.newCondition();
+    private byte[] buf = new byte[INIT_BUFFER_SIZE];
+    private ByteBuffer readBuf = ByteBuffer.wrap(buf);
+    private int maxBufferSize = INIT_BUFFER_SIZE;
+    private final InputStream in = new ChannelInputStream();
+    private final OutputStream out = new ChannelOutputStream();
+    private final Runnable updateInterestOps = new Runnable() {
+        @Override
+        public void run() {
+            updateInterestOps();
+        }
+    };
+    private SelectionKey key;
+    private Device device;
+    private Runnable reader;
+    private int head;
+    private int count;
+    private boolean eof;
+    private IOException readException;
+    private boolean closed;
+    private boolean readSuspended;
+    private boolean writeBlocked;
+    private boolean dispatched;
+    private boolean deactivated;
+
+    NioChannel(NioEventLoop loop, SocketChannel ch) throws IOException {
+        this.loop = loop;
+        this.ch = ch;
+        ch.configureBlocking(false);
+    }
+
+    @Override
+    public String toString() {
+        return ch.toString();
+    }
+
+    Socket socket() {
+        return ch.socket();
+    }
+
+    InputStream getInputStream() {
+        return in;
+    }
+
+    OutputStream getOutputStream() {
+        return out;
+    }
+
+    /**
+     * Register the channel by the selector thread and dispatch the specified
+     * reader to the executor of the specified device each time a complete PDU
+     * was received.
+     * The reader has to call {@link #continueDispatch()} before it decodes the
+     * next PDU.
+     */
+    void activate(Device device, Runnable reader) {
+        this.device = device;
+        this.reader = reader;
+        loop.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    key = ch.register(loop.selector(), SelectionKey.OP_READ, NioChannel.this);
+                } catch (ClosedChannelException e) {
+                    close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Let the receive buffer grow up to the size of two PDUs of the specified
+     * length, negotiated on establishment of the association. Until then, it
+     * only holds one PDU of the default length.
+     *
+     * @param receivePDULength maximal length of received PDUs, 0 = unlimited
+     */
+    void setReceivePDULength(int receivePDULength) {
+        lock.lock();
+        try {
+            maxBufferSize = (int) Math.min(MAX_BUFFER_SIZE, Math.max(INIT_BUFFER_SIZE,
+                    2L * ((receivePDULength > 0 ? receivePDULength : Connection.DEF_MAX_PDU_LENGTH) + 6)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Shrink the receive buffer to its initial size, if it is empty - invoked
+     * if the association becomes idle, so idle associations do not keep
+     * buffers sized for large PDUs.
+     */
+    void shrinkReceiveBuffer() {
+        lock.lock();
+        try {
+            if (count == 0 && buf.length > INIT_BUFFER_SIZE)
+                resize(INIT_BUFFER_SIZE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int receiveBufferSize() {
+        lock.lock();
+        try {
+            return buf.length;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resize(int size) {
+        byte[] b = new byte[size];
+        int n = Math.min(count, buf.length - head);
+        System.arraycopy(buf, head, b, 0, n);
+        System.arraycopy(buf, 0, b, n, count - n);
+        buf = b;
+        readBuf = ByteBuffer.wrap(b);
+        head = 0;
+    }
+
+    /**
+     * Stop dispatching the reader - invoked by the reader on closing the
+     * association.
+     */
+    void deactivate() {
+        lock.lock();
+        try {
+            deactivated = true;
+            dispatched = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns {@code true} if another complete PDU is available, otherwise
+     * releases the reader, which has to return.
+     */
+    boolean continueDispatch() {
+        lock.lock();
+        try {
+            if (isPDUAvailable())
+                return true;
+            dispatched = false;
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isPDUAvailable() {
+        if (eof)
+            return true;
+        if (count < 6)
+            return false;
+        int pdulen = at(2) << 24 | at(3) << 16 | at(4) << 8 | at(5);
+        return pdulen < 0 || pdulen <= count - 6 || isBufferFull();
+    }
+
+    private boolean isBufferFull() {
+        return count == buf.length && buf.length >= maxBufferSize;
+    }
+
+    private int at(int offset) {
+        return buf[(head + offset) % buf.length] & 0xff;
+    }
+
+    private void dispatch() {
+        if (dispatched || deactivated || reader == null || !isPDUAvailable())
+            return;
+        dispatched = true;
+        try {
+            device.execute(reader);
+        } catch (RejectedExecutionException | IllegalStateException e) {
+            dispatched = false;
+            Connection.LOG.warn("Failed to dispatch reader of {}:", ch, e);
+            loop.execute(new Runnable() {
+                @Override
+                public void run() {
+                    close();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onReady(SelectionKey key) {
+        if (key.isWritable())
+            onWritable();
+        if (key.isValid() && key.isReadable())
+            onReadable();
+    }
+
+    private void onReadable() {
+        lock.lock();
+        try {
+            if (count == buf.length && buf.length < maxBufferSize)
+                resize(maxBufferSize);
+            if (count < buf.length) {
+                int tail = (head + count) % buf.length;
+                readBuf.limit(tail < head ? head : buf.length).position(tail);
+                int n;
+                try {
+                    n = ch.read(readBuf);
+                } catch (IOException e) {
+                    readException = e;
+                    n = -1;
+                }
+                if (n < 0)
+                    eof = true;
+                else
+                    count += n;
+                readable.signalAll();
+                dispatch();
+            }
+        } finally {
+            lock.unlock();
+        }
+        updateInterestOps();
+    }
+
+    private void onWritable() {
+        lock.lock();
+        try {
+            writeBlocked = false;
+            writable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        updateInterestOps();
+    }
+
+    private void updateInterestOps() {
+        if (key == null || !key.isValid())
+            return;
+        int ops = 0;
+        lock.lock();
+        try {
+            readSuspended = !eof && isBufferFull();
+            if (!eof && !readSuspended)
+                ops |= SelectionKey.OP_READ;
+            if (writeBlocked)
+                ops |= SelectionKey.OP_WRITE;
+        } finally {
+            lock.unlock();
+        }
+        key.interestOps(ops);
+    }
+
+    @Override
+    public void close() {
+        SafeClose.close(ch);
+        lock.lock();
+        try {
+            closed = true;
+            eof = true;
+            readable.signalAll();
+            writable.signalAll();
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitWritable() throws IOException {
+        lock.lock();
+        try {
+            if (closed)
+                throw new SocketException("Socket closed");
+            writeBlocked = true;
+            loop.execute(updateInterestOps);
+            while (writeBlocked && !closed)
+                writable.await();
+            if (closed)
+                throw new SocketException("Socket closed");
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Transfer the specified region of the file directly into the socket
+     * channel, waiting for the channel to become writable if necessary.
+     * The caller has to ensure that the region does not exceed the end of the
+     * file.
+     */
+    void transferFrom(FileChannel src, long position, long count) throws IOException {
+        while (count > 0) {
+            long n = src.transferTo(position, count, ch);
+            if (n == 0)
+                awaitWritable();
+            position += n;
+            count -= n;
+        }
+    }
+
+    private class ChannelInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            boolean resume;
+            int n;
+            lock.lock();
+            try {
+                while (count == 0 && !eof)
+                    readable.await();
+                if (count == 0) {
+                    if (readException != null)
+                        throw readException;
+                    return -1;
+                }
+                n = Math.min(len, Math.min(count, buf.length - head));
+                System.arraycopy(buf, head, b, off, n);
+                head = (head + n) % buf.length;
+                count -= n;
+                resume = readSuspended && count <= buf.length / 2;
+                if (resume)
+                    readSuspended = false;
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            } finally {
+                lock.unlock();
+            }
+            if (resume)
+                loop.execute(updateInterestOps);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            lock.lock();
+            try {
+                return count;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+            NioChannel.this.close();
+        }
+    }
+
+    private class ChannelOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ByteBuffer bb = ByteBuffer.wrap(b, off, len);
+            while (bb.hasRemaining())
+                if (ch.write(bb) == 0)
+                    awaitWritable();
+        }
+
+        @Override
+        public void close() {
+            NioChannel.this.close();
+        }
+    }
+}
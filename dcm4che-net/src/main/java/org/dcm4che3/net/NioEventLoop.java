@@ -0,0 +1,143 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.net;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.dcm4che3.util.SafeClose;
+
+/**
+ * Selector thread of the non-blocking transport. Dispatches readiness of
+ * registered channels to their {@link Handler}. Changes of registrations or
+ * interest sets are passed by {@link #execute(Runnable)}, so they are always
+ * performed by the selector thread itself.
+ *
+ * @since Oct 2026
+ */
+class NioEventLoop implements Runnable {
+
+    interface Handler {
+        void onReady(SelectionKey key);
+    }
+
+    private final String name;
+    private final Selector selector;
+    private final ConcurrentLinkedQueue<Runnable> tasks =
+            new ConcurrentLinkedQueue<Runnable>();
+    private volatile boolean shutdown;
+
+    NioEventLoop(String name) throws IOException {
+        this.name = name;
+        this.selector = Selector.open();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    Selector selector() {
+        return selector;
+    }
+
+    void execute(Runnable task) {
+        tasks.offer(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Terminate the selector thread as soon as there are no registered
+     * channels left.
+     */
+    void shutdown() {
+        shutdown = true;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        Connection.LOG.info("Start {}", name);
+        try {
+            for (;;) {
+                selector.select();
+                runTasks();
+                if (shutdown && selector.keys().isEmpty())
+                    break;
+                Iterator<SelectionKey> iter = selector.selectedKeys().iterator();
+                while (iter.hasNext()) {
+                    SelectionKey key = iter.next();
+                    iter.remove();
+                    if (key.isValid())
+                        onReady(key);
+                }
+            }
+        } catch (Throwable e) {
+            Connection.LOG.error("Exception in {}:", name, e);
+        } finally {
+            for (SelectionKey key : selector.keys())
+                SafeClose.close(key.channel());
+            SafeClose.close(selector);
+        }
+        Connection.LOG.info("Stop {}", name);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                Connection.LOG.warn("Exception in {}:", name, e);
+            }
+        }
+    }
+
+    private void onReady(SelectionKey key) {
+        try {
+            ((Handler) key.attachment()).onReady(key);
+        } catch (Throwable e) {
+            Connection.LOG.warn("Exception in {} on {}:", name, key.channel(), e);
+            SafeClose.close(key.channel());
+        }
+    }
+}
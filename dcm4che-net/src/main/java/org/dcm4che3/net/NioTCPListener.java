@@ -0,0 +1,186 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.net;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.dcm4che3.util.SafeClose;
+
+/**
+ * Listener of the non-blocking transport, accepting DICOM connections by the
+ * first of {@link Connection#getSelectorThreads()} selector threads and
+ * distributing the accepted channels round-robin over all of them.
+ *
+ * @since Oct 2026
+ */
+class NioTCPListener implements Listener, NioEventLoop.Handler {
+
+    private final Connection conn;
+    private final ServerSocketChannel ssc;
+    private final NioEventLoop[] loops;
+    private int next;
+
+    public NioTCPListener(Connection conn) throws IOException {
+        this.conn = conn;
+        this.loops = new NioEventLoop[Math.max(1, conn.getSelectorThreads())];
+        this.ssc = ServerSocketChannel.open();
+        try {
+            conn.setReceiveBufferSize(ssc.socket());
+            ssc.socket().bind(conn.getBindPoint(), conn.getBacklog());
+            ssc.configureBlocking(false);
+            SocketAddress sockAddr = ssc.socket().getLocalSocketAddress();
+            for (int i = 0; i < loops.length; i++) {
+                loops[i] = new NioEventLoop("NIO Selector-" + i + " on " + sockAddr);
+                conn.getDevice().execute(loops[i]);
+            }
+            loops[0].execute(new Runnable() {
+                @Override
+                public void run() {
+                    register();
+                }
+            });
+        } catch (IOException e) {
+            close();
+            throw new IOException("Unable to start NioTCPListener on "
+                    + conn.getHostname() + ":" + conn.getPort(), e);
+        }
+    }
+
+    private void register() {
+        try {
+            ssc.register(loops[0].selector(), SelectionKey.OP_ACCEPT, this);
+            Connection.LOG.info("Start NIO TCP Listener on {}", getEndPoint());
+        } catch (ClosedChannelException e) {
+            Connection.LOG.info("NIO TCP Listener closed before start");
+        }
+    }
+
+    @Override
+    public void onReady(SelectionKey key) {
+        SocketChannel ch;
+        try {
+            while ((ch = ssc.accept()) != null)
+                onAccept(ch);
+        } catch (IOException e) {
+            if (ssc.isOpen()) // ignore exception caused by close()
+                Connection.LOG.error("Exception on listing on {}:", getEndPoint(), e);
+        }
+    }
+
+    private void onAccept(SocketChannel ch) {
+        Socket s = ch.socket();
+        ConnectionMonitor monitor = conn.getDevice() != null
+                ? conn.getDevice().getConnectionMonitor()
+                : null;
+        if (conn.isBlackListed(s.getInetAddress())) {
+            if (monitor != null)
+                monitor.onConnectionRejectedBlacklisted(conn, s);
+            Connection.LOG.info("Reject blacklisted connection {}", s);
+            conn.close(s);
+            return;
+        }
+        try {
+            conn.setSocketSendOptions(s);
+        } catch (Throwable e) {
+            if (monitor != null)
+                monitor.onConnectionRejected(conn, s, e);
+            Connection.LOG.warn("Reject connection {}:", s, e);
+            conn.close(s);
+            return;
+        }
+        if (monitor != null)
+            monitor.onConnectionAccepted(conn, s);
+        Connection.LOG.info("Accept connection {}", s);
+        try {
+            NioEventLoop loop = loops[next++ % loops.length];
+            new Association(null, conn, new NioChannel(loop, ch));
+        } catch (Throwable e) {
+            Connection.LOG.warn("Exception on accepted connection {}:", s, e);
+            conn.close(s);
+        }
+    }
+
+    @Override
+    public SocketAddress getEndPoint() {
+        return ssc.socket().getLocalSocketAddress();
+    }
+
+    @Override
+    public void close() {
+        SafeClose.close(ssc);
+        if (loops[0] != null)
+            awaitDeregistration();
+        for (NioEventLoop loop : loops)
+            if (loop != null)
+                loop.shutdown();
+    }
+
+    /**
+     * The socket of a closed channel is only released after its key was
+     * deregistered by the selector, so wait for that to allow immediate
+     * rebinding of the port.
+     */
+    private void awaitDeregistration() {
+        final CountDownLatch deregistered = new CountDownLatch(1);
+        loops[0].execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    loops[0].selector().selectNow();
+                } catch (IOException e) {
+                    // ignore
+                }
+                deregistered.countDown();
+            }
+        });
+        try {
+            deregistered.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -42,6 +42,8 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -89,7 +91,7 @@ class PDUDecoder extends PDVInputStream {
 
     private final Association as;
     private final InputStream in;
-    private final Thread th;
+    private volatile Thread th;
     private byte[] buf = new byte[6 + Connection.DEF_MAX_PDU_LENGTH];
     private int pos;
     private int pdutype;
@@ -104,6 +106,15 @@ class PDUDecoder extends PDVInputStream {
         this.th = Thread.currentThread();
     }
 
+    /**
+     * Rebind the decoder to the current thread - used by the non-blocking
+     * transport, which dispatches the decoding of received PDUs to arbitrary
+     * worker threads.
+     */
+    void bindToCurrentThread() {
+        th = Thread.currentThread();
+    }
+
     private int remaining() {
         return pdulen + 6 - pos;
     }
@@ -634,4 +645,20 @@ class PDUDecoder extends PDVInputStream {
             pos = pdvend;
         }
     }
+
+    /**
+     * Writes PDV payloads of subsequent P-DATA-TF PDUs from the receive
+     * buffer to the channel, without copying them into another buffer first.
+     */
+    @Override
+    public void copyTo(WritableByteChannel ch) throws IOException {
+        if (th != Thread.currentThread())
+            throw new IllegalStateException("Entered by wrong thread");
+        while (!isLastPDV()) {
+            ByteBuffer bb = ByteBuffer.wrap(buf, pos, pdvend - pos);
+            while (bb.hasRemaining())
+                ch.write(bb);
+            pos = pdvend;
+        }
+    }
 }
@@ -42,6 +42,8 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -77,8 +79,11 @@ class PDUEncoder extends PDVOutputStream {
     private int pdvcmd;
     private int pdvpos;
     private int maxpdulen;
+    private FileChannel transferSrc;
+    private long transferPos;
+    private int transferLen;
     private Thread th;
-    private Object dimseLock = new Object();
+    private Lock dimseLock = new ReentrantLock();
     private Lock writeLock = new ReentrantLock(true);
 
     public PDUEncoder(Association as, OutputStream out) {
@@ -101,8 +106,11 @@ class PDUEncoder extends PDVOutputStream {
     }
 
     public void writeAReleaseRQ() throws IOException {
-        synchronized (dimseLock) {
+        dimseLock.lock();
+        try {
             write(PDUType.A_RELEASE_RQ, 0, 0, 0, true);
+        } finally {
+            dimseLock.unlock();
         }
     }
 
@@ -161,8 +169,10 @@ class PDUEncoder extends PDVOutputStream {
     private void writePDU(int pdulen) throws IOException {
         writeLock.lock();
         try {
-            out.write(buf, 0, 6 + pdulen);
+            out.write(buf, 0, 6 + pdulen - transferLen);
             out.flush();
+            if (transferLen > 0)
+                as.transferFrom(transferSrc, transferPos, transferLen);
         } catch (IOException e) {
             as.onIOException(e);
             throw e;
@@ -393,6 +403,51 @@ class PDUEncoder extends PDVOutputStream {
         }
     }
 
+    /**
+     * If the association supports it, PDV payloads filling a whole P-DATA-TF
+     * PDU are transferred by {@link FileChannel#transferTo} from the file
+     * directly into the socket, after writing the PDU and PDV header from the
+     * buffer. Remaining bytes, not filling a whole PDU, are read into the
+     * buffer.
+     */
+    @Override
+    public void copyFrom(FileChannel src, long position, long length)
+            throws IOException {
+        checkThread();
+        if (position + length > src.size())
+            throw new EOFException();
+        boolean zeroCopy = as.isZeroCopy();
+        long remaining = length;
+        while (remaining > 0) {
+            flushPDataTF();
+            int copy = (int) Math.min(remaining, free());
+            if (zeroCopy && copy == free()) {
+                transferSrc = src;
+                transferPos = position;
+                transferLen = copy;
+                pos += copy;
+                try {
+                    flushPDataTF();
+                } finally {
+                    transferSrc = null;
+                    transferLen = 0;
+                }
+            } else {
+                read(src, position, copy);
+            }
+            position += copy;
+            remaining -= copy;
+        }
+    }
+
+    private void read(FileChannel src, long position, int len) throws IOException {
+        ByteBuffer bb = ByteBuffer.wrap(buf, pos, len);
+        while (bb.hasRemaining())
+            if (src.read(bb, position + bb.position() - pos) == -1)
+                throw new EOFException();
+        pos += len;
+    }
+
     private void checkThread() {
         if (th != Thread.currentThread())
             throw new IllegalStateException("Entered by wrong thread");
@@ -434,7 +489,8 @@ class PDUEncoder extends PDVOutputStream {
 
     public void writeDIMSE(PresentationContext pc, Attributes cmd,
             DataWriter dataWriter) throws IOException {
-        synchronized (dimseLock) {
+        dimseLock.lock();
+        try {
             int pcid = pc.getPCID();
             String tsuid = pc.getTransferSyntax();
             Dimse dimse = Dimse.valueOf(cmd.getInt(Tag.CommandField, -1));
@@ -479,6 +535,8 @@ class PDUEncoder extends PDVOutputStream {
             }
             as.writePDataTF();
             this.th = null;
+        } finally {
+            dimseLock.unlock();
         }
     }
 }
@@ -41,6 +41,8 @@ package org.dcm4che3.net;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 
 import org.dcm4che3.data.Attributes;
 
@@ -59,4 +61,17 @@ public abstract class PDVInputStream extends InputStream {
 
     public abstract long skipAll() throws IOException;
 
+    /**
+     * Copy the remaining PDV payload to the specified channel - e.g. a
+     * {@link java.nio.channels.FileChannel}. The default implementation
+     * copies to an output stream wrapping the channel; implementations may
+     * write received PDV payloads to the channel directly instead.
+     *
+     * @param ch target channel
+     * @throws IOException if an I/O error occurs
+     */
+    public void copyTo(WritableByteChannel ch) throws IOException {
+        copyTo(Channels.newOutputStream(ch));
+    }
+
 }
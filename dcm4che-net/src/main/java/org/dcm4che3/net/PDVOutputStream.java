@@ -38,9 +38,12 @@
 
 package org.dcm4che3.net;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -52,4 +55,29 @@ public abstract class PDVOutputStream extends OutputStream {
             throws IOException;
 
     public abstract void copyFrom(InputStream in) throws IOException;
+
+    /**
+     * Copy the specified region of a file. The default implementation reads
+     * the region into a temporary buffer; implementations may transfer it
+     * directly into the socket instead.
+     *
+     * @param src file channel
+     * @param position position of the first byte of the region in the file
+     * @param length length of the region
+     * @throws EOFException if the region exceeds the end of the file
+     */
+    public void copyFrom(FileChannel src, long position, long length)
+            throws IOException {
+        byte[] b = new byte[(int) Math.min(length, 8192)];
+        ByteBuffer bb = ByteBuffer.wrap(b);
+        while (length > 0) {
+            bb.clear().limit((int) Math.min(length, b.length));
+            int read = src.read(bb, position);
+            if (read == -1)
+                throw new EOFException();
+            write(b, 0, read);
+            position += read;
+            length -= read;
+        }
+    }
 }
@@ -38,6 +38,7 @@
 
 package org.dcm4che3.net;
 
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -56,14 +57,33 @@ public class Timeout implements Runnable {
     private final String expiredMsg;
     private final String cancelMsg;
     private final ScheduledFuture<?> future;
+    private final HashedWheelTimer.Task task;
+    private volatile boolean stopped;
     
     private Timeout(Association as, String expiredMsg, String cancelMsg,
             int timeout) {
         this.as = as;
         this.expiredMsg = expiredMsg;
         this.cancelMsg = cancelMsg;
-        this.future = as.getDevice()
-                .schedule(this, timeout, TimeUnit.MILLISECONDS);
+        final Device device = as.getDevice();
+        HashedWheelTimer timer = device.getTimeoutTimer();
+        if (timer != null) {
+            // do not block the worker thread of the timer by aborting the association
+            this.task = timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        device.execute(Timeout.this);
+                    } catch (IllegalStateException | RejectedExecutionException e) {
+                        Timeout.this.run();
+                    }
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+            this.future = null;
+        } else {
+            this.task = null;
+            this.future = device.schedule(this, timeout, TimeUnit.MILLISECONDS);
+        }
     }
 
     public static Timeout start(Association as, String startMsg, 
@@ -74,14 +94,24 @@ public class Timeout implements Runnable {
 
     public void stop() {
         LOG.debug(cancelMsg, as);
-        future.cancel(false);
+        stopped = true;
+        if (task != null)
+            task.cancel();
+        else
+            future.cancel(false);
     }
 
     @Override
     public void run() {
-        synchronized (as) {
+        as.lock();
+        try {
+            if (stopped)
+                return;
+
             LOG.info(expiredMsg, as);
             as.abort();
+        } finally {
+            as.unlock();
         }
     }
 
@@ -38,12 +38,19 @@
 
 package org.dcm4che3.net.service;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.dcm4che3.data.Attributes;
 import org.dcm4che3.data.Tag;
@@ -51,10 +58,12 @@ import org.dcm4che3.data.UID;
 import org.dcm4che3.data.VR;
 import org.dcm4che3.io.DicomInputStream;
 import org.dcm4che3.net.Association;
+import org.dcm4che3.net.AssociationPool;
 import org.dcm4che3.net.Commands;
 import org.dcm4che3.net.DataWriter;
 import org.dcm4che3.net.Dimse;
 import org.dcm4che3.net.DimseRSPHandler;
+import org.dcm4che3.net.FileDataWriter;
 import org.dcm4che3.net.InputStreamDataWriter;
 import org.dcm4che3.net.Status;
 import org.dcm4che3.net.pdu.PresentationContext;
@@ -76,10 +85,10 @@ public class BasicRetrieveTask<T extends InstanceLocator> implements RetrieveTas
     protected final Attributes rqCmd;
     protected final int msgId;
     protected final int priority;
-    protected int status = Status.Success;
-    protected boolean pendingRSP;
+    protected volatile int status = Status.Success;
+    protected volatile boolean pendingRSP;
     protected int pendingRSPInterval;
-    protected boolean canceled;
+    protected volatile boolean canceled;
     protected final List<T> insts;
     protected final List<T> completed;
     protected final List<T> warning;
@@ -87,6 +96,15 @@ public class BasicRetrieveTask<T extends InstanceLocator> implements RetrieveTas
     protected int outstandingRSP = 0;
     protected Object outstandingRSPLock = new Object();
 
+    private final List<Association> additionalStoreas = new ArrayList<Association>();
+    private final Map<Association, Integer> outstandingRSPByStoreas =
+            new IdentityHashMap<Association, Integer>();
+    private final Map<Association, Boolean> releasedStoreas =
+            Collections.synchronizedMap(new IdentityHashMap<Association, Boolean>());
+    private final Object statusLock = new Object();
+    private final ReentrantLock rspLock = new ReentrantLock();
+    private boolean finalRSPWritten;
+    private AssociationPool storeasPool;
     private ScheduledFuture<?> writePendingRSP;
 
 
@@ -104,9 +122,9 @@ public class BasicRetrieveTask<T extends InstanceLocator> implements RetrieveTas
         this.insts = insts;
         this.msgId = rqCmd.getInt(Tag.MessageID, -1);
         this.priority = rqCmd.getInt(Tag.Priority, 0);
-        this.completed = new ArrayList<T>(insts.size());
-        this.warning = new ArrayList<T>(insts.size());
-        this.failed = new ArrayList<T>(insts.size());
+        this.completed = Collections.synchronizedList(new ArrayList<T>(insts.size()));
+        this.warning = Collections.synchronizedList(new ArrayList<T>(insts.size()));
+        this.failed = Collections.synchronizedList(new ArrayList<T>(insts.size()));
     }
 
     public void setSendPendingRSP(boolean pendingRSP) {
@@ -137,6 +155,42 @@ public class BasicRetrieveTask<T extends InstanceLocator> implements RetrieveTas
         return storeas;
     }
 
+    /**
+     * Add another association to the C-MOVE destination, over which
+     * sub-operations are performed in parallel to the association passed to
+     * the constructor. The instances are not assigned in advance, but each
+     * association fetches the next instance as soon as it is ready to send
+     * it, so slower associations get fewer instances. An association which
+     * fails stops fetching instances, the remaining instances are sent over
+     * the other associations.
+     *
+     * @param storeas additional association to the C-MOVE destination
+     */
+    public void addStoreAssociation(Association storeas) {
+        if (!isCMove())
+            throw new IllegalStateException("C-GET sub-operations are performed on the request association");
+        additionalStoreas.add(storeas);
+    }
+
+    public List<Association> getAdditionalStoreAssociations() {
+        return additionalStoreas;
+    }
+
+    /**
+     * Set the pool from which the associations to the C-MOVE destination were
+     * leased, so they are returned to the pool on completion, instead of
+     * being released.
+     *
+     * @param storeasPool pool of associations to the C-MOVE destination
+     */
+    public void setStoreAssociationPool(AssociationPool storeasPool) {
+        this.storeasPool = storeasPool;
+    }
+
+    public AssociationPool getStoreAssociationPool() {
+        return storeasPool;
+    }
+
     public List<T> getCompleted() {
         return completed;
     }
@@ -160,45 +214,31 @@ public class BasicRetrieveTask<T extends InstanceLocator> implements RetrieveTas
         try {
             if (pendingRSPInterval > 0)
                 startWritePendingRSP();
-            for (Iterator<T> iter = insts.iterator(); iter.hasNext();) {
-                T inst = iter.next();
-                if (canceled) {
-                    status = Status.Cancel;
-                    break;
-                }
-                if (pendingRSP)
-                    writePendingRSP();
-                String tsuid;
-                DataWriter dataWriter;
-                try {
-                    tsuid = selectTransferSyntaxFor(storeas, inst);
-                    dataWriter = createDataWriter(inst, tsuid);
-                } catch (Exception e) {
-                    status = Status.OneOrMoreFailures;
-                    LOG.info("{}: Unable to retrieve {}/{} to {}", rqas,
-                            UID.nameOf(inst.cuid), UID.nameOf(inst.tsuid),
-                            storeas.getRemoteAET(), e);
-                    failed.add(inst);
-                    continue;
-                }
-                try {
-                    cstore(storeas, inst, tsuid, dataWriter);
-                } catch (Exception e) {
-                    status = Status.UnableToPerformSubOperations;
-                    LOG.warn("{}: Unable to perform sub-operation on association to {}",
-                            rqas, storeas.getRemoteAET(), e);
-                    failed.add(inst);
-                    while (iter.hasNext())
-                        failed.add(iter.next());
+            if (additionalStoreas.isEmpty()) {
+                for (Iterator<T> iter = insts.iterator(); iter.hasNext();) {
+                    T inst = iter.next();
+                    if (canceled) {
+                        updateStatus(Status.Cancel);
+                        break;
+                    }
+                    if (!retrieve(storeas, inst)) {
+                        updateStatus(Status.UnableToPerformSubOperations);
+                        while (iter.hasNext())
+                            failed.add(iter.next());
+                    }
                 }
+                waitForOutstandingCStoreRSP(storeas);
+                if (isCMove())
+                    releaseStoreAssociationOnce(storeas);
+            } else {
+                retrieveInParallel();
             }
-            waitForOutstandingCStoreRSP(storeas);
-            if (isCMove())
-                releaseStoreAssociation(storeas);
             stopWritePendingRSP();
             writeRSP(status);
         } finally {
+            stopWritePendingRSP();
             rqas.removeCancelRQHandler(msgId);
+            releaseStoreAssociations();
             try {
                 close();
             } catch (Throwable e) {
@@ -208,6 +248,126 @@ public class BasicRetrieveTask<T extends InstanceLocator> implements RetrieveTas
         }
     }
 
+    /**
+     * Perform the sub-operation for one instance.
+     *
+     * @return {@code false} if no further sub-operations can be performed on
+     *         the association
+     */
+    private boolean retrieve(Association storeas, T inst) {
+        if (pendingRSP)
+            writePendingRSP();
+        String tsuid;
+        DataWriter dataWriter;
+        try {
+            tsuid = selectTransferSyntaxFor(storeas, inst);
+            dataWriter = createDataWriter(inst, tsuid);
+        } catch (Exception e) {
+            updateStatus(Status.OneOrMoreFailures);
+            LOG.info("{}: Unable to retrieve {}/{} to {}", rqas,
+                    UID.nameOf(inst.cuid), UID.nameOf(inst.tsuid),
+                    storeas.getRemoteAET(), e);
+            failed.add(inst);
+            return true;
+        }
+        try {
+            cstore(storeas, inst, tsuid, dataWriter);
+            return true;
+        } catch (Exception e) {
+            updateStatus(Status.OneOrMoreFailures);
+            LOG.warn("{}: Unable to perform sub-operation on association to {}",
+                    rqas, storeas.getRemoteAET(), e);
+            synchronized (failed) {
+                // may be already reported as failed by onClose() of the RSP handler
+                if (!failed.contains(inst))
+                    failed.add(inst);
+            }
+            return false;
+        }
+    }
+
+    private void retrieveInParallel() {
+        final Iterator<T> iter = insts.iterator();
+        final CountDownLatch done = new CountDownLatch(additionalStoreas.size());
+        for (final Association as : additionalStoreas) {
+            try {
+                rqas.getApplicationEntity().getDevice().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            retrieveOver(as, iter);
+                        } finally {
+                            done.countDown();
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                LOG.warn("{}: Unable to perform sub-operations on association to {}",
+                        rqas, as.getRemoteAET(), e);
+                releaseStoreAssociationOnce(as);
+                done.countDown();
+            }
+        }
+        retrieveOver(storeas, iter);
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            LOG.warn("{}: failed to wait for completion of sub-operations", rqas, e);
+        }
+        if (!canceled) {
+            T inst;
+            while ((inst = next(iter)) != null) {
+                updateStatus(Status.UnableToPerformSubOperations);
+                failed.add(inst);
+            }
+        }
+    }
+
+    private void retrieveOver(Association storeas, Iterator<T> iter) {
+        T inst;
+        while ((inst = next(iter)) != null) {
+            if (canceled) {
+                updateStatus(Status.Cancel);
+                break;
+            }
+            if (!retrieve(storeas, inst))
+                break;
+        }
+        waitForOutstandingCStoreRSP(storeas);
+        releaseStoreAssociationOnce(storeas);
+    }
+
+    /**
+     * Update the status, unless it already indicates a more severe outcome,
+     * so concurrently performed sub-operations do not override each other's
+     * status.
+     */
+    private void updateStatus(int newStatus) {
+        synchronized (statusLock) {
+            if (severityOf(newStatus) > severityOf(status))
+                status = newStatus;
+        }
+    }
+
+    private static int severityOf(int status) {
+        switch (status) {
+            case Status.Success:
+                return 0;
+            case Status.OneOrMoreFailures:
+                return 1;
+            case Status.Cancel:
+                return 2;
+            default:
+                return 3;
+        }
+    }
+
+    private static <T> T next(Iterator<T> iter) {
+        synchronized (iter) {
+            return iter.hasNext() ? iter.next() : null;
+        }
+    }
+
     private void startWritePendingRSP() {
         writePendingRSP = rqas.getApplicationEntity().getDevice()
                 .scheduleAtFixedRate(
@@ -228,7 +388,7 @@ public class BasicRetrieveTask<T extends InstanceLocator> implements RetrieveTas
     private void waitForOutstandingCStoreRSP(Association storeas) {
         try {
             synchronized (outstandingRSPLock) {
-                while (outstandingRSP > 0)
+                while (outstandingRSPByStoreas.containsKey(storeas))
                     outstandingRSPLock.wait();
             }
         } catch (InterruptedException e) {
@@ -237,7 +397,48 @@ public class BasicRetrieveTask<T extends InstanceLocator> implements RetrieveTas
         }
     }
 
+    private void onCStoreRQ(Association storeas) {
+        synchronized (outstandingRSPLock) {
+            outstandingRSP++;
+            Integer count = outstandingRSPByStoreas.get(storeas);
+            outstandingRSPByStoreas.put(storeas, count == null ? 1 : count + 1);
+        }
+    }
+
+    private void onCStoreRSP(Association storeas) {
+        synchronized (outstandingRSPLock) {
+            outstandingRSP--;
+            Integer count = outstandingRSPByStoreas.remove(storeas);
+            if (count != null && count > 1)
+                outstandingRSPByStoreas.put(storeas, count - 1);
+            outstandingRSPLock.notifyAll();
+        }
+    }
+
+    /**
+     * Release associations to the C-MOVE destination which were not released
+     * after performing sub-operations, because the task was canceled or
+     * failed before or while performing them.
+     */
+    private void releaseStoreAssociations() {
+        if (!isCMove())
+            return;
+
+        releaseStoreAssociationOnce(storeas);
+        for (Association as : additionalStoreas)
+            releaseStoreAssociationOnce(as);
+    }
+
+    private void releaseStoreAssociationOnce(Association storeas) {
+        if (releasedStoreas.put(storeas, Boolean.TRUE) == null)
+            releaseStoreAssociation(storeas);
+    }
+
     protected void releaseStoreAssociation(Association storeas) {
+        if (storeasPool != null) {
+            storeasPool.release(storeas);
+            return;
+        }
         try {
             if (storeas.isReadyForDataTransfer())
                 storeas.release();
@@ -249,32 +450,44 @@ public class BasicRetrieveTask<T extends InstanceLocator> implements RetrieveTas
 
     protected void cstore(Association storeas, T inst, String tsuid, 
             DataWriter dataWriter) throws IOException, InterruptedException {
-        DimseRSPHandler rspHandler =
+        CStoreRSPHandler rspHandler =
                 new CStoreRSPHandler(storeas.nextMessageID(), inst);
-        if (isCMove())
-            storeas.cstore(inst.cuid, inst.iuid, priority,
-                    rqas.getRemoteAET(), msgId,
-                    dataWriter, tsuid, rspHandler);
-        else
-            storeas.cstore(inst.cuid, inst.iuid, priority,
-                    dataWriter, tsuid, rspHandler);
-        synchronized (outstandingRSPLock) {
-            outstandingRSP++;
+        onCStoreRQ(storeas);
+        try {
+            if (isCMove())
+                storeas.cstore(inst.cuid, inst.iuid, priority,
+                        rqas.getRemoteAET(), msgId,
+                        dataWriter, tsuid, rspHandler);
+            else
+                storeas.cstore(inst.cuid, inst.iuid, priority,
+                        dataWriter, tsuid, rspHandler);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            if (rspHandler.complete())
+                onCStoreRSP(storeas);
+            throw e;
         }
     }
 
     private final class CStoreRSPHandler extends DimseRSPHandler {
 
         private final T inst;
+        private final AtomicBoolean done = new AtomicBoolean();
 
         public CStoreRSPHandler(int msgId, T inst) {
             super(msgId);
             this.inst = inst;
         }
 
+        boolean complete() {
+            return done.compareAndSet(false, true);
+        }
+
         @Override
         public void onDimseRSP(Association as, Attributes cmd, Attributes data) {
             super.onDimseRSP(as, cmd, data);
+            if (!complete())
+                return;
+
             int storeStatus = cmd.getInt(Tag.Status, -1);
             if (storeStatus == Status.Success)
                 completed.add(inst);
@@ -282,22 +495,20 @@ public class BasicRetrieveTask<T extends InstanceLocator> implements RetrieveTas
                 warning.add(inst);
             else {
                 failed.add(inst);
-                if (status == Status.Success)
-                    status = Status.OneOrMoreFailures;
-            }
-            synchronized (outstandingRSPLock) {
-                if (--outstandingRSP == 0)
-                    outstandingRSPLock.notify();
+                updateStatus(Status.OneOrMoreFailures);
             }
+            onCStoreRSP(as);
         }
 
         @Override
         public void onClose(Association as) {
             super.onClose(as);
-            synchronized (outstandingRSPLock) {
-                outstandingRSP = 0;
-                outstandingRSPLock.notify();
-            }
+            if (!complete())
+                return;
+
+            failed.add(inst);
+            updateStatus(Status.OneOrMoreFailures);
+            onCStoreRSP(as);
         }
     }
 
@@ -307,32 +518,89 @@ public class BasicRetrieveTask<T extends InstanceLocator> implements RetrieveTas
     }
 
     protected DataWriter createDataWriter(T inst, String tsuid) throws Exception {
-        DicomInputStream in = new DicomInputStream(inst.getFile());
+        File file = inst.getFile();
+        DicomInputStream in = new DicomInputStream(file);
         in.readFileMetaInformation();
-        return new InputStreamDataWriter(in);
+        if (isDeflated(in.getTransferSyntax()))
+            return new InputStreamDataWriter(in);
+
+        long fmiEndPos = in.getPosition();
+        in.close();
+        return new FileDataWriter(file, fmiEndPos, file.length() - fmiEndPos);
+    }
+
+    private static boolean isDeflated(String tsuid) {
+        return tsuid.equals(UID.DeflatedExplicitVRLittleEndian)
+                || tsuid.equals(UID.JPIPReferencedDeflate);
     }
 
+    /**
+     * Write a pending RSP, unless another RSP is currently written - by the
+     * periodic task or by another association performing sub-operations -
+     * or the final RSP was already written.
+     */
     public void writePendingRSP() {
-        writeRSP(Status.Pending);
+        if (!rspLock.tryLock())
+            return;
+        try {
+            if (!finalRSPWritten)
+                writeRSP(mkRSP(Status.Pending), null);
+        } finally {
+            rspLock.unlock();
+        }
     }
 
     private void writeRSP(int status) {
+        rspLock.lock();
+        try {
+            finalRSPWritten = true;
+            Attributes cmd = mkRSP(status);
+            Attributes data = null;
+            String[] iuids = failedIUIDs();
+            if (iuids.length > 0) {
+                data = new Attributes(1);
+                data.setString(Tag.FailedSOPInstanceUIDList, VR.UI, iuids);
+            }
+            writeRSP(cmd, data);
+        } finally {
+            rspLock.unlock();
+        }
+    }
+
+    /**
+     * Create the RSP with the numbers of sub-operations counted while the
+     * lists of completed, warning and failed instances are locked, so an
+     * instance moved between them meanwhile is counted exactly once.
+     */
+    private Attributes mkRSP(int status) {
         Attributes cmd = Commands.mkRSP(rqCmd, status, rq);
+        int numCompleted, numWarning, numFailed;
+        synchronized (completed) {
+            synchronized (warning) {
+                synchronized (failed) {
+                    numCompleted = completed.size();
+                    numWarning = warning.size();
+                    numFailed = failed.size();
+                }
+            }
+        }
         if (status == Status.Pending || status == Status.Cancel)
-            cmd.setInt(Tag.NumberOfRemainingSuboperations, VR.US, remaining());
-        cmd.setInt(Tag.NumberOfCompletedSuboperations, VR.US, completed.size());
-        cmd.setInt(Tag.NumberOfFailedSuboperations, VR.US, failed.size());
-        cmd.setInt(Tag.NumberOfWarningSuboperations, VR.US, warning.size());
-        Attributes data = null;
-        if (!failed.isEmpty() && status != Status.Pending) {
-            data = new Attributes(1);
+            cmd.setInt(Tag.NumberOfRemainingSuboperations, VR.US,
+                    insts.size() - numCompleted - numWarning - numFailed);
+        cmd.setInt(Tag.NumberOfCompletedSuboperations, VR.US, numCompleted);
+        cmd.setInt(Tag.NumberOfFailedSuboperations, VR.US, numFailed);
+        cmd.setInt(Tag.NumberOfWarningSuboperations, VR.US, numWarning);
+        return cmd;
+    }
+
+    private String[] failedIUIDs() {
+        synchronized (failed) {
             String[] iuids = new String[failed.size()];
             for (int i = 0; i < iuids.length; i++) {
                 iuids[i] = failed.get(i).iuid;
             }
-            data.setString(Tag.FailedSOPInstanceUIDList, VR.UI, iuids);
+            return iuids;
         }
-        writeRSP(cmd, data);
     }
 
     private void writeRSP(Attributes cmd, Attributes data) {
@@ -346,10 +614,6 @@ public class BasicRetrieveTask<T extends InstanceLocator> implements RetrieveTas
         }
     }
 
-    private int remaining() {
-        return insts.size() - completed.size() - warning.size() - failed.size();
-    }
-
     protected void close() {
     }
 
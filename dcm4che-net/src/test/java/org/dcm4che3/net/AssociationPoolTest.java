@@ -0,0 +1,211 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.net;
+
+import static org.dcm4che3.net.TestDevices.aarq;
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.dcm4che3.net.TestDevices.createDevice;
+import static org.dcm4che3.net.TestDevices.createSCP;
+import static org.dcm4che3.net.TestDevices.status;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.dcm4che3.data.UID;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.ExtendedNegotiation;
+import org.dcm4che3.net.pdu.UserIdentityRQ;
+import org.dcm4che3.net.service.BasicCEchoSCP;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link AssociationPool}.
+ */
+public class AssociationPoolTest {
+
+    private static ExecutorService executor;
+    private static ScheduledExecutorService scheduledExecutor;
+    private static Device acceptor;
+    private static Device requestor;
+    private AssociationPool pool;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        requestor = createDevice("REQUESTOR", 0, executor, scheduledExecutor);
+        acceptor = createSCP("ACCEPTOR", TestPorts.freePort(), executor, scheduledExecutor,
+                new BasicCEchoSCP(), UID.Verification,
+                UID.ImplicitVRLittleEndian, UID.ExplicitVRLittleEndian);
+        acceptor.bindConnections();
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        acceptor.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    @Before
+    public void setUp() {
+        pool = new AssociationPool(aeOf(requestor));
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test(timeout = 5000)
+    public void reuseReleasedAssociation() throws Exception {
+        Association as1 = pool.lease(aeOf(acceptor), echoRQ(UID.ImplicitVRLittleEndian));
+        assertEquals(Status.Success, status(as1.cecho()));
+        pool.release(as1);
+        assertEquals(1, pool.getNumberOfIdleAssociations());
+        Association as2 = pool.lease(aeOf(acceptor), echoRQ(UID.ImplicitVRLittleEndian));
+        assertSame(as1, as2);
+        assertEquals(Status.Success, status(as2.cecho()));
+        pool.release(as2);
+    }
+
+    @Test(timeout = 5000)
+    public void differentPresentationContexts() throws Exception {
+        Association as1 = pool.lease(aeOf(acceptor), echoRQ(UID.ImplicitVRLittleEndian));
+        pool.release(as1);
+        Association as2 = pool.lease(aeOf(acceptor), echoRQ(UID.ExplicitVRLittleEndian));
+        assertNotSame(as1, as2);
+        assertEquals(1, pool.getNumberOfIdleAssociations());
+        pool.release(as2);
+        assertEquals(2, pool.getNumberOfIdleAssociations());
+    }
+
+    @Test(timeout = 5000)
+    public void differentUserIdentity() throws Exception {
+        AAssociateRQ rq1 = echoRQ(UID.ImplicitVRLittleEndian);
+        rq1.setUserIdentityRQ(UserIdentityRQ.username("user1", false));
+        Association as1 = pool.lease(aeOf(acceptor), rq1);
+        pool.release(as1);
+        AAssociateRQ rq2 = echoRQ(UID.ImplicitVRLittleEndian);
+        rq2.setUserIdentityRQ(UserIdentityRQ.username("user2", false));
+        Association as2 = pool.lease(aeOf(acceptor), rq2);
+        assertNotSame(as1, as2);
+        pool.release(as2);
+        AAssociateRQ rq3 = echoRQ(UID.ImplicitVRLittleEndian);
+        rq3.setUserIdentityRQ(UserIdentityRQ.username("user1", false));
+        assertSame(as1, pool.lease(aeOf(acceptor), rq3));
+        pool.release(as1);
+    }
+
+    @Test(timeout = 5000)
+    public void differentExtendedNegotiation() throws Exception {
+        Association as1 = pool.lease(aeOf(acceptor), echoRQ(UID.ImplicitVRLittleEndian));
+        pool.release(as1);
+        AAssociateRQ rq = echoRQ(UID.ImplicitVRLittleEndian);
+        rq.addExtendedNegotiation(new ExtendedNegotiation(UID.Verification, new byte[] { 1 }));
+        Association as2 = pool.lease(aeOf(acceptor), rq);
+        assertNotSame(as1, as2);
+        pool.release(as2);
+    }
+
+    @Test(timeout = 5000)
+    public void evictClosedAssociation() throws Exception {
+        Association as1 = pool.lease(aeOf(acceptor), echoRQ(UID.ImplicitVRLittleEndian));
+        pool.release(as1);
+        as1.abort();
+        while (pool.getNumberOfIdleAssociations() > 0)
+            Thread.sleep(10);
+        Association as2 = pool.lease(aeOf(acceptor), echoRQ(UID.ImplicitVRLittleEndian));
+        assertNotSame(as1, as2);
+        assertTrue(as2.isReadyForDataTransfer());
+        pool.release(as2);
+    }
+
+    @Test(timeout = 5000)
+    public void evictExpiredAssociation() throws Exception {
+        pool.setMaxIdleTime(1);
+        Association as = pool.lease(aeOf(acceptor), echoRQ(UID.ImplicitVRLittleEndian));
+        pool.release(as);
+        Thread.sleep(10);
+        pool.evictIdleAssociations();
+        assertEquals(0, pool.getNumberOfIdleAssociations());
+        as.waitForSocketClose();
+        assertFalse(as.isReadyForDataTransfer());
+    }
+
+    @Test(timeout = 5000)
+    public void blockOnMaxPerDestination() throws Exception {
+        pool.setMaxPerDestination(1);
+        final Association as1 = pool.lease(aeOf(acceptor), echoRQ(UID.ImplicitVRLittleEndian));
+        Future<Association> future = executor.submit(new Callable<Association>() {
+            @Override
+            public Association call() throws Exception {
+                return pool.lease(aeOf(acceptor), echoRQ(UID.ImplicitVRLittleEndian));
+            }
+        });
+        try {
+            future.get(200, TimeUnit.MILLISECONDS);
+            throw new AssertionError("lease not blocked");
+        } catch (TimeoutException expected) {
+        }
+        assertEquals(1, pool.getNumberOfLeasedAssociations());
+        pool.release(as1);
+        assertSame(as1, future.get());
+        pool.release(as1);
+    }
+
+    private static AAssociateRQ echoRQ(String tsuid) {
+        return aarq(UID.Verification, tsuid);
+    }
+
+}
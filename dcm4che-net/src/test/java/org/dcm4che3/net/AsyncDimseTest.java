@@ -0,0 +1,230 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.net;
+
+import static org.dcm4che3.net.TestDevices.aarq;
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.dcm4che3.net.TestDevices.createDevice;
+import static org.dcm4che3.net.TestDevices.createSCP;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.net.pdu.AAbort;
+import org.dcm4che3.net.service.BasicCEchoSCP;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Unit tests for the asynchronous DIMSE API of {@link Association}.
+ */
+public class AsyncDimseTest {
+
+    private static ExecutorService executor;
+    private static ScheduledExecutorService scheduledExecutor;
+    private static Device acceptor;
+    private static Device requestor;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        requestor = createDevice("REQUESTOR", 0, executor, scheduledExecutor);
+        requestor.setTimeoutTimer(new HashedWheelTimer());
+        requestor.listConnections().get(0).setResponseTimeout(5000);
+        acceptor = createSCP("ACCEPTOR", TestPorts.freePort(), executor, scheduledExecutor,
+                new BasicCEchoSCP(), UID.Verification, UID.ImplicitVRLittleEndian);
+        acceptor.listConnections().get(0).setMaxOpsPerformed(0);
+        acceptor.bindConnections();
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        acceptor.unbindConnections();
+        requestor.getTimeoutTimer().stop();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    @Test(timeout = 10000)
+    public void synchronousMode() throws Exception {
+        pipelineCEcho(Connection.SYNCHRONOUS_MODE);
+    }
+
+    @Test(timeout = 10000)
+    public void windowOfTen() throws Exception {
+        pipelineCEcho(10);
+    }
+
+    @Test(timeout = 10000)
+    public void concurrentInvokesWithinWindow() throws Exception {
+        final Association as = connect(4);
+        List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+        for (int i = 0; i < 16; i++)
+            results.add(executor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    int success = 0;
+                    for (int j = 0; j < 20; j++) {
+                        DimseRSP rsp = as.cecho();
+                        rsp.next();
+                        if (rsp.getCommand().getInt(Tag.Status, -1) == Status.Success)
+                            success++;
+                    }
+                    return success;
+                }
+            }));
+        for (Future<Integer> result : results)
+            assertEquals(20, result.get().intValue());
+        assertTrue(as.getMaxNumberOfOutstandingRSP() <= 4);
+        assertEquals(0, as.getNumberOfOutstandingRSP());
+        as.release();
+        as.waitForSocketClose();
+    }
+
+    @Test(timeout = 10000)
+    public void syncAndAsyncShareWindow() throws Exception {
+        final Association as = connect(3);
+        Future<Integer> sync = executor.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                int success = 0;
+                for (int j = 0; j < 50; j++) {
+                    DimseRSP rsp = as.cecho();
+                    rsp.next();
+                    if (rsp.getCommand().getInt(Tag.Status, -1) == Status.Success)
+                        success++;
+                }
+                return success;
+            }
+        });
+        List<CompletableFuture<DimseRSP>> futures = new ArrayList<CompletableFuture<DimseRSP>>();
+        for (int i = 0; i < 50; i++)
+            futures.add(as.cechoAsync());
+        for (CompletableFuture<DimseRSP> future : futures) {
+            DimseRSP rsp = future.get();
+            assertTrue(rsp.next());
+            assertEquals(Status.Success, rsp.getCommand().getInt(Tag.Status, -1));
+        }
+        assertEquals(50, sync.get().intValue());
+        assertTrue(as.getMaxNumberOfOutstandingRSP() <= 3);
+        assertEquals(0, as.getNumberOfOutstandingRSP());
+        as.release();
+        as.waitForSocketClose();
+    }
+
+    @Test(timeout = 10000)
+    public void failOnClosedAssociation() throws Exception {
+        Association as = connect(Connection.SYNCHRONOUS_MODE);
+        as.release();
+        as.waitForSocketClose();
+        try {
+            as.cechoAsync().get();
+            throw new AssertionError("C-ECHO on released association succeeded");
+        } catch (ExecutionException expected) {
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void abortOnIdleTimeoutByExecutor() throws Exception {
+        Device device = createDevice("IDLE_REQUESTOR", 0, executor, scheduledExecutor);
+        final AtomicInteger expired = new AtomicInteger();
+        device.setExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                if (command instanceof Timeout)
+                    expired.incrementAndGet();
+                executor.execute(command);
+            }
+        });
+        HashedWheelTimer timer = new HashedWheelTimer();
+        device.setTimeoutTimer(timer);
+        try {
+            ApplicationEntity ae = aeOf(device);
+            ae.getConnections().get(0).setIdleTimeout(100);
+            Association as = ae.connect(aeOf(acceptor),
+                    aarq(UID.Verification, UID.ImplicitVRLittleEndian));
+            try {
+                as.waitForSocketClose();
+                throw new AssertionError("association not aborted");
+            } catch (AAbort expected) {
+            }
+            assertEquals(1, expired.get());
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private void pipelineCEcho(int maxOpsInvoked) throws Exception {
+        Association as = connect(maxOpsInvoked);
+        List<CompletableFuture<DimseRSP>> futures = new ArrayList<CompletableFuture<DimseRSP>>();
+        for (int i = 0; i < 100; i++)
+            futures.add(as.cechoAsync());
+        for (CompletableFuture<DimseRSP> future : futures) {
+            DimseRSP rsp = future.get();
+            assertTrue(rsp.next());
+            assertEquals(Status.Success, rsp.getCommand().getInt(Tag.Status, -1));
+        }
+        assertTrue(as.getMaxNumberOfOutstandingRSP() <= maxOpsInvoked);
+        assertEquals(0, requestor.getTimeoutTimer().getNumberOfPendingTasks());
+        as.release();
+        as.waitForSocketClose();
+    }
+
+    private static Association connect(int maxOpsInvoked) throws Exception {
+        ApplicationEntity ae = aeOf(requestor);
+        ae.getConnections().get(0).setMaxOpsInvoked(maxOpsInvoked);
+        return ae.connect(aeOf(acceptor), aarq(UID.Verification, UID.ImplicitVRLittleEndian));
+    }
+
+}
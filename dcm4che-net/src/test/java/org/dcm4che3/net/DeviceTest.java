@@ -39,7 +39,12 @@ package org.dcm4che3.net;
 
 import static org.junit.Assert.*;
 
+import java.lang.reflect.Method;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.dcm4che3.net.ApplicationEntity;
 import org.dcm4che3.net.Connection;
@@ -66,6 +71,85 @@ public class DeviceTest {
         assertEquals(1, conns.size());
     }
 
+    @Test
+    public void testNewExecutorService() throws Exception {
+        ExecutorService platform = Device.newExecutorService(false);
+        try {
+            assertTrue(platform instanceof ThreadPoolExecutor);
+            assertFalse(runsOnVirtualThread(platform));
+        } finally {
+            platform.shutdown();
+        }
+        ExecutorService executor = Device.newExecutorService(true);
+        try {
+            assertEquals(Device.isVirtualThreadsSupported(), runsOnVirtualThread(executor));
+            if (!Device.isVirtualThreadsSupported())
+                assertTrue(executor instanceof ThreadPoolExecutor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDeviceServiceUsesVirtualThreads() throws Exception {
+        Device device = new Device("test");
+        device.setVirtualThreads(true);
+        DeviceService service = new DeviceService();
+        service.setDevice(device);
+        service.start();
+        try {
+            assertEquals(Device.isVirtualThreadsSupported(),
+                    runsOnVirtualThread((ExecutorService) device.getExecutor()));
+        } finally {
+            service.stop();
+        }
+    }
+
+    @Test
+    public void testDeviceServiceStopsTimeoutTimer() throws Exception {
+        Device device = new Device("test");
+        DeviceService service = new DeviceService() {
+            @Override
+            protected HashedWheelTimer timeoutTimer() {
+                return new HashedWheelTimer();
+            }
+        };
+        service.setDevice(device);
+        service.start();
+        HashedWheelTimer timer = device.getTimeoutTimer();
+        assertNotNull(timer);
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, 1, TimeUnit.HOURS);
+        service.stop();
+        try {
+            timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }, 1, TimeUnit.HOURS);
+            fail("timer not stopped");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    private static boolean runsOnVirtualThread(ExecutorService executor) throws Exception {
+        return executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                Method isVirtual;
+                try {
+                    isVirtual = Thread.class.getMethod("isVirtual");
+                } catch (NoSuchMethodException e) {
+                    return false;
+                }
+                return (Boolean) isVirtual.invoke(Thread.currentThread());
+            }
+        }).get();
+    }
+
     private Device createDevice(String name, String aet) {
         Device dev = new Device(name);
         Connection conn = new Connection("dicom", "localhost", 11112);
@@ -0,0 +1,229 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.net;
+
+import static org.dcm4che3.net.TestDevices.aarq;
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.dcm4che3.net.TestDevices.createSCP;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.dcm4che3.net.pdu.RoleSelection;
+import org.dcm4che3.net.service.BasicCStoreSCP;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link FileDataWriter}, sending the file from the acceptor
+ * by C-STORE sub-operations of a C-GET, over the non-blocking transport -
+ * using zero-copy transfer - and over the blocking transport, sending the
+ * file from the requestor by a C-STORE, and for
+ * {@link PDVInputStream#copyTo(java.nio.channels.WritableByteChannel)}.
+ */
+public class FileDataWriterTest {
+
+    private static final int OFFSET = 132;
+    private static final int LENGTH = 100000;
+
+    private static ExecutorService executor;
+    private static ScheduledExecutorService scheduledExecutor;
+    private static Device nioAcceptor;
+    private static Device acceptor;
+    private static Device storescp;
+    private static Device requestor;
+    private static File file;
+    private static byte[] content;
+    private static final ByteArrayOutputStream received = new ByteArrayOutputStream();
+    private static volatile boolean copyToChannel;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        content = new byte[OFFSET + LENGTH + 10];
+        new Random(42).nextBytes(content);
+        file = File.createTempFile("FileDataWriterTest", ".dcm");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(content);
+        }
+        DimseRQHandler storeSCP = new BasicCStoreSCP() {
+            @Override
+            protected void store(Association as, PresentationContext pc, Attributes rq,
+                    PDVInputStream data, Attributes rsp) throws IOException {
+                if (copyToChannel)
+                    data.copyTo(Channels.newChannel(received));
+                else
+                    data.copyTo(received);
+            }
+        };
+        requestor = createSCP("REQUESTOR", 0, executor, scheduledExecutor, storeSCP,
+                UID.SecondaryCaptureImageStorage, UID.ImplicitVRLittleEndian);
+        nioAcceptor = createGetSCP("NIO_ACCEPTOR", TestPorts.freePort());
+        nioAcceptor.listConnections().get(0).setNonBlockingIO(true);
+        nioAcceptor.bindConnections();
+        acceptor = createGetSCP("ACCEPTOR", TestPorts.freePort());
+        acceptor.bindConnections();
+        storescp = createSCP("STORESCP", TestPorts.freePort(), executor, scheduledExecutor,
+                storeSCP, UID.SecondaryCaptureImageStorage, UID.ImplicitVRLittleEndian);
+        storescp.bindConnections();
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        nioAcceptor.unbindConnections();
+        acceptor.unbindConnections();
+        storescp.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+        file.delete();
+    }
+
+    private static Device createGetSCP(String aet, int port) {
+        Device device = createSCP(aet, port, executor, scheduledExecutor, new GetSCP(),
+                UID.StudyRootQueryRetrieveInformationModelGet, UID.ImplicitVRLittleEndian);
+        aeOf(device).addTransferCapability(new TransferCapability(null,
+                UID.SecondaryCaptureImageStorage, TransferCapability.Role.SCU,
+                UID.ImplicitVRLittleEndian));
+        return device;
+    }
+
+    @Test(timeout = 10000)
+    public void zeroCopy() throws Exception {
+        get(nioAcceptor);
+    }
+
+    @Test(timeout = 10000)
+    public void copy() throws Exception {
+        get(acceptor);
+    }
+
+    @Test(timeout = 10000)
+    public void copyToChannel() throws Exception {
+        copyToChannel = true;
+        try {
+            get(acceptor);
+        } finally {
+            copyToChannel = false;
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void zeroCopyFromRequestor() throws Exception {
+        Association as = aeOf(requestor).connect(aeOf(storescp),
+                aarq(UID.SecondaryCaptureImageStorage, UID.ImplicitVRLittleEndian));
+        assertTrue(as.isZeroCopy());
+        received.reset();
+        DimseRSP rsp = as.cstore(UID.SecondaryCaptureImageStorage, "1.2.3",
+                Priority.NORMAL, new FileDataWriter(file, OFFSET, LENGTH),
+                UID.ImplicitVRLittleEndian);
+        rsp.next();
+        as.release();
+        as.waitForSocketClose();
+        assertEquals(Status.Success, rsp.getCommand().getInt(Tag.Status, -1));
+        byte[] expected = new byte[LENGTH];
+        System.arraycopy(content, OFFSET, expected, 0, LENGTH);
+        assertArrayEquals(expected, received.toByteArray());
+    }
+
+    private void get(Device acceptor) throws Exception {
+        AAssociateRQ rq = aarq(UID.StudyRootQueryRetrieveInformationModelGet,
+                UID.ImplicitVRLittleEndian);
+        rq.addPresentationContextFor(UID.SecondaryCaptureImageStorage,
+                UID.ImplicitVRLittleEndian);
+        rq.addRoleSelection(new RoleSelection(UID.SecondaryCaptureImageStorage, false, true));
+        Association as = aeOf(requestor).connect(aeOf(acceptor), rq);
+        received.reset();
+        DimseRSP rsp = as.cget(UID.StudyRootQueryRetrieveInformationModelGet, Priority.NORMAL,
+                new Attributes(), UID.ImplicitVRLittleEndian);
+        while (rsp.next());
+        as.release();
+        as.waitForSocketClose();
+        assertEquals(Status.Success, rsp.getCommand().getInt(Tag.Status, -1));
+        byte[] expected = new byte[LENGTH];
+        System.arraycopy(content, OFFSET, expected, 0, LENGTH);
+        assertArrayEquals(expected, received.toByteArray());
+    }
+
+    private static class GetSCP implements DimseRQHandler {
+
+        @Override
+        public void onDimseRQ(final Association as, final PresentationContext pc, Dimse dimse,
+                final Attributes cmd, PDVInputStream data) throws IOException {
+            data.readDataset(pc.getTransferSyntax());
+            as.getApplicationEntity().getDevice().execute(new Runnable() {
+                @Override
+                public void run() {
+                    int status = Status.Success;
+                    try {
+                        DimseRSP storeRSP = as.cstore(UID.SecondaryCaptureImageStorage, "1.2.3",
+                                Priority.NORMAL, new FileDataWriter(file, OFFSET, LENGTH),
+                                UID.ImplicitVRLittleEndian);
+                        storeRSP.next();
+                        status = storeRSP.getCommand().getInt(Tag.Status, -1);
+                    } catch (Exception e) {
+                        status = Status.UnableToPerformSubOperations;
+                    }
+                    as.tryWriteDimseRSP(pc, Commands.mkCGetRSP(cmd, status));
+                }
+            });
+        }
+
+        @Override
+        public void onClose(Association as) {
+        }
+    }
+
+}
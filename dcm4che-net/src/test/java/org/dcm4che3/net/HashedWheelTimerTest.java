@@ -0,0 +1,140 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link HashedWheelTimer}.
+ */
+public class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @Before
+    public void setUp() {
+        timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 8);
+    }
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void ticksPerWheelRoundedToPowerOf2() {
+        assertEquals(8, timer.getTicksPerWheel());
+        assertEquals(16, new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 9).getTicksPerWheel());
+    }
+
+    @Test(timeout = 5000)
+    public void expireAfterDelay() throws Exception {
+        final CountDownLatch expired = new CountDownLatch(1);
+        long start = System.nanoTime();
+        HashedWheelTimer.Task task = timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                expired.countDown();
+            }
+        }, 100, TimeUnit.MILLISECONDS);
+        expired.await();
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(task.isExpired());
+        assertFalse(task.cancel());
+        assertEquals(0, timer.getNumberOfPendingTasks());
+    }
+
+    @Test(timeout = 5000)
+    public void expireAfterMultipleRounds() throws Exception {
+        final CountDownLatch expired = new CountDownLatch(1);
+        long start = System.nanoTime();
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                expired.countDown();
+            }
+        }, 200, TimeUnit.MILLISECONDS);
+        expired.await();
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test(timeout = 5000)
+    public void cancel() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        Runnable increment = new Runnable() {
+            @Override
+            public void run() {
+                count.incrementAndGet();
+            }
+        };
+        List<HashedWheelTimer.Task> tasks = new ArrayList<HashedWheelTimer.Task>();
+        for (int i = 0; i < 1000; i++)
+            tasks.add(timer.schedule(increment, 50 + i % 100, TimeUnit.MILLISECONDS));
+        for (int i = 0; i < 1000; i += 2)
+            assertTrue(tasks.get(i).cancel());
+        assertEquals(500, timer.getNumberOfPendingTasks());
+        while (timer.getNumberOfPendingTasks() > 0)
+            Thread.sleep(10);
+        assertEquals(500, count.get());
+        for (int i = 0; i < 1000; i++)
+            assertEquals(i % 2 == 0, tasks.get(i).isCancelled());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void scheduleAfterStop() {
+        timer.stop();
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, 1, TimeUnit.MILLISECONDS);
+    }
+}
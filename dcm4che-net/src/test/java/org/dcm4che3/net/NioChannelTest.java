@@ -0,0 +1,125 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.dcm4che3.util.SafeClose;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the receive buffer of {@link NioChannel}.
+ */
+public class NioChannelTest {
+
+    private static final int PDU_LENGTH = 60000;
+
+    private ExecutorService executor;
+    private NioEventLoop loop;
+    private ServerSocketChannel ssc;
+    private SocketChannel client;
+    private NioChannel channel;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        loop = new NioEventLoop("NioChannelTest");
+        executor.execute(loop);
+        ssc = ServerSocketChannel.open();
+        ssc.bind(new InetSocketAddress("localhost", 0));
+        client = SocketChannel.open(ssc.getLocalAddress());
+        channel = new NioChannel(loop, ssc.accept());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        channel.close();
+        SafeClose.close(client);
+        SafeClose.close(ssc);
+        loop.shutdown();
+        executor.shutdown();
+    }
+
+    @Test(timeout = 5000)
+    public void growToNegotiatedSizeAndShrinkWhenIdle() throws Exception {
+        assertEquals(0x4000, channel.receiveBufferSize());
+        channel.setReceivePDULength(0x10000);
+        final CountDownLatch received = new CountDownLatch(1);
+        final InputStream in = channel.getInputStream();
+        Device device = new Device("NioChannelTest");
+        device.setExecutor(executor);
+        channel.activate(device, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    byte[] b = new byte[PDU_LENGTH + 6];
+                    int off = 0;
+                    while (off < b.length)
+                        off += in.read(b, off, b.length - off);
+                    channel.continueDispatch();
+                    received.countDown();
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+            }
+        });
+        ByteBuffer pdu = ByteBuffer.allocate(PDU_LENGTH + 6);
+        pdu.put((byte) 4).put((byte) 0).putInt(PDU_LENGTH);
+        pdu.position(pdu.limit()).flip();
+        while (pdu.hasRemaining())
+            client.write(pdu);
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertEquals(2 * (0x10000 + 6), channel.receiveBufferSize());
+        channel.shrinkReceiveBuffer();
+        assertEquals(0x4000, channel.receiveBufferSize());
+    }
+}
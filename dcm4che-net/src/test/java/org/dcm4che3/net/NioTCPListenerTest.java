@@ -0,0 +1,137 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.net;
+
+import static org.dcm4che3.net.TestDevices.aarq;
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.dcm4che3.net.TestDevices.createDevice;
+import static org.dcm4che3.net.TestDevices.createSCP;
+import static org.dcm4che3.net.TestDevices.status;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.dcm4che3.data.UID;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.service.BasicCEchoSCP;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the non-blocking transport.
+ */
+public class NioTCPListenerTest {
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device acceptor;
+    private Device requestor;
+    private Connection acceptorConn;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        requestor = createDevice("REQUESTOR", 0, executor, scheduledExecutor);
+        acceptor = createSCP("ACCEPTOR", TestPorts.freePort(), executor, scheduledExecutor,
+                new BasicCEchoSCP(), UID.Verification, UID.ImplicitVRLittleEndian);
+        acceptorConn = acceptor.listConnections().get(0);
+        acceptorConn.setNonBlockingIO(true);
+        acceptorConn.setSelectorThreads(2);
+        acceptor.bindConnections();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        acceptor.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    @Test
+    public void listenerIsNonBlocking() {
+        assertTrue(acceptorConn.getListener() instanceof NioTCPListener);
+    }
+
+    @Test(timeout = 5000)
+    public void echo() throws Exception {
+        Association as = aeOf(requestor).connect(aeOf(acceptor), echoRQ());
+        for (int i = 0; i < 10; i++)
+            assertEquals(Status.Success, status(as.cecho()));
+        as.release();
+        as.waitForSocketClose();
+    }
+
+    @Test(timeout = 10000)
+    public void concurrentAssociations() throws Exception {
+        List<Association> list = new ArrayList<Association>();
+        for (int i = 0; i < 20; i++)
+            list.add(aeOf(requestor).connect(aeOf(acceptor), echoRQ()));
+        for (Association as : list)
+            assertEquals(Status.Success, status(as.cecho()));
+        for (Association as : list)
+            as.release();
+        for (Association as : list)
+            as.waitForSocketClose();
+        acceptor.waitForNoOpenConnections();
+    }
+
+    @Test(timeout = 5000)
+    public void rebindAfterUnbind() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            acceptor.unbindConnections();
+            acceptor.bindConnections();
+        }
+        Association as = aeOf(requestor).connect(aeOf(acceptor), echoRQ());
+        assertEquals(Status.Success, status(as.cecho()));
+        as.release();
+        as.waitForSocketClose();
+    }
+
+    private static AAssociateRQ echoRQ() {
+        return aarq(UID.Verification, UID.ImplicitVRLittleEndian);
+    }
+
+}
@@ -0,0 +1,108 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.net;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+
+/**
+ * Creates the devices, associate requests and response status used by the
+ * network tests, which connect a requestor and one or more acceptors over
+ * the loopback interface.
+ *
+ * @since Oct 2026
+ */
+public final class TestDevices {
+
+    private TestDevices() {}
+
+    /**
+     * Returns a device with one Application Entity and one connection, both
+     * named by {@code aet}, which is bound to {@code port} of localhost;
+     * {@code 0} for a device which only initiates associations.
+     */
+    public static Device createDevice(String aet, int port, Executor executor,
+            ScheduledExecutorService scheduledExecutor) {
+        Device device = new Device(aet);
+        ApplicationEntity ae = new ApplicationEntity(aet);
+        Connection conn = new Connection(null, "localhost", port);
+        device.addApplicationEntity(ae);
+        device.addConnection(conn);
+        ae.addConnection(conn);
+        device.setExecutor(executor);
+        device.setScheduledExecutor(scheduledExecutor);
+        return device;
+    }
+
+    /**
+     * Returns a device as {@link #createDevice}, which accepts {@code cuid}
+     * with the specified transfer syntaxes as SCP, handled by {@code handler}.
+     */
+    public static Device createSCP(String aet, int port, Executor executor,
+            ScheduledExecutorService scheduledExecutor, DimseRQHandler handler,
+            String cuid, String... tsuids) {
+        Device device = createDevice(aet, port, executor, scheduledExecutor);
+        ApplicationEntity ae = aeOf(device);
+        ae.addTransferCapability(
+                new TransferCapability(null, cuid, TransferCapability.Role.SCP, tsuids));
+        ae.setDimseRQHandler(handler);
+        return device;
+    }
+
+    public static ApplicationEntity aeOf(Device device) {
+        return device.getApplicationEntities().iterator().next();
+    }
+
+    public static AAssociateRQ aarq(String cuid, String tsuid) {
+        AAssociateRQ aarq = new AAssociateRQ();
+        aarq.addPresentationContextFor(cuid, tsuid);
+        return aarq;
+    }
+
+    /**
+     * Waits for the next response and returns its status.
+     */
+    public static int status(DimseRSP rsp) throws Exception {
+        rsp.next();
+        return rsp.getCommand().getInt(Tag.Status, -1);
+    }
+}
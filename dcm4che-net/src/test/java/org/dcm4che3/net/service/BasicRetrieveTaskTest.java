@@ -0,0 +1,236 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.net.service;
+
+import static org.dcm4che3.net.TestDevices.aarq;
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.dcm4che3.net.TestDevices.createDevice;
+import static org.dcm4che3.net.TestDevices.createSCP;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.net.Association;
+import org.dcm4che3.net.DataWriter;
+import org.dcm4che3.net.DataWriterAdapter;
+import org.dcm4che3.net.Device;
+import org.dcm4che3.net.Dimse;
+import org.dcm4che3.net.DimseRSP;
+import org.dcm4che3.net.PDVInputStream;
+import org.dcm4che3.net.Priority;
+import org.dcm4che3.net.Status;
+import org.dcm4che3.net.TestPorts;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for C-MOVE sub-operations performed by {@link BasicRetrieveTask}
+ * over several associations.
+ */
+public class BasicRetrieveTaskTest {
+
+    private static final int NUM_INSTANCES = 30;
+    private static final int NUM_STORE_ASSOCIATIONS = 3;
+    private static final String ABORT_IUID = "1.2.3.13";
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device storescp;
+    private Device qrscp;
+    private Device movescu;
+    private final List<Association> storeas = new ArrayList<Association>();
+    private final List<Attributes> rspCmds = new ArrayList<Attributes>();
+    private volatile boolean cancel;
+    private volatile boolean pendingRSP;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        storescp = createSCP("STORESCP", TestPorts.freePort(), executor, scheduledExecutor,
+                new BasicCStoreSCP() {
+                    @Override
+                    protected void store(Association as, PresentationContext pc,
+                            Attributes rq, PDVInputStream data, Attributes rsp) {
+                        if (ABORT_IUID.equals(rq.getString(Tag.AffectedSOPInstanceUID)))
+                            as.abort();
+                    }
+                }, UID.CTImageStorage, UID.ImplicitVRLittleEndian, UID.ExplicitVRLittleEndian);
+        qrscp = createSCP("QRSCP", TestPorts.freePort(), executor, scheduledExecutor,
+                new BasicCMoveSCP(UID.PatientRootQueryRetrieveInformationModelMove) {
+                    @Override
+                    protected RetrieveTask calculateMatches(Association as,
+                            PresentationContext pc, Attributes rq, Attributes keys)
+                            throws DicomServiceException {
+                        return createRetrieveTask(as, pc, rq);
+                    }
+                }, UID.PatientRootQueryRetrieveInformationModelMove,
+                UID.ImplicitVRLittleEndian, UID.ExplicitVRLittleEndian);
+        movescu = createDevice("MOVESCU", 0, executor, scheduledExecutor);
+        storescp.bindConnections();
+        qrscp.bindConnections();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        storescp.unbindConnections();
+        qrscp.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    private RetrieveTask createRetrieveTask(Association as, PresentationContext pc,
+            Attributes rq) throws DicomServiceException {
+        List<InstanceLocator> insts = new ArrayList<InstanceLocator>(NUM_INSTANCES);
+        for (int i = 1; i <= NUM_INSTANCES; i++)
+            insts.add(new InstanceLocator(UID.CTImageStorage, "1.2.3." + i,
+                    UID.ImplicitVRLittleEndian, null));
+        try {
+            for (int i = 0; i < NUM_STORE_ASSOCIATIONS; i++)
+                storeas.add(as.getApplicationEntity().connect(aeOf(storescp),
+                        aarq(UID.CTImageStorage, UID.ImplicitVRLittleEndian)));
+        } catch (Exception e) {
+            throw new DicomServiceException(Status.UnableToPerformSubOperations, e);
+        }
+        BasicRetrieveTask<InstanceLocator> task = new BasicRetrieveTask<InstanceLocator>(
+                Dimse.C_MOVE_RQ, as, pc, rq, insts, storeas.get(0)) {
+            @Override
+            protected DataWriter createDataWriter(InstanceLocator inst, String tsuid) {
+                Attributes attrs = new Attributes(2);
+                attrs.setString(Tag.SOPClassUID, VR.UI, inst.cuid);
+                attrs.setString(Tag.SOPInstanceUID, VR.UI, inst.iuid);
+                return new DataWriterAdapter(attrs);
+            }
+        };
+        for (Association additional : storeas.subList(1, storeas.size()))
+            task.addStoreAssociation(additional);
+        task.setSendPendingRSP(pendingRSP);
+        if (cancel)
+            task.onCancelRQ(as);
+        return task;
+    }
+
+    @Test(timeout = 10000)
+    public void subOperationsOverSeveralAssociationsWithOneFailure() throws Exception {
+        DimseRSP rsp = cmove();
+        Attributes cmd = rsp.getCommand();
+        int completed = cmd.getInt(Tag.NumberOfCompletedSuboperations, -1);
+        int failed = cmd.getInt(Tag.NumberOfFailedSuboperations, -1);
+        assertEquals(0, cmd.getInt(Tag.NumberOfWarningSuboperations, -1));
+        assertEquals(NUM_INSTANCES, completed + failed);
+        assertTrue(failed >= 1);
+        assertTrue(completed >= NUM_INSTANCES - NUM_STORE_ASSOCIATIONS);
+        String[] failedIUIDs = rsp.getDataset().getStrings(Tag.FailedSOPInstanceUIDList);
+        assertEquals(failed, failedIUIDs.length);
+        assertTrue(Arrays.asList(failedIUIDs).contains(ABORT_IUID));
+        assertStoreAssociationsClosed();
+    }
+
+    @Test(timeout = 10000)
+    public void releaseStoreAssociationsOnCancel() throws Exception {
+        cancel = true;
+        Attributes cmd = cmove().getCommand();
+        assertEquals(Status.Cancel, cmd.getInt(Tag.Status, -1));
+        assertEquals(NUM_INSTANCES, cmd.getInt(Tag.NumberOfRemainingSuboperations, -1));
+        assertStoreAssociationsClosed();
+    }
+
+    @Test(timeout = 10000)
+    public void consistentPendingRSPs() throws Exception {
+        pendingRSP = true;
+        cmove();
+        assertTrue(rspCmds.size() > 1);
+        for (Attributes cmd : rspCmds.subList(0, rspCmds.size() - 1)) {
+            assertEquals(Status.Pending, cmd.getInt(Tag.Status, -1));
+            assertEquals(NUM_INSTANCES,
+                    cmd.getInt(Tag.NumberOfRemainingSuboperations, -1)
+                    + cmd.getInt(Tag.NumberOfCompletedSuboperations, -1)
+                    + cmd.getInt(Tag.NumberOfFailedSuboperations, -1)
+                    + cmd.getInt(Tag.NumberOfWarningSuboperations, -1));
+        }
+        Attributes cmd = rspCmds.get(rspCmds.size() - 1);
+        assertEquals(Status.OneOrMoreFailures, cmd.getInt(Tag.Status, -1));
+        assertEquals(NUM_INSTANCES,
+                cmd.getInt(Tag.NumberOfCompletedSuboperations, -1)
+                + cmd.getInt(Tag.NumberOfFailedSuboperations, -1));
+        assertStoreAssociationsClosed();
+    }
+
+    private DimseRSP cmove() throws Exception {
+        Association as = aeOf(movescu).connect(aeOf(qrscp),
+                aarq(UID.PatientRootQueryRetrieveInformationModelMove,
+                        UID.ExplicitVRLittleEndian));
+        Attributes keys = new Attributes(2);
+        keys.setString(Tag.QueryRetrieveLevel, VR.CS, "STUDY");
+        keys.setString(Tag.StudyInstanceUID, VR.UI, "1.2.3");
+        DimseRSP rsp = as.cmove(UID.PatientRootQueryRetrieveInformationModelMove,
+                Priority.NORMAL, keys, null, "STORESCP");
+        while (rsp.next())
+            rspCmds.add(rsp.getCommand());
+        as.release();
+        as.waitForSocketClose();
+        return rsp;
+    }
+
+    private void assertStoreAssociationsClosed() throws Exception {
+        assertEquals(NUM_STORE_ASSOCIATIONS, storeas.size());
+        for (Association as : storeas) {
+            try {
+                as.waitForSocketClose();
+            } catch (IOException aborted) {
+            }
+            assertFalse(as.isReadyForDataTransfer());
+        }
+    }
+
+}
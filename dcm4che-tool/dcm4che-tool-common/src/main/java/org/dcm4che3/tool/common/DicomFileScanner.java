@@ -0,0 +1,425 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.tool.common;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.tool.common.DicomFiles.ParsedFile;
+
+/**
+ * Parallel variant of {@link DicomFiles#scan(List, boolean, DicomFiles.Callback)}.
+ * <p>
+ * Directories are walked by a fork-join pool, and the headers of found files
+ * are parsed by a pool of {@link #getParallelism()} threads, stopping at
+ * {@link #getStopTag()}. The number of parsed files, which were not yet passed
+ * to the callback, is bounded by {@link #getMaxPendingFiles()}.
+ * <p>
+ * The callback is invoked sequentially by the thread invoking
+ * {@link #scan(List, DicomFiles.Callback)}, so it does not need to be
+ * thread-safe. If {@link #isOrdered()}, files are passed to the callback
+ * in a stable order - in the order of specified file names, with the
+ * entries of each directory sorted by name; otherwise in the order they
+ * were parsed. In ordered mode, directories are walked depth-first in that
+ * order, while the sorted entries of their sub-directories are listed in
+ * advance, and files are parsed as soon as they are found.
+ * <p>
+ * Failures to parse a file and exceptions thrown by the callback are counted
+ * by {@link #getNumberOfFailedFiles()}, without stopping the scan. Errors,
+ * and unchecked exceptions thrown on walking directories, stop the scan and
+ * are rethrown by {@link #scan(List, DicomFiles.Callback)}. A scan is cancelled by
+ * interrupting the thread invoking {@link #scan(List, DicomFiles.Callback)}.
+ *
+ * @since Oct 2026
+ */
+public class DicomFileScanner {
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int maxPendingFiles;
+    private int stopTag = Tag.PixelData;
+    private boolean ordered;
+    private boolean printout = true;
+    private final AtomicLong numberOfFiles = new AtomicLong();
+    private final AtomicLong numberOfScannedFiles = new AtomicLong();
+    private final AtomicLong numberOfFailedFiles = new AtomicLong();
+
+    public final int getParallelism() {
+        return parallelism;
+    }
+
+    public final void setParallelism(int parallelism) {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("parallelism: " + parallelism);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the maximal number of parsed files, which were not yet passed
+     * to the callback. 16 times {@link #getParallelism()}, if not set.
+     *
+     * @return maximal number of pending files
+     */
+    public final int getMaxPendingFiles() {
+        return maxPendingFiles > 0 ? maxPendingFiles : parallelism * 16;
+    }
+
+    public final void setMaxPendingFiles(int maxPendingFiles) {
+        this.maxPendingFiles = maxPendingFiles;
+    }
+
+    public final int getStopTag() {
+        return stopTag;
+    }
+
+    /**
+     * Sets the tag of the attribute at which parsing of a DICOM file stops.
+     * By default, parsing stops at Pixel Data (7FE0,0010). Other values stop
+     * parsing at the first attribute with a tag equal or greater than the
+     * specified tag.
+     *
+     * @param stopTag tag at which parsing stops
+     */
+    public final void setStopTag(int stopTag) {
+        this.stopTag = stopTag;
+    }
+
+    public final boolean isOrdered() {
+        return ordered;
+    }
+
+    public final void setOrdered(boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    public final boolean isPrintout() {
+        return printout;
+    }
+
+    public final void setPrintout(boolean printout) {
+        this.printout = printout;
+    }
+
+    /**
+     * Returns the number of files found by the current or last scan.
+     * May be invoked by other threads to monitor the progress of a scan.
+     *
+     * @return number of found files
+     */
+    public long getNumberOfFiles() {
+        return numberOfFiles.get();
+    }
+
+    /**
+     * Returns the number of files passed to the callback by the current or last scan.
+     *
+     * @return number of files passed to the callback
+     */
+    public long getNumberOfScannedFiles() {
+        return numberOfScannedFiles.get();
+    }
+
+    /**
+     * Returns the number of files which failed to be parsed, or for which the
+     * callback threw an exception, by the current or last scan.
+     *
+     * @return number of failed files
+     */
+    public long getNumberOfFailedFiles() {
+        return numberOfFailedFiles.get();
+    }
+
+    public void scan(List<String> fnames, DicomFiles.Callback scb)
+            throws InterruptedException {
+        numberOfFiles.set(0);
+        numberOfScannedFiles.set(0);
+        numberOfFailedFiles.set(0);
+        File[] files = new File[fnames.size()];
+        for (int i = 0; i < files.length; i++)
+            files[i] = new File(fnames.get(i));
+        new Scan(files, scb).run();
+    }
+
+    private static File[] listFiles(File dir, boolean sort) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            System.out.println();
+            System.out.println("Failed to list directory " + dir);
+            return new File[0];
+        }
+        if (sort)
+            Arrays.sort(files);
+        return files;
+    }
+
+    private static final class Result {
+        final long index;
+        final File file;
+        final ParsedFile parsed;
+        final Exception exception;
+        final Throwable failure;
+
+        Result(long index, File file, ParsedFile parsed, Exception exception) {
+            this(index, file, parsed, exception, null);
+        }
+
+        Result(long index, File file, ParsedFile parsed, Exception exception,
+                Throwable failure) {
+            this.index = index;
+            this.file = file;
+            this.parsed = parsed;
+            this.exception = exception;
+            this.failure = failure;
+        }
+    }
+
+    private class Scan {
+        final File[] roots;
+        final DicomFiles.Callback scb;
+        final Semaphore pending = new Semaphore(getMaxPendingFiles());
+        final BlockingQueue<Result> results = new LinkedBlockingQueue<Result>();
+        final ExecutorService parsePool = Executors.newFixedThreadPool(parallelism);
+        final ForkJoinPool walkPool = new ForkJoinPool(parallelism);
+        final ThreadLocal<SAXParser> saxParser = new ThreadLocal<SAXParser>();
+        final AtomicLong submitted = new AtomicLong();
+        volatile boolean cancelled;
+
+        Scan(File[] roots, DicomFiles.Callback scb) {
+            this.roots = roots;
+            this.scb = scb;
+        }
+
+        void run() throws InterruptedException {
+            try {
+                walkPool.execute(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        Throwable failure = null;
+                        try {
+                            if (ordered)
+                                submitOrdered(roots);
+                            else
+                                new SubmitFiles(roots).invoke();
+                        } catch (RuntimeException | Error e) {
+                            failure = e;
+                        } finally {
+                            results.add(new Result(submitted.get(), null, null, null, failure));
+                        }
+                    }
+                });
+                consume();
+            } finally {
+                cancelled = true;
+                walkPool.shutdownNow();
+                parsePool.shutdownNow();
+            }
+        }
+
+        void consume() throws InterruptedException {
+            Map<Long, Result> reorder = ordered ? new HashMap<Long, Result>() : null;
+            long total = -1L;
+            long delivered = 0L;
+            while (total < 0 || delivered < total) {
+                Result result = results.take();
+                if (result.failure != null) {
+                    throw rethrow(result.failure);
+                } else if (result.file == null) {
+                    total = result.index;
+                } else if (reorder == null) {
+                    deliver(result);
+                    delivered++;
+                } else {
+                    reorder.put(result.index, result);
+                    while ((result = reorder.remove(delivered)) != null) {
+                        deliver(result);
+                        delivered++;
+                    }
+                }
+            }
+        }
+
+        RuntimeException rethrow(Throwable failure) {
+            if (failure instanceof Error)
+                throw (Error) failure;
+            return (RuntimeException) failure;
+        }
+
+        void deliver(Result result) throws InterruptedException {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+
+            try {
+                if (result.exception != null)
+                    throw result.exception;
+
+                ParsedFile pf = result.parsed;
+                boolean b = scb.dicomFile(result.file, pf.fmi, pf.dsPos, pf.ds);
+                numberOfScannedFiles.incrementAndGet();
+                if (printout) System.out.print(b ? '.' : 'I');
+            } catch (Exception e) {
+                numberOfFailedFiles.incrementAndGet();
+                DicomFiles.printFailure(result.file, e);
+            } finally {
+                pending.release();
+            }
+        }
+
+        void submit(final File f) {
+            if (cancelled)
+                return;
+            try {
+                pending.acquire();
+            } catch (InterruptedException e) {
+                cancelled = true;
+                return;
+            }
+            final long index = submitted.getAndIncrement();
+            numberOfFiles.incrementAndGet();
+            parsePool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    Result result;
+                    try {
+                        result = parse(index, f);
+                    } catch (Throwable e) {
+                        result = new Result(index, f, null, null, e);
+                    }
+                    results.add(result);
+                }
+            });
+        }
+
+        Result parse(long index, File f) {
+            try {
+                return new Result(index, f, DicomFiles.isXML(f)
+                        ? DicomFiles.parseXML(f, saxParser())
+                        : DicomFiles.parseDICOM(f, stopTag), null);
+            } catch (Exception e) {
+                return new Result(index, f, null, e);
+            }
+        }
+
+        SAXParser saxParser() throws Exception {
+            SAXParser p = saxParser.get();
+            if (p == null)
+                saxParser.set(p = SAXParserFactory.newInstance().newSAXParser());
+            return p;
+        }
+
+        /**
+         * Walks directories and submits found files immediately.
+         */
+        class SubmitFiles extends RecursiveAction {
+            final File[] files;
+
+            SubmitFiles(File[] files) {
+                this.files = files;
+            }
+
+            @Override
+            protected void compute() {
+                List<SubmitFiles> dirs = new ArrayList<SubmitFiles>();
+                for (File f : files) {
+                    if (f.isDirectory())
+                        dirs.add(new SubmitFiles(listFiles(f, false)));
+                    else
+                        submit(f);
+                }
+                invokeAll(dirs);
+            }
+        }
+
+        /**
+         * Walks directories depth-first in stable order and submits found
+         * files immediately. The sorted entries of up to
+         * {@link #getParallelism()} following sub-directories are listed in
+         * advance by the fork-join pool.
+         */
+        void submitOrdered(File[] files) {
+            ListFiles[] dirs = new ListFiles[files.length];
+            int listed = 0;
+            for (int i = 0; i < files.length; i++) {
+                if (cancelled)
+                    return;
+                for (; listed < files.length && listed <= i + parallelism; listed++)
+                    if (files[listed].isDirectory())
+                        (dirs[listed] = new ListFiles(files[listed])).fork();
+                if (dirs[i] != null) {
+                    File[] entries = dirs[i].join();
+                    dirs[i] = null;
+                    submitOrdered(entries);
+                } else {
+                    submit(files[i]);
+                }
+            }
+        }
+
+        /**
+         * Lists the entries of a directory sorted by name.
+         */
+        class ListFiles extends RecursiveTask<File[]> {
+            final File dir;
+
+            ListFiles(File dir) {
+                this.dir = dir;
+            }
+
+            @Override
+            protected File[] compute() {
+                return listFiles(dir, true);
+            }
+        }
+    }
+}
@@ -39,6 +39,7 @@
 package org.dcm4che3.tool.common;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.List;
 
 import javax.xml.parsers.SAXParser;
@@ -80,45 +81,78 @@ public abstract class DicomFiles {
                 scan(new File(f, s), printout, scb);
             return;
         }
-        if (f.getName().endsWith(".xml")) {
+        if (isXML(f)) {
             try {
                 SAXParser p = saxParser;
                 if (p == null)
                     saxParser = p = SAXParserFactory.newInstance().newSAXParser();
-                Attributes ds = new Attributes();
-                ContentHandlerAdapter ch = new ContentHandlerAdapter(ds);
-                p.parse(f, ch);
-                Attributes fmi = ch.getFileMetaInformation();
-                if (fmi == null)
-                    fmi = ds.createFileMetaInformation(UID.ExplicitVRLittleEndian);
-                boolean b = scb.dicomFile(f, fmi, -1, ds);
+                ParsedFile pf = parseXML(f, p);
+                boolean b = scb.dicomFile(f, pf.fmi, pf.dsPos, pf.ds);
                 if (printout)System.out.print(b ? '.' : 'I');
             } catch (Exception e) {
-                System.out.println();
-                System.out.println("Failed to parse file " + f + ": " + e.getMessage());
-                e.printStackTrace(System.out);
+                printFailure(f, e);
             }
         } else {
-            DicomInputStream in = null;
             try {
-                in = new DicomInputStream(f);
-                in.setIncludeBulkData(IncludeBulkData.NO);
-                Attributes fmi = in.readFileMetaInformation();
-                long dsPos = in.getPosition();
-                Attributes ds = in.readDatasetUntilPixelData();
-                if (fmi == null || !fmi.containsValue(Tag.TransferSyntaxUID)
-                        || !fmi.containsValue(Tag.MediaStorageSOPClassUID)
-                        || !fmi.containsValue(Tag.MediaStorageSOPInstanceUID))
-                    fmi = ds.createFileMetaInformation(in.getTransferSyntax());
-                boolean b = scb.dicomFile(f, fmi, dsPos, ds);
+                ParsedFile pf = parseDICOM(f, Tag.PixelData);
+                boolean b = scb.dicomFile(f, pf.fmi, pf.dsPos, pf.ds);
                 if (printout)System.out.print(b ? '.' : 'I');
             } catch (Exception e) {
-                System.out.println();
-                System.out.println("Failed to scan file " + f + ": " + e.getMessage());
-                e.printStackTrace(System.out);
-            } finally {
-                SafeClose.close(in);
+                printFailure(f, e);
             }
         }
     }
+
+    static boolean isXML(File f) {
+        return f.getName().endsWith(".xml");
+    }
+
+    static ParsedFile parseXML(File f, SAXParser p) throws Exception {
+        Attributes ds = new Attributes();
+        ContentHandlerAdapter ch = new ContentHandlerAdapter(ds);
+        p.parse(f, ch);
+        Attributes fmi = ch.getFileMetaInformation();
+        if (fmi == null)
+            fmi = ds.createFileMetaInformation(UID.ExplicitVRLittleEndian);
+        return new ParsedFile(fmi, -1, ds);
+    }
+
+    static ParsedFile parseDICOM(File f, int stopTag) throws IOException {
+        DicomInputStream in = null;
+        try {
+            in = new DicomInputStream(f);
+            in.setIncludeBulkData(IncludeBulkData.NO);
+            Attributes fmi = in.readFileMetaInformation();
+            long dsPos = in.getPosition();
+            Attributes ds = stopTag == Tag.PixelData
+                    ? in.readDatasetUntilPixelData()
+                    : in.readDataset(stopTag);
+            if (fmi == null || !fmi.containsValue(Tag.TransferSyntaxUID)
+                    || !fmi.containsValue(Tag.MediaStorageSOPClassUID)
+                    || !fmi.containsValue(Tag.MediaStorageSOPInstanceUID))
+                fmi = ds.createFileMetaInformation(in.getTransferSyntax());
+            return new ParsedFile(fmi, dsPos, ds);
+        } finally {
+            SafeClose.close(in);
+        }
+    }
+
+    static void printFailure(File f, Exception e) {
+        System.out.println();
+        System.out.println((isXML(f) ? "Failed to parse file " : "Failed to scan file ")
+                + f + ": " + e.getMessage());
+        e.printStackTrace(System.out);
+    }
+
+    static final class ParsedFile {
+        final Attributes fmi;
+        final long dsPos;
+        final Attributes ds;
+
+        ParsedFile(Attributes fmi, long dsPos, Attributes ds) {
+            this.fmi = fmi;
+            this.dsPos = dsPos;
+            this.ds = ds;
+        }
+    }
 }
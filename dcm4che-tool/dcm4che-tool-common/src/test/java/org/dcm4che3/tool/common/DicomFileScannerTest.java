@@ -0,0 +1,214 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2026
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package org.dcm4che3.tool.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.io.DicomOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DicomFileScanner}.
+ */
+public class DicomFileScannerTest {
+
+    private static final int MAX_PENDING_FILES = 4;
+
+    private File root;
+    private final List<File> files = new ArrayList<File>();
+    private DicomFileScanner scanner;
+
+    @Before
+    public void setUp() throws IOException {
+        root = File.createTempFile("scan", null);
+        root.delete();
+        createFiles(root, "", 3);
+        scanner = new DicomFileScanner();
+        scanner.setParallelism(4);
+        scanner.setMaxPendingFiles(MAX_PENDING_FILES);
+        scanner.setPrintout(false);
+    }
+
+    @After
+    public void tearDown() {
+        delete(root);
+    }
+
+    private void createFiles(File dir, String prefix, int depth) throws IOException {
+        dir.mkdir();
+        for (int i = 0; i < 5; i++) {
+            if (depth > 0 && i % 2 == 0)
+                createFiles(new File(dir, i + "d"), prefix + i + ".", depth - 1);
+            else
+                createFile(new File(dir, i + "f"), "1.2.3." + prefix + i);
+        }
+    }
+
+    private void createFile(File f, String iuid) throws IOException {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.SOPClassUID, VR.UI, UID.SecondaryCaptureImageStorage);
+        attrs.setString(Tag.SOPInstanceUID, VR.UI, iuid);
+        DicomOutputStream out = new DicomOutputStream(f);
+        try {
+            out.writeDataset(attrs.createFileMetaInformation(UID.ExplicitVRLittleEndian), attrs);
+        } finally {
+            out.close();
+        }
+        files.add(f);
+    }
+
+    private static void delete(File f) {
+        File[] entries = f.listFiles();
+        if (entries != null)
+            for (File entry : entries)
+                delete(entry);
+        f.delete();
+    }
+
+    private List<File> scan(final List<File> scanned, final int interruptAfter)
+            throws InterruptedException {
+        final Thread thread = Thread.currentThread();
+        scanner.scan(Collections.singletonList(root.getPath()), new DicomFiles.Callback() {
+            @Override
+            public boolean dicomFile(File f, Attributes fmi, long dsPos, Attributes ds) {
+                assertSame(thread, Thread.currentThread());
+                assertTrue(scanner.getNumberOfFiles() <= scanned.size() + MAX_PENDING_FILES);
+                scanned.add(f);
+                if (scanned.size() == interruptAfter)
+                    thread.interrupt();
+                return true;
+            }
+        });
+        return scanned;
+    }
+
+    @Test(timeout = 10000)
+    public void testOrdered() throws Exception {
+        scanner.setOrdered(true);
+        List<File> scanned = scan(new ArrayList<File>(), -1);
+        assertEquals(files, scanned);
+        assertEquals(files.size(), scanner.getNumberOfFiles());
+        assertEquals(files.size(), scanner.getNumberOfScannedFiles());
+        assertEquals(0, scanner.getNumberOfFailedFiles());
+    }
+
+    @Test(timeout = 10000)
+    public void testUnordered() throws Exception {
+        List<File> scanned = scan(new ArrayList<File>(), -1);
+        assertEquals(files.size(), scanned.size());
+        assertEquals(new HashSet<File>(files), new HashSet<File>(scanned));
+    }
+
+    @Test(timeout = 10000)
+    public void testCancel() throws Exception {
+        scanner.setOrdered(true);
+        List<File> scanned = new ArrayList<File>();
+        try {
+            scan(scanned, 5);
+            fail("scan not interrupted");
+        } catch (InterruptedException expected) {
+        }
+        assertEquals(files.subList(0, 5), scanned);
+        assertEquals(5, scanner.getNumberOfScannedFiles());
+        assertTrue(scanner.getNumberOfFiles() <= 5 + MAX_PENDING_FILES);
+    }
+
+    @Test(timeout = 10000)
+    public void testFailedFiles() throws Exception {
+        FileOutputStream out = new FileOutputStream(new File(root, "invalid.xml"));
+        try {
+            out.write("<NativeDicomModel>".getBytes());
+        } finally {
+            out.close();
+        }
+        final File rejected = files.get(1);
+        final List<File> scanned = new ArrayList<File>();
+        scanner.setOrdered(true);
+        scanner.scan(Collections.singletonList(root.getPath()), new DicomFiles.Callback() {
+            @Override
+            public boolean dicomFile(File f, Attributes fmi, long dsPos, Attributes ds)
+                    throws IOException {
+                if (f.equals(rejected))
+                    throw new IOException("rejected");
+                scanned.add(f);
+                return true;
+            }
+        });
+        assertEquals(files.size() + 1, scanner.getNumberOfFiles());
+        assertEquals(files.size() - 1, scanner.getNumberOfScannedFiles());
+        assertEquals(2, scanner.getNumberOfFailedFiles());
+        List<File> expected = new ArrayList<File>(files);
+        expected.remove(rejected);
+        assertEquals(expected, scanned);
+    }
+
+    @Test(timeout = 10000)
+    public void testErrorPropagation() throws Exception {
+        final Error error = new Error("callback");
+        try {
+            scanner.scan(Collections.singletonList(root.getPath()), new DicomFiles.Callback() {
+                @Override
+                public boolean dicomFile(File f, Attributes fmi, long dsPos, Attributes ds) {
+                    throw error;
+                }
+            });
+            fail("error not propagated");
+        } catch (Error e) {
+            assertSame(error, e);
+        }
+        assertEquals(0, scanner.getNumberOfScannedFiles());
+    }
+}
@@ -52,6 +52,7 @@ import java.util.ResourceBundle;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.MissingOptionException;
@@ -103,6 +104,8 @@ public class DcmQRSCP {
 
     static final Logger LOG = LoggerFactory.getLogger(DcmQRSCP.class);
 
+    private static final long STORE_INDEX_INTERVAL = 60000L;
+
     private static final EnumSet<QueryRetrieveLevel2> PATIENT_ROOT_LEVELS = EnumSet.of(
             QueryRetrieveLevel2.PATIENT,
             QueryRetrieveLevel2.STUDY,
@@ -131,6 +134,7 @@ public class DcmQRSCP {
     private boolean stgCmtOnSameAssoc;
     private boolean sendPendingCGet;
     private int sendPendingCMoveInterval;
+    private int moveAssociations = 1;
     private int delayCFind;
     private int delayCStore;
     private int errorCFind;
@@ -138,6 +142,11 @@ public class DcmQRSCP {
     private int errorCGet;
     private boolean ignoreCaseOfPN;
     private boolean matchNoValue;
+    private boolean dicomDirIndex;
+    private int recordCacheSize;
+    private boolean dicomDirJournal;
+    private int dicomDirBatchSize;
+    private int dicomDirCommitInterval;
     private final FilesetInfo fsInfo = new FilesetInfo();
     private DicomDirReader ddReader;
     private DicomDirWriter ddWriter;
@@ -322,6 +331,17 @@ public class DcmQRSCP {
             BasicRetrieveTask retrieveTask = new RetrieveTaskImpl(
                     Dimse.C_MOVE_RQ, as, pc, rq, matches, storeas, false, delayCStore);
             retrieveTask.setSendPendingRSPInterval(getSendPendingCMoveInterval());
+            int n = Math.min(moveAssociations, matches.size());
+            for (int i = 1; i < n; i++) {
+                try {
+                    retrieveTask.addStoreAssociation(as.getApplicationEntity().connect(
+                            as.getConnection(), remote, aarq));
+                } catch (Exception e) {
+                    LOG.info("{}: failed to open additional association to {}:",
+                            as, moveDest, e);
+                    break;
+                }
+            }
             return retrieveTask;
         }
 
@@ -549,6 +569,16 @@ public class DcmQRSCP {
         return sendPendingCMoveInterval;
     }
 
+    public final int getMoveAssociations() {
+        return moveAssociations;
+    }
+
+    public final void setMoveAssociations(int moveAssociations) {
+        if (moveAssociations <= 0)
+            throw new IllegalArgumentException("moveAssociations: " + moveAssociations);
+        this.moveAssociations = moveAssociations;
+    }
+
     public int getDelayCFind() {
         return delayCFind;
     }
@@ -597,6 +627,46 @@ public class DcmQRSCP {
         return recFact;
     }
 
+    public final boolean isDicomDirIndex() {
+        return dicomDirIndex;
+    }
+
+    public final void setDicomDirIndex(boolean dicomDirIndex) {
+        this.dicomDirIndex = dicomDirIndex;
+    }
+
+    public final int getRecordCacheSize() {
+        return recordCacheSize;
+    }
+
+    public final void setRecordCacheSize(int recordCacheSize) {
+        this.recordCacheSize = recordCacheSize;
+    }
+
+    public final boolean isDicomDirJournal() {
+        return dicomDirJournal;
+    }
+
+    public final void setDicomDirJournal(boolean dicomDirJournal) {
+        this.dicomDirJournal = dicomDirJournal;
+    }
+
+    public final int getDicomDirBatchSize() {
+        return dicomDirBatchSize;
+    }
+
+    public final void setDicomDirBatchSize(int dicomDirBatchSize) {
+        this.dicomDirBatchSize = dicomDirBatchSize;
+    }
+
+    public final int getDicomDirCommitInterval() {
+        return dicomDirCommitInterval;
+    }
+
+    public final void setDicomDirCommitInterval(int dicomDirCommitInterval) {
+        this.dicomDirCommitInterval = dicomDirCommitInterval;
+    }
+
     private static CommandLine parseComandLine(String[] args)
             throws ParseException {
         Options opts = new Options();
@@ -671,6 +741,12 @@ public class DcmQRSCP {
                 .desc(rb.getString("pending-cmove"))
                 .longOpt("pending-cmove")
                 .build());
+        opts.addOption(Option.builder()
+                .hasArg()
+                .argName("no")
+                .desc(rb.getString("move-associations"))
+                .longOpt("move-associations")
+                .build());
     }
 
     @SuppressWarnings("static-access")
@@ -713,6 +789,26 @@ public class DcmQRSCP {
                 .argName("file|url")
                 .desc(rb.getString("record-config"))
                 .build());
+        opts.addOption(null, "dicomdir-index", false, rb.getString("dicomdir-index"));
+        opts.addOption(Option.builder()
+                .longOpt("record-cache-size")
+                .hasArg()
+                .argName("count")
+                .desc(rb.getString("record-cache-size"))
+                .build());
+        opts.addOption(null, "dicomdir-journal", false, rb.getString("dicomdir-journal"));
+        opts.addOption(Option.builder()
+                .longOpt("dicomdir-batch")
+                .hasArg()
+                .argName("count")
+                .desc(rb.getString("dicomdir-batch"))
+                .build());
+        opts.addOption(Option.builder()
+                .longOpt("dicomdir-commit-interval")
+                .hasArg()
+                .argName("ms")
+                .desc(rb.getString("dicomdir-commit-interval"))
+                .build());
     }
 
     @SuppressWarnings("static-access")
@@ -778,6 +874,7 @@ public class DcmQRSCP {
                     Executors.newSingleThreadScheduledExecutor();
             main.device.setScheduledExecutor(scheduledExecutorService);
             main.device.setExecutor(executorService);
+            main.scheduleDicomDirCommit();
             main.device.bindConnections();
         } catch (ParseException e) {
             System.err.println("dcmqrscp: " + e.getMessage());
@@ -808,6 +905,13 @@ public class DcmQRSCP {
         if (cl.hasOption("record-config"))
             recFact.loadConfiguration(cl.getOptionValue("record-config"));
         main.setRecordFactory(recFact);
+        main.setDicomDirIndex(cl.hasOption("dicomdir-index"));
+        if (cl.hasOption("record-cache-size"))
+            main.setRecordCacheSize(Integer.parseInt(cl.getOptionValue("record-cache-size")));
+        main.setDicomDirJournal(cl.hasOption("dicomdir-journal"));
+        main.setDicomDirBatchSize(CLIUtils.getIntOption(cl, "dicomdir-batch", 0));
+        main.setDicomDirCommitInterval(CLIUtils.getIntOption(cl, "dicomdir-commit-interval",
+                main.getDicomDirBatchSize() > 0 ? 1000 : 0));
     }
 
     private static void configureInstanceAvailability(DcmQRSCP main, CommandLine cl) {
@@ -828,6 +932,9 @@ public class DcmQRSCP {
         if (cl.hasOption("pending-cmove"))
                 main.setSendPendingCMoveInterval(
                         Integer.parseInt(cl.getOptionValue("pending-cmove")));
+        if (cl.hasOption("move-associations"))
+                main.setMoveAssociations(
+                        Integer.parseInt(cl.getOptionValue("move-associations")));
     }
 
     private static void configureDelayCFind(DcmQRSCP main, CommandLine cl) {
@@ -941,10 +1048,48 @@ public class DcmQRSCP {
                     fsInfo.getDescriptorFile(), 
                     fsInfo.getDescriptorFileCharset());
         ddReader = ddWriter = DicomDirWriter.open(dicomDir);
+        ddWriter.setJournaled(dicomDirJournal);
+        ddWriter.setMaxPendingRecords(dicomDirBatchSize);
+        configureDicomDirReader(true);
+    }
+
+    private void scheduleDicomDirCommit() {
+        if (ddWriter == null)
+            return;
+
+        if (dicomDirCommitInterval > 0)
+            device.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ddWriter.commit();
+                    } catch (IOException e) {
+                        LOG.warn("Failed to commit changes of {}:", dicomDir, e);
+                    }
+                }
+            }, dicomDirCommitInterval, dicomDirCommitInterval, TimeUnit.MILLISECONDS);
+        if (dicomDirIndex)
+            device.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ddWriter.storeIndex();
+                    } catch (IOException e) {
+                        LOG.warn("Failed to store index of {}:", dicomDir, e);
+                    }
+                }
+            }, STORE_INDEX_INTERVAL, STORE_INDEX_INTERVAL, TimeUnit.MILLISECONDS);
     }
 
     private void openDicomDirForReadOnly() throws IOException {
         ddReader = new DicomDirReader(dicomDir);
+        configureDicomDirReader(isWriteable());
+    }
+
+    private void configureDicomDirReader(boolean persistentIndex) throws IOException {
+        ddReader.setMaxCacheSize(recordCacheSize);
+        if (dicomDirIndex)
+            ddReader.enableIndex(persistentIndex);
     }
 
     public void addRemoteConnection(String aet, Connection remote) {
@@ -1095,7 +1240,8 @@ public class DcmQRSCP {
     
         instRec = recFact.createRecord(ds, fmi, ddWriter.toFileIDs(f));
         ddWriter.addLowerDirectoryRecord(seriesRec, instRec);
-        ddWriter.commit();
+        if (dicomDirCommitInterval <= 0)
+            ddWriter.commit();
         return true;
     }
 
@@ -42,6 +42,7 @@ import java.io.IOException;
 
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.QueryMatcher;
 import org.dcm4che3.data.VR;
 import org.dcm4che3.media.DicomDirReader;
 import org.dcm4che3.media.RecordFactory;
@@ -61,6 +62,7 @@ class PatientQueryTask extends BasicQueryTask {
     protected final boolean ignoreCaseOfPN;
     protected final boolean matchNoValue;
     protected final int delayCFind;
+    protected final QueryMatcher patMatcher;
     protected Attributes patRec;
 
     public PatientQueryTask(Association as, PresentationContext pc, Attributes rq, Attributes keys, DcmQRSCP qrscp)
@@ -73,6 +75,7 @@ class PatientQueryTask extends BasicQueryTask {
         this.ignoreCaseOfPN = qrscp.isIgnoreCaseOfPN();
         this.matchNoValue = qrscp.isMatchNoValue();
         this.delayCFind = qrscp.getDelayCFind();
+        this.patMatcher = ddr.patientMatcher(keys, recFact, ignoreCaseOfPN, matchNoValue);
         wrappedFindNextPatient();
     }
 
@@ -126,11 +129,11 @@ class PatientQueryTask extends BasicQueryTask {
 
     protected boolean findNextPatient() throws IOException {
         if (patRec == null)
-            patRec = ddr.findPatientRecord(keys, recFact, ignoreCaseOfPN, matchNoValue);
+            patRec = ddr.findRootDirectoryRecord(false, patMatcher);
         else if (patIDs.length == 1)
             patRec = null;
         else
-            patRec = ddr.findNextPatientRecord(patRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            patRec = ddr.findNextDirectoryRecord(patRec, false, patMatcher);
 
         return patRec != null;
     }
@@ -42,6 +42,7 @@ import java.io.IOException;
 
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.QueryMatcher;
 import org.dcm4che3.media.DicomDirReader;
 import org.dcm4che3.media.RecordFactory;
 import org.dcm4che3.net.Association;
@@ -53,6 +54,7 @@ import org.dcm4che3.util.StringUtils;
 class SeriesQueryTask extends StudyQueryTask {
 
     protected final String[] seriesIUIDs;
+    protected final QueryMatcher seriesMatcher;
     protected Attributes seriesRec;
 
     public SeriesQueryTask(Association as, PresentationContext pc, Attributes rq, Attributes keys, DcmQRSCP qrscp)
@@ -60,6 +62,7 @@ class SeriesQueryTask extends StudyQueryTask {
         super(as, pc, rq, keys, qrscp);
         seriesIUIDs = StringUtils.maskNull(
                 keys.getStrings(Tag.SeriesInstanceUID));
+        seriesMatcher = ddr.seriesMatcher(keys, recFact, ignoreCaseOfPN, matchNoValue);
         wrappedFindNextSeries();
    }
 
@@ -94,14 +97,14 @@ class SeriesQueryTask extends StudyQueryTask {
             return false;
 
         if (seriesRec == null)
-            seriesRec = ddr.findSeriesRecord(studyRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            seriesRec = ddr.findLowerDirectoryRecord(studyRec, false, seriesMatcher);
         else if (seriesIUIDs.length == 1)
             seriesRec = null;
         else
-            seriesRec = ddr.findNextSeriesRecord(seriesRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            seriesRec = ddr.findNextDirectoryRecord(seriesRec, false, seriesMatcher);
 
         while (seriesRec == null && super.findNextStudy())
-            seriesRec = ddr.findSeriesRecord(studyRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            seriesRec = ddr.findLowerDirectoryRecord(studyRec, false, seriesMatcher);
 
         return seriesRec != null;
     }
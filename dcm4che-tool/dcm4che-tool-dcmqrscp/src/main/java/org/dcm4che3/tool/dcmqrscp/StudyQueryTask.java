@@ -42,6 +42,7 @@ import java.io.IOException;
 
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.QueryMatcher;
 import org.dcm4che3.media.DicomDirReader;
 import org.dcm4che3.media.RecordFactory;
 import org.dcm4che3.net.Association;
@@ -53,12 +54,14 @@ import org.dcm4che3.util.StringUtils;
 class StudyQueryTask extends PatientQueryTask {
 
     protected final String[] studyIUIDs;
+    protected final QueryMatcher studyMatcher;
     protected Attributes studyRec;
 
     public StudyQueryTask(Association as, PresentationContext pc, Attributes rq, Attributes keys, DcmQRSCP qrscp)
             throws DicomServiceException {
         super(as, pc, rq, keys, qrscp);
         studyIUIDs = StringUtils.maskNull(keys.getStrings(Tag.StudyInstanceUID));
+        studyMatcher = ddr.studyMatcher(keys, recFact, ignoreCaseOfPN, matchNoValue);
         wrappedFindNextStudy();
     }
 
@@ -90,14 +93,14 @@ class StudyQueryTask extends PatientQueryTask {
             return false;
 
         if (studyRec == null)
-            studyRec = ddr.findStudyRecord(patRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            studyRec = ddr.findLowerDirectoryRecord(patRec, false, studyMatcher);
         else if (studyIUIDs.length == 1)
             studyRec = null;
         else
-            studyRec = ddr.findNextStudyRecord(studyRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            studyRec = ddr.findNextDirectoryRecord(studyRec, false, studyMatcher);
 
         while (studyRec == null && super.findNextPatient())
-            studyRec = ddr.findStudyRecord(patRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            studyRec = ddr.findLowerDirectoryRecord(patRec, false, studyMatcher);
 
         return studyRec != null;
     }
@@ -38,7 +38,9 @@
 
 package org.dcm4che3.tool.storescp;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
@@ -54,6 +56,7 @@ import org.apache.commons.cli.Options;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.ParseException;
 import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
 import org.dcm4che3.data.Attributes;
 import org.dcm4che3.data.VR;
 import org.dcm4che3.io.DicomInputStream;
@@ -150,12 +153,15 @@ public class StoreSCP {
             PDVInputStream data, File file) throws IOException  {
         LOG.info("{}: M-WRITE {}", as, file);
         file.getParentFile().mkdirs();
-        DicomOutputStream out = new DicomOutputStream(file);
+        FileOutputStream fout = new FileOutputStream(file);
         try {
+            DicomOutputStream out = new DicomOutputStream(
+                    new BufferedOutputStream(fout), UID.ExplicitVRLittleEndian);
             out.writeFileMetaInformation(fmi);
-            data.copyTo(out);
+            out.flush();
+            data.copyTo(fout.getChannel());
         } finally {
-            SafeClose.close(out);
+            SafeClose.close(fout);
         }
     }
 
@@ -252,6 +258,8 @@ public class StoreSCP {
         addStorageDirectoryOptions(opts);
         addTransferCapabilityOptions(opts);
         addRenameRetryOptions(opts);
+        opts.addOption(null, "virtual-threads", false,
+                rb.getString("virtual-threads"));
         return CLIUtils.parseComandLine(args, opts, rb, StoreSCP.class);
     }
 
@@ -329,7 +337,8 @@ public class StoreSCP {
             configureStorageDirectory(main, cl);
             main.setRenameRetries(CLIUtils.getIntOption(cl, "rename-retries", 3));
             main.setRenameRetryJitter(CLIUtils.getIntOption(cl, "rename-retry-jitter", 50));
-            ExecutorService executorService = Executors.newCachedThreadPool();
+            main.device.setVirtualThreads(cl.hasOption("virtual-threads"));
+            ExecutorService executorService = main.device.newExecutorService();
             ScheduledExecutorService scheduledExecutorService = 
                     Executors.newSingleThreadScheduledExecutor();
             main.device.setScheduledExecutor(scheduledExecutorService);
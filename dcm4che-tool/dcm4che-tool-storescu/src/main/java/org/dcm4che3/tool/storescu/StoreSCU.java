@@ -54,6 +54,7 @@ import org.dcm4che3.net.pdu.AAssociateRQ;
 import org.dcm4che3.net.pdu.PresentationContext;
 import org.dcm4che3.net.pdu.RoleSelection;
 import org.dcm4che3.tool.common.CLIUtils;
+import org.dcm4che3.tool.common.DicomFileScanner;
 import org.dcm4che3.tool.common.DicomFiles;
 import org.dcm4che3.util.SafeClose;
 import org.dcm4che3.util.StringUtils;
@@ -95,6 +96,8 @@ public class StoreSCU {
     private String tmpSuffix;
     private File tmpDir;
     private File tmpFile;
+    private int scanThreads = 1;
+    private boolean scanOrdered;
     private Association as;
 
     private long totalSize;
@@ -169,6 +172,14 @@ public class StoreSCU {
         this.tmpDir = tmpDir;
     }
 
+    public final void setScanThreads(int scanThreads) {
+        this.scanThreads = scanThreads;
+    }
+
+    public final void setScanOrdered(boolean scanOrdered) {
+        this.scanOrdered = scanOrdered;
+    }
+
     private static CommandLine parseComandLine(String[] args)
             throws ParseException {
         Options opts = new Options();
@@ -181,6 +192,7 @@ public class StoreSCU {
         CLIUtils.addCommonOptions(opts);
         addStoreTCOptions(opts);
         addTmpFileOptions(opts);
+        addScanOptions(opts);
         addRelatedSOPClassOptions(opts);
         addAttributesOption(opts);
         addUIDSuffixOption(opts);
@@ -228,6 +240,13 @@ public class StoreSCU {
                 .longOpt("tmp-file-suffix").build());
     }
 
+    private static void addScanOptions(Options opts) {
+        opts.addOption(Option.builder().hasArg().argName("no")
+                .desc(rb.getString("scan-threads"))
+                .longOpt("scan-threads").build());
+        opts.addOption(null, "scan-ordered", false, rb.getString("scan-ordered"));
+    }
+
     private static void addRelatedSOPClassOptions(Options opts) {
         opts.addOption(null, "rel-ext-neg", false, rb.getString("rel-ext-neg"));
         opts.addOption(Option.builder().hasArg().argName("file|url")
@@ -247,6 +266,7 @@ public class StoreSCU {
             ae.addConnection(conn);
             StoreSCU main = new StoreSCU(ae);
             configureTmpFile(main, cl);
+            configureScan(main, cl);
             CLIUtils.configureConnect(main.remote, main.rq, cl);
             CLIUtils.configureBind(conn, ae, cl);
             CLIUtils.configure(conn, cl);
@@ -329,6 +349,12 @@ public class StoreSCU {
         storescu.setTmpFileSuffix(cl.getOptionValue("tmp-file-suffix"));
     }
 
+    private static void configureScan(StoreSCU storescu, CommandLine cl) {
+        if (cl.hasOption("scan-threads"))
+            storescu.setScanThreads(Integer.parseInt(cl.getOptionValue("scan-threads")));
+        storescu.setScanOrdered(cl.hasOption("scan-ordered"));
+    }
+
     public static void configureRelatedSOPClass(StoreSCU storescu,
             CommandLine cl) throws IOException {
         if (cl.hasOption("rel-ext-neg")) {
@@ -385,19 +411,31 @@ public class StoreSCU {
         tmpFile.deleteOnExit();
         final BufferedWriter fileInfos = new BufferedWriter(
                 new OutputStreamWriter(new FileOutputStream(tmpFile)));
-        try {
-            DicomFiles.scan(fnames, printout, new DicomFiles.Callback() {
+        DicomFiles.Callback scb = new DicomFiles.Callback() {
 
-                @Override
-                public boolean dicomFile(File f, Attributes fmi, long dsPos,
-                        Attributes ds) throws IOException {
-                    if (!addFile(fileInfos, f, dsPos, fmi, ds))
-                        return false;
+            @Override
+            public boolean dicomFile(File f, Attributes fmi, long dsPos,
+                    Attributes ds) throws IOException {
+                if (!addFile(fileInfos, f, dsPos, fmi, ds))
+                    return false;
 
-                    filesScanned++;
-                    return true;
-                }
-            });
+                filesScanned++;
+                return true;
+            }
+        };
+        try {
+            if (scanThreads > 1) {
+                DicomFileScanner scanner = new DicomFileScanner();
+                scanner.setParallelism(scanThreads);
+                scanner.setOrdered(scanOrdered);
+                scanner.setPrintout(printout);
+                scanner.scan(fnames, scb);
+            } else {
+                DicomFiles.scan(fnames, printout, scb);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("scan interrupted");
         } finally {
             fileInfos.close();
         }
@@ -489,15 +527,9 @@ public class StoreSCU {
                     rspHandlerFactory.createDimseRSPHandler(f));
         } else {
             if (uidSuffix == null && attrs.isEmpty() && ts.equals(filets)) {
-                FileInputStream in = new FileInputStream(f);
-                try {
-                    in.skip(fmiEndPos);
-                    InputStreamDataWriter data = new InputStreamDataWriter(in);
-                    as.cstore(cuid, iuid, priority, data, ts,
-                            rspHandlerFactory.createDimseRSPHandler(f));
-                } finally {
-                    SafeClose.close(in);
-                }
+                FileDataWriter data = new FileDataWriter(f, fmiEndPos, f.length() - fmiEndPos);
+                as.cstore(cuid, iuid, priority, data, ts,
+                        rspHandlerFactory.createDimseRSPHandler(f));
             } else {
                 DicomInputStream in = new DicomInputStream(f);
                 try {